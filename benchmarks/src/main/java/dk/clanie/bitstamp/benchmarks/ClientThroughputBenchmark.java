@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.benchmarks;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import dk.clanie.bitstamp.BitstampAsyncClient;
+import dk.clanie.bitstamp.BitstampClient;
+import dk.clanie.bitstamp.BitstampPairResult;
+import dk.clanie.bitstamp.dto.BitstampCurrencyCode;
+import dk.clanie.bitstamp.dto.BitstampCurrencyPair;
+import dk.clanie.bitstamp.dto.BitstampCurrencyType;
+import dk.clanie.bitstamp.dto.BitstampTicker;
+
+/**
+ * End-to-end throughput of fetching 100 tickers from a local stub server with 5 ms latency,
+ * using the blocking client sequentially, the blocking client's virtual-thread fan-out,
+ * and the asynchronous client.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClientThroughputBenchmark {
+
+	private static final int PAIRS = 100;
+	private static final Duration LATENCY = Duration.ofMillis(5);
+
+	private StubBitstampServer server;
+	private ConfigurableApplicationContext context;
+	private BitstampClient client;
+	private BitstampAsyncClient asyncClient;
+	private List<BitstampCurrencyPair> pairs;
+
+
+	@SpringBootConfiguration
+	@EnableAutoConfiguration
+	static class BenchmarkApplication {}
+
+
+	@Setup
+	public void setUp() throws IOException {
+		server = new StubBitstampServer(LATENCY);
+		context = new SpringApplicationBuilder(BenchmarkApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties("bitstamp.url=" + server.getUrl(), "bitstamp.fan-out.max-concurrency=" + PAIRS)
+				.run();
+		client = context.getBean(BitstampClient.class);
+		asyncClient = context.getBean(BitstampAsyncClient.class);
+		pairs = new ArrayList<>();
+		for (BitstampCurrencyCode base : BitstampCurrencyCode.values()) {
+			if (base.getCurrencyType() == BitstampCurrencyType.CRYPTO && base != BitstampCurrencyCode.USD_PERP) {
+				pairs.add(BitstampCurrencyPair.of(base, BitstampCurrencyCode.USD));
+			}
+			if (pairs.size() == PAIRS) break;
+		}
+	}
+
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+		server.close();
+	}
+
+
+	@Benchmark
+	public List<BitstampTicker> blockingSequential() {
+		List<BitstampTicker> tickers = new ArrayList<>(PAIRS);
+		for (BitstampCurrencyPair pair : pairs) {
+			tickers.add(client.getTicker(pair.toUrlParameter()));
+		}
+		return tickers;
+	}
+
+
+	@Benchmark
+	public Map<BitstampCurrencyPair, BitstampPairResult<BitstampTicker>> blockingFanOut() {
+		return client.getTickers(pairs);
+	}
+
+
+	@Benchmark
+	public List<BitstampTicker> async() {
+		List<CompletableFuture<BitstampTicker>> futures = new ArrayList<>(PAIRS);
+		for (BitstampCurrencyPair pair : pairs) {
+			futures.add(asyncClient.getTicker(pair.toUrlParameter()));
+		}
+		return futures.stream().map(CompletableFuture::join).toList();
+	}
+
+
+}
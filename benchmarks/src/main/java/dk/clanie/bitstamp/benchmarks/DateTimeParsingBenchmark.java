@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.benchmarks;
+
+import static java.time.ZoneOffset.UTC;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dk.clanie.bitstamp.jackson.BitstampDateTimeDeserializer;
+
+/**
+ * Parsing of Bitstamp datetime strings, compared with the original DateTimeFormatter based parsing.
+ * <p/>
+ * Each operation parses 1,000,000 timestamps, two thirds of them with microseconds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateTimeParsingBenchmark {
+
+	private static final int COUNT = 1_000_000;
+
+	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss[.SSSSSS]");
+
+	private String[] datetimes;
+
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(1);
+		long start = Instant.parse("2020-01-01T00:00:00Z").getEpochSecond();
+		datetimes = new String[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			LocalDateTime dateTime = LocalDateTime.ofEpochSecond(start + random.nextInt(200_000_000), 0, UTC);
+			String datetime = String.format(Locale.ROOT, "%tF %<tT", dateTime);
+			datetimes[i] = i % 3 == 0 ? datetime : datetime + String.format(Locale.ROOT, ".%06d", random.nextInt(1_000_000));
+		}
+	}
+
+
+	@Benchmark
+	public void formatter(Blackhole blackhole) {
+		for (String datetime : datetimes) {
+			blackhole.consume(LocalDateTime.parse(datetime.trim(), FORMATTER).toInstant(UTC));
+		}
+	}
+
+
+	@Benchmark
+	public void fixedLayout(Blackhole blackhole) {
+		for (String datetime : datetimes) {
+			blackhole.consume(BitstampDateTimeDeserializer.parse(datetime));
+		}
+	}
+
+
+}
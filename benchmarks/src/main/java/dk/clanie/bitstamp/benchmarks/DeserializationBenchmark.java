@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dk.clanie.bitstamp.dto.BitstampOhlcData;
+import dk.clanie.bitstamp.dto.BitstampOrderBook;
+import dk.clanie.bitstamp.dto.BitstampPackedOrderBook;
+import dk.clanie.bitstamp.dto.BitstampTickerListEntry;
+import dk.clanie.bitstamp.dto.BitstampUserTransaction;
+import dk.clanie.bitstamp.dto.CandleSeries;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Deserialization of the larger Bitstamp responses.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeserializationBenchmark {
+
+	private byte[] tickerList;
+	private byte[] orderBook;
+	private byte[] ohlc;
+	private byte[] userTransactions;
+
+	private ObjectReader tickerListReader;
+	private ObjectReader orderBookReader;
+	private ObjectReader packedOrderBookReader;
+	private ObjectReader ohlcReader;
+	private ObjectReader ohlcSeriesReader;
+	private ObjectReader userTransactionsReader;
+	private ObjectReader legacyUserTransactionsReader;
+
+
+	@Setup
+	public void setUp() {
+		tickerList = Payloads.tickerList();
+		orderBook = Payloads.orderBook(5000);
+		ohlc = Payloads.ohlc(1000);
+		userTransactions = Payloads.userTransactions(1000);
+
+		JsonMapper jsonMapper = new JsonMapper();
+		tickerListReader = jsonMapper.readerFor(new TypeReference<List<BitstampTickerListEntry>>() {});
+		orderBookReader = jsonMapper.readerFor(BitstampOrderBook.class);
+		packedOrderBookReader = jsonMapper.readerFor(BitstampPackedOrderBook.class);
+		ohlcReader = jsonMapper.readerFor(BitstampOhlcData.class);
+		ohlcSeriesReader = jsonMapper.readerFor(CandleSeries.class);
+		userTransactionsReader = jsonMapper.readerFor(new TypeReference<List<BitstampUserTransaction>>() {});
+		legacyUserTransactionsReader = jsonMapper.readerFor(new TypeReference<List<LegacyUserTransaction>>() {});
+	}
+
+
+	@Benchmark
+	public List<BitstampTickerListEntry> tickerList() {
+		return tickerListReader.readValue(tickerList);
+	}
+
+
+	@Benchmark
+	public BitstampOrderBook orderBook() {
+		return orderBookReader.readValue(orderBook);
+	}
+
+
+	@Benchmark
+	public BitstampPackedOrderBook packedOrderBook() {
+		return packedOrderBookReader.readValue(orderBook);
+	}
+
+
+	@Benchmark
+	public BitstampOhlcData ohlc() {
+		return ohlcReader.readValue(ohlc);
+	}
+
+
+	@Benchmark
+	public CandleSeries ohlcSeries() {
+		return ohlcSeriesReader.readValue(ohlc);
+	}
+
+
+	@Benchmark
+	public List<BitstampUserTransaction> userTransactions() {
+		return userTransactionsReader.readValue(userTransactions);
+	}
+
+
+	@Benchmark
+	public List<LegacyUserTransaction> legacyUserTransactions() {
+		return legacyUserTransactionsReader.readValue(userTransactions);
+	}
+
+
+}
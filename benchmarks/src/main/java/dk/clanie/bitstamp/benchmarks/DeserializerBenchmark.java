@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.benchmarks;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dk.clanie.bitstamp.dto.BitstampCurrencyPair;
+import dk.clanie.bitstamp.dto.BitstampUserTransaction;
+import dk.clanie.bitstamp.jackson.BitstampDateTimeDeserializer;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleModule;
+
+/**
+ * The custom deserializers and the dynamic property handling of user transactions, in isolation.
+ * <p/>
+ * Each operation handles 1000 values.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeserializerBenchmark {
+
+	private static final int COUNT = 1000;
+
+	private static final String[] PAIRS = { "BTC/USD", "ETH/EUR", "XRP/USD", "1INCH/EUR", "SOL/USDC", "USD-PERP/USD", "LINK/GBP", "DOGE/USD" };
+
+	private static final String[][] PROPERTIES = {
+			{ "usd", "-1234.56" }, { "btc", "0.01310000" }, { "eur", "0.0" }, { "btc_usd", "94201.00" }, { "fee", "3.70" }
+	};
+
+	private byte[] pairs;
+	private byte[] datetimes;
+	private ObjectReader pairReader;
+	private ObjectReader datetimeReader;
+
+
+	@Setup
+	public void setUp() {
+		StringBuilder pairsJson = new StringBuilder("[");
+		StringBuilder datetimesJson = new StringBuilder("[");
+		for (int i = 0; i < COUNT; i++) {
+			if (i > 0) {
+				pairsJson.append(',');
+				datetimesJson.append(',');
+			}
+			pairsJson.append('"').append(PAIRS[i % PAIRS.length]).append('"');
+			datetimesJson.append("\"2025-01-15 13:").append(10 + i % 50).append(':').append(10 + i % 49).append('.').append(100000 + i).append('"');
+		}
+		pairs = pairsJson.append(']').toString().getBytes();
+		datetimes = datetimesJson.append(']').toString().getBytes();
+
+		pairReader = new JsonMapper().readerFor(new TypeReference<List<BitstampCurrencyPair>>() {});
+		datetimeReader = JsonMapper.builder()
+				.addModule(new SimpleModule().addDeserializer(Instant.class, new BitstampDateTimeDeserializer()))
+				.build()
+				.readerFor(new TypeReference<List<Instant>>() {});
+	}
+
+
+	@Benchmark
+	public List<BitstampCurrencyPair> currencyPairDeserializer() {
+		return pairReader.readValue(pairs);
+	}
+
+
+	@Benchmark
+	public List<Instant> dateTimeDeserializer() {
+		return datetimeReader.readValue(datetimes);
+	}
+
+
+	@Benchmark
+	public void userTransactionSetCurrencyAmount(Blackhole blackhole) {
+		for (int i = 0; i < COUNT; i++) {
+			BitstampUserTransaction transaction = new BitstampUserTransaction(i, null, null, null, null, null);
+			for (String[] property : PROPERTIES) {
+				transaction.setCurrencyAmount(property[0], property[1]);
+			}
+			blackhole.consume(transaction);
+		}
+	}
+
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import dk.clanie.bitstamp.BitstampAuthHelper.AuthHeaders;
+
+/**
+ * Copy of the original request signing implementation, kept as a baseline for {@link SigningBenchmark}.
+ * <p/>
+ * It builds the message as a String, looks up and initializes a new Mac for every request,
+ * and hex encodes the signature using String.format.
+ */
+class LegacyAuthHelper {
+
+	private static final String HMAC_SHA256 = "HmacSHA256";
+
+
+	static AuthHeaders generateAuthHeaders(
+			String apiKey,
+			String apiSecret,
+			String httpMethod,
+			String host,
+			String path,
+			String queryParams,
+			String contentType,
+			String payload) {
+		String nonce = UUID.randomUUID().toString();
+		long timestamp = System.currentTimeMillis();
+		String version = "v2";
+
+		StringBuilder message = new StringBuilder();
+		message.append("BITSTAMP ").append(apiKey);
+		message.append(httpMethod);
+		message.append(host);
+		message.append(path);
+		message.append(queryParams);
+		message.append(contentType);
+		message.append(nonce);
+		message.append(timestamp);
+		message.append(version);
+		message.append(payload);
+
+		String signature = generateSignature(message.toString(), apiSecret);
+
+		return new AuthHeaders("BITSTAMP " + apiKey, signature, nonce, String.valueOf(timestamp), version);
+	}
+
+
+	private static String generateSignature(String message, String secret) {
+		try {
+			Mac mac = Mac.getInstance(HMAC_SHA256);
+			SecretKeySpec secretKeySpec = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_SHA256);
+			mac.init(secretKeySpec);
+			byte[] hash = mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
+			return bytesToHex(hash);
+		} catch (NoSuchAlgorithmException | InvalidKeyException e) {
+			throw new RuntimeException("Failed to generate signature", e);
+		}
+	}
+
+
+	private static String bytesToHex(byte[] bytes) {
+		StringBuilder result = new StringBuilder();
+		for (byte b : bytes) {
+			result.append(String.format("%02x", b));
+		}
+		return result.toString();
+	}
+
+
+}
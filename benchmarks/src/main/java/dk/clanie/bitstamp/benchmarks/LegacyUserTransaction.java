@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.benchmarks;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import dk.clanie.bitstamp.dto.BitstampCurrencyCode;
+import dk.clanie.bitstamp.dto.BitstampCurrencyPair;
+import dk.clanie.bitstamp.dto.BitstampExchangeRate;
+import dk.clanie.bitstamp.dto.BitstampUserTransactionType;
+import dk.clanie.bitstamp.jackson.BitstampDateTimeDeserializer;
+import tools.jackson.databind.annotation.JsonDeserialize;
+
+/**
+ * Copy of the original user transaction mapping, kept as a baseline for {@link DeserializationBenchmark}.
+ * <p/>
+ * Every row allocates two HashMaps, and every dynamic property goes through {@link JsonAnySetter},
+ * with exceptions deciding whether it is an amount, an exchange rate or something else.
+ */
+class LegacyUserTransaction {
+
+	private static final Logger log = LoggerFactory.getLogger(LegacyUserTransaction.class);
+
+	final long id;
+	final Instant datetime;
+	final BitstampUserTransactionType type;
+	final Map<BitstampCurrencyCode, Double> currencyAmounts = new HashMap<>();
+	BitstampExchangeRate exchangeRate;
+	final Double fee;
+	final Long orderId;
+	final String market;
+	final Map<String, Object> additionalProperties = new HashMap<>();
+
+
+	@JsonCreator
+	LegacyUserTransaction(
+			@JsonProperty("id") long id,
+			@JsonProperty("datetime") @JsonDeserialize(using = BitstampDateTimeDeserializer.class) Instant datetime,
+			@JsonProperty("type") BitstampUserTransactionType type,
+			@JsonProperty("fee") Double fee,
+			@JsonProperty("order_id") Long orderId,
+			@JsonProperty("market") String market) {
+		this.id = id;
+		this.datetime = datetime;
+		this.type = type;
+		this.fee = fee;
+		this.orderId = orderId;
+		this.market = market;
+	}
+
+
+	@JsonAnySetter
+	void setCurrencyAmount(String key, Object value) {
+		if (value == null) {
+			return;
+		}
+		Double numericValue;
+		try {
+			if (value instanceof Number number) {
+				numericValue = number.doubleValue();
+			} else if (value instanceof String string) {
+				numericValue = Double.parseDouble(string);
+			} else {
+				additionalProperties.put(key, value);
+				return;
+			}
+		} catch (NumberFormatException e) {
+			additionalProperties.put(key, value);
+			return;
+		}
+		if (key.contains("_")) {
+			try {
+				BitstampCurrencyPair currencyPair = BitstampCurrencyPair.fromUnderscoreFormat(key);
+				this.exchangeRate = new BitstampExchangeRate(currencyPair, numericValue);
+				log.trace("Captured exchange rate: {} = {}", currencyPair, numericValue);
+				return;
+			} catch (IllegalArgumentException e) {
+				additionalProperties.put(key, value);
+				return;
+			}
+		}
+		try {
+			currencyAmounts.put(BitstampCurrencyCode.fromString(key), numericValue);
+		} catch (IllegalArgumentException e) {
+			log.debug("Ignoring unknown currency code or other property '{}'", key);
+			additionalProperties.put(key, value);
+		}
+	}
+
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+import dk.clanie.bitstamp.dto.BitstampCurrencyCode;
+import dk.clanie.bitstamp.dto.BitstampCurrencyType;
+
+/**
+ * Generates realistic Bitstamp response payloads for the benchmarks.
+ * <p/>
+ * The payloads are generated from a fixed seed, so every run benchmarks exactly the same input.
+ */
+public final class Payloads {
+
+	private static final DateTimeFormatter DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS").withZone(ZoneOffset.UTC);
+	private static final long START_SECONDS = 1_735_689_600L; // 2025-01-01T00:00:00Z
+
+	private static final String[] QUOTES = { "usd", "eur", "gbp", "usdc" };
+
+
+	private Payloads() {}
+
+
+	/**
+	 * Response of /api/v2/ticker/ with all combinations of the known crypto currencies and
+	 * a few quote currencies (more than 400 entries).
+	 */
+	public static byte[] tickerList() {
+		Random random = new Random(1);
+		StringBuilder json = new StringBuilder("[");
+		boolean first = true;
+		for (BitstampCurrencyCode base : BitstampCurrencyCode.values()) {
+			if (base.getCurrencyType() != BitstampCurrencyType.CRYPTO) continue;
+			for (String quote : QUOTES) {
+				if (base.getCode().equalsIgnoreCase(quote)) continue;
+				double last = 0.01 + random.nextDouble() * 50000;
+				if (!first) json.append(',');
+				first = false;
+				json.append("{\"timestamp\":\"").append(START_SECONDS).append('"')
+						.append(",\"open\":\"").append(price(last * 0.99)).append('"')
+						.append(",\"high\":\"").append(price(last * 1.02)).append('"')
+						.append(",\"low\":\"").append(price(last * 0.97)).append('"')
+						.append(",\"last\":\"").append(price(last)).append('"')
+						.append(",\"volume\":\"").append(amount(random.nextDouble() * 10000)).append('"')
+						.append(",\"vwap\":\"").append(price(last * 1.001)).append('"')
+						.append(",\"bid\":\"").append(price(last * 0.9995)).append('"')
+						.append(",\"ask\":\"").append(price(last * 1.0005)).append('"')
+						.append(",\"side\":\"").append(random.nextInt(2)).append('"')
+						.append(",\"open_24\":\"").append(price(last * 0.98)).append('"')
+						.append(",\"percent_change_24\":\"").append(String.format(Locale.ROOT, "%.2f", random.nextGaussian() * 3)).append('"')
+						.append(",\"market_type\":\"SPOT\"")
+						.append(",\"pair\":\"").append(base.getCode()).append('/').append(quote.toUpperCase(Locale.ROOT)).append('"')
+						.append(",\"market\":\"").append(base.getCode()).append(quote.toUpperCase(Locale.ROOT)).append('"')
+						.append('}');
+			}
+		}
+		return json.append(']').toString().getBytes(UTF_8);
+	}
+
+
+	/**
+	 * Response of /api/v2/order_book/{pair}/ with the given number of levels on each side.
+	 */
+	public static byte[] orderBook(int depth) {
+		Random random = new Random(2);
+		StringBuilder json = new StringBuilder()
+				.append("{\"timestamp\":\"").append(START_SECONDS).append('"')
+				.append(",\"microtimestamp\":\"").append(START_SECONDS * 1_000_000 + 123_456).append('"')
+				.append(",\"bids\":[");
+		double mid = 94_201;
+		for (int i = 0; i < depth; i++) {
+			if (i > 0) json.append(',');
+			json.append("[\"").append(price(mid - 0.5 - i)).append("\",\"").append(amount(random.nextDouble() * 3)).append("\"]");
+		}
+		json.append("],\"asks\":[");
+		for (int i = 0; i < depth; i++) {
+			if (i > 0) json.append(',');
+			json.append("[\"").append(price(mid + 0.5 + i)).append("\",\"").append(amount(random.nextDouble() * 3)).append("\"]");
+		}
+		return json.append("]}").toString().getBytes(UTF_8);
+	}
+
+
+	/**
+	 * Response of /api/v2/ohlc/{pair}/ with the given number of one minute candles.
+	 */
+	public static byte[] ohlc(int candles) {
+		Random random = new Random(3);
+		StringBuilder json = new StringBuilder("{\"pair\":\"BTC/USD\",\"ohlc\":[");
+		double close = 94_201;
+		for (int i = 0; i < candles; i++) {
+			double open = close;
+			close = open + random.nextGaussian() * 20;
+			double high = Math.max(open, close) + random.nextDouble() * 10;
+			double low = Math.min(open, close) - random.nextDouble() * 10;
+			if (i > 0) json.append(',');
+			json.append("{\"timestamp\":\"").append(START_SECONDS + i * 60L).append('"')
+					.append(",\"open\":\"").append(price(open)).append('"')
+					.append(",\"high\":\"").append(price(high)).append('"')
+					.append(",\"low\":\"").append(price(low)).append('"')
+					.append(",\"close\":\"").append(price(close)).append('"')
+					.append(",\"volume\":\"").append(amount(random.nextDouble() * 25)).append('"')
+					.append('}');
+		}
+		return json.append("]}").toString().getBytes(UTF_8);
+	}
+
+
+	/**
+	 * Response of /api/v2/user_transactions/ with the given number of transactions,
+	 * mostly trades with an exchange rate, plus some deposits and withdrawals.
+	 */
+	public static byte[] userTransactions(int count) {
+		Random random = new Random(4);
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) json.append(',');
+			Instant datetime = Instant.ofEpochSecond(START_SECONDS + i * 37L, random.nextInt(1_000_000) * 1000L);
+			json.append("{\"id\":").append(300_000_000L + i)
+					.append(",\"datetime\":\"").append(DATETIME.format(datetime)).append('"');
+			int kind = random.nextInt(10);
+			if (kind < 8) {
+				double btc = random.nextDouble() * (random.nextBoolean() ? 1 : -1);
+				double rate = 94_201 + random.nextGaussian() * 500;
+				json.append(",\"type\":2")
+						.append(",\"usd\":\"").append(price(-btc * rate)).append('"')
+						.append(",\"eur\":0.0")
+						.append(",\"btc\":\"").append(amount(btc)).append('"')
+						.append(",\"btc_usd\":").append(price(rate))
+						.append(",\"fee\":\"").append(price(Math.abs(btc * rate) * 0.003)).append('"')
+						.append(",\"order_id\":").append(1_800_000_000_000_000L + i)
+						.append(",\"market\":\"BTC/USD\"");
+			} else {
+				json.append(",\"type\":").append(kind - 8)
+						.append(",\"usd\":\"").append(price(random.nextDouble() * (kind == 8 ? 10000 : -10000))).append('"')
+						.append(",\"btc\":0.0")
+						.append(",\"fee\":\"0.00\"");
+			}
+			json.append('}');
+		}
+		return json.append(']').toString().getBytes(UTF_8);
+	}
+
+
+	private static String price(double value) {
+		return String.format(Locale.ROOT, "%.2f", value);
+	}
+
+
+	private static String amount(double value) {
+		return String.format(Locale.ROOT, "%.8f", value);
+	}
+
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dk.clanie.bitstamp.BitstampAuthHelper;
+import dk.clanie.bitstamp.BitstampAuthHelper.AuthHeaders;
+import dk.clanie.bitstamp.BitstampCredentials;
+import dk.clanie.bitstamp.BitstampSigner;
+
+/**
+ * Generation of authentication headers for private requests.
+ * <p/>
+ * Compares the original implementation ({@link LegacyAuthHelper}), the static helper which prepares
+ * the key for every request, and a {@link BitstampSigner} reused across requests.
+ * Run with {@code -prof gc} to compare allocation rates as well.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SigningBenchmark {
+
+	private static final String API_KEY = "abcdefghijklmnopqrstuvwxyz012345";
+	private static final String API_SECRET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ678901";
+	private static final String HOST = "www.bitstamp.net";
+	private static final String PATH = "/api/v2/user_transactions/btcusd/";
+	private static final String CONTENT_TYPE = "application/x-www-form-urlencoded";
+	private static final String PAYLOAD = "offset=0&limit=1000&sort=asc&since_id=300000000";
+
+	private final BitstampSigner signer = new BitstampCredentials(API_KEY, API_SECRET).getSigner();
+
+
+	@Benchmark
+	public AuthHeaders legacy() {
+		return LegacyAuthHelper.generateAuthHeaders(API_KEY, API_SECRET, "POST", HOST, PATH, "", CONTENT_TYPE, PAYLOAD);
+	}
+
+
+	@Benchmark
+	public AuthHeaders generateAuthHeaders() {
+		return BitstampAuthHelper.generateAuthHeaders(API_KEY, API_SECRET, "POST", HOST, PATH, "", CONTENT_TYPE, PAYLOAD);
+	}
+
+
+	@Benchmark
+	public AuthHeaders signer() {
+		return signer.sign("POST", HOST, PATH, "", CONTENT_TYPE, PAYLOAD);
+	}
+
+
+}
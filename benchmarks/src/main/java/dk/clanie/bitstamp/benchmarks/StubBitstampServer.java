@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Minimal local stand-in for the public Bitstamp ticker endpoint, answering after a fixed latency.
+ * <p/>
+ * Requests are handled on virtual threads, so the server itself never limits concurrency.
+ */
+public class StubBitstampServer implements AutoCloseable {
+
+	private static final byte[] TICKER = """
+			{"high": "96000.00", "last": "94201.00", "timestamp": "1735689600", "bid": "94200.50",
+			 "vwap": "94500.12", "volume": "1234.56789012", "low": "93000.00", "ask": "94201.50",
+			 "open": "95000.00", "open_24": "94800.00", "percent_change_24": "-0.63", "side": "0",
+			 "market_type": "SPOT"}
+			""".getBytes(UTF_8);
+
+	private final HttpServer server;
+	private final Duration latency;
+
+
+	public StubBitstampServer(Duration latency) throws IOException {
+		this.latency = latency;
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.createContext("/api/v2/ticker/", this::ticker);
+		server.start();
+	}
+
+
+	public String getUrl() {
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+
+
+	private void ticker(HttpExchange exchange) throws IOException {
+		try {
+			Thread.sleep(latency);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, TICKER.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(TICKER);
+		}
+	}
+
+
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.benchmarks;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import dk.clanie.bitstamp.BitstampClient;
+import dk.clanie.bitstamp.BitstampCredentials;
+import dk.clanie.bitstamp.BitstampMockServer;
+import dk.clanie.bitstamp.dto.BitstampAccountBalance;
+import dk.clanie.bitstamp.dto.BitstampOrderBook;
+import dk.clanie.bitstamp.dto.BitstampTicker;
+
+/**
+ * Latency distribution of single requests against {@link BitstampMockServer} with 2 ms latency
+ * and up to 3 ms jitter, from 8 concurrent threads. Sample time mode reports the percentiles,
+ * so p99 and p99.9 can be compared between runs next to the mean.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class TailLatencyBenchmark {
+
+	private static final Duration LATENCY = Duration.ofMillis(2);
+	private static final Duration JITTER = Duration.ofMillis(3);
+
+	private BitstampMockServer server;
+	private ConfigurableApplicationContext context;
+	private BitstampClient client;
+	private BitstampCredentials credentials;
+
+
+	@SpringBootConfiguration
+	@EnableAutoConfiguration
+	static class BenchmarkApplication {}
+
+
+	@Setup
+	public void setUp() throws IOException {
+		server = new BitstampMockServer();
+		server.addCredentials("benchmark-key", "benchmark-secret");
+		server.setLatency(LATENCY, JITTER);
+		context = new SpringApplicationBuilder(BenchmarkApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties("bitstamp.url=" + server.getUrl())
+				.run();
+		client = context.getBean(BitstampClient.class);
+		credentials = new BitstampCredentials("benchmark-key", "benchmark-secret");
+	}
+
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+		server.close();
+	}
+
+
+	@Benchmark
+	public BitstampTicker ticker() {
+		return client.getTicker("btcusd");
+	}
+
+
+	@Benchmark
+	public BitstampOrderBook orderBook() {
+		return client.getOrderBook("btcusd");
+	}
+
+
+	@Benchmark
+	public List<BitstampAccountBalance> accountBalances() {
+		return client.getAccountBalances(credentials);
+	}
+
+
+}
@@ -0,0 +1,509 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import dk.clanie.bitstamp.dto.BitstampAccountBalance;
+import dk.clanie.bitstamp.dto.BitstampCurrency;
+import dk.clanie.bitstamp.dto.BitstampCurrencyCode;
+import dk.clanie.bitstamp.dto.BitstampOhlcData;
+import dk.clanie.bitstamp.dto.BitstampOrderBook;
+import dk.clanie.bitstamp.dto.BitstampTicker;
+import dk.clanie.bitstamp.dto.BitstampTickerListEntry;
+import dk.clanie.bitstamp.dto.BitstampTradingPair;
+import dk.clanie.bitstamp.dto.BitstampTransaction;
+import dk.clanie.bitstamp.dto.BitstampUserTransaction;
+import dk.clanie.bitstamp.dto.CandleSeries;
+import dk.clanie.bitstamp.exception.UnknownCurrencyCodeException;
+import dk.clanie.bitstamp.jackson.BitstampCurrencyPairDeserializer;
+import dk.clanie.core.util.SortDirection;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Non-blocking variant of {@link BitstampClient}.
+ * <p/>
+ * Offers the same endpoints as {@link BitstampClient}, but every method returns immediately
+ * with a {@link CompletableFuture} which is completed when the response has been received
+ * and deserialized. Requests are sent using the JDK {@link HttpClient}, so no thread is
+ * blocked while waiting for Bitstamp to respond.
+ * <p/>
+ * Failed requests (non 2xx status) complete exceptionally with a {@link RestClientResponseException},
+ * just like the blocking client would throw.
+ * <p/>
+ * Responses are deserialized with the {@link JsonMapper} given to the constructor. When auto-configured,
+ * that is the application's {@link JsonMapper} bean, if there is one.
+ */
+@Slf4j
+public class BitstampAsyncClient {
+
+	private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+	private static final Executor VIRTUAL_THREADS = task -> Thread.ofVirtual().name("bitstamp-rate-limit").start(task);
+
+	@Value("${bitstamp.url:https://www.bitstamp.net}")
+	private String baseUrl;
+
+	@Value("${bitstamp.wiretap:false}")
+	private boolean wiretap;
+
+	private final JsonMapper jsonMapper;
+
+	private final ObjectReader tickerListReader;
+
+	private HttpClient httpClient;
+
+	private String hostname;
+
+	private BitstampRateLimiter rateLimiter = BitstampRateLimiter.UNLIMITED;
+
+
+	/**
+	 * Creates a client deserializing responses with a default {@link JsonMapper}.
+	 */
+	public BitstampAsyncClient() {
+		this(new JsonMapper());
+	}
+
+
+	/**
+	 * Creates a client deserializing responses with the given {@link JsonMapper}.
+	 * 
+	 * @param jsonMapper the JSON mapper
+	 */
+	public BitstampAsyncClient(JsonMapper jsonMapper) {
+		this.jsonMapper = jsonMapper;
+		this.tickerListReader = jsonMapper.readerFor(new TypeReference<List<BitstampTickerListEntry>>() {});
+	}
+
+
+	@PostConstruct
+	public void init() {
+		httpClient = HttpClient.newBuilder()
+				.connectTimeout(CONNECT_TIMEOUT)
+				.followRedirects(HttpClient.Redirect.NORMAL)
+				.build();
+		// Extract hostname from baseUrl (remove protocol)
+		hostname = baseUrl.replaceAll("^https?://", "");
+	}
+
+
+	/**
+	 * Sets the rate limiter consulted before each request.
+	 * <p/>
+	 * Requests are not limited unless a rate limiter is set. When auto-configured,
+	 * the client uses the {@link BitstampRateLimiter} bean, if there is one.
+	 * Requests waiting for the rate limiter do so on virtual threads.
+	 * 
+	 * @param rateLimiter the rate limiter
+	 */
+	public void setRateLimiter(BitstampRateLimiter rateLimiter) {
+		this.rateLimiter = rateLimiter;
+	}
+
+
+	/**
+	 * Gets all available currencies.
+	 *
+	 * @return future list of currencies
+	 * @see BitstampClient#getCurrencies()
+	 */
+	public CompletableFuture<List<BitstampCurrency>> getCurrencies() {
+		return get(uri("/api/v2/currencies/"), new TypeReference<List<BitstampCurrency>>() {});
+	}
+
+
+	/**
+	 * Gets ticker data for all currency pairs.
+	 * <p/>
+	 * The future completes exceptionally with {@link UnknownCurrencyCodeException}
+	 * if the response contains unknown currency codes.
+	 *
+	 * @return future list of ticker data for all pairs
+	 * @see BitstampClient#listTickers()
+	 */
+	public CompletableFuture<List<BitstampTickerListEntry>> listTickers() {
+		return send(null, () -> getRequest(uri("/api/v2/ticker/")), body -> BitstampCurrencyPairDeserializer.readValue(tickerListReader, body));
+	}
+
+
+	/**
+	 * Gets ticker data for a specific currency pair.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @return future ticker data
+	 * @see BitstampClient#getTicker(String)
+	 */
+	public CompletableFuture<BitstampTicker> getTicker(String currencyPair) {
+		return get(uri("/api/v2/ticker/{currencyPair}/", currencyPair), BitstampTicker.class);
+	}
+
+
+	/**
+	 * Gets hourly ticker data for a specific currency pair.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @return future ticker data
+	 * @see BitstampClient#getHourlyTicker(String)
+	 */
+	public CompletableFuture<BitstampTicker> getHourlyTicker(String currencyPair) {
+		return get(uri("/api/v2/ticker_hour/{currencyPair}/", currencyPair), BitstampTicker.class);
+	}
+
+
+	/**
+	 * Gets order book for a specific currency pair.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @return future order book data
+	 * @see BitstampClient#getOrderBook(String)
+	 */
+	public CompletableFuture<BitstampOrderBook> getOrderBook(String currencyPair) {
+		return get(uri("/api/v2/order_book/{currencyPair}/", currencyPair), BitstampOrderBook.class);
+	}
+
+
+	/**
+	 * Gets recent transactions for a specific currency pair.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @param time time frame: "minute", "hour", or "day"
+	 * @return future list of transactions
+	 * @see BitstampClient#getTransactions(String, String)
+	 */
+	public CompletableFuture<List<BitstampTransaction>> getTransactions(String currencyPair, String time) {
+		URI uri = uriBuilder()
+				.path("/api/v2/transactions/{currencyPair}/")
+				.queryParam("time", time)
+				.build(currencyPair);
+		return get(uri,
+				new TypeReference<List<BitstampTransaction>>() {});
+	}
+
+
+	/**
+	 * Gets recent transactions for a specific currency pair.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @return future list of transactions
+	 * @see BitstampClient#getTransactions(String)
+	 */
+	public CompletableFuture<List<BitstampTransaction>> getTransactions(String currencyPair) {
+		return get(uri("/api/v2/transactions/{currencyPair}/", currencyPair),
+				new TypeReference<List<BitstampTransaction>>() {});
+	}
+
+
+	/**
+	 * Gets all trading pairs info.
+	 *
+	 * @return future list of trading pairs
+	 * @see BitstampClient#getTradingPairsInfo()
+	 */
+	public CompletableFuture<List<BitstampTradingPair>> getTradingPairsInfo() {
+		return get(uri("/api/v2/trading-pairs-info/"), new TypeReference<List<BitstampTradingPair>>() {});
+	}
+
+
+	/**
+	 * Gets OHLC (candlestick) data for a specific currency pair.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @param step the time interval in seconds (60, 180, 300, 900, 1800, 3600, 7200, 14400, 21600, 43200, 86400, 259200)
+	 * @param limit the number of data points (default: 1000)
+	 * @param start start timestamp (Unix timestamp)
+	 * @param end end timestamp (Unix timestamp)
+	 * @return future OHLC data
+	 * @see BitstampClient#getOhlcData(String, int, Integer, Long, Long)
+	 */
+	public CompletableFuture<BitstampOhlcData> getOhlcData(String currencyPair, int step, Integer limit, Long start, Long end) {
+		return get(ohlcUri(currencyPair, step, limit, start, end), BitstampOhlcData.class);
+	}
+
+
+	/**
+	 * Gets OHLC (candlestick) data for a specific currency pair, stored in primitive arrays.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @param step the time interval in seconds (60, 180, 300, 900, 1800, 3600, 7200, 14400, 21600, 43200, 86400, 259200)
+	 * @param limit the number of data points (default: 1000)
+	 * @param start start timestamp (Unix timestamp)
+	 * @param end end timestamp (Unix timestamp)
+	 * @return future OHLC data
+	 * @see BitstampClient#getOhlcSeries(String, int, Integer, Long, Long)
+	 */
+	public CompletableFuture<CandleSeries> getOhlcSeries(String currencyPair, int step, Integer limit, Long start, Long end) {
+		return get(ohlcUri(currencyPair, step, limit, start, end), CandleSeries.class);
+	}
+
+
+	/**
+	 * Gets OHLC (candlestick) data for a specific currency pair with default settings.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @param step the time interval in seconds
+	 * @return future OHLC data
+	 * @see BitstampClient#getOhlcData(String, int)
+	 */
+	public CompletableFuture<BitstampOhlcData> getOhlcData(String currencyPair, int step) {
+		return getOhlcData(currencyPair, step, null, null, null);
+	}
+
+
+	/**
+	 * Gets user transactions (private API endpoint).
+	 *
+	 * @param credentials the Bitstamp API credentials
+	 * @param currencyPair the currency pair (optional, e.g., "btcusd", "ethusd")
+	 * @param offset offset for pagination (optional)
+	 * @param limit number of transactions to return (optional, default: 100, max: 1000)
+	 * @param sort sorting order (optional, default: descending)
+	 * @param sinceId return transactions since this ID (optional, forces limit=1000)
+	 * @param sinceTimestamp return transactions since this Unix timestamp in seconds (optional, max 30 days back)
+	 * @param untilTimestamp return transactions until this Unix timestamp in seconds (optional, max 30 days back)
+	 * @return future list of user transactions
+	 * @throws IllegalArgumentException if credentials is null
+	 * @see BitstampClient#getUserTransactions(BitstampCredentials, String, Integer, Integer, SortDirection, Long, Long, Long)
+	 */
+	public CompletableFuture<List<BitstampUserTransaction>> getUserTransactions(
+			BitstampCredentials credentials,
+			String currencyPair,
+			Integer offset,
+			Integer limit,
+			SortDirection sort,
+			Long sinceId,
+			Long sinceTimestamp,
+			Long untilTimestamp) {
+		if (credentials == null) {
+			throw new IllegalArgumentException("Credentials cannot be null");
+		}
+		String path = BitstampClient.userTransactionsPath(currencyPair);
+		String payload = BitstampClient.userTransactionsPayload(offset, limit, sort, sinceId, sinceTimestamp, untilTimestamp);
+		return send(credentials, () -> postRequest(credentials, path, payload),
+				body -> jsonMapper.readValue(body, new TypeReference<List<BitstampUserTransaction>>() {}));
+	}
+
+
+	/**
+	 * Gets user transactions with default parameters (private API endpoint).
+	 *
+	 * @param credentials the Bitstamp API credentials
+	 * @return future list of user transactions
+	 * @throws IllegalArgumentException if credentials is null
+	 */
+	public CompletableFuture<List<BitstampUserTransaction>> getUserTransactions(BitstampCredentials credentials) {
+		return getUserTransactions(credentials, null, null, null, null, null, null, null);
+	}
+
+
+	/**
+	 * Gets user transactions for a specific currency pair (private API endpoint).
+	 *
+	 * @param credentials the Bitstamp API credentials
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @return future list of user transactions
+	 * @throws IllegalArgumentException if credentials is null
+	 */
+	public CompletableFuture<List<BitstampUserTransaction>> getUserTransactions(BitstampCredentials credentials, String currencyPair) {
+		return getUserTransactions(credentials, currencyPair, null, null, null, null, null, null);
+	}
+
+
+	/**
+	 * Gets account balances for all currencies (private API endpoint).
+	 *
+	 * @param credentials the Bitstamp API credentials
+	 * @return future list of account balance data for all currencies
+	 * @throws IllegalArgumentException if credentials is null
+	 */
+	public CompletableFuture<List<BitstampAccountBalance>> getAccountBalances(BitstampCredentials credentials) {
+		if (credentials == null) {
+			throw new IllegalArgumentException("Credentials cannot be null");
+		}
+		return send(credentials, () -> postRequest(credentials, "/api/v2/account_balances/", ""),
+				body -> jsonMapper.readValue(body, new TypeReference<List<BitstampAccountBalance>>() {}));
+	}
+
+
+	/**
+	 * Gets account balance for a specific currency (private API endpoint).
+	 *
+	 * @param credentials the Bitstamp API credentials
+	 * @param currency the currency code
+	 * @return future account balance data for the specified currency
+	 * @throws IllegalArgumentException if credentials is null
+	 */
+	public CompletableFuture<BitstampAccountBalance> getAccountBalance(BitstampCredentials credentials, BitstampCurrencyCode currency) {
+		if (credentials == null) {
+			throw new IllegalArgumentException("Credentials cannot be null");
+		}
+		String path = "/api/v2/account_balances/" + currency.name().toLowerCase() + "/";
+		return send(credentials, () -> postRequest(credentials, path, ""),
+				body -> jsonMapper.readValue(body, BitstampAccountBalance.class));
+	}
+
+
+	private <T> CompletableFuture<T> get(URI uri, Class<T> type) {
+		return send(null, () -> getRequest(uri), body -> jsonMapper.readValue(body, type));
+	}
+
+
+	private <T> CompletableFuture<T> get(URI uri, TypeReference<T> type) {
+		return send(null, () -> getRequest(uri), body -> jsonMapper.readValue(body, type));
+	}
+
+
+	private URI ohlcUri(String currencyPair, int step, Integer limit, Long start, Long end) {
+		UriComponentsBuilder builder = uriBuilder()
+				.path("/api/v2/ohlc/{currencyPair}/")
+				.queryParam("step", step);
+		if (limit != null) builder.queryParam("limit", limit);
+		if (start != null) builder.queryParam("start", start);
+		if (end != null) builder.queryParam("end", end);
+		return builder.build(currencyPair);
+	}
+
+
+	private URI uri(String path, Object... uriVariables) {
+		return uriBuilder().path(path).build(uriVariables);
+	}
+
+
+	private UriComponentsBuilder uriBuilder() {
+		return UriComponentsBuilder.fromUriString(baseUrl);
+	}
+
+
+	private HttpRequest getRequest(URI uri) {
+		return HttpRequest.newBuilder(uri)
+				.header("Accept", "application/json")
+				.GET()
+				.build();
+	}
+
+
+	/**
+	 * Builds an authenticated POST request.
+	 * <p/>
+	 * Content-Type is only set when there is a payload (per Bitstamp API docs).
+	 */
+	private HttpRequest postRequest(BitstampCredentials credentials, String path, String payload) {
+		boolean hasPayload = !payload.isEmpty();
+		BitstampAuthHelper.AuthHeaders authHeaders = credentials.getSigner().sign(
+				"POST",
+				hostname,
+				path,
+				"",
+				hasPayload ? "application/x-www-form-urlencoded" : "",
+				payload);
+		HttpRequest.Builder builder = HttpRequest.newBuilder(uriBuilder().path(path).build().toUri())
+				.header("Accept", "application/json")
+				.header("X-Auth", authHeaders.getXAuth())
+				.header("X-Auth-Signature", authHeaders.getXAuthSignature())
+				.header("X-Auth-Nonce", authHeaders.getXAuthNonce())
+				.header("X-Auth-Timestamp", authHeaders.getXAuthTimestamp())
+				.header("X-Auth-Version", authHeaders.getXAuthVersion());
+		if (hasPayload) {
+			builder.header("Content-Type", "application/x-www-form-urlencoded")
+					.POST(BodyPublishers.ofString(payload, UTF_8));
+		} else {
+			builder.POST(BodyPublishers.noBody());
+		}
+		return builder.build();
+	}
+
+
+	/**
+	 * Sends the request and deserializes the response body using the given function.
+	 * <p/>
+	 * When a rate limiter is set, the request is built, and thereby signed, only after the rate limiter
+	 * has let it through. The waiting is done on a virtual thread, so the caller is never blocked.
+	 * Deserialization runs on the thread completing the response, which avoids an extra thread hop.
+	 */
+	private <T> CompletableFuture<T> send(
+			@Nullable BitstampCredentials credentials,
+			Supplier<HttpRequest> request,
+			Function<byte[], T> deserializer) {
+		if (rateLimiter == BitstampRateLimiter.UNLIMITED) {
+			return send(request.get(), deserializer);
+		}
+		String apiKey = credentials == null ? null : credentials.getApiKey();
+		BitstampPriority priority = BitstampPriority.current();
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				rateLimiter.acquire(apiKey, priority);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for the rate limiter", e);
+			}
+			return request.get();
+		}, VIRTUAL_THREADS).thenCompose(r -> send(r, deserializer));
+	}
+
+
+	private <T> CompletableFuture<T> send(HttpRequest request, Function<byte[], T> deserializer) {
+		if (wiretap) log.debug("Request: {} {}", request.method(), request.uri());
+		return httpClient.sendAsync(request, BodyHandlers.ofByteArray())
+				.thenApply(response -> {
+					if (wiretap) log.debug("Response: {} {}\n{}", response.statusCode(), request.uri(), new String(response.body(), UTF_8));
+					if (response.statusCode() / 100 != 2) {
+						throw responseException(response);
+					}
+					return deserializer.apply(response.body());
+				});
+	}
+
+
+	private static RestClientResponseException responseException(HttpResponse<byte[]> response) {
+		HttpHeaders headers = new HttpHeaders();
+		response.headers().map().forEach(headers::addAll);
+		return new RestClientResponseException(
+				response.statusCode() + " on " + response.request().method() + " request for \"" + response.request().uri() + "\"",
+				HttpStatusCode.valueOf(response.statusCode()),
+				"",
+				headers,
+				response.body(),
+				UTF_8);
+	}
+
+
+}
@@ -17,16 +17,6 @@
  */
 package dk.clanie.bitstamp;
 
-import static dk.clanie.core.Utils.asString;
-
-import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import java.util.UUID;
-
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-
 import lombok.Value;
 
 /**
@@ -34,8 +24,6 @@ import lombok.Value;
  */
 public class BitstampAuthHelper {
 
-	private static final String HMAC_SHA256 = "HmacSHA256";
-
 	/**
 	 * Generates authentication headers for Bitstamp API requests.
 	 * <p/>
@@ -49,6 +37,9 @@ public class BitstampAuthHelper {
 	 * The signature is created by concatenating:
 	 * BITSTAMP {apiKey}{HTTP method}{host}{path}{query parameters}{content-type}{nonce}{timestamp}{version}{payload}
 	 * and signing with HMAC-SHA256 using the API secret.
+	 * <p/>
+	 * This prepares the key for a single request. Code making many requests with the same credentials
+	 * should use {@link BitstampCredentials#getSigner()} instead.
 	 * 
 	 * @param apiKey the API key
 	 * @param apiSecret the API secret
@@ -69,60 +60,7 @@ public class BitstampAuthHelper {
 			String queryParams,
 			String contentType,
 			String payload) {
-		
-		String nonce = asString(UUID.randomUUID());
-		long timestamp = System.currentTimeMillis();
-		String version = "v2";
-		
-		// Build the message to sign
-		StringBuilder message = new StringBuilder();
-		message.append("BITSTAMP ").append(apiKey);
-		message.append(httpMethod);
-		message.append(host);
-		message.append(path);
-		message.append(queryParams);
-		message.append(contentType);
-		message.append(nonce);
-		message.append(timestamp);
-		message.append(version);
-		message.append(payload);
-		
-		// Generate HMAC-SHA256 signature
-		String signature = generateSignature(message.toString(), apiSecret);
-		
-		return new AuthHeaders(
-				"BITSTAMP " + apiKey,
-				signature,
-				nonce,
-				String.valueOf(timestamp),
-				version
-		);
-	}
-
-	/**
-	 * Generates HMAC-SHA256 signature.
-	 */
-	private static String generateSignature(String message, String secret) {
-		try {
-			Mac mac = Mac.getInstance(HMAC_SHA256);
-			SecretKeySpec secretKeySpec = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_SHA256);
-			mac.init(secretKeySpec);
-			byte[] hash = mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
-			return bytesToHex(hash);
-		} catch (NoSuchAlgorithmException | InvalidKeyException e) {
-			throw new RuntimeException("Failed to generate signature", e);
-		}
-	}
-
-	/**
-	 * Converts byte array to hex string.
-	 */
-	private static String bytesToHex(byte[] bytes) {
-		StringBuilder result = new StringBuilder();
-		for (byte b : bytes) {
-			result.append(String.format("%02x", b));
-		}
-		return result.toString();
+		return new BitstampSigner(apiKey, apiSecret).sign(httpMethod, host, path, queryParams, contentType, payload);
 	}
 
 	/**
@@ -17,24 +17,124 @@
  */
 package dk.clanie.bitstamp;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 
 import dk.clanie.web.RestClientFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
 
 /**
  * {@link EnableAutoConfiguration Auto-configuration} for clanie-bitstamp-client.
  */
-@AutoConfiguration
+@AutoConfiguration(afterName = "org.springframework.boot.micrometer.metrics.autoconfigure.CompositeMeterRegistryAutoConfiguration")
 public class BitstampAutoConfiguration {
 
 
+	@Bean
+	@ConditionalOnMissingBean(BitstampRateLimiter.class)
+	@ConditionalOnProperty(name = "bitstamp.rate-limit.enabled", matchIfMissing = true)
+	TokenBucketRateLimiter bitstampRateLimiter(
+			@Value("${bitstamp.rate-limit.public.capacity:400}") int publicCapacity,
+			@Value("${bitstamp.rate-limit.public.requests-per-second:16}") double publicRequestsPerSecond,
+			@Value("${bitstamp.rate-limit.private.capacity:400}") int privateCapacity,
+			@Value("${bitstamp.rate-limit.private.requests-per-second:16}") double privateRequestsPerSecond) {
+		return new TokenBucketRateLimiter(publicCapacity, publicRequestsPerSecond, privateCapacity, privateRequestsPerSecond);
+	}
+
+
+	@Bean
+	@ConditionalOnMissingBean
+	BitstampClient bitstampClient(
+			RestClientFactory restClientFactory,
+			ObjectProvider<BitstampRateLimiter> rateLimiter,
+			ObjectProvider<BitstampClientMetrics> metrics,
+			ObjectProvider<BitstampRecorder> recorder,
+			ObjectProvider<BitstampReplayRequestFactory> replay,
+			@Value("${bitstamp.cache.reference-data.ttl:0}") Duration referenceDataTtl,
+			@Value("${bitstamp.cache.reference-data.stale-while-revalidate:1m}") Duration referenceDataStaleWhileRevalidate,
+			@Value("${bitstamp.cache.public.coalesce:false}") boolean coalescePublicRequests,
+			@Value("${bitstamp.cache.public.ttl:0}") Duration publicRequestTtl) {
+		BitstampClient client = new BitstampClient(restClientFactory);
+		rateLimiter.ifAvailable(client::setRateLimiter);
+		metrics.ifAvailable(client::setMetrics);
+		recorder.ifAvailable(client::setRecorder);
+		replay.ifAvailable(client::setReplay);
+		client.setReferenceDataCache(referenceDataTtl, referenceDataStaleWhileRevalidate);
+		client.setPublicRequestCoalescing(coalescePublicRequests, publicRequestTtl);
+		return client;
+	}
+
+
 	@Bean
 	@ConditionalOnMissingBean
-	BitstampClient bitstampClient(RestClientFactory restClientFactory) {
-		return new BitstampClient(restClientFactory);
+	@ConditionalOnProperty(name = "bitstamp.recording.file")
+	BitstampRecorder bitstampRecorder(@Value("${bitstamp.recording.file}") String file) throws IOException {
+		return new BitstampRecorder(Path.of(file));
+	}
+
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(name = "bitstamp.replay.file")
+	BitstampReplayRequestFactory bitstampReplayRequestFactory(
+			@Value("${bitstamp.replay.file}") String file,
+			@Value("${bitstamp.replay.speed:1}") double speed) throws IOException {
+		return BitstampReplayRequestFactory.load(Path.of(file), speed);
+	}
+
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(name = "bitstamp.candle-store.directory")
+	CandleStore bitstampCandleStore(BitstampClient bitstampClient, @Value("${bitstamp.candle-store.directory}") String directory) {
+		return new CandleStore(bitstampClient, Path.of(directory));
+	}
+
+
+	@Bean
+	@ConditionalOnMissingBean
+	BitstampAsyncClient bitstampAsyncClient(ObjectProvider<BitstampRateLimiter> rateLimiter, ObjectProvider<JsonMapper> jsonMapper) {
+		BitstampAsyncClient client = new BitstampAsyncClient(jsonMapper.getIfAvailable(JsonMapper::new));
+		rateLimiter.ifAvailable(client::setRateLimiter);
+		return client;
+	}
+
+
+	@Bean
+	@ConditionalOnMissingBean
+	BitstampStreamingClient bitstampStreamingClient() {
+		return new BitstampStreamingClient();
+	}
+
+
+	/**
+	 * Times BitstampClient requests with Micrometer when it is present and there is a {@link MeterRegistry}.
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterRegistry.class)
+	static class BitstampMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnBean(MeterRegistry.class)
+		@ConditionalOnMissingBean(BitstampClientMetrics.class)
+		@ConditionalOnProperty(name = "bitstamp.metrics.enabled", matchIfMissing = true)
+		MicrometerBitstampClientMetrics bitstampClientMetrics(MeterRegistry meterRegistry) {
+			return new MicrometerBitstampClientMetrics(meterRegistry);
+		}
+
 	}
 
 
@@ -21,25 +21,50 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.jspecify.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClient.RequestBodySpec;
 
 import dk.clanie.bitstamp.dto.BitstampAccountBalance;
 import dk.clanie.bitstamp.dto.BitstampCurrency;
 import dk.clanie.bitstamp.dto.BitstampCurrencyCode;
+import dk.clanie.bitstamp.dto.BitstampCurrencyPair;
 import dk.clanie.bitstamp.dto.BitstampOhlcData;
 import dk.clanie.bitstamp.dto.BitstampOrderBook;
+import dk.clanie.bitstamp.dto.BitstampPackedOrderBook;
 import dk.clanie.bitstamp.dto.BitstampTicker;
 import dk.clanie.bitstamp.dto.BitstampTickerListEntry;
 import dk.clanie.bitstamp.dto.BitstampTradingPair;
 import dk.clanie.bitstamp.dto.BitstampTransaction;
 import dk.clanie.bitstamp.dto.BitstampUserTransaction;
+import dk.clanie.bitstamp.dto.CandleSeries;
 import dk.clanie.bitstamp.exception.UnknownCurrencyCodeException;
 import dk.clanie.bitstamp.jackson.BitstampCurrencyPairDeserializer;
 import dk.clanie.core.util.SortDirection;
@@ -47,11 +72,46 @@ import dk.clanie.web.RestClientFactory;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
 
 @RequiredArgsConstructor
 @Slf4j
 public class BitstampClient {
 
+	/**
+	 * Maximum number of candles Bitstamp returns for one OHLC request.
+	 */
+	static final int OHLC_MAX_LIMIT = 1000;
+
+	/**
+	 * Maximum number of user transactions Bitstamp returns for one request.
+	 */
+	static final int USER_TRANSACTIONS_MAX_LIMIT = 1000;
+
+	/**
+	 * How far back Bitstamp can filter user transactions by time.
+	 */
+	static final Duration USER_TRANSACTIONS_TIME_FILTER_WINDOW = Duration.ofDays(30);
+
+	static final SortDirection ASCENDING = Arrays.stream(SortDirection.values())
+			.filter(SortDirection::isAscending)
+			.findFirst()
+			.orElseThrow();
+
+	/**
+	 * Reads the ticker list, which is read from the response body rather than by the
+	 * RestClient, so unknown currency codes can be collected per request.
+	 */
+	private static final ObjectReader TICKER_LIST_READER = new JsonMapper()
+			.readerFor(new TypeReference<List<BitstampTickerListEntry>>() {});
+
+	/**
+	 * Handles error responses of requests whose body is read from the response.
+	 */
+	private static final ResponseErrorHandler ERROR_HANDLER = new DefaultResponseErrorHandler();
+
 	private final RestClientFactory restClientFactory;
 
 	@Value("${bitstamp.url:https://www.bitstamp.net}")
@@ -60,31 +120,160 @@ public class BitstampClient {
 	@Value("${bitstamp.wiretap:false}")
 	private boolean wiretap;
 
+	@Value("${bitstamp.fan-out.max-concurrency:32}")
+	private int fanOutMaxConcurrency;
+
+	@Value("${bitstamp.jfr.enabled:true}")
+	private boolean flightRecorderEvents;
+
 	private RestClient restClient;
 
 	private String hostname;
 
+	private Semaphore fanOutPermits;
+
+	private BitstampRateLimiter rateLimiter = BitstampRateLimiter.UNLIMITED;
+
+	private BitstampClientMetrics metrics = BitstampClientMetrics.NONE;
+
+	private @Nullable BitstampRecorder recorder;
+
+	private @Nullable BitstampReplayRequestFactory replay;
+
+	private @Nullable RefreshingCache<String, List<?>> referenceDataCache;
+
+	private @Nullable RefreshingCache<List<Object>, Object> publicRequestCache;
+
 
 	@PostConstruct
 	public void init() {
 		restClient = restClientFactory.newRestClient(baseUrl, wiretap);
+		boolean timed = metrics != BitstampClientMetrics.NONE || flightRecorderEvents;
+		if (timed || recorder != null || replay != null) {
+			RestClient.Builder builder = restClient.mutate();
+			if (timed) {
+				builder.requestInterceptor(new BitstampMetricsInterceptor(metrics));
+			}
+			if (recorder != null) {
+				builder.requestInterceptor(recorder);
+			}
+			if (replay != null) {
+				builder.requestFactory(replay);
+			}
+			restClient = builder.build();
+		}
+		fanOutPermits = new Semaphore(fanOutMaxConcurrency);
 		// Extract hostname from baseUrl (remove protocol)
 		hostname = baseUrl.replaceAll("^https?://", "");
 	}
 
 
+	/**
+	 * Sets the rate limiter consulted before each request.
+	 * <p/>
+	 * Requests are not limited unless a rate limiter is set. When auto-configured,
+	 * the client uses the {@link BitstampRateLimiter} bean, if there is one.
+	 * 
+	 * @param rateLimiter the rate limiter
+	 */
+	public void setRateLimiter(BitstampRateLimiter rateLimiter) {
+		this.rateLimiter = rateLimiter;
+	}
+
+
+	/**
+	 * Sets the metrics receiving the timings of each request.
+	 * <p/>
+	 * Requests are not timed unless metrics are set before {@link #init()}. When auto-configured,
+	 * the client uses the {@link BitstampClientMetrics} bean, if there is one, which is
+	 * {@link MicrometerBitstampClientMetrics} when there is a {@code MeterRegistry} bean.
+	 * 
+	 * @param metrics the metrics
+	 */
+	public void setMetrics(BitstampClientMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+
+	/**
+	 * Sets a recorder writing the responses received to a file.
+	 * <p/>
+	 * Responses are not recorded unless a recorder is set before {@link #init()}. When auto-configured,
+	 * the client uses the {@link BitstampRecorder} bean, if there is one, which is configured when the
+	 * {@code bitstamp.recording.file} property is set.
+	 * 
+	 * @param recorder the recorder
+	 */
+	public void setRecorder(BitstampRecorder recorder) {
+		this.recorder = recorder;
+	}
+
+
+	/**
+	 * Sets a transport serving recorded responses instead of sending requests to Bitstamp.
+	 * <p/>
+	 * Must be set before {@link #init()}. When auto-configured, the client uses the
+	 * {@link BitstampReplayRequestFactory} bean, if there is one, which is configured when the
+	 * {@code bitstamp.replay.file} property is set.
+	 * 
+	 * @param replay the transport
+	 */
+	public void setReplay(BitstampReplayRequestFactory replay) {
+		this.replay = replay;
+	}
+
+
+	/**
+	 * Enables caching of the rarely changing reference data returned by {@link #getCurrencies()}
+	 * and {@link #getTradingPairsInfo()}.
+	 * <p/>
+	 * Cached data is returned as is until it is older than {@code ttl}. During the following
+	 * {@code staleWhileRevalidate} period the cached data is still returned, while it is refreshed in the
+	 * background. After that it is reloaded before returning. Concurrent callers needing the same data
+	 * share a single request. The cached lists are unmodifiable.
+	 * 
+	 * @param ttl how long cached data is fresh; zero disables caching
+	 * @param staleWhileRevalidate how long after {@code ttl} stale data may be returned while being refreshed
+	 */
+	public void setReferenceDataCache(Duration ttl, Duration staleWhileRevalidate) {
+		referenceDataCache = ttl.isPositive()
+				? new RefreshingCache<>(ttl, staleWhileRevalidate, BitstampClient::refreshInBackground)
+				: null;
+	}
+
+
+	/**
+	 * Enables coalescing of identical public requests.
+	 * <p/>
+	 * Concurrent calls of a public endpoint method with the same arguments then share a single request
+	 * and its deserialized result. With a positive {@code ttl} the result is also reused by calls made
+	 * within {@code ttl} after it was received, which is useful for absorbing bursts of identical requests.
+	 * Requests are only shared between calls made at the same {@link BitstampPriority}, so an interactive
+	 * call never waits for a background request queued in the rate limiter.
+	 * <p/>
+	 * Coalescing is off by default. When on, shared results must not be modified, and lists are returned
+	 * unmodifiable.
+	 * 
+	 * @param enabled whether to coalesce identical public requests
+	 * @param ttl how long a result may be reused after it was received; zero to only share in-flight requests
+	 */
+	public void setPublicRequestCoalescing(boolean enabled, Duration ttl) {
+		publicRequestCache = enabled
+				? new RefreshingCache<>(ttl, Duration.ZERO, Runnable::run)
+				: null;
+	}
+
+
 	/**
 	 * Gets all available currencies.
 	 * <p/>
 	 * Returns info for all available currencies including their networks, deposit/withdrawal status, and other metadata.
+	 * The result is cached if a reference data cache is configured, see {@link #setReferenceDataCache(Duration, Duration)}.
 	 * 
 	 * @return list of currencies
 	 */
 	public List<BitstampCurrency> getCurrencies() {
-		return restClient.get()
-				.uri("/api/v2/currencies/")
-				.retrieve()
-				.body(new ParameterizedTypeReference<List<BitstampCurrency>>() {});
+		return referenceData("/api/v2/currencies/", new ParameterizedTypeReference<List<BitstampCurrency>>() {});
 	}
 
 
@@ -97,25 +286,17 @@ public class BitstampClient {
 	 * @throws UnknownCurrencyCodeException if the response contains unknown currency codes
 	 */
 	public List<BitstampTickerListEntry> listTickers() {
-		BitstampCurrencyPairDeserializer.clearUnknownCurrencyCodes();
-		try {
-			List<BitstampTickerListEntry> result = restClient.get()
+		return coalesced(() -> {
+			throttle(null);
+			return restClient.get()
 					.uri("/api/v2/ticker/")
-					.retrieve()
-					.body(new ParameterizedTypeReference<List<BitstampTickerListEntry>>() {});
-
-			// Check if any unknown currency codes were encountered during deserialization
-			Set<String> unknownCodes = BitstampCurrencyPairDeserializer.getUnknownCurrencyCodes();
-			if (!unknownCodes.isEmpty()) {
-				List<String> sortedUnknownCodes = new ArrayList<>(unknownCodes);
-				sortedUnknownCodes.sort(String::compareTo);
-				throw new UnknownCurrencyCodeException(sortedUnknownCodes);
-			}
-
-			return result;
-		} finally {
-			BitstampCurrencyPairDeserializer.clearUnknownCurrencyCodes();
-		}
+					.exchange((request, response) -> {
+						if (ERROR_HANDLER.hasError(response)) {
+							ERROR_HANDLER.handleError(request.getURI(), request.getMethod(), response);
+						}
+						return BitstampCurrencyPairDeserializer.<List<BitstampTickerListEntry>>readValue(TICKER_LIST_READER, response.getBody());
+					});
+		}, "ticker_list");
 	}
 
 
@@ -128,10 +309,28 @@ public class BitstampClient {
 	 * @return ticker data
 	 */
 	public BitstampTicker getTicker(String currencyPair) {
-		return restClient.get()
-				.uri("/api/v2/ticker/{currencyPair}/", currencyPair)
-				.retrieve()
-				.body(BitstampTicker.class);
+		return coalesced(() -> {
+			throttle(null);
+			return restClient.get()
+					.uri("/api/v2/ticker/{currencyPair}/", currencyPair)
+					.retrieve()
+					.body(BitstampTicker.class);
+		}, "ticker", currencyPair);
+	}
+
+
+	/**
+	 * Gets ticker data for several currency pairs concurrently.
+	 * <p/>
+	 * The requests are executed on virtual threads, limited by {@code bitstamp.fan-out.max-concurrency},
+	 * so the total latency is close to that of the slowest single request.
+	 * A failing pair does not fail the others; its error is returned in the result for that pair.
+	 * 
+	 * @param currencyPairs the currency pairs
+	 * @return ticker data or error for each pair, in the order of the given pairs
+	 */
+	public Map<BitstampCurrencyPair, BitstampPairResult<BitstampTicker>> getTickers(Collection<BitstampCurrencyPair> currencyPairs) {
+		return fanOut(currencyPairs, pair -> getTicker(pair.toUrlParameter()));
 	}
 
 
@@ -144,10 +343,13 @@ public class BitstampClient {
 	 * @return ticker data
 	 */
 	public BitstampTicker getHourlyTicker(String currencyPair) {
-		return restClient.get()
-				.uri("/api/v2/ticker_hour/{currencyPair}/", currencyPair)
-				.retrieve()
-				.body(BitstampTicker.class);
+		return coalesced(() -> {
+			throttle(null);
+			return restClient.get()
+					.uri("/api/v2/ticker_hour/{currencyPair}/", currencyPair)
+					.retrieve()
+					.body(BitstampTicker.class);
+		}, "ticker_hour", currencyPair);
 	}
 
 
@@ -160,10 +362,48 @@ public class BitstampClient {
 	 * @return order book data
 	 */
 	public BitstampOrderBook getOrderBook(String currencyPair) {
-		return restClient.get()
-				.uri("/api/v2/order_book/{currencyPair}/", currencyPair)
-				.retrieve()
-				.body(BitstampOrderBook.class);
+		return coalesced(() -> {
+			throttle(null);
+			return restClient.get()
+					.uri("/api/v2/order_book/{currencyPair}/", currencyPair)
+					.retrieve()
+					.body(BitstampOrderBook.class);
+		}, "order_book", currencyPair);
+	}
+
+
+	/**
+	 * Gets order book for a specific currency pair, stored in primitive arrays.
+	 * <p/>
+	 * Returns the same data as {@link #getOrderBook(String)}, but deserializes it without
+	 * creating an object per order, which is much cheaper for deep order books.
+	 * 
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @return order book data
+	 */
+	public BitstampPackedOrderBook getPackedOrderBook(String currencyPair) {
+		return coalesced(() -> {
+			throttle(null);
+			return restClient.get()
+					.uri("/api/v2/order_book/{currencyPair}/", currencyPair)
+					.retrieve()
+					.body(BitstampPackedOrderBook.class);
+		}, "packed_order_book", currencyPair);
+	}
+
+
+	/**
+	 * Gets order books for several currency pairs concurrently.
+	 * <p/>
+	 * The requests are executed on virtual threads, limited by {@code bitstamp.fan-out.max-concurrency},
+	 * so the total latency is close to that of the slowest single request.
+	 * A failing pair does not fail the others; its error is returned in the result for that pair.
+	 * 
+	 * @param currencyPairs the currency pairs
+	 * @return order book or error for each pair, in the order of the given pairs
+	 */
+	public Map<BitstampCurrencyPair, BitstampPairResult<BitstampOrderBook>> getOrderBooks(Collection<BitstampCurrencyPair> currencyPairs) {
+		return fanOut(currencyPairs, pair -> getOrderBook(pair.toUrlParameter()));
 	}
 
 
@@ -177,13 +417,16 @@ public class BitstampClient {
 	 * @return list of transactions
 	 */
 	public List<BitstampTransaction> getTransactions(String currencyPair, String time) {
-		return restClient.get()
-				.uri(uriBuilder -> uriBuilder
-						.path("/api/v2/transactions/{currencyPair}/")
-						.queryParam("time", time)
-						.build(currencyPair))
-				.retrieve()
-				.body(new ParameterizedTypeReference<List<BitstampTransaction>>() {});
+		return coalesced(() -> {
+			throttle(null);
+			return restClient.get()
+					.uri(uriBuilder -> uriBuilder
+							.path("/api/v2/transactions/{currencyPair}/")
+							.queryParam("time", time)
+							.build(currencyPair))
+					.retrieve()
+					.body(new ParameterizedTypeReference<List<BitstampTransaction>>() {});
+		}, "transactions", currencyPair, time);
 	}
 
 
@@ -196,10 +439,13 @@ public class BitstampClient {
 	 * @return list of transactions
 	 */
 	public List<BitstampTransaction> getTransactions(String currencyPair) {
-		return restClient.get()
-				.uri("/api/v2/transactions/{currencyPair}/", currencyPair)
-				.retrieve()
-				.body(new ParameterizedTypeReference<List<BitstampTransaction>>() {});
+		return coalesced(() -> {
+			throttle(null);
+			return restClient.get()
+					.uri("/api/v2/transactions/{currencyPair}/", currencyPair)
+					.retrieve()
+					.body(new ParameterizedTypeReference<List<BitstampTransaction>>() {});
+		}, "transactions", currencyPair);
 	}
 
 
@@ -207,14 +453,12 @@ public class BitstampClient {
 	 * Gets all trading pairs info.
 	 * <p/>
 	 * Returns info for all available trading pairs.
+	 * The result is cached if a reference data cache is configured, see {@link #setReferenceDataCache(Duration, Duration)}.
 	 * 
 	 * @return list of trading pairs
 	 */
 	public List<BitstampTradingPair> getTradingPairsInfo() {
-		return restClient.get()
-				.uri("/api/v2/trading-pairs-info/")
-				.retrieve()
-				.body(new ParameterizedTypeReference<List<BitstampTradingPair>>() {});
+		return referenceData("/api/v2/trading-pairs-info/", new ParameterizedTypeReference<List<BitstampTradingPair>>() {});
 	}
 
 
@@ -231,18 +475,27 @@ public class BitstampClient {
 	 * @return OHLC data
 	 */
 	public BitstampOhlcData getOhlcData(String currencyPair, int step, Integer limit, Long start, Long end) {
-		return restClient.get()
-				.uri(uriBuilder -> {
-					var builder = uriBuilder
-							.path("/api/v2/ohlc/{currencyPair}/")
-							.queryParam("step", step);
-					if (limit != null) builder.queryParam("limit", limit);
-					if (start != null) builder.queryParam("start", start);
-					if (end != null) builder.queryParam("end", end);
-					return builder.build(currencyPair);
-				})
-				.retrieve()
-				.body(BitstampOhlcData.class);
+		return coalesced(() -> getOhlc(BitstampOhlcData.class, currencyPair, step, limit, start, end),
+				"ohlc", currencyPair, step, limit, start, end);
+	}
+
+
+	/**
+	 * Gets OHLC (candlestick) data for a specific currency pair, stored in primitive arrays.
+	 * <p/>
+	 * Returns the same data as {@link #getOhlcData(String, int, Integer, Long, Long)}, but deserializes it
+	 * directly into a {@link CandleSeries} without creating an object per candle. The series belongs to
+	 * the caller, so unlike other public requests it is never shared with concurrent callers.
+	 * 
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @param step the time interval in seconds (60, 180, 300, 900, 1800, 3600, 7200, 14400, 21600, 43200, 86400, 259200)
+	 * @param limit the number of data points (default: 1000)
+	 * @param start start timestamp (Unix timestamp)
+	 * @param end end timestamp (Unix timestamp)
+	 * @return OHLC data
+	 */
+	public CandleSeries getOhlcSeries(String currencyPair, int step, Integer limit, Long start, Long end) {
+		return getOhlc(CandleSeries.class, currencyPair, step, limit, start, end);
 	}
 
 
@@ -260,6 +513,78 @@ public class BitstampClient {
 	}
 
 
+	/**
+	 * Gets all OHLC (candlestick) data for a specific currency pair within a time range.
+	 * <p/>
+	 * The range is split into windows of at most {@value #OHLC_MAX_LIMIT} candles, the most Bitstamp returns
+	 * per request, which are fetched concurrently on virtual threads, within {@code bitstamp.fan-out.max-concurrency}
+	 * and the rate limit. Consider running large backfills at {@link BitstampPriority#BACKGROUND}.
+	 * 
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @param step the time interval in seconds (60, 180, 300, 900, 1800, 3600, 7200, 14400, 21600, 43200, 86400, 259200)
+	 * @param from start of the range (Unix timestamp, inclusive)
+	 * @param to end of the range (Unix timestamp, inclusive)
+	 * @return the candles within the range, ordered by timestamp and without duplicates
+	 * @see #fetchOhlcRange(String, int, long, long, Consumer)
+	 */
+	public List<BitstampOhlcData.Candle> fetchOhlcRange(String currencyPair, int step, long from, long to) {
+		List<BitstampOhlcData.Candle> candles = new ArrayList<>();
+		fetchOhlcRange(currencyPair, step, from, to, candles::add);
+		return candles;
+	}
+
+
+	/**
+	 * Streams all OHLC (candlestick) data for a specific currency pair within a time range.
+	 * <p/>
+	 * Works like {@link #fetchOhlcRange(String, int, long, long)}, but passes the candles to the consumer,
+	 * in order, as soon as the window they belong to and all windows before it have been received. At most
+	 * {@code bitstamp.fan-out.max-concurrency} windows are fetched ahead of the consumer, so memory use
+	 * does not depend on the length of the range. The consumer is called on the calling thread.
+	 * <p/>
+	 * If a request fails, the remaining requests are cancelled and the exception is thrown after the
+	 * candles of the preceding windows have been delivered.
+	 * 
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @param step the time interval in seconds (60, 180, 300, 900, 1800, 3600, 7200, 14400, 21600, 43200, 86400, 259200)
+	 * @param from start of the range (Unix timestamp, inclusive)
+	 * @param to end of the range (Unix timestamp, inclusive)
+	 * @param consumer receives the candles within the range, ordered by timestamp and without duplicates
+	 * @throws IllegalArgumentException if step is not positive or from is after to
+	 */
+	public void fetchOhlcRange(String currencyPair, int step, long from, long to, Consumer<BitstampOhlcData.Candle> consumer) {
+		fetchOhlcWindows(currencyPair, step, from, to, series -> {
+			for (int i = 0; i < series.size(); i++) {
+				consumer.accept(series.getCandle(i));
+			}
+		});
+	}
+
+
+	/**
+	 * Gets all OHLC (candlestick) data for a specific currency pair within a time range, stored in primitive arrays.
+	 * <p/>
+	 * Works like {@link #fetchOhlcRange(String, int, long, long)}, but collects the candles in a {@link CandleSeries},
+	 * without creating an object per candle.
+	 * 
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @param step the time interval in seconds (60, 180, 300, 900, 1800, 3600, 7200, 14400, 21600, 43200, 86400, 259200)
+	 * @param from start of the range (Unix timestamp, inclusive)
+	 * @param to end of the range (Unix timestamp, inclusive)
+	 * @return the candles within the range
+	 * @throws IllegalArgumentException if step is not positive or from is after to
+	 */
+	public CandleSeries fetchOhlcSeries(String currencyPair, int step, long from, long to) {
+		List<CandleSeries> windows = new ArrayList<>();
+		fetchOhlcWindows(currencyPair, step, from, to, windows::add);
+		CandleSeries result = new CandleSeries(
+				windows.isEmpty() ? null : windows.get(0).getPair(),
+				Math.max(1, windows.stream().mapToInt(CandleSeries::size).sum()));
+		windows.forEach(result::appendAll);
+		return result;
+	}
+
+
 	/**
 	 * Gets user transactions (private API endpoint).
 	 * <p/>
@@ -272,8 +597,8 @@ public class BitstampClient {
 	 * @param limit number of transactions to return (optional, default: 100, max: 1000)
 	 * @param sort sorting order: "asc" or "desc" (optional, default: "desc")
 	 * @param sinceId return transactions since this ID (optional, forces limit=1000)
-	 * @param sinceTimestamp return transactions since this timestamp (optional, max 30 days back)
-	 * @param untilTimestamp return transactions until this timestamp (optional, max 30 days back)
+	 * @param sinceTimestamp return transactions since this Unix timestamp in seconds (optional, max 30 days back)
+	 * @param untilTimestamp return transactions until this Unix timestamp in seconds (optional, max 30 days back)
 	 * @return list of user transactions
 	 * @throws IllegalArgumentException if credentials is null
 	 */
@@ -291,56 +616,16 @@ public class BitstampClient {
 			throw new IllegalArgumentException("Credentials cannot be null");
 		}
 
-		// Build the path
-		String path = "/api/v2/user_transactions/";
-		if (currencyPair != null && !currencyPair.isEmpty()) {
-			path = "/api/v2/user_transactions/" + currencyPair + "/";
-		}
-
-		// Build query string - used for both authentication signature and request URI
-		StringBuilder queryParams = new StringBuilder();
-		if (offset != null) {
-			queryParams.append("offset=").append(offset).append("&");
-		}
-		if (limit != null) {
-			queryParams.append("limit=").append(limit).append("&");
-		}
-		if (sort != null) {
-			queryParams.append("sort=").append(sort.isAscending() ? "asc" : "desc").append("&");
-		}
-		if (sinceId != null) {
-			queryParams.append("since_id=").append(sinceId).append("&");
-		}
-		if (sinceTimestamp != null) {
-			// Validate sinceTimestamp is not older than 30 days
-			long maxSinceTimestamp = Instant.now().minus(Duration.ofDays(30)).toEpochMilli();
-			if (sinceTimestamp != null && sinceTimestamp < maxSinceTimestamp) {
-				throw new IllegalArgumentException("sinceTimestamp cannot be older than 30 days");
-			}
-			queryParams.append("since_timestamp=").append(sinceTimestamp).append("&");
-		}
-		if (untilTimestamp != null) {
-			// Validate untilTimestamp is not older than 30 days
-			long maxUntilTimestamp = Instant.now().minus(Duration.ofDays(30)).toEpochMilli();
-			if (untilTimestamp != null && untilTimestamp < maxUntilTimestamp) {
-				throw new IllegalArgumentException("untilTimestamp cannot be older than 30 days");
-			}
-			queryParams.append("until_timestamp=").append(untilTimestamp).append("&");
-		}
-		// Remove trailing '&' if present
-		String queryString = queryParams.length() > 0 ? 
-				queryParams.substring(0, queryParams.length() - 1) : "";
+		String path = userTransactionsPath(currencyPair);
+		String queryString = userTransactionsPayload(offset, limit, sort, sinceId, sinceTimestamp, untilTimestamp);
 		boolean hasQueryParams = isNotBlank(queryString);
 
 		// Generate authentication headers using the exact query string
 		// Note: Content-Type must be empty string when request body is empty (per Bitstamp API docs)
-		BitstampAuthHelper.AuthHeaders authHeaders = BitstampAuthHelper.generateAuthHeaders(
-				credentials.getApiKey(),
-				credentials.getApiSecret(),
-				"POST",
-				hostname,
+		throttle(credentials);
+		BitstampAuthHelper.AuthHeaders authHeaders = sign(
+				credentials,
 				path,
-				"",
 				hasQueryParams ? "application/x-www-form-urlencoded" : "",  // Empty content-type when body is empty
 						queryString	// Payload
 				);
@@ -397,6 +682,50 @@ public class BitstampClient {
 	}
 
 
+	/**
+	 * Streams the user transactions of an account (private API endpoint).
+	 * <p/>
+	 * The transactions are fetched lazily, in pages of {@value #USER_TRANSACTIONS_MAX_LIMIT} in ascending
+	 * order using {@code since_id}, as the stream is consumed. While a page is consumed, the next page is
+	 * fetched in the background, so at most two pages are held in memory regardless of the length of the
+	 * history. Pages are fetched at the priority of the calling thread.
+	 * <p/>
+	 * If {@code from} is within the last 30 days, the first page is fetched with {@code since_timestamp}.
+	 * Bitstamp can only filter by time within the last 30 days, so for an earlier or no {@code from} the
+	 * history is read from the first transaction of the account, costing one request per
+	 * {@value #USER_TRANSACTIONS_MAX_LIMIT} transactions before {@code from}, and those transactions are
+	 * skipped. The stream ends at the first transaction after {@code to}.
+	 * <p/>
+	 * Close the stream to cancel the read-ahead if it is not consumed to the end.
+	 * 
+	 * @param credentials the Bitstamp API credentials
+	 * @param currencyPair the currency pair (optional, e.g., "btcusd", "ethusd")
+	 * @param from skip transactions before this time (optional)
+	 * @param to end at the first transaction after this time (optional)
+	 * @return stream of user transactions, ordered by ID
+	 * @throws IllegalArgumentException if credentials is null
+	 */
+	public Stream<BitstampUserTransaction> streamUserTransactions(
+			BitstampCredentials credentials,
+			@Nullable String currencyPair,
+			@Nullable Instant from,
+			@Nullable Instant to) {
+		if (credentials == null) {
+			throw new IllegalArgumentException("Credentials cannot be null");
+		}
+		UserTransactionIterator iterator = new UserTransactionIterator(
+				sinceId -> {
+					Long sinceTimestamp = sinceId == 0 ? userTransactionsSinceTimestamp(from, Instant.now()) : null;
+					return sinceTimestamp != null
+							? getUserTransactions(credentials, currencyPair, null, USER_TRANSACTIONS_MAX_LIMIT, ASCENDING, null, sinceTimestamp, null)
+							: getUserTransactions(credentials, currencyPair, null, USER_TRANSACTIONS_MAX_LIMIT, ASCENDING, sinceId, null, null);
+				},
+				USER_TRANSACTIONS_MAX_LIMIT, from, to);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false)
+				.onClose(iterator::close);
+	}
+
+
 	/**
 	 * Gets account balances for all currencies (private API endpoint).
 	 * <p/>
@@ -414,13 +743,10 @@ public class BitstampClient {
 
 		String path = "/api/v2/account_balances/";
 
-		BitstampAuthHelper.AuthHeaders authHeaders = BitstampAuthHelper.generateAuthHeaders(
-				credentials.getApiKey(),
-				credentials.getApiSecret(),
-				"POST",
-				hostname,
+		throttle(credentials);
+		BitstampAuthHelper.AuthHeaders authHeaders = sign(
+				credentials,
 				path,
-				"", // queryParams
 				"", // contentType
 				""  // payload
 				);
@@ -455,13 +781,10 @@ public class BitstampClient {
 
 		String path = "/api/v2/account_balances/" + currency.name().toLowerCase() + "/";
 
-		BitstampAuthHelper.AuthHeaders authHeaders = BitstampAuthHelper.generateAuthHeaders(
-				credentials.getApiKey(),
-				credentials.getApiSecret(),
-				"POST",
-				hostname,
+		throttle(credentials);
+		BitstampAuthHelper.AuthHeaders authHeaders = sign(
+				credentials,
 				path,
-				"", // queryParams
 				"", // contentType
 				""  // payload
 				);
@@ -478,4 +801,301 @@ public class BitstampClient {
 	}
 
 
+	/**
+	 * Executes the given call for each currency pair on a virtual thread.
+	 * <p/>
+	 * The number of concurrent calls is limited by a semaphore shared by all bulk requests on this client.
+	 * The calls are made at the priority of the calling thread.
+	 */
+	private <T> Map<BitstampCurrencyPair, BitstampPairResult<T>> fanOut(
+			Collection<BitstampCurrencyPair> currencyPairs,
+			Function<BitstampCurrencyPair, T> call) {
+		Map<BitstampCurrencyPair, Future<T>> futures = new LinkedHashMap<>();
+		BitstampPriority priority = BitstampPriority.current();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (BitstampCurrencyPair pair : new LinkedHashSet<>(currencyPairs)) {
+				futures.put(pair, executor.submit(() -> {
+					fanOutPermits.acquire();
+					try {
+						return priority.call(() -> call.apply(pair));
+					} finally {
+						fanOutPermits.release();
+					}
+				}));
+			}
+		} // close() waits for all calls to complete
+		Map<BitstampCurrencyPair, BitstampPairResult<T>> results = new LinkedHashMap<>();
+		futures.forEach((pair, future) -> results.put(pair, switch (future.state()) {
+			case SUCCESS -> BitstampPairResult.success(future.resultNow());
+			case FAILED -> BitstampPairResult.failure(future.exceptionNow());
+			default -> BitstampPairResult.failure(new IllegalStateException("Request for " + pair + " did not complete"));
+		}));
+		return results;
+	}
+
+
+	/**
+	 * Makes a public request, sharing it with concurrent identical calls at the same priority if coalescing
+	 * is enabled.
+	 * 
+	 * @param request the request
+	 * @param key the endpoint and arguments identifying the request
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T coalesced(Supplier<T> request, Object... key) {
+		if (publicRequestCache == null) {
+			return request.get();
+		}
+		Object[] cacheKey = Arrays.copyOf(key, key.length + 1);
+		cacheKey[key.length] = BitstampPriority.current();
+		return (T) publicRequestCache.get(Arrays.asList(cacheKey), () -> {
+			T result = request.get();
+			return result instanceof List<?> list ? Collections.unmodifiableList(list) : result;
+		});
+	}
+
+
+	/**
+	 * Gets reference data through the reference data cache, if enabled.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> List<T> referenceData(String path, ParameterizedTypeReference<List<T>> type) {
+		if (referenceDataCache == null) {
+			return getList(path, type);
+		}
+		return (List<T>) referenceDataCache.get(path, () -> Collections.unmodifiableList(getList(path, type)));
+	}
+
+
+	private <T> List<T> getList(String path, ParameterizedTypeReference<List<T>> type) {
+		throttle(null);
+		return restClient.get()
+				.uri(path)
+				.retrieve()
+				.body(type);
+	}
+
+
+	/**
+	 * Runs a cache refresh on a virtual thread, at background priority.
+	 */
+	private static void refreshInBackground(Runnable refresh) {
+		Thread.ofVirtual().name("bitstamp-cache-refresh").start(() -> BitstampPriority.BACKGROUND.run(refresh));
+	}
+
+
+	/**
+	 * Signs a POST request, recording the time spent if metrics are enabled.
+	 */
+	private BitstampAuthHelper.AuthHeaders sign(BitstampCredentials credentials, String path, String contentType, String payload) {
+		long start = System.nanoTime();
+		BitstampAuthHelper.AuthHeaders authHeaders = credentials.getSigner().sign("POST", hostname, path, "", contentType, payload);
+		if (metrics != BitstampClientMetrics.NONE) {
+			metrics.recordSigning(BitstampMetricsInterceptor.endpoint(path), System.nanoTime() - start);
+		}
+		return authHeaders;
+	}
+
+
+	/**
+	 * Waits for the rate limiter to let a request through, at the priority of the current thread.
+	 * 
+	 * @param credentials the credentials of a private request, or null for a public request
+	 */
+	private void throttle(@Nullable BitstampCredentials credentials) {
+		try {
+			rateLimiter.acquire(credentials == null ? null : credentials.getApiKey(), BitstampPriority.current());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the rate limiter", e);
+		}
+	}
+
+
+	private <T> T getOhlc(Class<T> type, String currencyPair, int step, Integer limit, Long start, Long end) {
+		throttle(null);
+		return restClient.get()
+				.uri(uriBuilder -> {
+					var builder = uriBuilder
+							.path("/api/v2/ohlc/{currencyPair}/")
+							.queryParam("step", step);
+					if (limit != null) builder.queryParam("limit", limit);
+					if (start != null) builder.queryParam("start", start);
+					if (end != null) builder.queryParam("end", end);
+					return builder.build(currencyPair);
+				})
+				.retrieve()
+				.body(type);
+	}
+
+
+	/**
+	 * Fetches the OHLC windows of a time range concurrently, passing them to the consumer in order.
+	 * <p/>
+	 * At most {@code bitstamp.fan-out.max-concurrency} windows are fetched ahead of the consumer.
+	 * Each window passed on is trimmed to the candles after the previous window and within the range,
+	 * which removes any overlap. If a request fails, the remaining requests are cancelled.
+	 */
+	private void fetchOhlcWindows(String currencyPair, int step, long from, long to, Consumer<CandleSeries> consumer) {
+		List<OhlcWindow> windows = ohlcWindows(step, from, to);
+		BitstampPriority priority = BitstampPriority.current();
+		Deque<Future<CandleSeries>> pending = new ArrayDeque<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			int next = 0;
+			long last = from - 1;
+			try {
+				while (next < windows.size() || !pending.isEmpty()) {
+					while (next < windows.size() && pending.size() < fanOutMaxConcurrency) {
+						OhlcWindow window = windows.get(next++);
+						pending.addLast(executor.submit(() -> {
+							fanOutPermits.acquire();
+							try {
+								return priority.call(() -> getOhlcSeries(currencyPair, step, window.getLimit(), null, window.getEnd()));
+							} finally {
+								fanOutPermits.release();
+							}
+						}));
+					}
+					CandleSeries series = resultOf(pending.removeFirst()).slice(last + 1, to);
+					if (!series.isEmpty()) {
+						consumer.accept(series);
+						last = series.getTimestamp(series.size() - 1);
+					}
+				}
+			} finally {
+				pending.forEach(future -> future.cancel(true));
+			}
+		}
+	}
+
+
+	/**
+	 * Splits a time range into windows of at most {@value #OHLC_MAX_LIMIT} candles.
+	 * <p/>
+	 * Each window is requested by its end timestamp and number of candles, as Bitstamp ignores
+	 * {@code start} when {@code end} is given. Candle timestamps are multiples of the step.
+	 */
+	static List<OhlcWindow> ohlcWindows(int step, long from, long to) {
+		if (step <= 0) {
+			throw new IllegalArgumentException("Step must be positive");
+		}
+		if (from > to) {
+			throw new IllegalArgumentException("From must not be after to");
+		}
+		long first = Math.ceilDiv(from, step) * step;
+		long last = Math.floorDiv(to, step) * step;
+		List<OhlcWindow> windows = new ArrayList<>();
+		for (long start = first; start <= last; start += (long) step * OHLC_MAX_LIMIT) {
+			int limit = (int) Math.min(OHLC_MAX_LIMIT, (last - start) / step + 1);
+			windows.add(new OhlcWindow(start + (long) (limit - 1) * step, limit));
+		}
+		return windows;
+	}
+
+
+	/**
+	 * Returns the result of a completed or running call, rethrowing its exception unwrapped.
+	 */
+	private static <T> T resultOf(Future<T> future) {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) throw cause;
+			if (e.getCause() instanceof Error cause) throw cause;
+			throw new IllegalStateException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a response", e);
+		}
+	}
+
+
+	/**
+	 * A request for OHLC data, identified by the timestamp of its last candle and the number of candles.
+	 */
+	@lombok.Value
+	static class OhlcWindow {
+		long end;
+		int limit;
+	}
+
+
+	/**
+	 * Builds the path for the user transactions endpoint.
+	 */
+	static String userTransactionsPath(String currencyPair) {
+		if (currencyPair != null && !currencyPair.isEmpty()) {
+			return "/api/v2/user_transactions/" + currencyPair + "/";
+		}
+		return "/api/v2/user_transactions/";
+	}
+
+
+	/**
+	 * Gets the {@code since_timestamp} to start streaming user transactions from.
+	 * <p/>
+	 * Leaves a minute of margin to the edge of the time filter window, so the request isn't rejected
+	 * if it is sent a little later.
+	 *
+	 * @param from the time to stream from (optional)
+	 * @param now the current time
+	 * @return {@code from} in seconds, or null if it is absent or too old to filter by
+	 */
+	static @Nullable Long userTransactionsSinceTimestamp(@Nullable Instant from, Instant now) {
+		if (from == null || from.isBefore(now.minus(USER_TRANSACTIONS_TIME_FILTER_WINDOW).plusSeconds(60))) {
+			return null;
+		}
+		return from.getEpochSecond();
+	}
+
+
+	/**
+	 * Builds the form encoded payload for the user transactions endpoint.
+	 * <p/>
+	 * The same string is used both for the authentication signature and as request body.
+	 *
+	 * @throws IllegalArgumentException if sinceTimestamp or untilTimestamp is older than 30 days
+	 */
+	static String userTransactionsPayload(
+			Integer offset,
+			Integer limit,
+			SortDirection sort,
+			Long sinceId,
+			Long sinceTimestamp,
+			Long untilTimestamp) {
+		StringBuilder queryParams = new StringBuilder();
+		if (offset != null) {
+			queryParams.append("offset=").append(offset).append("&");
+		}
+		if (limit != null) {
+			queryParams.append("limit=").append(limit).append("&");
+		}
+		if (sort != null) {
+			queryParams.append("sort=").append(sort.isAscending() ? "asc" : "desc").append("&");
+		}
+		if (sinceId != null) {
+			queryParams.append("since_id=").append(sinceId).append("&");
+		}
+		if (sinceTimestamp != null) {
+			// Validate sinceTimestamp is not older than 30 days
+			long maxSinceTimestamp = Instant.now().minus(USER_TRANSACTIONS_TIME_FILTER_WINDOW).getEpochSecond();
+			if (sinceTimestamp < maxSinceTimestamp) {
+				throw new IllegalArgumentException("sinceTimestamp cannot be older than 30 days");
+			}
+			queryParams.append("since_timestamp=").append(sinceTimestamp).append("&");
+		}
+		if (untilTimestamp != null) {
+			// Validate untilTimestamp is not older than 30 days
+			long maxUntilTimestamp = Instant.now().minus(USER_TRANSACTIONS_TIME_FILTER_WINDOW).getEpochSecond();
+			if (untilTimestamp < maxUntilTimestamp) {
+				throw new IllegalArgumentException("untilTimestamp cannot be older than 30 days");
+			}
+			queryParams.append("until_timestamp=").append(untilTimestamp).append("&");
+		}
+		// Remove trailing '&' if present
+		return queryParams.length() > 0 ?
+				queryParams.substring(0, queryParams.length() - 1) : "";
+	}
+
+
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import lombok.Value;
+
+/**
+ * Receives timings of the requests made by {@link BitstampClient}.
+ * <p/>
+ * The client reports each HTTP exchange, broken down into the time until the response headers
+ * arrived, the time spent reading the response body and the time spent deserializing it, and the time
+ * spent signing private requests. Requests are identified by endpoint (e.g. "order_book") and by
+ * whether they concern a single currency pair or currency, or all of them, never by the pair itself,
+ * so the number of distinct tags stays small.
+ * <p/>
+ * {@link MicrometerBitstampClientMetrics} records the timings as Micrometer meters, and is
+ * auto-configured when there is a {@code MeterRegistry} bean.
+ */
+public interface BitstampClientMetrics {
+
+	/**
+	 * Metrics which records nothing. A client using it does not time its requests at all.
+	 */
+	BitstampClientMetrics NONE = new BitstampClientMetrics() {
+
+		@Override
+		public void recordExchange(Exchange exchange) {
+		}
+
+		@Override
+		public void recordSigning(String endpoint, long nanos) {
+		}
+
+	};
+
+
+	/**
+	 * Records a completed HTTP exchange.
+	 * <p/>
+	 * Called when the response is closed, after it was deserialized, or when the request failed
+	 * without a response.
+	 * 
+	 * @param exchange the exchange
+	 */
+	void recordExchange(Exchange exchange);
+
+
+	/**
+	 * Records the time spent signing a private request.
+	 * 
+	 * @param endpoint the endpoint of the request
+	 * @param nanos the time spent, in nanoseconds
+	 */
+	void recordSigning(String endpoint, long nanos);
+
+
+	/**
+	 * Timings of an HTTP exchange.
+	 */
+	@Value
+	class Exchange {
+
+		/**
+		 * Status of exchanges which failed without a response.
+		 */
+		public static final String IO_ERROR = "IO_ERROR";
+
+		/**
+		 * Pairs tag of requests for a single currency pair or currency.
+		 */
+		public static final String SINGLE = "single";
+
+		/**
+		 * Pairs tag of requests for all currency pairs or currencies.
+		 */
+		public static final String ALL = "all";
+
+		/**
+		 * The endpoint, e.g. "ticker" or "user_transactions".
+		 */
+		String endpoint;
+
+		/**
+		 * {@link #SINGLE} or {@link #ALL}.
+		 */
+		String pairs;
+
+		/**
+		 * The HTTP status code, or {@link #IO_ERROR}.
+		 */
+		String status;
+
+		/**
+		 * Time from sending the request until the response headers arrived, including connecting.
+		 */
+		long firstByteNanos;
+
+		/**
+		 * Time spent waiting for and reading the response body.
+		 */
+		long bodyNanos;
+
+		/**
+		 * Time spent processing the response body between reads, which is deserialization.
+		 */
+		long deserializationNanos;
+
+		/**
+		 * Size of the response body in bytes.
+		 */
+		long bytes;
+
+
+		/**
+		 * Whether the request failed, with an error status or without a response.
+		 */
+		public boolean isError() {
+			return status.length() != 3 || status.charAt(0) >= '4';
+		}
+
+
+		/**
+		 * Total time of the exchange.
+		 */
+		public long getTotalNanos() {
+			return firstByteNanos + bodyNanos + deserializationNanos;
+		}
+
+	}
+
+
+}
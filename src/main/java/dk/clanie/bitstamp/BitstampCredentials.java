@@ -20,8 +20,12 @@ package dk.clanie.bitstamp;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 
 /**
  * Container for Bitstamp API credentials.
@@ -43,6 +47,14 @@ public class BitstampCredentials {
 	 * The Bitstamp API secret.
 	 */
 	String apiSecret;
+
+	/**
+	 * Signer for these credentials, created on first use.
+	 */
+	@NonFinal
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	transient volatile @Nullable BitstampSigner signer;
 	
 	/**
 	 * Creates a new BitstampCredentials instance.
@@ -61,5 +73,23 @@ public class BitstampCredentials {
 		this.apiKey = apiKey;
 		this.apiSecret = apiSecret;
 	}
+
+
+	/**
+	 * Returns the signer for these credentials.
+	 * <p/>
+	 * The signer is created on first use and reused for the lifetime of this instance,
+	 * so callers should keep and reuse their BitstampCredentials instances.
+	 * 
+	 * @return request signer bound to these credentials
+	 */
+	public BitstampSigner getSigner() {
+		BitstampSigner result = signer;
+		if (result == null) {
+			result = new BitstampSigner(this);
+			signer = result;
+		}
+		return result;
+	}
 	
 }
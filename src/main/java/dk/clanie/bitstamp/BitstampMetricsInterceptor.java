@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import dk.clanie.bitstamp.BitstampClientMetrics.Exchange;
+import dk.clanie.bitstamp.jfr.BitstampRequestEvent;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Times the HTTP exchanges of {@link BitstampClient} and reports them to {@link BitstampClientMetrics}
+ * and as {@link BitstampRequestEvent Flight Recorder events}.
+ * <p/>
+ * The response is wrapped so the time spent in reads of its body, and the number of bytes read, are
+ * counted. The rest of the time between receiving the headers and closing the response is the time
+ * spent deserializing the body, as the client deserializes while reading and closes the response
+ * right after.
+ * <p/>
+ * Only installed when metrics or Flight Recorder events are enabled, so a client without them doesn't
+ * pay for it. The Flight Recorder event is only filled in when it is recorded.
+ */
+@RequiredArgsConstructor
+class BitstampMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+	private static final String API_PREFIX = "/api/v2/";
+
+	private final BitstampClientMetrics metrics;
+
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		BitstampRequestEvent event = new BitstampRequestEvent();
+		event.begin();
+		long start = System.nanoTime();
+		try {
+			ClientHttpResponse response = execution.execute(request, body);
+			return new MeteredResponse(response, request, event, System.nanoTime() - start);
+		} catch (IOException | RuntimeException e) {
+			record(request, event, Exchange.IO_ERROR, System.nanoTime() - start, 0, 0, 0);
+			throw e;
+		}
+	}
+
+
+	/**
+	 * Reports an exchange to the metrics and commits its Flight Recorder event.
+	 */
+	private void record(HttpRequest request, BitstampRequestEvent event, String status,
+			long firstByteNanos, long bodyNanos, long deserializationNanos, long bytes) {
+		String path = request.getURI().getPath();
+		if (metrics != BitstampClientMetrics.NONE) {
+			metrics.recordExchange(new Exchange(endpoint(path), pairs(path), status,
+					firstByteNanos, bodyNanos, deserializationNanos, bytes));
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.method = request.getMethod().name();
+			event.endpoint = endpoint(path);
+			event.pair = pair(path);
+			event.status = status;
+			event.bytes = bytes;
+			event.firstByte = firstByteNanos;
+			event.body = bodyNanos;
+			event.deserialization = deserializationNanos;
+			event.commit();
+		}
+	}
+
+
+	/**
+	 * Gets the endpoint of a request path, which is its first segment after "/api/v2/".
+	 */
+	static String endpoint(String path) {
+		int start = path.indexOf(API_PREFIX);
+		if (start < 0) {
+			return "other";
+		}
+		start += API_PREFIX.length();
+		int end = path.indexOf('/', start);
+		return path.substring(start, end < 0 ? path.length() : end);
+	}
+
+
+	/**
+	 * Gets the pairs tag of a request path: {@link Exchange#SINGLE} if the endpoint is followed by
+	 * a currency pair or currency, otherwise {@link Exchange#ALL}.
+	 */
+	static String pairs(String path) {
+		int start = path.indexOf(API_PREFIX);
+		if (start < 0) {
+			return Exchange.ALL;
+		}
+		int end = path.indexOf('/', start + API_PREFIX.length());
+		return end >= 0 && end + 1 < path.length() && path.charAt(end + 1) != '/' ? Exchange.SINGLE : Exchange.ALL;
+	}
+
+
+	/**
+	 * Gets the currency pair or currency following the endpoint in a request path, if any.
+	 */
+	static @Nullable String pair(String path) {
+		if (!Exchange.SINGLE.equals(pairs(path))) {
+			return null;
+		}
+		int start = path.indexOf('/', path.indexOf(API_PREFIX) + API_PREFIX.length()) + 1;
+		int end = path.indexOf('/', start);
+		return path.substring(start, end < 0 ? path.length() : end);
+	}
+
+
+	/**
+	 * Response counting the time spent reading its body, which reports the exchange when closed.
+	 */
+	private class MeteredResponse implements ClientHttpResponse {
+
+		private final ClientHttpResponse response;
+		private final HttpRequest request;
+		private final BitstampRequestEvent event;
+		private final long firstByteNanos;
+		private final long headersReceived = System.nanoTime();
+		private MeteredInputStream body;
+		private boolean closed;
+
+
+		MeteredResponse(ClientHttpResponse response, HttpRequest request, BitstampRequestEvent event, long firstByteNanos) {
+			this.response = response;
+			this.request = request;
+			this.event = event;
+			this.firstByteNanos = firstByteNanos;
+		}
+
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return response.getStatusCode();
+		}
+
+
+		@Override
+		public String getStatusText() throws IOException {
+			return response.getStatusText();
+		}
+
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return response.getHeaders();
+		}
+
+
+		@Override
+		public InputStream getBody() throws IOException {
+			if (body == null) {
+				body = new MeteredInputStream(response.getBody());
+			}
+			return body;
+		}
+
+
+		@Override
+		public void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			long processingNanos = System.nanoTime() - headersReceived;
+			String status;
+			try {
+				status = Integer.toString(response.getStatusCode().value());
+			} catch (IOException e) {
+				status = Exchange.IO_ERROR;
+			}
+			response.close();
+			long bodyNanos = body == null ? 0 : body.nanos;
+			long bytes = body == null ? 0 : body.bytes;
+			record(request, event, status, firstByteNanos, bodyNanos, Math.max(0, processingNanos - bodyNanos), bytes);
+		}
+
+	}
+
+
+	/**
+	 * Stream counting the bytes read and the time spent reading them.
+	 */
+	private static class MeteredInputStream extends InputStream {
+
+		private final InputStream in;
+		private long nanos;
+		private long bytes;
+
+
+		MeteredInputStream(InputStream in) {
+			this.in = in;
+		}
+
+
+		@Override
+		public int read() throws IOException {
+			long start = System.nanoTime();
+			int b = in.read();
+			nanos += System.nanoTime() - start;
+			if (b >= 0) bytes++;
+			return b;
+		}
+
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			long start = System.nanoTime();
+			int n = in.read(b, off, len);
+			nanos += System.nanoTime() - start;
+			if (n > 0) bytes += n;
+			return n;
+		}
+
+
+		@Override
+		public int available() throws IOException {
+			return in.available();
+		}
+
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+
+	}
+
+
+}
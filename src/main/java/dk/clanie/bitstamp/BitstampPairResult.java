@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import org.jspecify.annotations.Nullable;
+
+import lombok.Value;
+
+/**
+ * Result of a single currency pair in a bulk request.
+ * <p/>
+ * Holds either the value returned for the pair or the error which made the request fail,
+ * so that one failing pair does not fail the whole bulk request.
+ *
+ * @param <T> the value type
+ */
+@Value
+public class BitstampPairResult<T> {
+
+	@Nullable T value;
+	@Nullable Throwable error;
+
+
+	public static <T> BitstampPairResult<T> success(T value) {
+		return new BitstampPairResult<>(value, null);
+	}
+
+
+	public static <T> BitstampPairResult<T> failure(Throwable error) {
+		return new BitstampPairResult<>(null, error);
+	}
+
+
+	public boolean isSuccess() {
+		return error == null;
+	}
+
+
+	/**
+	 * Returns the value, or throws the error if the request failed.
+	 *
+	 * @return the value
+	 * @throws RuntimeException the error (wrapped if it is a checked exception)
+	 */
+	public T getOrThrow() {
+		if (error == null) return value;
+		if (error instanceof RuntimeException runtimeException) throw runtimeException;
+		if (error instanceof Error e) throw e;
+		throw new RuntimeException(error);
+	}
+
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.util.function.Supplier;
+
+/**
+ * Priority of Bitstamp requests, used by the {@link BitstampRateLimiter} to decide who goes first
+ * when requests have to wait for quota.
+ * <p/>
+ * Requests are {@link #INTERACTIVE} unless made inside {@link #call(Supplier)} or {@link #run(Runnable)}
+ * of another priority, for example:
+ * <pre>
+ * List&lt;BitstampUserTransaction&gt; history = BitstampPriority.BACKGROUND.call(() -&gt; client.getUserTransactions(credentials));
+ * </pre>
+ * The priority is bound as a {@link ScopedValue}, so it applies to all requests made by the operation on
+ * the calling thread. Bulk methods of the clients carry it over to the threads they start.
+ */
+public enum BitstampPriority {
+
+	/**
+	 * Requests somebody is waiting for, such as balances fetched before placing an order.
+	 * Served before any waiting {@link #BACKGROUND} requests.
+	 */
+	INTERACTIVE,
+
+	/**
+	 * Bulk and batch requests, such as history downloads, which may wait while interactive requests go first.
+	 */
+	BACKGROUND;
+
+
+	private static final ScopedValue<BitstampPriority> CURRENT = ScopedValue.newInstance();
+
+
+	/**
+	 * Returns the priority of requests made by the current thread.
+	 * 
+	 * @return the bound priority, or {@link #INTERACTIVE} if none is bound
+	 */
+	public static BitstampPriority current() {
+		return CURRENT.orElse(INTERACTIVE);
+	}
+
+
+	/**
+	 * Calls the given operation with requests made at this priority.
+	 * 
+	 * @param <T> result type
+	 * @param operation the operation
+	 * @return the result of the operation
+	 */
+	public <T> T call(Supplier<T> operation) {
+		return ScopedValue.where(CURRENT, this).call(operation::get);
+	}
+
+
+	/**
+	 * Runs the given operation with requests made at this priority.
+	 * 
+	 * @param operation the operation
+	 */
+	public void run(Runnable operation) {
+		ScopedValue.where(CURRENT, this).run(operation);
+	}
+
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Limits the rate of requests sent to Bitstamp.
+ * <p/>
+ * The clients call {@link #acquire(String, BitstampPriority)} before each request, and for private
+ * requests before signing it, so a request that waited for quota never carries a stale timestamp.
+ * Public requests share one quota; private requests are limited per API key.
+ * <p/>
+ * The default implementation is {@link TokenBucketRateLimiter}. Supply another bean of this type
+ * to replace it, e.g. one coordinating quota between several processes using the same API key.
+ */
+@FunctionalInterface
+public interface BitstampRateLimiter {
+
+	/**
+	 * Rate limiter which never waits.
+	 */
+	BitstampRateLimiter UNLIMITED = (apiKey, priority) -> {};
+
+
+	/**
+	 * Waits until a request may be sent.
+	 * 
+	 * @param apiKey the API key of a private request, or null for a public request
+	 * @param priority the priority of the request
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	void acquire(@Nullable String apiKey, BitstampPriority priority) throws InterruptedException;
+
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.zip.Deflater;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import dk.clanie.bitstamp.BitstampRecording.Entry;
+
+/**
+ * Records the responses received by {@link BitstampClient} to a {@link BitstampRecording recording file},
+ * so they can be replayed later with {@link BitstampReplayRequestFactory}.
+ * <p/>
+ * Each response body is read completely and written to the file, together with the request and its
+ * timing, before it is handed on. Entries are appended, and flushed one at a time, so the file is
+ * complete up to the last response even if the process is killed.
+ * <p/>
+ * Set the recorder on the client before {@link BitstampClient#init()}, or set the
+ * {@code bitstamp.recording.file} property to have it auto-configured. Close the recorder when done.
+ */
+public class BitstampRecorder implements ClientHttpRequestInterceptor, Closeable {
+
+	private final Path file;
+	private final DataOutputStream out;
+	private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+	private boolean closed;
+
+
+	/**
+	 * Creates a recorder appending to a file.
+	 *
+	 * @param file the recording file, created if it does not exist
+	 * @throws IOException if the file can't be opened
+	 */
+	public BitstampRecorder(Path file) throws IOException {
+		this.file = file;
+		boolean empty = !Files.exists(file) || Files.size(file) == 0;
+		out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, CREATE, APPEND)));
+		if (empty) {
+			BitstampRecording.writeHeader(out);
+			out.flush();
+		}
+	}
+
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		Instant timestamp = Instant.now();
+		long start = System.nanoTime();
+		try (ClientHttpResponse response = execution.execute(request, body)) {
+			byte[] responseBody = response.getBody().readAllBytes();
+			long elapsedNanos = System.nanoTime() - start;
+			HttpStatusCode status = response.getStatusCode();
+			HttpHeaders headers = response.getHeaders();
+			MediaType contentType = headers.getContentType();
+			record(new Entry(timestamp, elapsedNanos, request.getMethod().name(), path(request.getURI()), body,
+					status.value(), contentType == null ? "" : contentType.toString(), responseBody));
+			return new BufferedClientHttpResponse(status, response.getStatusText(), headers, responseBody);
+		}
+	}
+
+
+	private synchronized void record(Entry entry) throws IOException {
+		if (closed) {
+			throw new IOException("Recorder of " + file + " is closed");
+		}
+		BitstampRecording.writeEntry(out, entry, deflater);
+		out.flush();
+	}
+
+
+	/**
+	 * Gets the raw path and query of a request URI, which identify the request in a recording.
+	 */
+	static String path(URI uri) {
+		String query = uri.getRawQuery();
+		return query == null ? uri.getRawPath() : uri.getRawPath() + "?" + query;
+	}
+
+
+	/**
+	 * Gets the recording file.
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		out.close();
+		deflater.end();
+	}
+
+
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.jspecify.annotations.Nullable;
+
+import lombok.Value;
+
+/**
+ * Recording of Bitstamp responses, as written by {@link BitstampRecorder} and served by
+ * {@link BitstampReplayRequestFactory}.
+ * <p/>
+ * A recording file holds a header followed by one entry per exchange, in the order the responses were
+ * received. An entry holds the time the request was sent, the time it took until the response body was
+ * read, the request method, path, query and body, and the response status, content type and body. The
+ * response body is kept raw, deflated, as it is by far the largest part. Entries are only ever appended,
+ * so a recording can be extended by later runs, and an incomplete last entry, left by a process which
+ * was killed while writing, is ignored when reading.
+ * <p/>
+ * Request headers are not recorded, so recordings of private requests hold no API keys or signatures.
+ */
+public class BitstampRecording {
+
+	static final int MAGIC = 0x42535231; // "BSR1"
+	static final int VERSION = 1;
+
+
+	private BitstampRecording() {}
+
+
+	/**
+	 * A recorded exchange.
+	 */
+	@Value
+	public static class Entry {
+
+		/**
+		 * When the request was sent.
+		 */
+		Instant timestamp;
+
+		/**
+		 * Nanoseconds from sending the request until the response body was read.
+		 */
+		long elapsedNanos;
+
+		String method;
+
+		/**
+		 * Raw path and query of the request, e.g. {@code /api/v2/ohlc/btcusd/?step=60&limit=1000}.
+		 */
+		String path;
+
+		byte[] requestBody;
+
+		int status;
+
+		/**
+		 * Content type of the response, or an empty string if it had none.
+		 */
+		String contentType;
+
+		byte[] body;
+
+	}
+
+
+	/**
+	 * Reads all entries of a recording.
+	 *
+	 * @param file the recording file
+	 * @return the entries, in the order they were recorded
+	 * @throws IOException if the file can't be read or is not a recording
+	 */
+	public static List<Entry> read(Path file) throws IOException {
+		List<Entry> entries = new ArrayList<>();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			readHeader(in, file);
+			Inflater inflater = new Inflater();
+			try {
+				Entry entry;
+				while ((entry = readEntry(in, inflater, file)) != null) {
+					entries.add(entry);
+				}
+			} finally {
+				inflater.end();
+			}
+		}
+		return entries;
+	}
+
+
+	static void writeHeader(DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+	}
+
+
+	private static void readHeader(DataInputStream in, Path file) throws IOException {
+		try {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException(file + " is not a Bitstamp recording");
+			}
+		} catch (EOFException e) {
+			throw new IOException(file + " is not a Bitstamp recording", e);
+		}
+	}
+
+
+	/**
+	 * Writes an entry, deflating the response body with the given deflater.
+	 */
+	static void writeEntry(DataOutputStream out, Entry entry, Deflater deflater) throws IOException {
+		byte[] body = entry.getBody();
+		deflater.reset();
+		deflater.setInput(body);
+		deflater.finish();
+		byte[] deflated = new byte[Math.max(64, body.length / 4)];
+		int length = 0;
+		while (!deflater.finished()) {
+			if (length == deflated.length) {
+				deflated = Arrays.copyOf(deflated, deflated.length * 2);
+			}
+			length += deflater.deflate(deflated, length, deflated.length - length);
+		}
+		out.writeLong(entry.getTimestamp().toEpochMilli());
+		out.writeLong(entry.getElapsedNanos());
+		out.writeUTF(entry.getMethod());
+		out.writeUTF(entry.getPath());
+		out.writeInt(entry.getRequestBody().length);
+		out.write(entry.getRequestBody());
+		out.writeShort(entry.getStatus());
+		out.writeUTF(entry.getContentType());
+		out.writeInt(body.length);
+		out.writeInt(length);
+		out.write(deflated, 0, length);
+	}
+
+
+	/**
+	 * Reads the next entry.
+	 *
+	 * @return the entry, or null at the end of the file or if the rest of the file is an incomplete entry
+	 */
+	private static @Nullable Entry readEntry(DataInputStream in, Inflater inflater, Path file) throws IOException {
+		try {
+			long timestamp = in.readLong();
+			long elapsedNanos = in.readLong();
+			String method = in.readUTF();
+			String path = in.readUTF();
+			byte[] requestBody = readBytes(in, in.readInt());
+			int status = in.readUnsignedShort();
+			String contentType = in.readUTF();
+			byte[] body = new byte[in.readInt()];
+			byte[] deflated = readBytes(in, in.readInt());
+			inflater.reset();
+			inflater.setInput(deflated);
+			try {
+				if (inflater.inflate(body) != body.length || !inflater.finished()) {
+					throw new IOException(file + " holds a corrupt response body of " + method + " " + path);
+				}
+			} catch (DataFormatException e) {
+				throw new IOException(file + " holds a corrupt response body of " + method + " " + path, e);
+			}
+			return new Entry(Instant.ofEpochMilli(timestamp), elapsedNanos, method, path, requestBody, status, contentType, body);
+		} catch (EOFException e) {
+			return null;
+		}
+	}
+
+
+	private static byte[] readBytes(InputStream in, int length) throws IOException {
+		byte[] bytes = in.readNBytes(length);
+		if (bytes.length < length) {
+			throw new EOFException();
+		}
+		return bytes;
+	}
+
+
+}
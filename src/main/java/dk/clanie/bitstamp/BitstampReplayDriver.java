@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import dk.clanie.bitstamp.BitstampRecording.Entry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Issues the requests of a {@link BitstampRecording recording} at the pace they were recorded, for
+ * driving a replay with the original load.
+ * <p/>
+ * Each entry is passed to a request action at its recorded send time, relative to the first entry,
+ * divided by {@code speed}: 1 keeps the recorded inter-arrival times, 10 makes them ten times shorter,
+ * and {@link Double#POSITIVE_INFINITY} issues all requests at once. The actions run on virtual threads,
+ * so requests which overlapped when recorded overlap again.
+ * <p/>
+ * Together with a {@link BitstampReplayRequestFactory} of the same speed, which delays each response by
+ * its scaled original duration, this reproduces both the request rate and the latency of the recording.
+ * Recorded timestamps have millisecond precision.
+ */
+@Slf4j
+public class BitstampReplayDriver {
+
+	private final List<Entry> entries;
+	private final double speed;
+
+
+	/**
+	 * Creates a driver for recorded exchanges.
+	 *
+	 * @param entries the recorded exchanges
+	 * @param speed how many times faster than recorded to issue the requests
+	 * @throws IllegalArgumentException if speed is not positive
+	 */
+	public BitstampReplayDriver(List<Entry> entries, double speed) {
+		if (!(speed > 0)) {
+			throw new IllegalArgumentException("Speed must be positive");
+		}
+		this.entries = entries.stream()
+				.sorted(Comparator.comparing(Entry::getTimestamp))
+				.toList();
+		this.speed = speed;
+	}
+
+
+	/**
+	 * Passes each entry to the request action at its scaled recorded time, and waits for all actions to complete.
+	 * <p/>
+	 * An exception thrown by an action is logged and counted; it doesn't stop the replay.
+	 *
+	 * @param request issues the request of an entry, e.g. through a client using a {@link BitstampReplayRequestFactory}
+	 * @return the number of actions which threw an exception
+	 * @throws InterruptedException if interrupted while waiting; actions already started are left to complete
+	 */
+	public int run(Consumer<Entry> request) throws InterruptedException {
+		if (entries.isEmpty()) {
+			return 0;
+		}
+		AtomicInteger failures = new AtomicInteger();
+		long first = entries.get(0).getTimestamp().toEpochMilli();
+		long start = System.nanoTime();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (Entry entry : entries) {
+				long dueNanos = (long) (Duration.ofMillis(entry.getTimestamp().toEpochMilli() - first).toNanos() / speed);
+				long waitNanos = start + dueNanos - System.nanoTime();
+				if (waitNanos > 0) {
+					Thread.sleep(Duration.ofNanos(waitNanos));
+				}
+				executor.execute(() -> {
+					try {
+						request.accept(entry);
+					} catch (RuntimeException e) {
+						failures.incrementAndGet();
+						log.debug("Replayed request {} {} failed", entry.getMethod(), entry.getPath(), e);
+					}
+				});
+			}
+		}
+		return failures.get();
+	}
+
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.AbstractBufferingClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import dk.clanie.bitstamp.BitstampRecording.Entry;
+
+/**
+ * Transport serving the responses of a {@link BitstampRecording recording} instead of sending requests,
+ * for reproducible benchmarks and tests without network access.
+ * <p/>
+ * A request is answered with the next recorded response to a request with the same method, path, query
+ * and body; the host is ignored. The responses to a request are served in the order they were recorded,
+ * starting over after the last, so a short recording can drive a long benchmark. A request which was
+ * never recorded fails with an {@link IOException}.
+ * <p/>
+ * Each response is delayed by the time it originally took divided by {@code speed}: 1 replays at the
+ * original speed, 10 ten times faster, and {@link Double#POSITIVE_INFINITY} without delay. The pace at
+ * which requests are made is up to the caller; {@link BitstampReplayDriver} issues them at the recorded
+ * inter-arrival times, scaled by the same speed.
+ * <p/>
+ * Set on the client before {@link BitstampClient#init()}, or set the {@code bitstamp.replay.file} and
+ * {@code bitstamp.replay.speed} properties to have it auto-configured.
+ */
+public class BitstampReplayRequestFactory implements ClientHttpRequestFactory {
+
+	private final Map<String, Responses> responses = new HashMap<>();
+	private final double speed;
+
+
+	/**
+	 * Creates a transport serving recorded responses.
+	 *
+	 * @param entries the recorded exchanges
+	 * @param speed how many times faster than recorded to serve responses
+	 * @throws IllegalArgumentException if speed is not positive
+	 */
+	public BitstampReplayRequestFactory(List<Entry> entries, double speed) {
+		if (!(speed > 0)) {
+			throw new IllegalArgumentException("Speed must be positive");
+		}
+		this.speed = speed;
+		for (Entry entry : entries) {
+			responses.computeIfAbsent(key(entry.getMethod(), entry.getPath(), entry.getRequestBody()), k -> new Responses())
+					.entries.add(entry);
+		}
+	}
+
+
+	/**
+	 * Creates a transport serving the responses of a recording file.
+	 *
+	 * @param file the recording file
+	 * @param speed how many times faster than recorded to serve responses
+	 * @return the transport
+	 * @throws IOException if the file can't be read or is not a recording
+	 * @throws IllegalArgumentException if speed is not positive
+	 */
+	public static BitstampReplayRequestFactory load(Path file, double speed) throws IOException {
+		return new BitstampReplayRequestFactory(BitstampRecording.read(file), speed);
+	}
+
+
+	@Override
+	public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+		return new ReplayRequest(uri, httpMethod);
+	}
+
+
+	private static String key(String method, String path, byte[] body) {
+		return method + " " + path + "\n" + new String(body, StandardCharsets.UTF_8);
+	}
+
+
+	/**
+	 * Serves the next recorded response to a request, after its scaled original delay.
+	 */
+	private ClientHttpResponse replay(HttpMethod method, URI uri, byte[] body) throws IOException {
+		String path = BitstampRecorder.path(uri);
+		Responses recorded = responses.get(key(method.name(), path, body));
+		if (recorded == null) {
+			throw new IOException("No recorded response to " + method + " " + path);
+		}
+		Entry entry = recorded.next();
+		long delayNanos = (long) (entry.getElapsedNanos() / speed);
+		if (delayNanos > 0) {
+			try {
+				Thread.sleep(Duration.ofNanos(delayNanos));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while replaying " + method + " " + path);
+			}
+		}
+		HttpHeaders headers = new HttpHeaders();
+		if (!entry.getContentType().isEmpty()) {
+			headers.set(HttpHeaders.CONTENT_TYPE, entry.getContentType());
+		}
+		headers.setContentLength(entry.getBody().length);
+		HttpStatus status = HttpStatus.resolve(entry.getStatus());
+		return new BufferedClientHttpResponse(HttpStatusCode.valueOf(entry.getStatus()),
+				status == null ? "" : status.getReasonPhrase(), headers, entry.getBody());
+	}
+
+
+	/**
+	 * The recorded responses to a request, served round-robin.
+	 */
+	private static class Responses {
+
+		private final List<Entry> entries = new ArrayList<>();
+		private final AtomicInteger next = new AtomicInteger();
+
+
+		Entry next() {
+			return entries.get(Math.floorMod(next.getAndIncrement(), entries.size()));
+		}
+
+	}
+
+
+	/**
+	 * Request answered from the recording when executed.
+	 */
+	private class ReplayRequest extends AbstractBufferingClientHttpRequest {
+
+		private final URI uri;
+		private final HttpMethod method;
+
+
+		ReplayRequest(URI uri, HttpMethod method) {
+			this.uri = uri;
+			this.method = method;
+		}
+
+
+		@Override
+		public HttpMethod getMethod() {
+			return method;
+		}
+
+
+		@Override
+		public URI getURI() {
+			return uri;
+		}
+
+
+		@Override
+		protected ClientHttpResponse executeInternal(HttpHeaders headers, byte[] bufferedOutput) throws IOException {
+			return replay(method, uri, bufferedOutput);
+		}
+
+	}
+
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static dk.clanie.core.Utils.asString;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.GeneralSecurityException;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+
+import dk.clanie.bitstamp.BitstampAuthHelper.AuthHeaders;
+import dk.clanie.bitstamp.jfr.BitstampSigningEvent;
+
+/**
+ * Signs Bitstamp API requests for one set of credentials.
+ * <p/>
+ * The secret key is prepared once, and initialized {@link Mac} instances are kept in a pool
+ * together with a scratch buffer, so signing a request neither looks up the HMAC provider
+ * nor builds the message to sign as a String. A pool is used rather than a ThreadLocal
+ * because requests are typically made from short-lived virtual threads.
+ * <p/>
+ * Instances are thread safe. Use {@link BitstampCredentials#getSigner()} to get the signer
+ * belonging to a set of credentials.
+ * <p/>
+ * Each signing emits a {@link BitstampSigningEvent}; this covers {@link BitstampAuthHelper}, which signs
+ * through a signer.
+ */
+public class BitstampSigner {
+
+	private static final String HMAC_SHA256 = "HmacSHA256";
+	private static final String VERSION = "v2";
+	private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(US_ASCII);
+	private static final int BUFFER_SIZE = 512;
+
+	private final String xAuth;
+	private final byte[] xAuthBytes;
+	private final SecretKeySpec key;
+	private final Queue<Session> sessions = new ConcurrentLinkedQueue<>();
+
+
+	/**
+	 * Creates a signer for the given credentials.
+	 * 
+	 * @param credentials the Bitstamp API credentials
+	 */
+	public BitstampSigner(BitstampCredentials credentials) {
+		this(credentials.getApiKey(), credentials.getApiSecret());
+	}
+
+
+	BitstampSigner(String apiKey, String apiSecret) {
+		xAuth = "BITSTAMP " + apiKey;
+		xAuthBytes = xAuth.getBytes(UTF_8);
+		key = new SecretKeySpec(apiSecret.getBytes(UTF_8), HMAC_SHA256);
+	}
+
+
+	/**
+	 * Generates authentication headers for a request, using a new nonce and the current time.
+	 * <p/>
+	 * See {@link BitstampAuthHelper#generateAuthHeaders(String, String, String, String, String, String, String, String)}
+	 * for a description of the message being signed.
+	 * 
+	 * @param httpMethod the HTTP method (e.g., "POST", "GET")
+	 * @param host the host (e.g., "www.bitstamp.net")
+	 * @param path the API path (e.g., "/api/v2/user_transactions/")
+	 * @param queryParams the query parameters (empty string if none)
+	 * @param contentType the content type (empty string if there is no payload)
+	 * @param payload the request payload (empty string if none)
+	 * @return authentication headers
+	 */
+	public AuthHeaders sign(
+			String httpMethod,
+			String host,
+			String path,
+			String queryParams,
+			String contentType,
+			String payload) {
+		BitstampSigningEvent event = new BitstampSigningEvent();
+		event.begin();
+		String nonce = asString(UUID.randomUUID());
+		String timestamp = String.valueOf(System.currentTimeMillis());
+		String signature = signature(httpMethod, host, path, queryParams, contentType, nonce, timestamp, payload);
+		event.end();
+		if (event.shouldCommit()) {
+			event.method = httpMethod;
+			event.path = path;
+			event.payloadLength = payload.length();
+			event.commit();
+		}
+		return new AuthHeaders(xAuth, signature, nonce, timestamp, VERSION);
+	}
+
+
+	/**
+	 * Computes the hex encoded HMAC-SHA256 signature of a request.
+	 */
+	String signature(
+			String httpMethod,
+			String host,
+			String path,
+			String queryParams,
+			String contentType,
+			String nonce,
+			String timestamp,
+			String payload) {
+		Session session = sessions.poll();
+		if (session == null) {
+			session = new Session(key);
+		}
+		// A session is only returned to the pool after a successful signature, so that a failure
+		// halfway through the message can never leave a partially updated Mac behind.
+		session.append(xAuthBytes);
+		session.append(httpMethod);
+		session.append(host);
+		session.append(path);
+		session.append(queryParams);
+		session.append(contentType);
+		session.append(nonce);
+		session.append(timestamp);
+		session.append(VERSION);
+		session.append(payload);
+		String signature = session.finish();
+		sessions.offer(session);
+		return signature;
+	}
+
+
+	/**
+	 * An initialized Mac with its scratch buffers, used by one thread at a time.
+	 */
+	private static class Session {
+
+		private final Mac mac;
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+		private final byte[] hash;
+		private final byte[] hex;
+		private int position;
+
+
+		Session(SecretKeySpec key) {
+			try {
+				mac = Mac.getInstance(HMAC_SHA256);
+				mac.init(key);
+			} catch (GeneralSecurityException e) {
+				throw new RuntimeException("Failed to initialize " + HMAC_SHA256, e);
+			}
+			hash = new byte[mac.getMacLength()];
+			hex = new byte[hash.length * 2];
+		}
+
+
+		void append(byte[] bytes) {
+			flush();
+			mac.update(bytes);
+		}
+
+
+		/**
+		 * Appends the UTF-8 encoding of the given string, copying ASCII characters directly into the buffer.
+		 */
+		void append(String s) {
+			int length = s.length();
+			for (int i = 0; i < length; i++) {
+				char c = s.charAt(i);
+				if (c >= 0x80) {
+					flush();
+					mac.update(s.substring(i).getBytes(UTF_8));
+					return;
+				}
+				if (position == buffer.length) {
+					flush();
+				}
+				buffer[position++] = (byte) c;
+			}
+		}
+
+
+		/**
+		 * Completes the signature and returns it hex encoded. The Mac is reset and ready for reuse.
+		 */
+		String finish() {
+			flush();
+			try {
+				mac.doFinal(hash, 0);
+			} catch (ShortBufferException e) {
+				throw new IllegalStateException(e);
+			}
+			for (int i = 0; i < hash.length; i++) {
+				hex[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0x0f];
+				hex[i * 2 + 1] = HEX_DIGITS[hash[i] & 0x0f];
+			}
+			return new String(hex, US_ASCII);
+		}
+
+
+		private void flush() {
+			if (position > 0) {
+				mac.update(buffer, 0, position);
+				position = 0;
+			}
+		}
+
+
+	}
+
+
+}
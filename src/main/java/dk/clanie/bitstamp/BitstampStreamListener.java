@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import dk.clanie.bitstamp.dto.BitstampLiveTrade;
+import dk.clanie.bitstamp.dto.BitstampOrderBook;
+
+/**
+ * Listener for events received by {@link BitstampStreamingClient}.
+ * <p/>
+ * Methods are invoked directly on the thread receiving the WebSocket message, so
+ * implementations should return quickly and must not block.
+ * All methods have empty default implementations, so only the relevant ones need to be implemented.
+ */
+public interface BitstampStreamListener {
+
+	/**
+	 * Called for each trade on a subscribed live_trades channel.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd")
+	 * @param trade the trade
+	 */
+	default void onTrade(String currencyPair, BitstampLiveTrade trade) {}
+
+
+	/**
+	 * Called for each snapshot on a subscribed order_book channel.
+	 * <p/>
+	 * The snapshot contains the top 100 bids and asks.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd")
+	 * @param orderBook the order book snapshot
+	 */
+	default void onOrderBook(String currencyPair, BitstampOrderBook orderBook) {}
+
+
+	/**
+	 * Called for each change on a subscribed diff_order_book channel.
+	 * <p/>
+	 * The diff contains the price levels which changed. An amount of zero means that the level was removed.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd")
+	 * @param diff the changed price levels
+	 */
+	default void onOrderBookDiff(String currencyPair, BitstampOrderBook diff) {}
+
+
+	/**
+	 * Called when the connection has been (re)established and all channels have been (re)subscribed.
+	 * <p/>
+	 * Events may have been missed while disconnected, so listeners maintaining state should resynchronize.
+	 */
+	default void onConnected() {}
+
+
+	/**
+	 * Called when an error occurs on the connection or while decoding a message.
+	 *
+	 * @param error the error
+	 */
+	default void onError(Throwable error) {}
+
+
+}
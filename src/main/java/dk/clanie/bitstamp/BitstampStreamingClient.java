@@ -0,0 +1,399 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+
+import dk.clanie.bitstamp.dto.BitstampLiveTrade;
+import dk.clanie.bitstamp.dto.BitstampOrderBook;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.util.TokenBuffer;
+
+/**
+ * Client for the Bitstamp WebSocket API v2 (market data).
+ * <p/>
+ * Subscribes to any number of live_trades, order_book and diff_order_book channels over a single connection
+ * and delivers the decoded events to the registered {@link BitstampStreamListener}s.
+ * Listeners are invoked on the thread receiving the message; there is no hand-over to other threads.
+ * <p/>
+ * The client reconnects and resubscribes automatically when Bitstamp requests it or the connection is lost.
+ *
+ * @see <a href="https://www.bitstamp.net/websocket/v2/">Bitstamp WebSocket API v2</a>
+ */
+@Slf4j
+public class BitstampStreamingClient {
+
+	private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+	static final Duration RECONNECT_DELAY = Duration.ofSeconds(1);
+
+	private static final String LIVE_TRADES = "live_trades_";
+	private static final String ORDER_BOOK = "order_book_";
+	private static final String DIFF_ORDER_BOOK = "diff_order_book_";
+
+	@Value("${bitstamp.stream.url:wss://ws.bitstamp.net}")
+	private String streamUrl;
+
+	private final JsonMapper jsonMapper = new JsonMapper();
+
+	private final List<BitstampStreamListener> listeners = new CopyOnWriteArrayList<>();
+
+	private final Set<String> channels = ConcurrentHashMap.newKeySet();
+
+	private HttpClient httpClient;
+
+	private volatile WebSocket webSocket;
+
+	private volatile boolean closed;
+
+	/**
+	 * Completes when the last message passed to {@link #send(WebSocket, String, String)} has been sent.
+	 * {@link WebSocket} allows only one outstanding send, so each send waits for the previous one.
+	 */
+	private CompletableFuture<?> lastSend = CompletableFuture.completedFuture(null);
+
+
+	@PostConstruct
+	public void init() {
+		httpClient = HttpClient.newBuilder()
+				.connectTimeout(CONNECT_TIMEOUT)
+				.build();
+	}
+
+
+	public void addListener(BitstampStreamListener listener) {
+		listeners.add(listener);
+	}
+
+
+	public void removeListener(BitstampStreamListener listener) {
+		listeners.remove(listener);
+	}
+
+
+	/**
+	 * Opens the connection and subscribes to all channels subscribed so far.
+	 *
+	 * @return future completed when the connection is open
+	 */
+	public CompletableFuture<Void> connect() {
+		closed = false;
+		return open();
+	}
+
+
+	/**
+	 * Closes the connection.
+	 * <p/>
+	 * Subscriptions are remembered and will be renewed if {@link #connect()} is called again.
+	 */
+	@PreDestroy
+	public synchronized void close() {
+		closed = true;
+		WebSocket ws = webSocket;
+		if (ws != null) {
+			webSocket = null;
+			lastSend = lastSend
+					.handle((result, error) -> null)
+					.thenCompose(result -> ws.sendClose(WebSocket.NORMAL_CLOSURE, ""));
+		}
+	}
+
+
+	/**
+	 * Subscribes to trades for a currency pair.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 */
+	public void subscribeLiveTrades(String currencyPair) {
+		subscribe(LIVE_TRADES + currencyPair);
+	}
+
+
+	/**
+	 * Subscribes to top 100 order book snapshots for a currency pair.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 */
+	public void subscribeOrderBook(String currencyPair) {
+		subscribe(ORDER_BOOK + currencyPair);
+	}
+
+
+	/**
+	 * Subscribes to order book changes for a currency pair.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 */
+	public void subscribeDiffOrderBook(String currencyPair) {
+		subscribe(DIFF_ORDER_BOOK + currencyPair);
+	}
+
+
+	public void unsubscribeLiveTrades(String currencyPair) {
+		unsubscribe(LIVE_TRADES + currencyPair);
+	}
+
+
+	public void unsubscribeOrderBook(String currencyPair) {
+		unsubscribe(ORDER_BOOK + currencyPair);
+	}
+
+
+	public void unsubscribeDiffOrderBook(String currencyPair) {
+		unsubscribe(DIFF_ORDER_BOOK + currencyPair);
+	}
+
+
+	private void subscribe(String channel) {
+		if (channels.add(channel)) {
+			WebSocket ws = webSocket;
+			if (ws != null) send(ws, "bts:subscribe", channel);
+		}
+	}
+
+
+	private void unsubscribe(String channel) {
+		if (channels.remove(channel)) {
+			WebSocket ws = webSocket;
+			if (ws != null) send(ws, "bts:unsubscribe", channel);
+		}
+	}
+
+
+	/**
+	 * Sends a message once the previous message has been sent, whether or not that succeeded.
+	 */
+	private synchronized void send(WebSocket ws, String event, String channel) {
+		String message = message(event, channel);
+		lastSend = lastSend
+				.handle((result, error) -> null)
+				.thenCompose(result -> ws.sendText(message, true))
+				.exceptionally(e -> {
+					notifyError(e);
+					return ws;
+				});
+	}
+
+
+	static String message(String event, String channel) {
+		return "{\"event\":\"" + event + "\",\"data\":{\"channel\":\"" + channel + "\"}}";
+	}
+
+
+	/**
+	 * Decodes a message received from Bitstamp and notifies the listeners.
+	 * <p/>
+	 * The message is read with a streaming parser and its data decoded straight into the event's type.
+	 * Bitstamp sends the data before the event and channel, so the data is held as tokens until the type
+	 * is known.
+	 */
+	void dispatch(String message) {
+		String event = "";
+		String channel = "";
+		Object data = null;
+		TokenBuffer buffer = null;
+		try (JsonParser p = jsonMapper.createParser(message)) {
+			if (p.nextToken() != JsonToken.START_OBJECT) {
+				throw DatabindException.from(p, "Expected message object, got: " + p.currentToken());
+			}
+			while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+				String name = p.currentName();
+				p.nextToken();
+				switch (name) {
+				case "event" -> event = p.getValueAsString("");
+				case "channel" -> channel = p.getValueAsString("");
+				case "data" -> {
+					if (event.isEmpty() || channel.isEmpty()) {
+						buffer = TokenBuffer.forBuffering(p, p.objectReadContext());
+						buffer.copyCurrentStructure(p);
+					} else {
+						data = decode(event, channel, p);
+					}
+				}
+				default -> p.skipChildren();
+				}
+			}
+			if (buffer != null) {
+				try (JsonParser bufferParser = buffer.asParserOnFirstToken(p.objectReadContext())) {
+					data = decode(event, channel, bufferParser);
+				}
+			}
+		}
+		switch (event) {
+		case "trade" -> {
+			if (data instanceof BitstampLiveTrade trade) {
+				String pair = channel.substring(LIVE_TRADES.length());
+				listeners.forEach(listener -> listener.onTrade(pair, trade));
+			}
+		}
+		case "data" -> {
+			if (data instanceof BitstampOrderBook orderBook) {
+				if (channel.startsWith(DIFF_ORDER_BOOK)) {
+					String pair = channel.substring(DIFF_ORDER_BOOK.length());
+					listeners.forEach(listener -> listener.onOrderBookDiff(pair, orderBook));
+				} else {
+					String pair = channel.substring(ORDER_BOOK.length());
+					listeners.forEach(listener -> listener.onOrderBook(pair, orderBook));
+				}
+			}
+		}
+		case "bts:request_reconnect" -> {
+			log.info("Bitstamp requested reconnect");
+			reconnect();
+		}
+		case "bts:subscription_succeeded", "bts:unsubscription_succeeded" -> log.debug("{}: {}", event, channel);
+		case "bts:error" -> notifyError(new IllegalStateException("Bitstamp WebSocket error: " + data));
+		default -> log.debug("Ignoring {} event on channel {}", event, channel);
+		}
+	}
+
+
+	/**
+	 * Decodes the data of an event, with the parser at its first token.
+	 *
+	 * @return the data, or null if the event's data is not used
+	 */
+	private @Nullable Object decode(String event, String channel, JsonParser p) {
+		Class<?> type = switch (event) {
+		case "trade" -> channel.startsWith(LIVE_TRADES) ? BitstampLiveTrade.class : null;
+		case "data" -> channel.startsWith(ORDER_BOOK) || channel.startsWith(DIFF_ORDER_BOOK) ? BitstampOrderBook.class : null;
+		case "bts:error" -> JsonNode.class;
+		default -> null;
+		};
+		if (type == null) {
+			p.skipChildren();
+			return null;
+		}
+		return jsonMapper.readValue(p, type);
+	}
+
+
+	/**
+	 * Opens the connection unless the client has been closed.
+	 * <p/>
+	 * A connection which opens after the client was closed is aborted.
+	 */
+	private CompletableFuture<Void> open() {
+		if (closed) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return httpClient.newWebSocketBuilder()
+				.connectTimeout(CONNECT_TIMEOUT)
+				.buildAsync(URI.create(streamUrl), new Handler())
+				.thenAccept(ws -> {
+					synchronized (this) {
+						if (closed) {
+							ws.abort();
+							return;
+						}
+						webSocket = ws;
+						channels.forEach(channel -> send(ws, "bts:subscribe", channel));
+					}
+					listeners.forEach(BitstampStreamListener::onConnected);
+				});
+	}
+
+
+	private void reconnect() {
+		WebSocket ws = webSocket;
+		webSocket = null;
+		if (ws != null) ws.abort();
+		if (closed) return;
+		CompletableFuture.delayedExecutor(RECONNECT_DELAY.toMillis(), TimeUnit.MILLISECONDS)
+				.execute(() -> open().exceptionally(e -> {
+					notifyError(e);
+					reconnect();
+					return null;
+				}));
+	}
+
+
+	private void notifyError(Throwable error) {
+		log.warn("Bitstamp WebSocket error", error);
+		listeners.forEach(listener -> listener.onError(error));
+	}
+
+
+	/**
+	 * Receives WebSocket messages, assembling fragmented text messages before dispatching them.
+	 */
+	private class Handler implements WebSocket.Listener {
+
+		private final StringBuilder buffer = new StringBuilder();
+
+
+		@Override
+		public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+			try {
+				if (last && buffer.isEmpty()) {
+					dispatch(data.toString());
+				} else {
+					buffer.append(data);
+					if (last) {
+						String message = buffer.toString();
+						buffer.setLength(0);
+						dispatch(message);
+					}
+				}
+			} catch (RuntimeException e) {
+				notifyError(e);
+			}
+			ws.request(1);
+			return null;
+		}
+
+
+		@Override
+		public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+			log.info("Bitstamp WebSocket closed: {} {}", statusCode, reason);
+			if (webSocket == ws) reconnect();
+			return null;
+		}
+
+
+		@Override
+		public void onError(WebSocket ws, Throwable error) {
+			notifyError(error);
+			if (webSocket == ws) reconnect();
+		}
+
+
+	}
+
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Response whose body has been read into memory.
+ */
+@RequiredArgsConstructor
+class BufferedClientHttpResponse implements ClientHttpResponse {
+
+	private final HttpStatusCode statusCode;
+	private final String statusText;
+	private final HttpHeaders headers;
+	private final byte[] body;
+
+
+	@Override
+	public HttpStatusCode getStatusCode() {
+		return statusCode;
+	}
+
+
+	@Override
+	public String getStatusText() {
+		return statusText;
+	}
+
+
+	@Override
+	public HttpHeaders getHeaders() {
+		return headers;
+	}
+
+
+	@Override
+	public InputStream getBody() {
+		return new ByteArrayInputStream(body);
+	}
+
+
+	@Override
+	public void close() {
+	}
+
+
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import dk.clanie.bitstamp.dto.CandleSeries;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local store of OHLC (candlestick) history, backed by memory-mapped files.
+ * <p/>
+ * There is one file per currency pair and step, named {@code <pair>-<step>.candles}, holding a header
+ * followed by fixed-width records of a timestamp and five doubles (open, high, low, close, volume), in
+ * timestamp order and little-endian byte order. The header records the time range covered by the file,
+ * which is kept contiguous, so periods without candles (before a pair was listed, for example) are not
+ * fetched again.
+ * <p/>
+ * {@link #getCandles(String, int, long, long)} serves the covered part of a range from the mapped file
+ * and fetches only what is missing before or after it. New candles are appended to the file; only when a
+ * range extends further back than the file is the file rewritten. Candles for the current, unfinished
+ * interval are fetched on every call and never stored.
+ * <p/>
+ * Files are opened on first use and kept open until the store is closed. Calls for the same file are
+ * serialized; calls for different files run independently.
+ */
+@Slf4j
+public class CandleStore implements AutoCloseable {
+
+	static final int HEADER_SIZE = 32;
+	static final int RECORD_SIZE = 48;
+
+	private static final int MAGIC = 0x42534331; // "BSC1"
+	private static final int VERSION = 1;
+	private static final int WRITE_BATCH = 4096;
+	private static final Pattern CURRENCY_PAIR = Pattern.compile("[a-z0-9]+");
+
+	private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+	private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+	/**
+	 * Fetches the candles of a currency pair within a time range, like {@link BitstampClient#fetchOhlcSeries(String, int, long, long)}.
+	 */
+	@FunctionalInterface
+	interface CandleSource {
+		CandleSeries fetch(String currencyPair, int step, long from, long to);
+	}
+
+	private final Path directory;
+	private final CandleSource source;
+	private final Clock clock;
+	private final ConcurrentMap<String, CandleFile> files = new ConcurrentHashMap<>();
+	private volatile boolean closed;
+
+
+	/**
+	 * Creates a candle store.
+	 *
+	 * @param client client used for fetching missing candles
+	 * @param directory directory holding the candle files, created if it does not exist
+	 */
+	public CandleStore(BitstampClient client, Path directory) {
+		this(client::fetchOhlcSeries, directory, Clock.systemUTC());
+	}
+
+
+	CandleStore(CandleSource source, Path directory, Clock clock) {
+		this.directory = directory;
+		this.source = source;
+		this.clock = clock;
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	/**
+	 * Gets the candles of a currency pair within a time range, fetching from Bitstamp only what is not stored yet.
+	 * <p/>
+	 * Missing finished candles are fetched with {@link BitstampClient#fetchOhlcSeries(String, int, long, long)}
+	 * and stored. If the range extends past the last finished interval, the rest is fetched without being stored.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @param step the time interval in seconds (60, 180, 300, 900, 1800, 3600, 7200, 14400, 21600, 43200, 86400, 259200)
+	 * @param from start of the range (Unix timestamp, inclusive)
+	 * @param to end of the range (Unix timestamp, inclusive)
+	 * @return the candles within the range, ordered by timestamp
+	 * @throws IllegalArgumentException if the currency pair is not alphanumeric, step is not positive or from is after to
+	 */
+	public CandleSeries getCandles(String currencyPair, int step, long from, long to) {
+		checkArguments(currencyPair, step, from, to);
+		long first = Math.ceilDiv(from, step) * step;
+		long last = Math.floorDiv(to, step) * step;
+		long lastFinished = Math.floorDiv(clock.instant().getEpochSecond(), step) * step - step;
+		CandleSeries result;
+		if (first <= Math.min(last, lastFinished)) {
+			long storedTo = Math.min(last, lastFinished);
+			CandleFile file = file(currencyPair, step);
+			synchronized (file) {
+				file.cover(source, currencyPair, first, storedTo);
+				result = file.read(currencyPair, first, storedTo);
+			}
+		} else {
+			result = new CandleSeries(currencyPair);
+		}
+		if (last > lastFinished) {
+			long liveFrom = Math.max(first, lastFinished + step);
+			CandleSeries live = source.fetch(currencyPair, step, liveFrom, last);
+			long after = result.isEmpty() ? liveFrom : result.getTimestamp(result.size() - 1) + 1;
+			result.appendAll(live.slice(after, last));
+		}
+		return result;
+	}
+
+
+	/**
+	 * Reads the stored candles of a currency pair within a time range, without fetching anything.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd", "ethusd")
+	 * @param step the time interval in seconds
+	 * @param from start of the range (Unix timestamp, inclusive)
+	 * @param to end of the range (Unix timestamp, inclusive)
+	 * @return the stored candles within the range, ordered by timestamp
+	 * @throws IllegalArgumentException if the currency pair is not alphanumeric, step is not positive or from is after to
+	 */
+	public CandleSeries read(String currencyPair, int step, long from, long to) {
+		checkArguments(currencyPair, step, from, to);
+		CandleFile file = file(currencyPair, step);
+		synchronized (file) {
+			return file.read(currencyPair, from, to);
+		}
+	}
+
+
+	/**
+	 * Closes all open candle files.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		files.values().forEach(file -> {
+			synchronized (file) {
+				file.close();
+			}
+		});
+		files.clear();
+	}
+
+
+	private CandleFile file(String currencyPair, int step) {
+		if (closed) {
+			throw new IllegalStateException("Candle store is closed");
+		}
+		return files.computeIfAbsent(currencyPair.toLowerCase(Locale.ROOT) + "-" + step, name -> {
+			try {
+				return new CandleFile(directory.resolve(name + ".candles"), step);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+
+	private static void checkArguments(String currencyPair, int step, long from, long to) {
+		if (!CURRENCY_PAIR.matcher(currencyPair.toLowerCase(Locale.ROOT)).matches()) {
+			throw new IllegalArgumentException("Invalid currency pair: " + currencyPair);
+		}
+		if (step <= 0) {
+			throw new IllegalArgumentException("Step must be positive");
+		}
+		if (from > to) {
+			throw new IllegalArgumentException("From must not be after to");
+		}
+	}
+
+
+	/**
+	 * A candle file and its mapping.
+	 * <p/>
+	 * The header holds magic, version, step and a reserved int, followed by the first and last timestamp
+	 * of the covered range. An empty range is stored as first > last. Records beyond the covered range,
+	 * or out of order, as left by an interrupted append, are truncated when the file is opened.
+	 */
+	private static class CandleFile {
+
+		private final Path path;
+		private final int step;
+		private FileChannel channel;
+		private Arena arena;
+		private MemorySegment segment;
+		private long count;
+		private long coveredFrom;
+		private long coveredTo;
+
+
+		CandleFile(Path path, int step) throws IOException {
+			this.path = path;
+			this.step = step;
+			this.channel = FileChannel.open(path, CREATE, READ, WRITE);
+			try {
+				if (channel.size() == 0) {
+					writeHeader(channel, 0, -1);
+					coveredFrom = 0;
+					coveredTo = -1;
+				} else {
+					readHeader();
+				}
+				count = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+				map();
+				long retained = count;
+				while (retained > 0 && !isValid(retained - 1)) {
+					retained--;
+				}
+				if (channel.size() != HEADER_SIZE + retained * RECORD_SIZE) {
+					log.warn("Truncating {} to {} candles", path, retained);
+					arena.close();
+					arena = null;
+					channel.truncate(HEADER_SIZE + retained * RECORD_SIZE);
+					count = retained;
+					map();
+				}
+			} catch (IOException | RuntimeException e) {
+				// Don't leak the file, nor the mapping, when the file can't be used
+				if (arena != null) {
+					arena.close();
+				}
+				try {
+					channel.close();
+				} catch (IOException closeException) {
+					e.addSuppressed(closeException);
+				}
+				throw e;
+			}
+		}
+
+
+		/**
+		 * Makes sure the file covers the given range, fetching and storing the candles before and after the covered range.
+		 */
+		void cover(CandleSource source, String currencyPair, long from, long to) {
+			try {
+				if (coveredFrom > coveredTo) {
+					append(source.fetch(currencyPair, step, from, to), from, to);
+					return;
+				}
+				if (from < coveredFrom) {
+					prepend(source.fetch(currencyPair, step, from, coveredFrom - step), from);
+				}
+				if (to > coveredTo) {
+					append(source.fetch(currencyPair, step, coveredTo + step, to), coveredFrom, to);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+
+		CandleSeries read(String currencyPair, long from, long to) {
+			long start = lowerBound(from);
+			int n = Math.toIntExact(lowerBound(to + 1) - start);
+			long[] timestamps = new long[n];
+			double[] open = new double[n];
+			double[] high = new double[n];
+			double[] low = new double[n];
+			double[] close = new double[n];
+			double[] volume = new double[n];
+			for (int i = 0; i < n; i++) {
+				long offset = HEADER_SIZE + (start + i) * RECORD_SIZE;
+				timestamps[i] = segment.get(LONG, offset);
+				open[i] = segment.get(DOUBLE, offset + 8);
+				high[i] = segment.get(DOUBLE, offset + 16);
+				low[i] = segment.get(DOUBLE, offset + 24);
+				close[i] = segment.get(DOUBLE, offset + 32);
+				volume[i] = segment.get(DOUBLE, offset + 40);
+			}
+			return new CandleSeries(currencyPair, timestamps, open, high, low, close, volume, n);
+		}
+
+
+		void close() {
+			arena.close();
+			try {
+				channel.close();
+			} catch (IOException e) {
+				log.warn("Failed to close {}", path, e);
+			}
+		}
+
+
+		/**
+		 * Appends the candles after the covered range, then extends the covered range.
+		 */
+		private void append(CandleSeries series, long newFrom, long newTo) throws IOException {
+			CandleSeries candles = coveredFrom > coveredTo ? series.slice(newFrom, newTo) : series.slice(coveredTo + 1, newTo);
+			writeRecords(channel, HEADER_SIZE + count * RECORD_SIZE, candles);
+			channel.force(false);
+			writeHeader(channel, newFrom, newTo);
+			channel.force(false);
+			coveredFrom = newFrom;
+			coveredTo = newTo;
+			count += candles.size();
+			map();
+		}
+
+
+		/**
+		 * Rewrites the file with the candles before the covered range inserted, and the covered range extended.
+		 */
+		private void prepend(CandleSeries series, long newFrom) throws IOException {
+			CandleSeries candles = series.slice(newFrom, coveredFrom - 1);
+			Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+			try (FileChannel out = FileChannel.open(temp, CREATE_NEW, WRITE)) {
+				writeHeader(out, newFrom, coveredTo);
+				writeRecords(out, HEADER_SIZE, candles);
+				long position = HEADER_SIZE;
+				long end = HEADER_SIZE + count * RECORD_SIZE;
+				out.position(HEADER_SIZE + candles.size() * (long) RECORD_SIZE);
+				while (position < end) {
+					position += channel.transferTo(position, end - position, out);
+				}
+				out.force(true);
+			} catch (IOException | RuntimeException e) {
+				Files.deleteIfExists(temp);
+				throw e;
+			}
+			arena.close();
+			arena = null;
+			channel.close();
+			try {
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				coveredFrom = newFrom;
+				count += candles.size();
+			} finally {
+				channel = FileChannel.open(path, READ, WRITE);
+				map();
+			}
+		}
+
+
+		private void readHeader() throws IOException {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining()) {
+				if (channel.read(header, header.position()) < 0) {
+					throw new IOException(path + " is not a candle file");
+				}
+			}
+			header.flip();
+			if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+				throw new IOException(path + " is not a candle file");
+			}
+			int fileStep = header.getInt();
+			if (fileStep != step) {
+				throw new IOException(path + " holds candles of step " + fileStep + ", not " + step);
+			}
+			header.getInt();
+			coveredFrom = header.getLong();
+			coveredTo = header.getLong();
+		}
+
+
+		private void writeHeader(FileChannel out, long from, long to) throws IOException {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+					.putInt(MAGIC)
+					.putInt(VERSION)
+					.putInt(step)
+					.putInt(0)
+					.putLong(from)
+					.putLong(to)
+					.flip();
+			writeFully(out, header, 0);
+		}
+
+
+		private static void writeRecords(FileChannel out, long position, CandleSeries candles) throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocate(WRITE_BATCH * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			for (int i = 0; i < candles.size(); i++) {
+				buffer.putLong(candles.getTimestamp(i))
+						.putDouble(candles.getOpen(i))
+						.putDouble(candles.getHigh(i))
+						.putDouble(candles.getLow(i))
+						.putDouble(candles.getClose(i))
+						.putDouble(candles.getVolume(i));
+				if (!buffer.hasRemaining() || i == candles.size() - 1) {
+					position += writeFully(out, buffer.flip(), position);
+					buffer.clear();
+				}
+			}
+		}
+
+
+		private static int writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+			int written = 0;
+			while (buffer.hasRemaining()) {
+				written += out.write(buffer, position + written);
+			}
+			return written;
+		}
+
+
+		/**
+		 * Maps the header and the first {@code count} records, releasing the previous mapping.
+		 */
+		private void map() throws IOException {
+			if (arena != null) {
+				arena.close();
+			}
+			arena = Arena.ofShared();
+			segment = channel.map(MapMode.READ_ONLY, 0, HEADER_SIZE + count * RECORD_SIZE, arena);
+		}
+
+
+		private long timestamp(long index) {
+			return segment.get(LONG, HEADER_SIZE + index * RECORD_SIZE);
+		}
+
+
+		/**
+		 * Checks that a record is within the covered range and after the record before it.
+		 */
+		private boolean isValid(long index) {
+			long timestamp = timestamp(index);
+			return timestamp >= coveredFrom && timestamp <= coveredTo
+					&& (index == 0 || timestamp > timestamp(index - 1));
+		}
+
+
+		/**
+		 * Returns the index of the first record with a timestamp at or after the given timestamp.
+		 */
+		private long lowerBound(long timestamp) {
+			long low = 0;
+			long high = count;
+			while (low < high) {
+				long mid = (low + high) >>> 1;
+				if (timestamp(mid) < timestamp) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+
+	}
+
+
+}
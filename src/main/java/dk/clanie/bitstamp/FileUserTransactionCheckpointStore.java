@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.OptionalLong;
+
+/**
+ * {@link UserTransactionCheckpointStore} keeping each checkpoint in a small text file.
+ * <p/>
+ * The file for a key is named {@code <key>.checkpoint}, with characters other than letters, digits,
+ * '-' and '_' replaced by '_'. Files are replaced atomically, so a crash leaves either the old or the
+ * new checkpoint.
+ */
+public class FileUserTransactionCheckpointStore implements UserTransactionCheckpointStore {
+
+	private final Path directory;
+
+
+	/**
+	 * @param directory directory holding the checkpoint files, created if it does not exist
+	 */
+	public FileUserTransactionCheckpointStore(Path directory) {
+		this.directory = directory;
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	@Override
+	public OptionalLong load(String key) {
+		try {
+			return OptionalLong.of(Long.parseLong(Files.readString(file(key), US_ASCII).strip()));
+		} catch (NoSuchFileException e) {
+			return OptionalLong.empty();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	@Override
+	public void save(String key, long lastId) {
+		Path file = file(key);
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try {
+			Files.writeString(temp, Long.toString(lastId), US_ASCII);
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	private Path file(String key) {
+		return directory.resolve(key.replaceAll("[^A-Za-z0-9_-]", "_") + ".checkpoint");
+	}
+
+
+}
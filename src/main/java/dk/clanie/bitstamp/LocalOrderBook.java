@@ -0,0 +1,394 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import dk.clanie.bitstamp.dto.BitstampOrderBook;
+import dk.clanie.bitstamp.dto.BitstampOrderBook.Order;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Live order book for a single currency pair.
+ * <p/>
+ * The book is seeded from a REST snapshot ({@link BitstampClient#getOrderBook(String)}) and kept current
+ * in place from diff_order_book events received by {@link BitstampStreamingClient}.
+ * <p/>
+ * Diffs received while a snapshot is loading are buffered and applied afterwards if they are newer than the
+ * snapshot. At most {@value #MAX_PENDING_DIFFS} diffs are buffered; beyond that the buffer is dropped and another
+ * snapshot is loaded once the current one arrives. A failed snapshot is retried with exponential back-off, from
+ * {@link #RETRY_DELAY} up to {@link #MAX_RETRY_DELAY}, until it succeeds or the book is {@link #stop() stopped}. The book is resynchronized from a new snapshot when diffs arrive out of sequence (by microtimestamp),
+ * when the book becomes crossed, and after reconnects, where events may have been missed.
+ * <p/>
+ * Reading the best bid/ask is O(1) and reading the top N levels is O(N), without copying.
+ */
+@Slf4j
+public class LocalOrderBook implements BitstampStreamListener {
+
+	static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+	static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(30);
+	static final int MAX_PENDING_DIFFS = 10_000;
+
+	/**
+	 * Receives price levels from {@link LocalOrderBook#forEachBid(int, LevelConsumer)}
+	 * and {@link LocalOrderBook#forEachAsk(int, LevelConsumer)}.
+	 */
+	@FunctionalInterface
+	public interface LevelConsumer {
+		void accept(double price, double amount);
+	}
+
+	private final String currencyPair;
+	private final Supplier<BitstampOrderBook> snapshotSupplier;
+	private final Executor resyncExecutor;
+	private final BiConsumer<Duration, Runnable> retryScheduler;
+
+	private final OrderBookSide bids = new OrderBookSide(true);
+	private final OrderBookSide asks = new OrderBookSide(false);
+	private final List<BitstampOrderBook> pendingDiffs = new ArrayList<>();
+
+	private boolean synced;
+	private boolean resyncInProgress;
+	private boolean resyncRequested;
+	private boolean stopped;
+	private int failedSnapshots;
+	private long snapshotMicrotimestamp;
+	private long microtimestamp;
+	private BitstampStreamingClient streamingClient;
+
+
+	/**
+	 * Creates a local order book.
+	 * <p/>
+	 * Call {@link #resync()} to load the initial snapshot, after subscribing to the diff_order_book channel,
+	 * or use {@link #follow(BitstampClient, BitstampStreamingClient, String)} which does both.
+	 *
+	 * @param currencyPair the currency pair (e.g., "btcusd")
+	 * @param snapshotSupplier supplies full order book snapshots
+	 */
+	public LocalOrderBook(String currencyPair, Supplier<BitstampOrderBook> snapshotSupplier) {
+		this(currencyPair, snapshotSupplier, runnable -> Thread.ofVirtual().name("bitstamp-orderbook-" + currencyPair).start(runnable));
+	}
+
+
+	LocalOrderBook(String currencyPair, Supplier<BitstampOrderBook> snapshotSupplier, Executor resyncExecutor) {
+		this(currencyPair, snapshotSupplier, resyncExecutor, (delay, retry) ->
+				CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS, resyncExecutor).execute(retry));
+	}
+
+
+	LocalOrderBook(String currencyPair, Supplier<BitstampOrderBook> snapshotSupplier, Executor resyncExecutor,
+			BiConsumer<Duration, Runnable> retryScheduler) {
+		this.currencyPair = currencyPair;
+		this.snapshotSupplier = snapshotSupplier;
+		this.resyncExecutor = resyncExecutor;
+		this.retryScheduler = retryScheduler;
+	}
+
+
+	/**
+	 * Creates a local order book which follows the given currency pair.
+	 * <p/>
+	 * Registers the book as listener on the streaming client, subscribes to the diff_order_book channel
+	 * and loads the initial snapshot in the background.
+	 *
+	 * @param client client used for loading snapshots
+	 * @param streamingClient client delivering diffs
+	 * @param currencyPair the currency pair (e.g., "btcusd")
+	 * @return the local order book
+	 */
+	public static LocalOrderBook follow(BitstampClient client, BitstampStreamingClient streamingClient, String currencyPair) {
+		LocalOrderBook orderBook = new LocalOrderBook(currencyPair, () -> client.getOrderBook(currencyPair));
+		orderBook.streamingClient = streamingClient;
+		streamingClient.addListener(orderBook);
+		streamingClient.subscribeDiffOrderBook(currencyPair);
+		orderBook.resync();
+		return orderBook;
+	}
+
+
+	/**
+	 * Stops following the currency pair, if started with {@link #follow(BitstampClient, BitstampStreamingClient, String)},
+	 * and stops retrying a failed snapshot. The book is not updated any more after this.
+	 */
+	public void stop() {
+		synchronized (this) {
+			stopped = true;
+			synced = false;
+			pendingDiffs.clear();
+		}
+		if (streamingClient != null) {
+			streamingClient.removeListener(this);
+			streamingClient.unsubscribeDiffOrderBook(currencyPair);
+			streamingClient = null;
+		}
+	}
+
+
+	public String getCurrencyPair() {
+		return currencyPair;
+	}
+
+
+	/**
+	 * @return true if the book has been loaded from a snapshot and is being kept up to date
+	 */
+	public synchronized boolean isSynchronized() {
+		return synced;
+	}
+
+
+	/**
+	 * @return microtimestamp of the last snapshot or diff applied
+	 */
+	public synchronized long getMicrotimestamp() {
+		return microtimestamp;
+	}
+
+
+	/**
+	 * @return the highest bid price, or NaN if there are no bids
+	 */
+	public synchronized double getBestBidPrice() {
+		return bids.size() > 0 ? bids.price(0) : Double.NaN;
+	}
+
+
+	/**
+	 * @return the amount at the highest bid price, or NaN if there are no bids
+	 */
+	public synchronized double getBestBidAmount() {
+		return bids.size() > 0 ? bids.amount(0) : Double.NaN;
+	}
+
+
+	/**
+	 * @return the lowest ask price, or NaN if there are no asks
+	 */
+	public synchronized double getBestAskPrice() {
+		return asks.size() > 0 ? asks.price(0) : Double.NaN;
+	}
+
+
+	/**
+	 * @return the amount at the lowest ask price, or NaN if there are no asks
+	 */
+	public synchronized double getBestAskAmount() {
+		return asks.size() > 0 ? asks.amount(0) : Double.NaN;
+	}
+
+
+	public synchronized int getBidDepth() {
+		return bids.size();
+	}
+
+
+	public synchronized int getAskDepth() {
+		return asks.size();
+	}
+
+
+	/**
+	 * Passes the best (highest) bid levels to the consumer, best first.
+	 *
+	 * @param levels maximum number of levels
+	 * @param consumer receives price and amount of each level
+	 */
+	public synchronized void forEachBid(int levels, LevelConsumer consumer) {
+		int n = Math.min(levels, bids.size());
+		for (int i = 0; i < n; i++) {
+			consumer.accept(bids.price(i), bids.amount(i));
+		}
+	}
+
+
+	/**
+	 * Passes the best (lowest) ask levels to the consumer, best first.
+	 *
+	 * @param levels maximum number of levels
+	 * @param consumer receives price and amount of each level
+	 */
+	public synchronized void forEachAsk(int levels, LevelConsumer consumer) {
+		int n = Math.min(levels, asks.size());
+		for (int i = 0; i < n; i++) {
+			consumer.accept(asks.price(i), asks.amount(i));
+		}
+	}
+
+
+	@Override
+	public void onOrderBookDiff(String pair, BitstampOrderBook diff) {
+		if (!currencyPair.equals(pair)) return;
+		boolean needsResync;
+		synchronized (this) {
+			if (stopped) return;
+			if (!synced) {
+				bufferDiff(diff);
+				return;
+			}
+			needsResync = !applyDiff(diff);
+		}
+		if (needsResync) resync();
+	}
+
+
+	@Override
+	public void onConnected() {
+		// Diffs may have been missed while disconnected
+		resync();
+	}
+
+
+	/**
+	 * Loads a new snapshot in the background.
+	 * <p/>
+	 * Diffs received meanwhile are buffered and applied on top of the snapshot.
+	 */
+	public void resync() {
+		synchronized (this) {
+			if (stopped) return;
+			synced = false;
+			if (resyncInProgress) {
+				// The snapshot being loaded may predate the reason for this resync
+				resyncRequested = true;
+				return;
+			}
+			resyncInProgress = true;
+			resyncRequested = false;
+			pendingDiffs.clear();
+		}
+		resyncExecutor.execute(this::loadSnapshot);
+	}
+
+
+	private void loadSnapshot() {
+		synchronized (this) {
+			if (stopped) {
+				resyncInProgress = false;
+				return;
+			}
+		}
+		BitstampOrderBook snapshot;
+		try {
+			snapshot = snapshotSupplier.get();
+		} catch (RuntimeException e) {
+			Duration delay;
+			synchronized (this) {
+				if (stopped) {
+					resyncInProgress = false;
+					return;
+				}
+				delay = retryDelay(failedSnapshots++);
+			}
+			log.warn("Failed to load order book snapshot for {}, retrying in {}", currencyPair, delay, e);
+			retryScheduler.accept(delay, this::loadSnapshot);
+			return;
+		}
+		boolean needsResync = false;
+		synchronized (this) {
+			resyncInProgress = false;
+			failedSnapshots = 0;
+			if (stopped) return;
+			bids.load(snapshot.getBids());
+			asks.load(snapshot.getAsks());
+			snapshotMicrotimestamp = snapshot.getMicrotimestamp();
+			microtimestamp = snapshotMicrotimestamp;
+			synced = true;
+			needsResync = resyncRequested;
+			resyncRequested = false;
+			for (BitstampOrderBook diff : pendingDiffs) {
+				if (needsResync || !applyDiff(diff)) {
+					needsResync = true;
+					break;
+				}
+			}
+			pendingDiffs.clear();
+		}
+		if (needsResync) {
+			resync();
+		} else {
+			log.debug("Order book for {} synchronized at {}", currencyPair, snapshotMicrotimestamp);
+		}
+	}
+
+
+	/**
+	 * Buffers a diff received while a snapshot is loading. On overflow the buffer is dropped, and another
+	 * snapshot is requested, as the diffs dropped may be newer than the snapshot being loaded.
+	 */
+	private void bufferDiff(BitstampOrderBook diff) {
+		if (pendingDiffs.size() == MAX_PENDING_DIFFS) {
+			log.info("More than {} order book diffs for {} buffered while loading snapshot, resynchronizing", MAX_PENDING_DIFFS, currencyPair);
+			pendingDiffs.clear();
+			resyncRequested = true;
+			return;
+		}
+		pendingDiffs.add(diff);
+	}
+
+
+	/**
+	 * Gets the delay before retrying a snapshot, doubling from {@link #RETRY_DELAY} with each failure
+	 * up to {@link #MAX_RETRY_DELAY}.
+	 *
+	 * @param failures number of failures before this one
+	 */
+	static Duration retryDelay(int failures) {
+		Duration delay = RETRY_DELAY.multipliedBy(1L << Math.min(failures, 16));
+		return delay.compareTo(MAX_RETRY_DELAY) < 0 ? delay : MAX_RETRY_DELAY;
+	}
+
+
+	/**
+	 * Applies a diff.
+	 *
+	 * @return false if the diff is out of sequence or leaves the book crossed, so a resync is needed
+	 */
+	private boolean applyDiff(BitstampOrderBook diff) {
+		long diffMicrotimestamp = diff.getMicrotimestamp();
+		if (diffMicrotimestamp <= snapshotMicrotimestamp) {
+			// Already contained in the snapshot
+			return true;
+		}
+		if (diffMicrotimestamp < microtimestamp) {
+			log.info("Order book diff for {} out of sequence ({} < {}), resynchronizing", currencyPair, diffMicrotimestamp, microtimestamp);
+			return false;
+		}
+		for (Order order : diff.getBids()) {
+			bids.set(order.getPrice(), order.getAmount());
+		}
+		for (Order order : diff.getAsks()) {
+			asks.set(order.getPrice(), order.getAmount());
+		}
+		microtimestamp = diffMicrotimestamp;
+		if (bids.size() > 0 && asks.size() > 0 && bids.price(0) >= asks.price(0)) {
+			log.info("Order book for {} crossed ({} >= {}), resynchronizing", currencyPair, bids.price(0), asks.price(0));
+			return false;
+		}
+		return true;
+	}
+
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records the timings of {@link BitstampClient} requests as Micrometer meters.
+ * <p/>
+ * Exchanges are tagged with {@code endpoint}, {@code pairs} ("single" or "all") and {@code status}
+ * (the HTTP status code, or "IO_ERROR"):
+ * <ul>
+ * <li>{@value #REQUESTS} - total time of the exchange</li>
+ * <li>{@value #FIRST_BYTE} - time until the response headers arrived, including connecting</li>
+ * <li>{@value #BODY} - time spent reading the response body</li>
+ * <li>{@value #DESERIALIZATION} - time spent deserializing the response body</li>
+ * <li>{@value #RESPONSE_SIZE} - size of the response body in bytes</li>
+ * <li>{@value #ERRORS} - number of failed exchanges</li>
+ * </ul>
+ * Signing is recorded as {@value #SIGNING}, tagged with {@code endpoint}.
+ * <p/>
+ * The meters of each combination of tags are looked up once and reused.
+ */
+public class MicrometerBitstampClientMetrics implements BitstampClientMetrics {
+
+	public static final String REQUESTS = "bitstamp.client.requests";
+	public static final String FIRST_BYTE = "bitstamp.client.first.byte";
+	public static final String BODY = "bitstamp.client.body";
+	public static final String DESERIALIZATION = "bitstamp.client.deserialization";
+	public static final String RESPONSE_SIZE = "bitstamp.client.response.size";
+	public static final String ERRORS = "bitstamp.client.errors";
+	public static final String SIGNING = "bitstamp.client.signing";
+
+	private final MeterRegistry registry;
+
+	private final ConcurrentMap<List<String>, ExchangeMeters> exchangeMeters = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, Timer> signingTimers = new ConcurrentHashMap<>();
+
+
+	public MicrometerBitstampClientMetrics(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+
+	@Override
+	public void recordExchange(Exchange exchange) {
+		ExchangeMeters meters = exchangeMeters.computeIfAbsent(
+				List.of(exchange.getEndpoint(), exchange.getPairs(), exchange.getStatus()),
+				key -> new ExchangeMeters(exchange));
+		meters.requests.record(exchange.getTotalNanos(), TimeUnit.NANOSECONDS);
+		meters.firstByte.record(exchange.getFirstByteNanos(), TimeUnit.NANOSECONDS);
+		meters.body.record(exchange.getBodyNanos(), TimeUnit.NANOSECONDS);
+		meters.deserialization.record(exchange.getDeserializationNanos(), TimeUnit.NANOSECONDS);
+		meters.responseSize.record(exchange.getBytes());
+		if (meters.errors != null) {
+			meters.errors.increment();
+		}
+	}
+
+
+	@Override
+	public void recordSigning(String endpoint, long nanos) {
+		signingTimers.computeIfAbsent(endpoint, key -> Timer.builder(SIGNING)
+				.description("Time spent signing private Bitstamp requests")
+				.tag("endpoint", endpoint)
+				.register(registry))
+		.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+
+	/**
+	 * The meters of one combination of tags.
+	 */
+	private class ExchangeMeters {
+
+		final Timer requests;
+		final Timer firstByte;
+		final Timer body;
+		final Timer deserialization;
+		final DistributionSummary responseSize;
+		final Counter errors;
+
+
+		ExchangeMeters(Exchange exchange) {
+			Tags tags = Tags.of(
+					"endpoint", exchange.getEndpoint(),
+					"pairs", exchange.getPairs(),
+					"status", exchange.getStatus());
+			requests = Timer.builder(REQUESTS)
+					.description("Total time of Bitstamp requests")
+					.tags(tags)
+					.register(registry);
+			firstByte = Timer.builder(FIRST_BYTE)
+					.description("Time until the response headers of Bitstamp requests arrived, including connecting")
+					.tags(tags)
+					.register(registry);
+			body = Timer.builder(BODY)
+					.description("Time spent reading the response body of Bitstamp requests")
+					.tags(tags)
+					.register(registry);
+			deserialization = Timer.builder(DESERIALIZATION)
+					.description("Time spent deserializing the response body of Bitstamp requests")
+					.tags(tags)
+					.register(registry);
+			responseSize = DistributionSummary.builder(RESPONSE_SIZE)
+					.description("Size of the response body of Bitstamp requests")
+					.baseUnit("bytes")
+					.tags(tags)
+					.register(registry);
+			errors = exchange.isError()
+					? Counter.builder(ERRORS)
+							.description("Number of failed Bitstamp requests")
+							.tags(tags)
+							.register(registry)
+					: null;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.util.Arrays;
+import java.util.List;
+
+import dk.clanie.bitstamp.dto.BitstampOrderBook.Order;
+
+/**
+ * One side (bids or asks) of a {@link LocalOrderBook}.
+ * <p/>
+ * Price levels are kept sorted best-first in parallel primitive arrays, so the best level is at index 0
+ * and the top N levels can be read without copying. Updates locate the level by binary search.
+ * <p/>
+ * Not thread-safe; synchronization is handled by {@link LocalOrderBook}.
+ */
+class OrderBookSide {
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final boolean descending;
+	private double[] prices = new double[INITIAL_CAPACITY];
+	private double[] amounts = new double[INITIAL_CAPACITY];
+	private int size;
+
+
+	/**
+	 * @param descending true for bids (highest price first), false for asks (lowest price first)
+	 */
+	OrderBookSide(boolean descending) {
+		this.descending = descending;
+	}
+
+
+	int size() {
+		return size;
+	}
+
+
+	double price(int level) {
+		return prices[level];
+	}
+
+
+	double amount(int level) {
+		return amounts[level];
+	}
+
+
+	void clear() {
+		size = 0;
+	}
+
+
+	/**
+	 * Replaces the content with the given orders.
+	 */
+	void load(List<Order> orders) {
+		clear();
+		for (Order order : orders) {
+			set(order.getPrice(), order.getAmount());
+		}
+	}
+
+
+	/**
+	 * Sets the amount at a price level. An amount of zero removes the level.
+	 */
+	void set(double price, double amount) {
+		int index = indexOf(price);
+		if (index >= 0) {
+			if (amount == 0) {
+				System.arraycopy(prices, index + 1, prices, index, size - index - 1);
+				System.arraycopy(amounts, index + 1, amounts, index, size - index - 1);
+				size--;
+			} else {
+				amounts[index] = amount;
+			}
+		} else if (amount != 0) {
+			int insertAt = -(index + 1);
+			if (size == prices.length) {
+				prices = Arrays.copyOf(prices, size * 2);
+				amounts = Arrays.copyOf(amounts, size * 2);
+			}
+			System.arraycopy(prices, insertAt, prices, insertAt + 1, size - insertAt);
+			System.arraycopy(amounts, insertAt, amounts, insertAt + 1, size - insertAt);
+			prices[insertAt] = price;
+			amounts[insertAt] = amount;
+			size++;
+		}
+	}
+
+
+	/**
+	 * Binary search for a price level in best-first order.
+	 *
+	 * @return index of the level, or (-(insertion point) - 1) if not present
+	 */
+	private int indexOf(double price) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = Double.compare(prices[mid], price);
+			if (descending) cmp = -cmp;
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache with time-to-live, stale-while-revalidate and single-flight loading.
+ * <p/>
+ * A value younger than the TTL is returned as is. A value older than the TTL, but within the
+ * stale-while-revalidate window after it, is also returned as is, while a refresh is started in the
+ * background. Older values are reloaded by the caller. Concurrent loads of the same key are collapsed
+ * into one, which all callers wait for.
+ * <p/>
+ * If a background refresh fails, the stale value is kept and served until the window ends.
+ * <p/>
+ * With a zero TTL and window, values are not kept at all, and the cache only collapses concurrent loads.
+ * Expired values are purged when the number of keys grows beyond {@value #PURGE_THRESHOLD}.
+ */
+@Slf4j
+class RefreshingCache<K, V> {
+
+	private static final int PURGE_THRESHOLD = 1000;
+
+	private final long ttlNanos;
+	private final long staleNanos;
+	private final Executor refreshExecutor;
+	private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+	private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+
+	/**
+	 * @param ttl how long a value is fresh
+	 * @param staleWhileRevalidate how long after the TTL a stale value may be served while it is refreshed
+	 * @param refreshExecutor executor running background refreshes
+	 */
+	RefreshingCache(Duration ttl, Duration staleWhileRevalidate, Executor refreshExecutor) {
+		this.ttlNanos = ttl.toNanos();
+		this.staleNanos = staleWhileRevalidate.toNanos();
+		this.refreshExecutor = refreshExecutor;
+	}
+
+
+	/**
+	 * Returns the cached value for the key, loading it with the given loader when needed.
+	 */
+	V get(K key, Supplier<V> loader) {
+		Entry<V> entry = entries.get(key);
+		if (entry != null) {
+			long age = System.nanoTime() - entry.loadedAt;
+			if (age < ttlNanos) {
+				return entry.value;
+			}
+			if (age - ttlNanos < staleNanos) {
+				if (!inFlight.containsKey(key)) {
+					refreshExecutor.execute(() -> refresh(key, loader));
+				}
+				return entry.value;
+			}
+		}
+		try {
+			return load(key, loader).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) throw cause;
+			if (e.getCause() instanceof Error cause) throw cause;
+			throw e;
+		}
+	}
+
+
+	/**
+	 * Removes all cached values.
+	 */
+	void invalidateAll() {
+		entries.clear();
+	}
+
+
+	private void refresh(K key, Supplier<V> loader) {
+		load(key, loader).exceptionally(e -> {
+			log.warn("Background refresh of {} failed, serving the stale value", key, e);
+			return null;
+		});
+	}
+
+
+	/**
+	 * Loads the value on the current thread, unless a load of the same key is already in flight.
+	 *
+	 * @return future of the value loaded by this or the already running load
+	 */
+	private CompletableFuture<V> load(K key, Supplier<V> loader) {
+		CompletableFuture<V> future = new CompletableFuture<>();
+		CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+		if (running != null) {
+			return running;
+		}
+		try {
+			V value = loader.get();
+			store(key, value);
+			future.complete(value);
+		} catch (Throwable e) {
+			future.completeExceptionally(e);
+		} finally {
+			inFlight.remove(key, future);
+		}
+		return future;
+	}
+
+
+	private void store(K key, V value) {
+		if (ttlNanos + staleNanos <= 0) {
+			return;
+		}
+		long now = System.nanoTime();
+		entries.put(key, new Entry<>(value, now));
+		if (entries.size() > PURGE_THRESHOLD) {
+			entries.values().removeIf(entry -> now - entry.loadedAt >= ttlNanos + staleNanos);
+		}
+	}
+
+
+	private static class Entry<V> {
+
+		private final V value;
+		private final long loadedAt;
+
+
+		Entry(V value, long loadedAt) {
+			this.value = value;
+			this.loadedAt = loadedAt;
+		}
+
+
+	}
+
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * {@link BitstampRateLimiter} using token buckets.
+ * <p/>
+ * There is one bucket for public requests and one per API key for private requests. Each bucket
+ * holds up to {@code capacity} tokens and is refilled continuously at {@code requestsPerSecond}.
+ * A request takes one token, waiting for it if the bucket is empty.
+ * <p/>
+ * Waiting requests are served {@link BitstampPriority#INTERACTIVE} first, and in arrival order within
+ * each priority. Background requests may therefore wait for as long as there are interactive requests
+ * waiting for the same bucket.
+ * <p/>
+ * Queue depth and accumulated wait time are available for monitoring.
+ */
+public class TokenBucketRateLimiter implements BitstampRateLimiter {
+
+	private final int publicCapacity;
+	private final double publicRequestsPerSecond;
+	private final int privateCapacity;
+	private final double privateRequestsPerSecond;
+
+	private final Bucket publicBucket;
+	private final Map<String, Bucket> privateBuckets = new ConcurrentHashMap<>();
+
+	private final Map<BitstampPriority, AtomicInteger> queueDepth = new EnumMap<>(BitstampPriority.class);
+	private final Map<BitstampPriority, LongAdder> acquisitions = new EnumMap<>(BitstampPriority.class);
+	private final Map<BitstampPriority, LongAdder> waitNanos = new EnumMap<>(BitstampPriority.class);
+
+
+	/**
+	 * Creates a rate limiter.
+	 * 
+	 * @param publicCapacity maximum burst of public requests
+	 * @param publicRequestsPerSecond sustained rate of public requests
+	 * @param privateCapacity maximum burst of private requests per API key
+	 * @param privateRequestsPerSecond sustained rate of private requests per API key
+	 */
+	public TokenBucketRateLimiter(int publicCapacity, double publicRequestsPerSecond, int privateCapacity, double privateRequestsPerSecond) {
+		if (publicCapacity < 1 || privateCapacity < 1) {
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		}
+		if (publicRequestsPerSecond <= 0 || privateRequestsPerSecond <= 0) {
+			throw new IllegalArgumentException("Requests per second must be positive");
+		}
+		this.publicCapacity = publicCapacity;
+		this.publicRequestsPerSecond = publicRequestsPerSecond;
+		this.privateCapacity = privateCapacity;
+		this.privateRequestsPerSecond = privateRequestsPerSecond;
+		for (BitstampPriority priority : BitstampPriority.values()) {
+			queueDepth.put(priority, new AtomicInteger());
+			acquisitions.put(priority, new LongAdder());
+			waitNanos.put(priority, new LongAdder());
+		}
+		publicBucket = new Bucket(publicCapacity, publicRequestsPerSecond);
+	}
+
+
+	@Override
+	public void acquire(@Nullable String apiKey, BitstampPriority priority) throws InterruptedException {
+		Bucket bucket = apiKey == null
+				? publicBucket
+				: privateBuckets.computeIfAbsent(apiKey, key -> new Bucket(privateCapacity, privateRequestsPerSecond));
+		long start = System.nanoTime();
+		bucket.acquire(priority);
+		acquisitions.get(priority).increment();
+		waitNanos.get(priority).add(System.nanoTime() - start);
+	}
+
+
+	/**
+	 * Returns the number of requests currently waiting, across all buckets.
+	 * 
+	 * @return number of waiting requests
+	 */
+	public int getQueueDepth() {
+		int depth = 0;
+		for (AtomicInteger count : queueDepth.values()) {
+			depth += count.get();
+		}
+		return depth;
+	}
+
+
+	/**
+	 * Returns the number of requests of the given priority currently waiting, across all buckets.
+	 * 
+	 * @param priority the priority
+	 * @return number of waiting requests
+	 */
+	public int getQueueDepth(BitstampPriority priority) {
+		return queueDepth.get(priority).get();
+	}
+
+
+	/**
+	 * Returns the number of requests of the given priority let through since this rate limiter was created.
+	 * 
+	 * @param priority the priority
+	 * @return number of requests
+	 */
+	public long getAcquisitions(BitstampPriority priority) {
+		return acquisitions.get(priority).sum();
+	}
+
+
+	/**
+	 * Returns the total time requests of the given priority have waited since this rate limiter was created.
+	 * <p/>
+	 * Together with {@link #getAcquisitions(BitstampPriority)} this gives the average wait time.
+	 * 
+	 * @param priority the priority
+	 * @return accumulated wait time
+	 */
+	public Duration getTotalWaitTime(BitstampPriority priority) {
+		return Duration.ofNanos(waitNanos.get(priority).sum());
+	}
+
+
+	/**
+	 * A token bucket with a wait queue per priority.
+	 * <p/>
+	 * Only the first waiter (the head of the highest priority non-empty queue) waits for the next token;
+	 * the others wait to be signalled that the head has changed.
+	 */
+	private class Bucket {
+
+		private final double capacity;
+		private final double tokensPerNano;
+		private final ReentrantLock lock = new ReentrantLock();
+		private final Condition changed = lock.newCondition();
+		private final Map<BitstampPriority, Deque<Object>> queues = new EnumMap<>(BitstampPriority.class);
+		private double tokens;
+		private long refilledAt;
+		private int waiting;
+
+
+		Bucket(int capacity, double requestsPerSecond) {
+			this.capacity = capacity;
+			this.tokensPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+			for (BitstampPriority priority : BitstampPriority.values()) {
+				queues.put(priority, new ArrayDeque<>());
+			}
+			tokens = capacity;
+			refilledAt = System.nanoTime();
+		}
+
+
+		void acquire(BitstampPriority priority) throws InterruptedException {
+			lock.lockInterruptibly();
+			try {
+				refill();
+				if (waiting == 0 && tokens >= 1) {
+					tokens -= 1;
+					return;
+				}
+				Object ticket = new Object();
+				Deque<Object> queue = queues.get(priority);
+				queue.addLast(ticket);
+				waiting++;
+				queueDepth.get(priority).incrementAndGet();
+				try {
+					while (true) {
+						if (head() == ticket) {
+							refill();
+							if (tokens >= 1) {
+								tokens -= 1;
+								queue.removeFirst();
+								changed.signalAll();
+								return;
+							}
+							changed.awaitNanos((long) Math.ceil((1 - tokens) / tokensPerNano));
+						} else {
+							changed.await();
+						}
+					}
+				} catch (InterruptedException e) {
+					queue.remove(ticket);
+					changed.signalAll();
+					throw e;
+				} finally {
+					waiting--;
+					queueDepth.get(priority).decrementAndGet();
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+
+		private @Nullable Object head() {
+			for (Deque<Object> queue : queues.values()) { // EnumMap iterates in priority order
+				if (!queue.isEmpty()) return queue.peekFirst();
+			}
+			return null;
+		}
+
+
+		private void refill() {
+			long now = System.nanoTime();
+			tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+			refilledAt = now;
+		}
+
+
+	}
+
+
+}
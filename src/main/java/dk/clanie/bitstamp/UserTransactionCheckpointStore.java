@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.util.OptionalLong;
+
+/**
+ * Storage of the checkpoints of {@link UserTransactionSynchronizer}s.
+ * <p/>
+ * A checkpoint is the highest user transaction ID handed to the sink of a synchronizer, stored under
+ * a key identifying the account. Implementations must be thread safe.
+ */
+public interface UserTransactionCheckpointStore {
+
+
+	/**
+	 * Loads a checkpoint.
+	 *
+	 * @param key the key of the account
+	 * @return the highest transaction ID synchronized, or empty if the account was never synchronized
+	 */
+	OptionalLong load(String key);
+
+
+	/**
+	 * Saves a checkpoint, replacing any previous checkpoint for the key.
+	 *
+	 * @param key the key of the account
+	 * @param lastId the highest transaction ID synchronized
+	 */
+	void save(String key, long lastId);
+
+
+}
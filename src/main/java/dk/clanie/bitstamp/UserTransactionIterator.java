@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.LongFunction;
+
+import org.jspecify.annotations.Nullable;
+
+import dk.clanie.bitstamp.dto.BitstampUserTransaction;
+
+/**
+ * Iterator over user transactions in ID order, fetching them a page at a time.
+ * <p/>
+ * Pages are fetched with {@code since_id}, starting when the first transaction is requested. As soon as a
+ * page has arrived, the next page is fetched in the background while the current one is consumed, so at
+ * most two pages are held at a time. A page shorter than the page size is the last one.
+ * <p/>
+ * Transactions before {@code from} are skipped, and iteration ends at the first transaction after {@code to}.
+ * Pages are fetched at the priority of the thread creating the iterator.
+ */
+class UserTransactionIterator implements Iterator<BitstampUserTransaction>, AutoCloseable {
+
+	private final LongFunction<List<BitstampUserTransaction>> pageSource;
+	private final int pageSize;
+	private final @Nullable Instant from;
+	private final @Nullable Instant to;
+	private final BitstampPriority priority = BitstampPriority.current();
+
+	private Iterator<BitstampUserTransaction> page = Collections.emptyIterator();
+	private @Nullable Future<List<BitstampUserTransaction>> nextPage;
+	private @Nullable BitstampUserTransaction next;
+	private long lastId;
+	private boolean started;
+	private boolean done;
+
+
+	/**
+	 * @param pageSource fetches the page of transactions after the given ID, with at most {@code pageSize} transactions
+	 * @param pageSize the number of transactions in a full page
+	 * @param from skip transactions before this time (optional)
+	 * @param to end at the first transaction after this time (optional)
+	 */
+	UserTransactionIterator(LongFunction<List<BitstampUserTransaction>> pageSource, int pageSize, @Nullable Instant from, @Nullable Instant to) {
+		this.pageSource = pageSource;
+		this.pageSize = pageSize;
+		this.from = from;
+		this.to = to;
+	}
+
+
+	@Override
+	public boolean hasNext() {
+		while (next == null && !done) {
+			if (!page.hasNext()) {
+				loadPage();
+				continue;
+			}
+			BitstampUserTransaction transaction = page.next();
+			if (transaction.getId() <= lastId) {
+				continue;
+			}
+			lastId = transaction.getId();
+			Instant datetime = transaction.getDatetime();
+			if (to != null && datetime != null && datetime.isAfter(to)) {
+				close();
+			} else if (from == null || datetime == null || !datetime.isBefore(from)) {
+				next = transaction;
+			}
+		}
+		return next != null;
+	}
+
+
+	@Override
+	public BitstampUserTransaction next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		BitstampUserTransaction transaction = next;
+		next = null;
+		return transaction;
+	}
+
+
+	/**
+	 * Ends the iteration, cancelling the request for the next page if it is still running.
+	 */
+	@Override
+	public void close() {
+		done = true;
+		page = Collections.emptyIterator();
+		if (nextPage != null) {
+			nextPage.cancel(true);
+			nextPage = null;
+		}
+	}
+
+
+	/**
+	 * Takes the next page, and starts fetching the one after it unless the page was the last.
+	 */
+	private void loadPage() {
+		if (!started) {
+			started = true;
+			nextPage = fetch(0);
+		}
+		if (nextPage == null) {
+			done = true;
+			return;
+		}
+		List<BitstampUserTransaction> transactions = await(nextPage).stream()
+				.sorted(Comparator.comparingLong(BitstampUserTransaction::getId))
+				.toList();
+		nextPage = null;
+		if (transactions.size() >= pageSize) {
+			long sinceId = transactions.get(transactions.size() - 1).getId();
+			if (sinceId > lastId) {
+				nextPage = fetch(sinceId);
+			}
+		}
+		page = transactions.iterator();
+	}
+
+
+	private Future<List<BitstampUserTransaction>> fetch(long sinceId) {
+		FutureTask<List<BitstampUserTransaction>> task = new FutureTask<>(() -> priority.call(() -> pageSource.apply(sinceId)));
+		Thread.ofVirtual().name("bitstamp-user-transactions").start(task);
+		return task;
+	}
+
+
+	private List<BitstampUserTransaction> await(Future<List<BitstampUserTransaction>> future) {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			close();
+			if (e.getCause() instanceof RuntimeException cause) throw cause;
+			if (e.getCause() instanceof Error cause) throw cause;
+			throw new IllegalStateException(e.getCause());
+		} catch (InterruptedException e) {
+			close();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a response", e);
+		}
+	}
+
+
+}
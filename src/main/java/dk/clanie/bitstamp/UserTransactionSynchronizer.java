@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+
+import dk.clanie.bitstamp.dto.BitstampUserTransaction;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a local copy of the user transactions of an account current.
+ * <p/>
+ * Each call to {@link #synchronize(Consumer)} pages forward from the highest transaction ID seen, with
+ * {@code since_id} and pages of {@value #PAGE_SIZE} transactions in ascending order, until it has caught up.
+ * Only transactions not seen before are handed to the sink, one page at a time and in ID order.
+ * <p/>
+ * The highest ID is saved in a {@link UserTransactionCheckpointStore} after each page has been handed to
+ * the sink, so a restarted synchronizer resumes where the previous one stopped. If the process stops
+ * between the sink and the checkpoint, the last page is handed to the sink again, so the sink should
+ * ignore transactions it already has.
+ * <p/>
+ * Requests are made at the priority of the caller; use {@link BitstampPriority#BACKGROUND} for large
+ * backlogs.
+ */
+@Slf4j
+public class UserTransactionSynchronizer {
+
+	static final int PAGE_SIZE = BitstampClient.USER_TRANSACTIONS_MAX_LIMIT;
+
+	/**
+	 * Fetches a page of user transactions after the given ID, in ascending order.
+	 */
+	@FunctionalInterface
+	interface PageSource {
+		List<BitstampUserTransaction> fetch(long sinceId);
+	}
+
+	private final String key;
+	private final PageSource source;
+	private final UserTransactionCheckpointStore checkpointStore;
+	private long lastId;
+
+
+	/**
+	 * Creates a synchronizer, keeping its checkpoint in the given store.
+	 * <p/>
+	 * The checkpoint is stored under the API key of the credentials.
+	 *
+	 * @param client client used for fetching user transactions
+	 * @param credentials the Bitstamp API credentials of the account
+	 * @param checkpointStore store for the checkpoint
+	 */
+	public UserTransactionSynchronizer(BitstampClient client, BitstampCredentials credentials, UserTransactionCheckpointStore checkpointStore) {
+		this(credentials.getApiKey(),
+				sinceId -> client.getUserTransactions(credentials, null, null, PAGE_SIZE, BitstampClient.ASCENDING, sinceId, null, null),
+				checkpointStore);
+	}
+
+
+	/**
+	 * Creates a synchronizer, keeping its checkpoint in a file in the given directory.
+	 *
+	 * @param client client used for fetching user transactions
+	 * @param credentials the Bitstamp API credentials of the account
+	 * @param checkpointDirectory directory for the checkpoint file
+	 * @see FileUserTransactionCheckpointStore
+	 */
+	public UserTransactionSynchronizer(BitstampClient client, BitstampCredentials credentials, Path checkpointDirectory) {
+		this(client, credentials, new FileUserTransactionCheckpointStore(checkpointDirectory));
+	}
+
+
+	UserTransactionSynchronizer(String key, PageSource source, UserTransactionCheckpointStore checkpointStore) {
+		this.key = key;
+		this.source = source;
+		this.checkpointStore = checkpointStore;
+		this.lastId = checkpointStore.load(key).orElse(0);
+	}
+
+
+	/**
+	 * Fetches the transactions made since the last synchronization and hands them to the sink.
+	 *
+	 * @param sink receives the new transactions, a page at a time and in ID order
+	 * @return the number of new transactions
+	 */
+	public synchronized int synchronize(Consumer<List<BitstampUserTransaction>> sink) {
+		int count = 0;
+		while (true) {
+			List<BitstampUserTransaction> page = source.fetch(lastId);
+			long sinceId = lastId;
+			List<BitstampUserTransaction> transactions = page.stream()
+					.filter(transaction -> transaction.getId() > sinceId)
+					.sorted(Comparator.comparingLong(BitstampUserTransaction::getId))
+					.toList();
+			if (!transactions.isEmpty()) {
+				sink.accept(transactions);
+				lastId = transactions.get(transactions.size() - 1).getId();
+				checkpointStore.save(key, lastId);
+				count += transactions.size();
+			}
+			if (page.size() < PAGE_SIZE || transactions.isEmpty()) {
+				log.debug("Synchronized {} new user transactions, last ID {}", count, lastId);
+				return count;
+			}
+		}
+	}
+
+
+	/**
+	 * Returns the highest transaction ID handed to the sink so far, including by earlier synchronizers using the same checkpoint.
+	 *
+	 * @return the highest transaction ID, or empty if no transactions were synchronized yet
+	 */
+	public synchronized OptionalLong getLastId() {
+		return lastId == 0 ? OptionalLong.empty() : OptionalLong.of(lastId);
+	}
+
+
+}
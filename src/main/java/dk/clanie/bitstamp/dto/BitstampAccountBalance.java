@@ -24,29 +24,56 @@ import lombok.Value;
 
 /**
  * Represents an account balance for a currency on Bitstamp.
+ * <p>
+ * Amounts are held as exact {@link BitstampDecimal}s. The Double getters return the
+ * nearest double, and the {@code ...Decimal} getters the exact value.
  */
 @Value
 public class BitstampAccountBalance {
 
 	BitstampCurrencyCode currency;
 
-	Double available;
+	BitstampDecimal available;
 
-	Double reserved;
+	BitstampDecimal reserved;
 
-	Double total;
+	BitstampDecimal total;
 
 
 	@JsonCreator
 	public BitstampAccountBalance(
 			@JsonProperty("currency") String currency,
-			@JsonProperty("available") Double available,
-			@JsonProperty("reserved") Double reserved,
-			@JsonProperty("total") Double total) {
+			@JsonProperty("available") BitstampDecimal available,
+			@JsonProperty("reserved") BitstampDecimal reserved,
+			@JsonProperty("total") BitstampDecimal total) {
 		this.currency = BitstampCurrencyCode.fromString(currency);
 		this.available = available;
 		this.reserved = reserved;
 		this.total = total;
 	}
 
+	public Double getAvailable() {
+		return BitstampDecimal.toDouble(available);
+	}
+
+	public BitstampDecimal getAvailableDecimal() {
+		return available;
+	}
+
+	public Double getReserved() {
+		return BitstampDecimal.toDouble(reserved);
+	}
+
+	public BitstampDecimal getReservedDecimal() {
+		return reserved;
+	}
+
+	public Double getTotal() {
+		return BitstampDecimal.toDouble(total);
+	}
+
+	public BitstampDecimal getTotalDecimal() {
+		return total;
+	}
+
 }
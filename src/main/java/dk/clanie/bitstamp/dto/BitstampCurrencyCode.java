@@ -20,6 +20,10 @@ package dk.clanie.bitstamp.dto;
 import static dk.clanie.bitstamp.dto.BitstampCurrencyType.CRYPTO;
 import static dk.clanie.bitstamp.dto.BitstampCurrencyType.FIAT;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 import org.jspecify.annotations.Nullable;
 
 import lombok.Getter;
@@ -225,6 +229,11 @@ public enum BitstampCurrencyCode {
 	private final String description;
 	private final BitstampCurrencyType currencyType;
 
+	/**
+	 * Currency codes by code, lower case code and constant name.
+	 */
+	private static final Map<String, BitstampCurrencyCode> BY_CODE = byCode();
+
 
 	/**
 	 * Returns the currency code as string.
@@ -250,14 +259,41 @@ public enum BitstampCurrencyCode {
 	 */
 	public static @Nullable BitstampCurrencyCode fromString(@Nullable String code) {
 		if (code == null) return null;
-		code = code.toUpperCase();
-		try {
-			return valueOf(code);
-		} catch (IllegalArgumentException e) {
-			if ("1INCH".equals(code)) return _1INCH;
-			if ("USD-PERP".equals(code)) return USD_PERP;
-			throw new IllegalArgumentException("Unknown currency code: " + code);
+		BitstampCurrencyCode currencyCode = tryFromString(code);
+		if (currencyCode == null) {
+			throw new IllegalArgumentException("Unknown currency code: " + code.toUpperCase(Locale.ROOT));
+		}
+		return currencyCode;
+	}
+
+
+	/**
+	 * Finds a currency code by its string representation, without throwing for unknown codes.
+	 * <p>
+	 * Accepts the same strings as {@link #fromString(String)}: the code in any case,
+	 * and the enum constant name. Upper and lower case codes are found without allocation.
+	 *
+	 * @param code the currency code string
+	 * @return the currency code enum, or null if the code is null or unknown
+	 */
+	public static @Nullable BitstampCurrencyCode tryFromString(@Nullable String code) {
+		if (code == null) return null;
+		BitstampCurrencyCode currencyCode = BY_CODE.get(code);
+		if (currencyCode == null) {
+			currencyCode = BY_CODE.get(code.toUpperCase(Locale.ROOT));
+		}
+		return currencyCode;
+	}
+
+
+	private static Map<String, BitstampCurrencyCode> byCode() {
+		Map<String, BitstampCurrencyCode> byCode = new HashMap<>();
+		for (BitstampCurrencyCode currencyCode : values()) {
+			byCode.put(currencyCode.name(), currencyCode);
+			byCode.put(currencyCode.getCode(), currencyCode);
+			byCode.put(currencyCode.getCode().toLowerCase(Locale.ROOT), currencyCode);
 		}
+		return Map.copyOf(byCode);
 	}
 
 
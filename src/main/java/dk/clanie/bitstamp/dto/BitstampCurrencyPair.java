@@ -17,11 +17,14 @@
  */
 package dk.clanie.bitstamp.dto;
 
+import java.util.Locale;
+
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 import tools.jackson.databind.annotation.JsonDeserialize;
 
 import dk.clanie.bitstamp.jackson.BitstampCurrencyPairDeserializer;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
@@ -34,6 +37,9 @@ import lombok.Getter;
  * <li>Without slash (e.g., "btcusd") - used as URL parameters in API calls</li>
  * </ul>
  * This class handles both formats and provides methods to convert between them.
+ * <p>
+ * Use {@link #of(BitstampCurrencyCode, BitstampCurrencyCode)} to get the canonical instance of a pair
+ * from {@link BitstampCurrencyPairRegistry}; pairs parsed by this class and its deserializer are canonical.
  */
 @Getter
 @EqualsAndHashCode
@@ -43,8 +49,22 @@ public class BitstampCurrencyPair {
 	private final BitstampCurrencyCode baseCurrency;
 	private final BitstampCurrencyCode quoteCurrency;
 
+	@Getter(AccessLevel.NONE)
+	@EqualsAndHashCode.Exclude
+	private final String withSlash;
+
+	@Getter(AccessLevel.NONE)
+	@EqualsAndHashCode.Exclude
+	private final String withUnderscore;
+
+	@Getter(AccessLevel.NONE)
+	@EqualsAndHashCode.Exclude
+	private final String urlParameter;
+
 	/**
 	 * Creates a currency pair from BitstampCurrencyCode enums.
+	 * <p>
+	 * Prefer {@link #of(BitstampCurrencyCode, BitstampCurrencyCode)}, which returns the canonical instance.
 	 *
 	 * @param baseCurrency the base currency
 	 * @param quoteCurrency the quote currency
@@ -58,6 +78,22 @@ public class BitstampCurrencyPair {
 		}
 		this.baseCurrency = baseCurrency;
 		this.quoteCurrency = quoteCurrency;
+		this.withSlash = baseCurrency.getCode() + "/" + quoteCurrency.getCode();
+		this.withUnderscore = (baseCurrency.getCode() + "_" + quoteCurrency.getCode()).toLowerCase(Locale.ROOT);
+		this.urlParameter = (baseCurrency.getCode() + quoteCurrency.getCode()).toLowerCase(Locale.ROOT);
+	}
+
+
+	/**
+	 * Gets the canonical currency pair of two currencies.
+	 *
+	 * @param baseCurrency the base currency
+	 * @param quoteCurrency the quote currency
+	 * @return the canonical currency pair
+	 * @throws IllegalArgumentException if either currency is null
+	 */
+	public static BitstampCurrencyPair of(BitstampCurrencyCode baseCurrency, BitstampCurrencyCode quoteCurrency) {
+		return BitstampCurrencyPairRegistry.get(baseCurrency, quoteCurrency);
 	}
 
 	/**
@@ -72,14 +108,18 @@ public class BitstampCurrencyPair {
 		if (pairWithSlash == null || pairWithSlash.isEmpty()) {
 			throw new IllegalArgumentException("Pair string cannot be null or empty");
 		}
+		if (pairWithSlash.indexOf('/') >= 0) {
+			BitstampCurrencyPair pair = BitstampCurrencyPairRegistry.find(pairWithSlash);
+			if (pair != null) return pair;
+		}
 		String[] parts = pairWithSlash.split("/");
 		if (parts.length != 2) {
 			throw new IllegalArgumentException(
 					"Invalid pair format. Expected format: BASE/QUOTE, got: " + pairWithSlash);
 		}
-		BitstampCurrencyCode base = BitstampCurrencyCode.fromString(parts[0].toUpperCase());
-		BitstampCurrencyCode quote = BitstampCurrencyCode.fromString(parts[1].toUpperCase());
-		return new BitstampCurrencyPair(base, quote);
+		BitstampCurrencyCode base = BitstampCurrencyCode.fromString(parts[0]);
+		BitstampCurrencyCode quote = BitstampCurrencyCode.fromString(parts[1]);
+		return of(base, quote);
 	}
 
 
@@ -95,14 +135,18 @@ public class BitstampCurrencyPair {
 		if (pairWithUnderscore == null || pairWithUnderscore.isEmpty()) {
 			throw new IllegalArgumentException("Pair string cannot be null or empty");
 		}
+		if (pairWithUnderscore.indexOf('_') >= 0) {
+			BitstampCurrencyPair pair = BitstampCurrencyPairRegistry.find(pairWithUnderscore);
+			if (pair != null) return pair;
+		}
 		String[] parts = pairWithUnderscore.split("_");
 		if (parts.length != 2) {
 			throw new IllegalArgumentException(
 					"Invalid pair format. Expected format: base_quote, got: " + pairWithUnderscore);
 		}
-		BitstampCurrencyCode base = BitstampCurrencyCode.fromString(parts[0].toUpperCase());
-		BitstampCurrencyCode quote = BitstampCurrencyCode.fromString(parts[1].toUpperCase());
-		return new BitstampCurrencyPair(base, quote);
+		BitstampCurrencyCode base = BitstampCurrencyCode.fromString(parts[0]);
+		BitstampCurrencyCode quote = BitstampCurrencyCode.fromString(parts[1]);
+		return of(base, quote);
 	}
 
 	/**
@@ -113,7 +157,17 @@ public class BitstampCurrencyPair {
 	 */
 	@JsonValue
 	public String toStringWithSlash() {
-		return baseCurrency.getCode() + "/" + quoteCurrency.getCode();
+		return withSlash;
+	}
+
+	/**
+	 * Returns the pair in the format with underscore (e.g., "btc_eur").
+	 * This format is used in user transactions for exchange rates.
+	 *
+	 * @return the pair with underscore in lowercase
+	 */
+	public String toUnderscoreFormat() {
+		return withUnderscore;
 	}
 
 	/**
@@ -123,7 +177,7 @@ public class BitstampCurrencyPair {
 	 * @return the pair without slash in lowercase
 	 */
 	public String toUrlParameter() {
-		return (baseCurrency.getCode() + quoteCurrency.getCode()).toLowerCase();
+		return urlParameter;
 	}
 
 	@Override
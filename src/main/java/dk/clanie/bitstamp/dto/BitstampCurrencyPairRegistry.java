@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.dto;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Registry of canonical currency pairs.
+ * <p>
+ * Holds one {@link BitstampCurrencyPair} per base and quote currency, in a table indexed by the
+ * ordinals of the two currency codes, so canonical pairs can be compared by identity and are
+ * cheap map keys. Pairs are created on first use.
+ * <p>
+ * Every canonical pair is also registered under its slash, underscore and URL forms
+ * (e.g. "BTC/USD", "btc_usd" and "btcusd"), so parsing a pair in one of these forms is a single
+ * map lookup without allocation. Other spellings are parsed and resolved to the canonical pair.
+ * <p>
+ * The URL form has no separator, so it can be ambiguous for pairs which haven't been seen yet.
+ * Seed the registry with {@link #register(Collection)} from
+ * {@link dk.clanie.bitstamp.BitstampClient#getTradingPairsInfo()} to have URL symbols resolved
+ * as Bitstamp defines them.
+ */
+public final class BitstampCurrencyPairRegistry {
+
+	private static final int CURRENCY_COUNT = BitstampCurrencyCode.values().length;
+
+	/**
+	 * Canonical pairs by base and quote ordinal. Rows are allocated on first use.
+	 * Entries are only written while holding the class lock.
+	 */
+	private static final BitstampCurrencyPair[][] PAIRS = new BitstampCurrencyPair[CURRENCY_COUNT][];
+
+	/**
+	 * Canonical pairs by slash, underscore and URL form.
+	 */
+	private static final ConcurrentMap<String, BitstampCurrencyPair> BY_NAME = new ConcurrentHashMap<>();
+
+
+	private BitstampCurrencyPairRegistry() {
+	}
+
+
+	/**
+	 * Gets the canonical pair of two currencies.
+	 *
+	 * @param baseCurrency the base currency
+	 * @param quoteCurrency the quote currency
+	 * @return the canonical currency pair
+	 * @throws IllegalArgumentException if either currency is null
+	 */
+	public static BitstampCurrencyPair get(BitstampCurrencyCode baseCurrency, BitstampCurrencyCode quoteCurrency) {
+		if (baseCurrency == null) {
+			throw new IllegalArgumentException("Base currency cannot be null");
+		}
+		if (quoteCurrency == null) {
+			throw new IllegalArgumentException("Quote currency cannot be null");
+		}
+		BitstampCurrencyPair[] row = PAIRS[baseCurrency.ordinal()];
+		BitstampCurrencyPair pair = row == null ? null : row[quoteCurrency.ordinal()];
+		return pair != null ? pair : create(baseCurrency, quoteCurrency);
+	}
+
+
+	/**
+	 * Finds the canonical pair for a pair string.
+	 * <p>
+	 * Accepts the slash form ("BTC/USD"), the underscore form ("btc_usd") and the URL form ("btcusd")
+	 * in any case. A URL form which could be split into currency codes in more than one way is only
+	 * found if the pair has been created or registered before.
+	 *
+	 * @param name the pair string
+	 * @return the canonical currency pair, or null if the string is not a pair of known currencies
+	 */
+	public static @Nullable BitstampCurrencyPair find(@Nullable String name) {
+		if (name == null) return null;
+		BitstampCurrencyPair pair = BY_NAME.get(name);
+		return pair != null ? pair : parse(name);
+	}
+
+
+	/**
+	 * Registers the trading pairs Bitstamp offers.
+	 * <p>
+	 * Creates their canonical pairs and registers their URL symbols, which take precedence over
+	 * symbols derived from the currency codes. Trading pairs with unknown currencies are skipped.
+	 *
+	 * @param tradingPairs trading pairs, as returned by {@link dk.clanie.bitstamp.BitstampClient#getTradingPairsInfo()}
+	 * @return the number of trading pairs registered
+	 */
+	public static int register(Collection<BitstampTradingPair> tradingPairs) {
+		int registered = 0;
+		for (BitstampTradingPair tradingPair : tradingPairs) {
+			BitstampCurrencyPair pair = find(tradingPair.getName());
+			if (pair == null) continue;
+			if (tradingPair.getUrlSymbol() != null) {
+				BY_NAME.put(tradingPair.getUrlSymbol(), pair);
+			}
+			registered++;
+		}
+		return registered;
+	}
+
+
+	private static synchronized BitstampCurrencyPair create(BitstampCurrencyCode baseCurrency, BitstampCurrencyCode quoteCurrency) {
+		BitstampCurrencyPair[] row = PAIRS[baseCurrency.ordinal()];
+		if (row == null) {
+			row = new BitstampCurrencyPair[CURRENCY_COUNT];
+			PAIRS[baseCurrency.ordinal()] = row;
+		}
+		BitstampCurrencyPair pair = row[quoteCurrency.ordinal()];
+		if (pair == null) {
+			pair = new BitstampCurrencyPair(baseCurrency, quoteCurrency);
+			BY_NAME.putIfAbsent(pair.toStringWithSlash(), pair);
+			BY_NAME.putIfAbsent(pair.toUnderscoreFormat(), pair);
+			BY_NAME.putIfAbsent(pair.toUrlParameter(), pair);
+			row[quoteCurrency.ordinal()] = pair;
+		}
+		return pair;
+	}
+
+
+	private static @Nullable BitstampCurrencyPair parse(String name) {
+		int separator = name.indexOf('/');
+		if (separator < 0) {
+			separator = name.indexOf('_');
+		}
+		if (separator >= 0) {
+			BitstampCurrencyCode base = BitstampCurrencyCode.tryFromString(name.substring(0, separator));
+			BitstampCurrencyCode quote = BitstampCurrencyCode.tryFromString(name.substring(separator + 1));
+			return base == null || quote == null ? null : get(base, quote);
+		}
+
+		// URL form, which is only resolved if the name splits into currency codes in exactly one way
+		BitstampCurrencyCode base = null;
+		BitstampCurrencyCode quote = null;
+		for (int i = 1; i < name.length(); i++) {
+			BitstampCurrencyCode candidateBase = BitstampCurrencyCode.tryFromString(name.substring(0, i));
+			if (candidateBase == null) continue;
+			BitstampCurrencyCode candidateQuote = BitstampCurrencyCode.tryFromString(name.substring(i));
+			if (candidateQuote == null) continue;
+			if (base != null) return null;
+			base = candidateBase;
+			quote = candidateQuote;
+		}
+		return base == null ? null : get(base, quote);
+	}
+
+
+}
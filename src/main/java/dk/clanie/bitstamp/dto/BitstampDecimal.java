@@ -0,0 +1,454 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.jspecify.annotations.Nullable;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import tools.jackson.databind.annotation.JsonDeserialize;
+
+import dk.clanie.bitstamp.jackson.BitstampDecimalDeserializer;
+
+/**
+ * Exact decimal number backed by a {@code long}.
+ * <p>
+ * The value is {@code unscaledValue / 10^scale}, like {@link BigDecimal}, but limited to 18 decimals
+ * and to unscaled values which fit in a long. That is plenty for Bitstamp prices and amounts, and
+ * keeps parsing and arithmetic to primitive operations. Bitstamp's numeric strings are parsed
+ * digit by digit, without going through double or BigDecimal.
+ * <p>
+ * Arithmetic is exact and throws {@link ArithmeticException} on overflow, like {@link Math#addExact(long, long)}.
+ * Use {@link #setScale(int, RoundingMode)} to round to the precision of a currency, e.g. with
+ * {@link BitstampTradingPair#scalePrice(BitstampDecimal, RoundingMode)}.
+ * <p>
+ * Unlike BigDecimal, equality is numeric: 1.50 equals 1.5.
+ */
+@JsonDeserialize(using = BitstampDecimalDeserializer.class)
+public final class BitstampDecimal implements Comparable<BitstampDecimal> {
+
+	/**
+	 * Maximum number of decimals.
+	 */
+	public static final int MAX_SCALE = 18;
+
+	public static final BitstampDecimal ZERO = new BitstampDecimal(0, 0);
+
+	private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+	private static final double[] DOUBLE_POWERS_OF_TEN = new double[MAX_SCALE + 1];
+	static {
+		POWERS_OF_TEN[0] = 1;
+		DOUBLE_POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i <= MAX_SCALE; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+			DOUBLE_POWERS_OF_TEN[i] = POWERS_OF_TEN[i];
+		}
+	}
+
+	/**
+	 * Largest magnitude a double holds exactly.
+	 */
+	private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+	private final long unscaledValue;
+	private final int scale;
+
+
+	private BitstampDecimal(long unscaledValue, int scale) {
+		this.unscaledValue = unscaledValue;
+		this.scale = scale;
+	}
+
+
+	/**
+	 * Gets the decimal {@code unscaledValue / 10^scale}.
+	 *
+	 * @param unscaledValue the unscaled value
+	 * @param scale number of decimals, 0 to {@value #MAX_SCALE}
+	 * @return the decimal
+	 * @throws IllegalArgumentException if the scale is out of range
+	 */
+	public static BitstampDecimal of(long unscaledValue, int scale) {
+		if (scale < 0 || scale > MAX_SCALE) {
+			throw new IllegalArgumentException("Scale must be between 0 and " + MAX_SCALE + ", got: " + scale);
+		}
+		return unscaledValue == 0 && scale == 0 ? ZERO : new BitstampDecimal(unscaledValue, scale);
+	}
+
+
+	/**
+	 * Parses a decimal string, such as "47800.00" or "-0.00012345".
+	 * <p>
+	 * The scale of the result is the number of decimals in the string. Plain decimal strings
+	 * are parsed directly; other forms accepted by {@link BigDecimal#BigDecimal(String)},
+	 * such as exponent notation, through BigDecimal.
+	 *
+	 * @param value the string
+	 * @return the decimal
+	 * @throws NumberFormatException if the string is not a number or can't be represented
+	 */
+	public static BitstampDecimal parse(CharSequence value) {
+		int length = value.length();
+		int index = 0;
+		boolean negative = false;
+		if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+			negative = value.charAt(0) == '-';
+			index++;
+		}
+		long unscaledValue = 0;
+		int digits = 0;
+		int decimals = -1;
+		for (; index < length; index++) {
+			char c = value.charAt(index);
+			if (c == '.' && decimals < 0) {
+				decimals = 0;
+				continue;
+			}
+			int digit = c - '0';
+			if (digit < 0 || digit > 9 || unscaledValue > (Long.MAX_VALUE - digit) / 10) {
+				return parseSlow(value);
+			}
+			unscaledValue = unscaledValue * 10 + digit;
+			digits++;
+			if (decimals >= 0) decimals++;
+		}
+		if (digits == 0 || decimals > MAX_SCALE) {
+			return parseSlow(value);
+		}
+		return of(negative ? -unscaledValue : unscaledValue, Math.max(decimals, 0));
+	}
+
+
+	/**
+	 * Parses a decimal from a range of a character array, such as a JSON parser's text buffer.
+	 * <p>
+	 * Works like {@link #parse(CharSequence)}, without creating a string for plain decimals.
+	 *
+	 * @param chars the characters
+	 * @param offset the index of the first character
+	 * @param length the number of characters
+	 * @return the decimal
+	 * @throws NumberFormatException if the characters are not a number or can't be represented
+	 */
+	public static BitstampDecimal parse(char[] chars, int offset, int length) {
+		int end = offset + length;
+		int index = offset;
+		boolean negative = false;
+		if (length > 0 && (chars[index] == '-' || chars[index] == '+')) {
+			negative = chars[index] == '-';
+			index++;
+		}
+		long unscaledValue = 0;
+		int digits = 0;
+		int decimals = -1;
+		for (; index < end; index++) {
+			char c = chars[index];
+			if (c == '.' && decimals < 0) {
+				decimals = 0;
+				continue;
+			}
+			int digit = c - '0';
+			if (digit < 0 || digit > 9 || unscaledValue > (Long.MAX_VALUE - digit) / 10) {
+				return parseSlow(new String(chars, offset, length));
+			}
+			unscaledValue = unscaledValue * 10 + digit;
+			digits++;
+			if (decimals >= 0) decimals++;
+		}
+		if (digits == 0 || decimals > MAX_SCALE) {
+			return parseSlow(new String(chars, offset, length));
+		}
+		return of(negative ? -unscaledValue : unscaledValue, Math.max(decimals, 0));
+	}
+
+
+	/**
+	 * Converts a BigDecimal.
+	 * <p>
+	 * Trailing zeros are dropped if needed to fit within {@value #MAX_SCALE} decimals.
+	 *
+	 * @param value the BigDecimal
+	 * @return the decimal
+	 * @throws ArithmeticException if the value can't be represented exactly
+	 */
+	public static BitstampDecimal valueOf(BigDecimal value) {
+		if (value.scale() > MAX_SCALE) {
+			value = value.stripTrailingZeros();
+		}
+		if (value.scale() < 0) {
+			value = value.setScale(0);
+		}
+		if (value.scale() > MAX_SCALE) {
+			throw new ArithmeticException("More than " + MAX_SCALE + " decimals: " + value.toPlainString());
+		}
+		return of(value.unscaledValue().longValueExact(), value.scale());
+	}
+
+
+	/**
+	 * Converts a double, using its shortest decimal representation (as {@link Double#toString(double)}).
+	 *
+	 * @param value the double
+	 * @return the decimal
+	 * @throws ArithmeticException if the value can't be represented
+	 * @throws NumberFormatException if the value is infinite or NaN
+	 */
+	public static BitstampDecimal valueOf(double value) {
+		return valueOf(BigDecimal.valueOf(value));
+	}
+
+
+	/**
+	 * Gets the value of a nullable decimal as double.
+	 *
+	 * @param value the decimal, or null
+	 * @return the value, or 0 if the decimal is null
+	 */
+	public static double doubleValue(@Nullable BitstampDecimal value) {
+		return value == null ? 0 : value.doubleValue();
+	}
+
+
+	/**
+	 * Gets the value of a nullable decimal as Double.
+	 *
+	 * @param value the decimal, or null
+	 * @return the value, or null if the decimal is null
+	 */
+	public static @Nullable Double toDouble(@Nullable BitstampDecimal value) {
+		return value == null ? null : value.doubleValue();
+	}
+
+
+	public long getUnscaledValue() {
+		return unscaledValue;
+	}
+
+
+	public int getScale() {
+		return scale;
+	}
+
+
+	public int signum() {
+		return Long.signum(unscaledValue);
+	}
+
+
+	public BitstampDecimal negate() {
+		return new BitstampDecimal(Math.negateExact(unscaledValue), scale);
+	}
+
+
+	public BitstampDecimal add(BitstampDecimal other) {
+		int resultScale = Math.max(scale, other.scale);
+		return new BitstampDecimal(Math.addExact(unscaledAt(resultScale), other.unscaledAt(resultScale)), resultScale);
+	}
+
+
+	public BitstampDecimal subtract(BitstampDecimal other) {
+		int resultScale = Math.max(scale, other.scale);
+		return new BitstampDecimal(Math.subtractExact(unscaledAt(resultScale), other.unscaledAt(resultScale)), resultScale);
+	}
+
+
+	/**
+	 * Multiplies exactly. The scale of the result is the sum of the scales.
+	 *
+	 * @param other the multiplier
+	 * @return the product
+	 * @throws ArithmeticException if the product overflows or has more than {@value #MAX_SCALE} decimals
+	 */
+	public BitstampDecimal multiply(BitstampDecimal other) {
+		int resultScale = scale + other.scale;
+		if (resultScale > MAX_SCALE) {
+			throw new ArithmeticException("More than " + MAX_SCALE + " decimals in product of " + this + " and " + other);
+		}
+		return new BitstampDecimal(Math.multiplyExact(unscaledValue, other.unscaledValue), resultScale);
+	}
+
+
+	/**
+	 * Multiplies, rounding the product to the given scale.
+	 * <p>
+	 * E.g. the value of an amount at a price, rounded to the decimals of the counter currency.
+	 *
+	 * @param other the multiplier
+	 * @param resultScale the scale of the result
+	 * @param roundingMode how to round the product
+	 * @return the product
+	 * @throws ArithmeticException if the result overflows, or rounding is needed with {@link RoundingMode#UNNECESSARY}
+	 */
+	public BitstampDecimal multiply(BitstampDecimal other, int resultScale, RoundingMode roundingMode) {
+		long high = Math.multiplyHigh(unscaledValue, other.unscaledValue);
+		long low = unscaledValue * other.unscaledValue;
+		if (scale + other.scale <= MAX_SCALE && high == (low >> 63)) {
+			return new BitstampDecimal(low, scale + other.scale).setScale(resultScale, roundingMode);
+		}
+		return valueOf(toBigDecimal().multiply(other.toBigDecimal()).setScale(resultScale, roundingMode));
+	}
+
+
+	/**
+	 * Changes the scale, rounding if decimals are dropped.
+	 *
+	 * @param newScale the new scale, 0 to {@value #MAX_SCALE}
+	 * @param roundingMode how to round
+	 * @return the decimal with the new scale
+	 * @throws ArithmeticException if the value overflows, or rounding is needed with {@link RoundingMode#UNNECESSARY}
+	 */
+	public BitstampDecimal setScale(int newScale, RoundingMode roundingMode) {
+		if (newScale == scale) return this;
+		if (newScale < 0 || newScale > MAX_SCALE) {
+			throw new IllegalArgumentException("Scale must be between 0 and " + MAX_SCALE + ", got: " + newScale);
+		}
+		if (newScale > scale) {
+			return new BitstampDecimal(unscaledAt(newScale), newScale);
+		}
+		long divisor = POWERS_OF_TEN[scale - newScale];
+		long quotient = unscaledValue / divisor;
+		long remainder = unscaledValue % divisor;
+		if (remainder != 0 && roundUp(quotient, remainder, divisor, roundingMode)) {
+			quotient += Long.signum(unscaledValue);
+		}
+		return new BitstampDecimal(quotient, newScale);
+	}
+
+
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(unscaledValue, scale);
+	}
+
+
+	/**
+	 * Gets the value as double.
+	 * <p>
+	 * The result is the double nearest to the decimal value, the same as parsing its string would give.
+	 *
+	 * @return the value as double
+	 */
+	public double doubleValue() {
+		if (unscaledValue > -MAX_EXACT_DOUBLE && unscaledValue < MAX_EXACT_DOUBLE) {
+			// Both operands are exact, so the division is correctly rounded
+			return unscaledValue / DOUBLE_POWERS_OF_TEN[scale];
+		}
+		return Double.parseDouble(toString());
+	}
+
+
+	@Override
+	public int compareTo(BitstampDecimal other) {
+		if (scale == other.scale) {
+			return Long.compare(unscaledValue, other.unscaledValue);
+		}
+		int commonScale = Math.max(scale, other.scale);
+		if (fitsAt(commonScale) && other.fitsAt(commonScale)) {
+			return Long.compare(unscaledAt(commonScale), other.unscaledAt(commonScale));
+		}
+		return toBigDecimal().compareTo(other.toBigDecimal());
+	}
+
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof BitstampDecimal other && compareTo(other) == 0;
+	}
+
+
+	@Override
+	public int hashCode() {
+		long normalized = unscaledValue;
+		int normalizedScale = scale;
+		while (normalizedScale > 0 && normalized % 10 == 0) {
+			normalized /= 10;
+			normalizedScale--;
+		}
+		return 31 * Long.hashCode(normalized) + normalizedScale;
+	}
+
+
+	/**
+	 * Returns the value as plain decimal string, with all its decimals (e.g. "47800.00").
+	 */
+	@JsonValue
+	@Override
+	public String toString() {
+		if (scale == 0) {
+			return Long.toString(unscaledValue);
+		}
+		String digits = Long.toString(unscaledValue);
+		int integerDigits = digits.length() - scale;
+		StringBuilder result = new StringBuilder(digits.length() + 3);
+		if (unscaledValue < 0) {
+			result.append('-');
+			digits = digits.substring(1);
+			integerDigits--;
+		}
+		if (integerDigits <= 0) {
+			result.append("0.").repeat('0', -integerDigits).append(digits);
+		} else {
+			result.append(digits, 0, integerDigits).append('.').append(digits, integerDigits, digits.length());
+		}
+		return result.toString();
+	}
+
+
+	private static BitstampDecimal parseSlow(CharSequence value) {
+		try {
+			return valueOf(new BigDecimal(value.toString()));
+		} catch (ArithmeticException e) {
+			NumberFormatException numberFormatException = new NumberFormatException("Out of range: " + value);
+			numberFormatException.initCause(e);
+			throw numberFormatException;
+		}
+	}
+
+
+	private boolean fitsAt(int newScale) {
+		long limit = Long.MAX_VALUE / POWERS_OF_TEN[newScale - scale];
+		return unscaledValue >= -limit && unscaledValue <= limit;
+	}
+
+
+	/**
+	 * Gets the unscaled value at a scale at least this scale.
+	 */
+	private long unscaledAt(int newScale) {
+		return newScale == scale ? unscaledValue : Math.multiplyExact(unscaledValue, POWERS_OF_TEN[newScale - scale]);
+	}
+
+
+	private static boolean roundUp(long quotient, long remainder, long divisor, RoundingMode roundingMode) {
+		boolean positive = remainder > 0;
+		long twiceRemainder = Math.abs(remainder) * 2; // remainder < divisor <= 10^18, so no overflow
+		return switch (roundingMode) {
+			case UP -> true;
+			case DOWN -> false;
+			case CEILING -> positive;
+			case FLOOR -> !positive;
+			case HALF_UP -> twiceRemainder >= divisor;
+			case HALF_DOWN -> twiceRemainder > divisor;
+			case HALF_EVEN -> twiceRemainder > divisor || twiceRemainder == divisor && (quotient & 1) != 0;
+			case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+		};
+	}
+
+
+}
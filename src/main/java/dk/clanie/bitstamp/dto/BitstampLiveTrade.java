@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.Value;
+
+/**
+ * A trade received from the live_trades channel of the Bitstamp WebSocket API.
+ * <p>
+ * Contains the same information as {@link BitstampTransaction} plus microsecond
+ * timestamp and the ids of the orders involved.
+ */
+@Value
+public class BitstampLiveTrade {
+
+	long id;
+	long timestamp;
+	long microtimestamp;
+	double price;
+	double amount;
+	BitstampTransactionType type;
+	long buyOrderId;
+	long sellOrderId;
+
+
+	@JsonCreator
+	public BitstampLiveTrade(
+			@JsonProperty("id") long id,
+			@JsonProperty("timestamp") long timestamp,
+			@JsonProperty("microtimestamp") long microtimestamp,
+			@JsonProperty("price_str") double price,
+			@JsonProperty("amount_str") double amount,
+			@JsonProperty("type") BitstampTransactionType type,
+			@JsonProperty("buy_order_id") long buyOrderId,
+			@JsonProperty("sell_order_id") long sellOrderId) {
+		this.id = id;
+		this.timestamp = timestamp;
+		this.microtimestamp = microtimestamp;
+		this.price = price;
+		this.amount = amount;
+		this.type = type;
+		this.buyOrderId = buyOrderId;
+		this.sellOrderId = sellOrderId;
+	}
+
+}
@@ -27,23 +27,41 @@ import lombok.Value;
  * <p/>
  * This class is used to deserialize Bitstamp API responses that return
  * amounts as strings with currency (e.g., "10 USD").
+ * <p/>
+ * The amount is held as exact {@link BitstampDecimal}. {@link #getAmount()} returns the
+ * nearest double, and {@link #getAmountDecimal()} the exact value.
  */
 @Value
 @JsonDeserialize(using = BitstampMonetaryAmountDeserializer.class)
 public class BitstampMonetaryAmount {
 
-	double amount;
+	BitstampDecimal amount;
 	BitstampCurrencyCode currencyCode;
 
 
-	public BitstampMonetaryAmount(double amount, BitstampCurrencyCode currencyCode) {
+	public BitstampMonetaryAmount(BitstampDecimal amount, BitstampCurrencyCode currencyCode) {
 		this.amount = amount;
 		this.currencyCode = currencyCode;
 	}
 
 
+	public BitstampMonetaryAmount(double amount, BitstampCurrencyCode currencyCode) {
+		this(BitstampDecimal.valueOf(amount), currencyCode);
+	}
+
+
 	public BitstampMonetaryAmount(String amount, String currencyCode) {
-		this(Double.parseDouble(amount), BitstampCurrencyCode.fromString(currencyCode));
+		this(BitstampDecimal.parse(amount), BitstampCurrencyCode.fromString(currencyCode));
+	}
+
+
+	public double getAmount() {
+		return amount.doubleValue();
+	}
+
+
+	public BitstampDecimal getAmountDecimal() {
+		return amount;
 	}
 
 
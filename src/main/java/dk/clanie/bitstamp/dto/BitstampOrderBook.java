@@ -52,19 +52,65 @@ public class BitstampOrderBook {
 	/**
 	 * Represents a single order in the order book.
 	 * Bitstamp returns orders as arrays: [price, amount]
+	 * <p>
+	 * Price and amount are held as exact {@link BitstampDecimal}s; the double getters
+	 * return the nearest double.
 	 */
 	@Value
 	public static class Order {
-		double price;
-		double amount;
+		BitstampDecimal price;
+		BitstampDecimal amount;
 
-		@JsonCreator
+		/**
+		 * Creates an order from a [price, amount] array of doubles.
+		 */
 		public Order(List<Double> values) {
+			this(BitstampDecimal.valueOf(checkValues(values).get(0)), BitstampDecimal.valueOf(values.get(1)));
+		}
+
+		public Order(BitstampDecimal price, BitstampDecimal amount) {
+			this.price = price;
+			this.amount = amount;
+		}
+
+		public Order(double price, double amount) {
+			this(BitstampDecimal.valueOf(price), BitstampDecimal.valueOf(amount));
+		}
+
+		/**
+		 * Creates an order from a [price, amount] array, as Bitstamp returns it.
+		 *
+		 * @throws IllegalArgumentException if there are fewer than 2 values, or price or amount is empty
+		 */
+		@JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+		public static Order of(List<BitstampDecimal> values) {
+			return new Order(checkValues(values).get(0), values.get(1));
+		}
+
+		public double getPrice() {
+			return price.doubleValue();
+		}
+
+		public double getAmount() {
+			return amount.doubleValue();
+		}
+
+		public BitstampDecimal getPriceDecimal() {
+			return price;
+		}
+
+		public BitstampDecimal getAmountDecimal() {
+			return amount;
+		}
+
+		private static <T> List<T> checkValues(List<T> values) {
 			if (values == null || values.size() < 2) {
 				throw new IllegalArgumentException("Order must have at least 2 values: [price, amount]");
 			}
-			this.price = values.get(0);
-			this.amount = values.get(1);
+			if (values.get(0) == null || values.get(1) == null) {
+				throw new IllegalArgumentException("Order price and amount cannot be empty: " + values);
+			}
+			return values;
 		}
 	}
 
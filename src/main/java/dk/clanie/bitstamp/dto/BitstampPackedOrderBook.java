@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.dto;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import tools.jackson.databind.annotation.JsonDeserialize;
+
+import dk.clanie.bitstamp.dto.BitstampOrderBook.Order;
+import dk.clanie.bitstamp.jackson.BitstampPackedOrderBookDeserializer;
+import lombok.Getter;
+
+/**
+ * Order book data stored in parallel primitive arrays.
+ * <p>
+ * Holds the same data as {@link BitstampOrderBook}, but without an object per order, which
+ * makes deserializing deep order books much cheaper. Prices and amounts of level {@code i}
+ * are found at index {@code i} in the price and amount arrays; bids are sorted highest price
+ * first and asks lowest price first, as returned by Bitstamp.
+ * <p>
+ * Use {@link #toOrderBook()} to get a {@link BitstampOrderBook} view.
+ */
+@JsonDeserialize(using = BitstampPackedOrderBookDeserializer.class)
+public class BitstampPackedOrderBook {
+
+	@Getter private final long timestamp;
+	@Getter private final long microtimestamp;
+	private final double[] bidPrices;
+	private final double[] bidAmounts;
+	@Getter private final int bidCount;
+	private final double[] askPrices;
+	private final double[] askAmounts;
+	@Getter private final int askCount;
+
+
+	/**
+	 * Creates an order book from arrays, which are used as they are (not copied).
+	 * <p>
+	 * The arrays may be longer than the number of levels.
+	 */
+	public BitstampPackedOrderBook(
+			long timestamp,
+			long microtimestamp,
+			double[] bidPrices,
+			double[] bidAmounts,
+			int bidCount,
+			double[] askPrices,
+			double[] askAmounts,
+			int askCount) {
+		this.timestamp = timestamp;
+		this.microtimestamp = microtimestamp;
+		this.bidPrices = bidPrices;
+		this.bidAmounts = bidAmounts;
+		this.bidCount = bidCount;
+		this.askPrices = askPrices;
+		this.askAmounts = askAmounts;
+		this.askCount = askCount;
+	}
+
+
+	public double getBidPrice(int level) {
+		return bidPrices[checkIndex(level, bidCount)];
+	}
+
+
+	public double getBidAmount(int level) {
+		return bidAmounts[checkIndex(level, bidCount)];
+	}
+
+
+	public double getAskPrice(int level) {
+		return askPrices[checkIndex(level, askCount)];
+	}
+
+
+	public double getAskAmount(int level) {
+		return askAmounts[checkIndex(level, askCount)];
+	}
+
+
+	/**
+	 * Returns a {@link BitstampOrderBook} view of this order book.
+	 * <p>
+	 * The orders are created on access, so no copy of the whole book is made.
+	 *
+	 * @return order book view
+	 */
+	public BitstampOrderBook toOrderBook() {
+		return new BitstampOrderBook(timestamp, microtimestamp,
+				new OrderListView(bidPrices, bidAmounts, bidCount),
+				new OrderListView(askPrices, askAmounts, askCount));
+	}
+
+
+	private static int checkIndex(int index, int count) {
+		if (index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException("Level " + index + " out of bounds for depth " + count);
+		}
+		return index;
+	}
+
+
+	/**
+	 * Read-only list of orders backed by price and amount arrays.
+	 */
+	private static class OrderListView extends AbstractList<Order> implements RandomAccess {
+
+		private final double[] prices;
+		private final double[] amounts;
+		private final int count;
+
+
+		OrderListView(double[] prices, double[] amounts, int count) {
+			this.prices = prices;
+			this.amounts = amounts;
+			this.count = count;
+		}
+
+
+		@Override
+		public Order get(int index) {
+			checkIndex(index, count);
+			return new Order(prices[index], amounts[index]);
+		}
+
+
+		@Override
+		public int size() {
+			return count;
+		}
+
+
+	}
+
+
+}
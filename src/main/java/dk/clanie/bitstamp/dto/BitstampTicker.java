@@ -26,44 +26,47 @@ import lombok.Value;
 
 /**
  * Ticker data for a currency pair.
+ * <p>
+ * Prices and volume are held as exact {@link BitstampDecimal}s. The double getters return the
+ * nearest double, and the {@code ...Decimal} getters the exact value.
  */
 @Value
 public class BitstampTicker {
 
-	double high;
-	double last;
+	BitstampDecimal high;
+	BitstampDecimal last;
 	long timestamp;
-	double bid;
-	double vwap;
-	double volume;
-	double low;
-	double ask;
+	BitstampDecimal bid;
+	BitstampDecimal vwap;
+	BitstampDecimal volume;
+	BitstampDecimal low;
+	BitstampDecimal ask;
 	BitstampTradeSide side;
-	double open;
-	double open24;
+	BitstampDecimal open;
+	BitstampDecimal open24;
 	@JsonDeserialize(using = EmptyStringToNullDoubleDeserializer.class)
 	Double percentChange24;
 	BitstampMarketType marketType;
 	// Optional field - only present for certain trading pairs (e.g., EURUSD)
-	Double indexPrice;
+	BitstampDecimal indexPrice;
 
 
 	@JsonCreator
 	public BitstampTicker(
-			@JsonProperty("high") double high,
-			@JsonProperty("last") double last,
+			@JsonProperty("high") BitstampDecimal high,
+			@JsonProperty("last") BitstampDecimal last,
 			@JsonProperty("timestamp") long timestamp,
-			@JsonProperty("bid") double bid,
-			@JsonProperty("vwap") double vwap,
-			@JsonProperty("volume") double volume,
-			@JsonProperty("low") double low,
-			@JsonProperty("ask") double ask,
+			@JsonProperty("bid") BitstampDecimal bid,
+			@JsonProperty("vwap") BitstampDecimal vwap,
+			@JsonProperty("volume") BitstampDecimal volume,
+			@JsonProperty("low") BitstampDecimal low,
+			@JsonProperty("ask") BitstampDecimal ask,
 			@JsonProperty("side") BitstampTradeSide side,
-			@JsonProperty("open") double open,
-			@JsonProperty("open_24") double open24,
+			@JsonProperty("open") BitstampDecimal open,
+			@JsonProperty("open_24") BitstampDecimal open24,
 			@JsonProperty("percent_change_24") Double percentChange24,
 			@JsonProperty("market_type") BitstampMarketType marketType,
-			@JsonProperty("index_price") Double indexPrice) {
+			@JsonProperty("index_price") BitstampDecimal indexPrice) {
 		this.high = high;
 		this.last = last;
 		this.timestamp = timestamp;
@@ -80,4 +83,85 @@ public class BitstampTicker {
 		this.indexPrice = indexPrice;
 	}
 
+
+	public double getHigh() {
+		return BitstampDecimal.doubleValue(high);
+	}
+
+	public BitstampDecimal getHighDecimal() {
+		return high;
+	}
+
+	public double getLast() {
+		return BitstampDecimal.doubleValue(last);
+	}
+
+	public BitstampDecimal getLastDecimal() {
+		return last;
+	}
+
+	public double getBid() {
+		return BitstampDecimal.doubleValue(bid);
+	}
+
+	public BitstampDecimal getBidDecimal() {
+		return bid;
+	}
+
+	public double getVwap() {
+		return BitstampDecimal.doubleValue(vwap);
+	}
+
+	public BitstampDecimal getVwapDecimal() {
+		return vwap;
+	}
+
+	public double getVolume() {
+		return BitstampDecimal.doubleValue(volume);
+	}
+
+	public BitstampDecimal getVolumeDecimal() {
+		return volume;
+	}
+
+	public double getLow() {
+		return BitstampDecimal.doubleValue(low);
+	}
+
+	public BitstampDecimal getLowDecimal() {
+		return low;
+	}
+
+	public double getAsk() {
+		return BitstampDecimal.doubleValue(ask);
+	}
+
+	public BitstampDecimal getAskDecimal() {
+		return ask;
+	}
+
+	public double getOpen() {
+		return BitstampDecimal.doubleValue(open);
+	}
+
+	public BitstampDecimal getOpenDecimal() {
+		return open;
+	}
+
+	public double getOpen24() {
+		return BitstampDecimal.doubleValue(open24);
+	}
+
+	public BitstampDecimal getOpen24Decimal() {
+		return open24;
+	}
+
+	public Double getIndexPrice() {
+		return BitstampDecimal.toDouble(indexPrice);
+	}
+
+	public BitstampDecimal getIndexPriceDecimal() {
+		return indexPrice;
+	}
+
 }
@@ -17,6 +17,8 @@
  */
 package dk.clanie.bitstamp.dto;
 
+import java.math.RoundingMode;
+
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -61,4 +63,28 @@ public class BitstampTradingPair {
 		this.description = description;
 	}
 
+
+	/**
+	 * Rounds a price to the number of decimals Bitstamp accepts for this pair.
+	 *
+	 * @param price price in the counter currency
+	 * @param roundingMode how to round if the price has more decimals than allowed
+	 * @return price with {@link #getCounterDecimals() counterDecimals} decimals
+	 */
+	public BitstampDecimal scalePrice(BitstampDecimal price, RoundingMode roundingMode) {
+		return price.setScale(counterDecimals, roundingMode);
+	}
+
+
+	/**
+	 * Rounds an amount to the number of decimals Bitstamp accepts for this pair.
+	 *
+	 * @param amount amount in the base currency
+	 * @param roundingMode how to round if the amount has more decimals than allowed
+	 * @return amount with {@link #getBaseDecimals() baseDecimals} decimals
+	 */
+	public BitstampDecimal scaleAmount(BitstampDecimal amount, RoundingMode roundingMode) {
+		return amount.setScale(baseDecimals, roundingMode);
+	}
+
 }
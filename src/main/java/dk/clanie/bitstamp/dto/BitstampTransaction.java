@@ -24,14 +24,17 @@ import lombok.Value;
 
 /**
  * Represents a single transaction (trade).
+ * <p>
+ * Price and amount are held as exact {@link BitstampDecimal}s. The double getters return the
+ * nearest double, and the {@code ...Decimal} getters the exact value.
  */
 @Value
 public class BitstampTransaction {
 
 	long date;
 	long tid;
-	double price;
-	double amount;
+	BitstampDecimal price;
+	BitstampDecimal amount;
 	BitstampTransactionType type;
 
 
@@ -39,8 +42,8 @@ public class BitstampTransaction {
 	public BitstampTransaction(
 			@JsonProperty("date") long date,
 			@JsonProperty("tid") long tid,
-			@JsonProperty("price") double price,
-			@JsonProperty("amount") double amount,
+			@JsonProperty("price") BitstampDecimal price,
+			@JsonProperty("amount") BitstampDecimal amount,
 			@JsonProperty("type") BitstampTransactionType type) {
 		this.date = date;
 		this.tid = tid;
@@ -49,4 +52,20 @@ public class BitstampTransaction {
 		this.type = type;
 	}
 
+	public double getPrice() {
+		return BitstampDecimal.doubleValue(price);
+	}
+
+	public BitstampDecimal getPriceDecimal() {
+		return price;
+	}
+
+	public double getAmount() {
+		return BitstampDecimal.doubleValue(amount);
+	}
+
+	public BitstampDecimal getAmountDecimal() {
+		return amount;
+	}
+
 }
@@ -20,16 +20,18 @@ package dk.clanie.bitstamp.dto;
 import static dk.clanie.core.Utils.asString;
 
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
-import com.fasterxml.jackson.annotation.JsonAnySetter;
-import com.fasterxml.jackson.annotation.JsonCreator;
-import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import org.jspecify.annotations.Nullable;
+
 import tools.jackson.databind.annotation.JsonDeserialize;
 
-import dk.clanie.bitstamp.jackson.BitstampDateTimeDeserializer;
+import dk.clanie.bitstamp.jackson.BitstampUserTransactionDeserializer;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
@@ -38,21 +40,35 @@ import lombok.extern.slf4j.Slf4j;
  * Represents a user transaction.
  * <p/>
  * User transactions include deposits, withdrawals, trades, and fees.
- * Currency amounts are stored in a map with BitstampCurrencyCode as keys.
+ * Currency amounts are stored in compact arrays holding only the currencies present,
+ * and are available per currency code or as a map.
  */
 @Getter
 @ToString
 @Slf4j
+@JsonDeserialize(using = BitstampUserTransactionDeserializer.class)
 public class BitstampUserTransaction {
 
+	private static final BitstampCurrencyCode[] NO_CURRENCIES = {};
+	private static final double[] NO_AMOUNTS = {};
+
 	private final long id;
 
-	@JsonDeserialize(using = BitstampDateTimeDeserializer.class)
 	private final Instant datetime;
 
 	private final BitstampUserTransactionType type;
 
-	private final Map<BitstampCurrencyCode, Double> currencyAmounts;
+	@Getter(AccessLevel.NONE)
+	@ToString.Exclude
+	private BitstampCurrencyCode[] currencies;
+
+	@Getter(AccessLevel.NONE)
+	@ToString.Exclude
+	private double[] amounts;
+
+	@Getter(AccessLevel.NONE)
+	@ToString.Exclude
+	private int currencyCount;
 
 	private BitstampExchangeRate exchangeRate;
 
@@ -62,30 +78,67 @@ public class BitstampUserTransaction {
 
 	private final String market;
 
-	private final Map<String, Object> additionalProperties = new HashMap<>();
+	@Getter(AccessLevel.NONE)
+	@ToString.Exclude
+	private @Nullable Map<String, Object> additionalProperties;
+
+
+	public BitstampUserTransaction(
+			long id,
+			Instant datetime,
+			BitstampUserTransactionType type,
+			Double fee,
+			Long orderId,
+			String market) {
+		this(id, datetime, type, NO_CURRENCIES, NO_AMOUNTS, 0, null, fee, orderId, market, null);
+	}
 
 
-	@JsonCreator
+	/**
+	 * Creates a user transaction with currency amounts, as read by {@link BitstampUserTransactionDeserializer}.
+	 * <p>
+	 * The arrays are used as they are, without copying.
+	 *
+	 * @param currencies the currencies of the amounts
+	 * @param amounts the amounts, with the currency at the same index in {@code currencies}
+	 * @param currencyCount the number of amounts
+	 * @param additionalProperties properties not otherwise recognized (optional)
+	 */
 	public BitstampUserTransaction(
-			@JsonProperty("id") long id,
-			@JsonProperty("datetime") Instant datetime,
-			@JsonProperty("type") BitstampUserTransactionType type,
-			@JsonProperty("fee") Double fee,
-			@JsonProperty("order_id") Long orderId,
-			@JsonProperty("market") String market) {
+			long id,
+			Instant datetime,
+			BitstampUserTransactionType type,
+			BitstampCurrencyCode[] currencies,
+			double[] amounts,
+			int currencyCount,
+			@Nullable BitstampExchangeRate exchangeRate,
+			Double fee,
+			Long orderId,
+			String market,
+			@Nullable Map<String, Object> additionalProperties) {
 		this.id = id;
 		this.datetime = datetime;
 		this.type = type;
-		this.currencyAmounts = new HashMap<>();
-		this.exchangeRate = null;
+		this.currencies = currencies;
+		this.amounts = amounts;
+		this.currencyCount = currencyCount;
+		this.exchangeRate = exchangeRate;
 		this.fee = fee;
 		this.orderId = orderId;
 		this.market = market;
+		this.additionalProperties = additionalProperties;
 	}
 
 
-	@JsonAnySetter
-	@JsonIgnore
+	/**
+	 * Sets a dynamic property, as Bitstamp sends them.
+	 * <p/>
+	 * Numeric values of currency codes (e.g. "btc") are stored as currency amounts and numeric values of
+	 * currency pairs (e.g. "btc_eur") as exchange rate. Anything else is kept as additional property.
+	 *
+	 * @param key the property name
+	 * @param value the property value
+	 */
 	public void setCurrencyAmount(String key, Object value) {
 		if (value == null) {
 			log.debug("Ignoring null value for property: {}", key);
@@ -101,37 +154,39 @@ public class BitstampUserTransaction {
 				numericValue = Double.parseDouble(string);
 			} else {
 				log.debug("Ignoring property '{}' with non-numeric type {}: {}", key, value.getClass().getSimpleName(), asString(value));
-				additionalProperties.put(key, value);
+				putAdditionalProperty(key, value);
 				return;
 			}
 		} catch (NumberFormatException e) {
 			log.debug("Ignoring property '{}' with non-numeric string value: {}", key, asString(value));
-			additionalProperties.put(key, value);
+			putAdditionalProperty(key, value);
 			return;
 		}
 
 		// Check if it's a currency pair (contains underscore)
-		if (key.contains("_")) {
-			try {
-				BitstampCurrencyPair currencyPair = BitstampCurrencyPair.fromUnderscoreFormat(key);
-				this.exchangeRate = new BitstampExchangeRate(currencyPair, numericValue);
-				log.trace("Captured exchange rate: {} = {}", currencyPair, numericValue);
-				return;
-			} catch (IllegalArgumentException e) {
+		int underscore = key.indexOf('_');
+		if (underscore >= 0) {
+			BitstampCurrencyCode base = BitstampCurrencyCode.tryFromString(key.substring(0, underscore));
+			BitstampCurrencyCode quote = BitstampCurrencyCode.tryFromString(key.substring(underscore + 1));
+			if (base == null || quote == null) {
 				log.debug("Property '{}' contains underscore but is not a valid currency pair, value: {}", key, asString(value));
-				additionalProperties.put(key, value);
+				putAdditionalProperty(key, value);
 				return;
 			}
+			BitstampCurrencyPair currencyPair = BitstampCurrencyPair.of(base, quote);
+			this.exchangeRate = new BitstampExchangeRate(currencyPair, numericValue);
+			log.trace("Captured exchange rate: {} = {}", currencyPair, numericValue);
+			return;
 		}
 
 		// Try to match to a known currency code
-		try {
-			BitstampCurrencyCode currencyCode = BitstampCurrencyCode.fromString(key);
-			currencyAmounts.put(currencyCode, numericValue);
-		} catch (IllegalArgumentException e) {
+		BitstampCurrencyCode currencyCode = BitstampCurrencyCode.tryFromString(key);
+		if (currencyCode == null) {
 			log.debug("Ignoring unknown currency code or other property '{}' with value: {}", key, asString(value));
-			additionalProperties.put(key, value);
+			putAdditionalProperty(key, value);
+			return;
 		}
+		putAmount(currencyCode, numericValue);
 	}
 
 
@@ -142,7 +197,66 @@ public class BitstampUserTransaction {
 	 * @return the amount, or null if not present
 	 */
 	public Double getAmount(BitstampCurrencyCode currencyCode) {
-		return currencyAmounts.get(currencyCode);
+		for (int i = 0; i < currencyCount; i++) {
+			if (currencies[i] == currencyCode) {
+				return amounts[i];
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * Returns the currency amounts as a new map.
+	 * <p/>
+	 * Changes to the map do not affect the transaction; use {@link #setCurrencyAmount(String, Object)} for that.
+	 *
+	 * @return map from currency code to amount
+	 */
+	@ToString.Include(name = "currencyAmounts")
+	public Map<BitstampCurrencyCode, Double> getCurrencyAmounts() {
+		Map<BitstampCurrencyCode, Double> currencyAmounts = new EnumMap<>(BitstampCurrencyCode.class);
+		for (int i = 0; i < currencyCount; i++) {
+			currencyAmounts.put(currencies[i], amounts[i]);
+		}
+		return currencyAmounts;
+	}
+
+
+	/**
+	 * Returns the properties which are neither known fields, currency amounts nor exchange rate.
+	 *
+	 * @return unmodifiable view of the map from property name to value, empty if there are none
+	 */
+	@ToString.Include(name = "additionalProperties")
+	public Map<String, Object> getAdditionalProperties() {
+		return additionalProperties == null ? Map.of() : Collections.unmodifiableMap(additionalProperties);
+	}
+
+
+	private void putAmount(BitstampCurrencyCode currencyCode, double amount) {
+		for (int i = 0; i < currencyCount; i++) {
+			if (currencies[i] == currencyCode) {
+				amounts[i] = amount;
+				return;
+			}
+		}
+		if (currencyCount == currencies.length) {
+			int capacity = Math.max(4, currencyCount * 2);
+			currencies = Arrays.copyOf(currencies, capacity);
+			amounts = Arrays.copyOf(amounts, capacity);
+		}
+		currencies[currencyCount] = currencyCode;
+		amounts[currencyCount] = amount;
+		currencyCount++;
+	}
+
+
+	private void putAdditionalProperty(String key, Object value) {
+		if (additionalProperties == null) {
+			additionalProperties = new HashMap<>();
+		}
+		additionalProperties.put(key, value);
 	}
 
 }
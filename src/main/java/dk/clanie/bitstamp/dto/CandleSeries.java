@@ -0,0 +1,402 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.dto;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.stream.DoubleStream;
+import java.util.stream.LongStream;
+
+import org.jspecify.annotations.Nullable;
+
+import tools.jackson.databind.annotation.JsonDeserialize;
+
+import dk.clanie.bitstamp.dto.BitstampOhlcData.Candle;
+import dk.clanie.bitstamp.jackson.CandleSeriesDeserializer;
+import lombok.Getter;
+
+/**
+ * OHLC (Open, High, Low, Close) candlestick data stored in parallel primitive arrays.
+ * <p>
+ * Holds the same data as {@link BitstampOhlcData}, but column by column instead of one object
+ * per candle, which takes 48 bytes per candle and lets scans run over contiguous arrays.
+ * Candles are ordered by strictly increasing timestamp, so ranges are found by binary search.
+ * <p>
+ * A series can be appended to. {@link #slice(long, long)} and {@link #subSeries(int, int)} return
+ * read-only views sharing the arrays of the series, so no data is copied. Appending to a series
+ * does not change views taken earlier.
+ * <p>
+ * Instances are not thread safe.
+ */
+@JsonDeserialize(using = CandleSeriesDeserializer.class)
+public class CandleSeries {
+
+	private static final int DEFAULT_CAPACITY = 64;
+
+	@Getter private final @Nullable String pair;
+	private long[] timestamps;
+	private double[] open;
+	private double[] high;
+	private double[] low;
+	private double[] close;
+	private double[] volume;
+	private final int offset;
+	private int size;
+	private final boolean view;
+
+
+	/**
+	 * Creates an empty series.
+	 *
+	 * @param pair the currency pair, e.g. "BTC/USD" (optional)
+	 */
+	public CandleSeries(@Nullable String pair) {
+		this(pair, DEFAULT_CAPACITY);
+	}
+
+
+	/**
+	 * Creates an empty series with room for the given number of candles.
+	 *
+	 * @param pair the currency pair, e.g. "BTC/USD" (optional)
+	 * @param initialCapacity number of candles to allocate room for
+	 */
+	public CandleSeries(@Nullable String pair, int initialCapacity) {
+		this(pair, new long[initialCapacity], new double[initialCapacity], new double[initialCapacity],
+				new double[initialCapacity], new double[initialCapacity], new double[initialCapacity], 0);
+	}
+
+
+	/**
+	 * Creates a series from arrays, which are used as they are (not copied).
+	 * <p>
+	 * The arrays may be longer than the number of candles.
+	 *
+	 * @throws IllegalArgumentException if the timestamps are not strictly increasing
+	 */
+	public CandleSeries(
+			@Nullable String pair,
+			long[] timestamps,
+			double[] open,
+			double[] high,
+			double[] low,
+			double[] close,
+			double[] volume,
+			int size) {
+		for (int i = 1; i < size; i++) {
+			if (timestamps[i] <= timestamps[i - 1]) {
+				throw new IllegalArgumentException("Timestamps must be strictly increasing, got " + timestamps[i] + " after " + timestamps[i - 1]);
+			}
+		}
+		this.pair = pair;
+		this.timestamps = timestamps;
+		this.open = open;
+		this.high = high;
+		this.low = low;
+		this.close = close;
+		this.volume = volume;
+		this.offset = 0;
+		this.size = size;
+		this.view = false;
+	}
+
+
+	private CandleSeries(CandleSeries series, int fromIndex, int toIndex) {
+		this.pair = series.pair;
+		this.timestamps = series.timestamps;
+		this.open = series.open;
+		this.high = series.high;
+		this.low = series.low;
+		this.close = series.close;
+		this.volume = series.volume;
+		this.offset = series.offset + fromIndex;
+		this.size = toIndex - fromIndex;
+		this.view = true;
+	}
+
+
+	/**
+	 * Creates a series holding the candles of the given OHLC data.
+	 *
+	 * @param data OHLC data, with candles in increasing timestamp order
+	 * @return new series
+	 */
+	public static CandleSeries of(BitstampOhlcData data) {
+		List<Candle> candles = data.getOhlc() == null ? List.of() : data.getOhlc();
+		CandleSeries series = new CandleSeries(data.getPair(), Math.max(candles.size(), 1));
+		candles.forEach(series::append);
+		return series;
+	}
+
+
+	public int size() {
+		return size;
+	}
+
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+
+	public long getTimestamp(int index) {
+		return timestamps[offset + checkIndex(index)];
+	}
+
+
+	public double getOpen(int index) {
+		return open[offset + checkIndex(index)];
+	}
+
+
+	public double getHigh(int index) {
+		return high[offset + checkIndex(index)];
+	}
+
+
+	public double getLow(int index) {
+		return low[offset + checkIndex(index)];
+	}
+
+
+	public double getClose(int index) {
+		return close[offset + checkIndex(index)];
+	}
+
+
+	public double getVolume(int index) {
+		return volume[offset + checkIndex(index)];
+	}
+
+
+	/**
+	 * Returns the candle at the given index as an object.
+	 *
+	 * @param index the index
+	 * @return new candle object
+	 */
+	public Candle getCandle(int index) {
+		int i = offset + checkIndex(index);
+		return new Candle(timestamps[i], open[i], high[i], low[i], close[i], volume[i]);
+	}
+
+
+	/**
+	 * Appends a candle.
+	 *
+	 * @throws IllegalArgumentException if the timestamp is not after the timestamp of the last candle
+	 * @throws UnsupportedOperationException if this is a view
+	 */
+	public void append(long timestamp, double open, double high, double low, double close, double volume) {
+		checkAppend(timestamp);
+		ensureCapacity(size + 1);
+		timestamps[size] = timestamp;
+		this.open[size] = open;
+		this.high[size] = high;
+		this.low[size] = low;
+		this.close[size] = close;
+		this.volume[size] = volume;
+		size++;
+	}
+
+
+	/**
+	 * Appends a candle.
+	 *
+	 * @throws IllegalArgumentException if the timestamp is not after the timestamp of the last candle
+	 * @throws UnsupportedOperationException if this is a view
+	 */
+	public void append(Candle candle) {
+		append(candle.getTimestamp(), candle.getOpen(), candle.getHigh(), candle.getLow(), candle.getClose(), candle.getVolume());
+	}
+
+
+	/**
+	 * Appends all candles of another series.
+	 *
+	 * @throws IllegalArgumentException if the first timestamp of the other series is not after the timestamp of the last candle
+	 * @throws UnsupportedOperationException if this is a view
+	 */
+	public void appendAll(CandleSeries other) {
+		if (other.size == 0) {
+			return;
+		}
+		checkAppend(other.timestamps[other.offset]);
+		ensureCapacity(size + other.size);
+		System.arraycopy(other.timestamps, other.offset, timestamps, size, other.size);
+		System.arraycopy(other.open, other.offset, open, size, other.size);
+		System.arraycopy(other.high, other.offset, high, size, other.size);
+		System.arraycopy(other.low, other.offset, low, size, other.size);
+		System.arraycopy(other.close, other.offset, close, size, other.size);
+		System.arraycopy(other.volume, other.offset, volume, size, other.size);
+		size += other.size;
+	}
+
+
+	/**
+	 * Searches for the candle with the given timestamp.
+	 *
+	 * @param timestamp the timestamp
+	 * @return index of the candle if found, otherwise {@code (-(insertion point) - 1)} as in {@link Arrays#binarySearch(long[], long)}
+	 */
+	public int indexOf(long timestamp) {
+		int result = Arrays.binarySearch(timestamps, offset, offset + size, timestamp);
+		return result >= 0 ? result - offset : result + offset;
+	}
+
+
+	/**
+	 * Returns a read-only view of the candles with timestamps within the given range.
+	 *
+	 * @param fromTimestamp start of the range (inclusive)
+	 * @param toTimestamp end of the range (inclusive)
+	 * @return view of the candles within the range, possibly empty
+	 */
+	public CandleSeries slice(long fromTimestamp, long toTimestamp) {
+		int from = indexOf(fromTimestamp);
+		if (from < 0) from = -from - 1;
+		int to = indexOf(toTimestamp);
+		to = to < 0 ? -to - 1 : to + 1;
+		return new CandleSeries(this, from, Math.max(from, to));
+	}
+
+
+	/**
+	 * Returns a read-only view of the candles from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive).
+	 *
+	 * @return view of the candles
+	 * @throws IndexOutOfBoundsException if the range is out of bounds
+	 */
+	public CandleSeries subSeries(int fromIndex, int toIndex) {
+		Objects.checkFromToIndex(fromIndex, toIndex, size);
+		return new CandleSeries(this, fromIndex, toIndex);
+	}
+
+
+	/**
+	 * Returns a compact, appendable copy of this series.
+	 *
+	 * @return new series
+	 */
+	public CandleSeries copy() {
+		return new CandleSeries(pair,
+				Arrays.copyOfRange(timestamps, offset, offset + size),
+				Arrays.copyOfRange(open, offset, offset + size),
+				Arrays.copyOfRange(high, offset, offset + size),
+				Arrays.copyOfRange(low, offset, offset + size),
+				Arrays.copyOfRange(close, offset, offset + size),
+				Arrays.copyOfRange(volume, offset, offset + size),
+				size);
+	}
+
+
+	public LongStream timestamps() {
+		return Arrays.stream(timestamps, offset, offset + size);
+	}
+
+
+	public DoubleStream opens() {
+		return Arrays.stream(open, offset, offset + size);
+	}
+
+
+	public DoubleStream highs() {
+		return Arrays.stream(high, offset, offset + size);
+	}
+
+
+	public DoubleStream lows() {
+		return Arrays.stream(low, offset, offset + size);
+	}
+
+
+	public DoubleStream closes() {
+		return Arrays.stream(close, offset, offset + size);
+	}
+
+
+	public DoubleStream volumes() {
+		return Arrays.stream(volume, offset, offset + size);
+	}
+
+
+	/**
+	 * Returns a read-only list view of the candles.
+	 * <p>
+	 * The candle objects are created on access, so no copy of the whole series is made.
+	 *
+	 * @return list view
+	 */
+	public List<Candle> asList() {
+		return new CandleListView();
+	}
+
+
+	private void checkAppend(long timestamp) {
+		if (view) {
+			throw new UnsupportedOperationException("Views of a candle series are read-only");
+		}
+		if (size > 0 && timestamp <= timestamps[size - 1]) {
+			throw new IllegalArgumentException("Timestamp " + timestamp + " is not after the last timestamp " + timestamps[size - 1]);
+		}
+	}
+
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > timestamps.length) {
+			int newCapacity = Math.max(capacity, timestamps.length * 2);
+			timestamps = Arrays.copyOf(timestamps, newCapacity);
+			open = Arrays.copyOf(open, newCapacity);
+			high = Arrays.copyOf(high, newCapacity);
+			low = Arrays.copyOf(low, newCapacity);
+			close = Arrays.copyOf(close, newCapacity);
+			volume = Arrays.copyOf(volume, newCapacity);
+		}
+	}
+
+
+	private int checkIndex(int index) {
+		return Objects.checkIndex(index, size);
+	}
+
+
+	/**
+	 * Read-only list of candles backed by the arrays of this series.
+	 */
+	private class CandleListView extends AbstractList<Candle> implements RandomAccess {
+
+
+		@Override
+		public Candle get(int index) {
+			return getCandle(index);
+		}
+
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+
+	}
+
+
+}
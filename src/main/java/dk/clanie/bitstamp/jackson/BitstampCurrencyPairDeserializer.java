@@ -17,43 +17,106 @@
  */
 package dk.clanie.bitstamp.jackson;
 
-import java.util.HashSet;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 
 import dk.clanie.bitstamp.dto.BitstampCurrencyCode;
 import dk.clanie.bitstamp.dto.BitstampCurrencyPair;
+import dk.clanie.bitstamp.dto.BitstampCurrencyPairRegistry;
+import dk.clanie.bitstamp.exception.UnknownCurrencyCodeException;
 import tools.jackson.core.JsonParser;
 import tools.jackson.databind.DatabindException;
 import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ObjectReader;
 import tools.jackson.databind.ValueDeserializer;
 
 /**
  * Custom deserializer for BitstampCurrencyPair.
  * <p>
- * This deserializer collects unknown currency codes into a thread-local set
- * rather than failing immediately. This allows us to collect all unknown codes
- * from a response before throwing an exception.
+ * When reading with {@link #readValue(ObjectReader, byte[])}, this deserializer collects unknown
+ * currency codes rather than failing immediately. This allows us to collect all unknown codes
+ * from a response before throwing an exception. The codes are collected in a set held by the
+ * deserialization context of the call, so concurrent calls, on any threads, don't share it.
+ * Otherwise an unknown currency code fails deserialization right away.
+ * <p>
+ * Known pairs are looked up in {@link BitstampCurrencyPairRegistry} and returned as canonical instances.
  */
 public class BitstampCurrencyPairDeserializer extends ValueDeserializer<BitstampCurrencyPair> {
 
-	private static final ThreadLocal<Set<String>> unknownCurrencyCodes = ThreadLocal.withInitial(HashSet::new);
+	/**
+	 * Deserialization context attribute holding the set unknown currency codes are collected in.
+	 */
+	private static final String UNKNOWN_CURRENCY_CODES = BitstampCurrencyPairDeserializer.class.getName() + ".unknownCurrencyCodes";
+
+
+	/**
+	 * Reads a value, collecting unknown currency codes in currency pairs.
+	 * <p>
+	 * Currency pairs with unknown currency codes are read as placeholders while the rest of the
+	 * value is read, and then all the unknown codes are reported together.
+	 *
+	 * @param <T> the type of value
+	 * @param reader reader for the type of value
+	 * @param content JSON content
+	 * @return the value
+	 * @throws UnknownCurrencyCodeException if the content contains unknown currency codes
+	 */
+	public static <T> T readValue(ObjectReader reader, byte[] content) {
+		return collectUnknownCurrencyCodes(reader, r -> r.readValue(content));
+	}
+
+
+	/**
+	 * Reads a value from a stream, collecting unknown currency codes in currency pairs.
+	 *
+	 * @param <T> the type of value
+	 * @param reader reader for the type of value
+	 * @param content JSON content
+	 * @return the value
+	 * @throws UnknownCurrencyCodeException if the content contains unknown currency codes
+	 * @see #readValue(ObjectReader, byte[])
+	 */
+	public static <T> T readValue(ObjectReader reader, InputStream content) {
+		return collectUnknownCurrencyCodes(reader, r -> r.readValue(content));
+	}
 
 
 	/**
-	 * Gets the set of unknown currency codes collected during deserialization.
-	 * 
-	 * @return set of unknown currency codes
+	 * Formerly got the unknown currency codes collected on the current thread.
+	 * <p>
+	 * Codes are no longer collected per thread, so this always returns an empty set.
+	 *
+	 * @return an empty set
+	 * @deprecated unknown currency codes are collected per call and reported by the
+	 *             {@link UnknownCurrencyCodeException} thrown; catch that instead
 	 */
+	@Deprecated
 	public static Set<String> getUnknownCurrencyCodes() {
-		return unknownCurrencyCodes.get();
+		return Set.of();
 	}
 
 
 	/**
-	 * Clears the collected unknown currency codes.
+	 * Formerly cleared the unknown currency codes collected on the current thread; does nothing.
+	 *
+	 * @deprecated see {@link #getUnknownCurrencyCodes()}
 	 */
+	@Deprecated
 	public static void clearUnknownCurrencyCodes() {
-		unknownCurrencyCodes.get().clear();
+		// Nothing is collected per thread
+	}
+
+
+	private static <T> T collectUnknownCurrencyCodes(ObjectReader reader, Function<ObjectReader, T> read) {
+		Set<String> unknownCurrencyCodes = new TreeSet<>();
+		T value = read.apply(reader.withAttribute(UNKNOWN_CURRENCY_CODES, unknownCurrencyCodes));
+		if (!unknownCurrencyCodes.isEmpty()) {
+			throw new UnknownCurrencyCodeException(new ArrayList<>(unknownCurrencyCodes));
+		}
+		return value;
 	}
 
 
@@ -64,37 +127,34 @@ public class BitstampCurrencyPairDeserializer extends ValueDeserializer<Bitstamp
 			throw DatabindException.from(p, "Pair string cannot be null or empty");
 		}
 
+		if (value.indexOf('/') >= 0) {
+			BitstampCurrencyPair pair = BitstampCurrencyPairRegistry.find(value);
+			if (pair != null) return pair;
+		}
+
 		String[] parts = value.split("/");
 		if (parts.length != 2) {
 			throw DatabindException.from(p, 
 					"Invalid pair format. Expected format: BASE/QUOTE, got: " + value);
 		}
 
-		BitstampCurrencyCode base = null;
-		BitstampCurrencyCode quote = null;
-
-		try {
-			base = BitstampCurrencyCode.fromString(parts[0].toUpperCase());
-		} catch (IllegalArgumentException e) {
-			unknownCurrencyCodes.get().add(parts[0].toUpperCase());
-		}
-
-		try {
-			quote = BitstampCurrencyCode.fromString(parts[1].toUpperCase());
-		} catch (IllegalArgumentException e) {
-			unknownCurrencyCodes.get().add(parts[1].toUpperCase());
-		}
-
-		// If either currency is unknown, we can't create a valid pair
-		// But we continue to collect all unknown codes
+		BitstampCurrencyCode base = BitstampCurrencyCode.tryFromString(parts[0]);
+		BitstampCurrencyCode quote = BitstampCurrencyCode.tryFromString(parts[1]);
 		if (base == null || quote == null) {
-			// Return a dummy pair - we'll throw exception later with all unknown codes
-			// Using first available codes as fallback
+			@SuppressWarnings("unchecked")
+			Set<String> unknownCurrencyCodes = (Set<String>) ctxt.getAttribute(UNKNOWN_CURRENCY_CODES);
+			if (unknownCurrencyCodes == null) {
+				throw DatabindException.from(p, "Unknown currency code in pair: " + value);
+			}
+			if (base == null) unknownCurrencyCodes.add(parts[0].toUpperCase());
+			if (quote == null) unknownCurrencyCodes.add(parts[1].toUpperCase());
+
+			// Return a placeholder pair - the caller throws an exception with all unknown codes
 			if (base == null) base = BitstampCurrencyCode.USD;
 			if (quote == null) quote = BitstampCurrencyCode.USD;
 		}
 
-		return new BitstampCurrencyPair(base, quote);
+		return BitstampCurrencyPair.of(base, quote);
 	}
 
 
@@ -22,7 +22,12 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.chrono.IsoChronology;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import org.jspecify.annotations.Nullable;
 
 import tools.jackson.core.JsonParser;
 import tools.jackson.databind.DatabindException;
@@ -34,11 +39,23 @@ import tools.jackson.databind.ValueDeserializer;
  * <p/>
  * Parses datetime strings in the format "yyyy-MM-dd HH:mm:ss[.SSSSSS]" 
  * (microseconds are optional) and converts them to Instant.
+ * <p/>
+ * Values in exactly this layout are parsed digit by digit, straight into epoch seconds and nanos.
+ * Anything else, such as values with surrounding whitespace, is left to a DateTimeFormatter.
  */
 public class BitstampDateTimeDeserializer extends ValueDeserializer<Instant> {
 
 	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss[.SSSSSS]");
 
+	private static final int LENGTH = 19;
+	private static final int LENGTH_WITH_MICROS = 26;
+	private static final int SECONDS_PER_DAY = 86_400;
+
+	/**
+	 * Days from 0000-03-01 to 1970-01-01.
+	 */
+	private static final int DAYS_0000_TO_1970 = 719_468;
+
 
 	@Override
 	public Instant deserialize(JsonParser p, DeserializationContext ctxt) throws DatabindException {
@@ -46,12 +63,90 @@ public class BitstampDateTimeDeserializer extends ValueDeserializer<Instant> {
 		if (isEmpty(value)) return null;
 
 		try {
-			LocalDateTime dateTime = LocalDateTime.parse(value.trim(), FORMATTER);
-			return dateTime.toInstant(UTC);
+			return parse(value);
 		} catch (Exception e) {
 			throw DatabindException.from(p, "Invalid datetime format: " + value + ". Expected format: 'yyyy-MM-dd HH:mm:ss[.SSSSSS]' (microseconds optional)", e);
 		}
 	}
 
 
+	/**
+	 * Parses a Bitstamp datetime string.
+	 *
+	 * @param value datetime string in the format "yyyy-MM-dd HH:mm:ss[.SSSSSS]", in UTC
+	 * @return the instant
+	 * @throws DateTimeParseException if the value can't be parsed
+	 */
+	public static Instant parse(CharSequence value) {
+		Instant instant = parseFixedLayout(value);
+		if (instant != null) return instant;
+		return LocalDateTime.parse(value.toString().trim(), FORMATTER).toInstant(UTC);
+	}
+
+
+	/**
+	 * Parses a datetime string in the exact layout "yyyy-MM-dd HH:mm:ss[.SSSSSS]".
+	 *
+	 * @return the instant, or null if the value doesn't have that layout or isn't a valid date and time
+	 */
+	static @Nullable Instant parseFixedLayout(CharSequence value) {
+		int length = value.length();
+		if (length != LENGTH && length != LENGTH_WITH_MICROS) return null;
+		if (value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != ' '
+				|| value.charAt(13) != ':' || value.charAt(16) != ':') {
+			return null;
+		}
+		int year = digits(value, 0, 4);
+		int month = digits(value, 5, 2);
+		int day = digits(value, 8, 2);
+		int hour = digits(value, 11, 2);
+		int minute = digits(value, 14, 2);
+		int second = digits(value, 17, 2);
+		int micros = 0;
+		if (length == LENGTH_WITH_MICROS) {
+			if (value.charAt(19) != '.') return null;
+			micros = digits(value, 20, 6);
+		}
+		if ((year | month | day | hour | minute | second | micros) < 0
+				|| year < 1 || month < 1 || month > 12 || day < 1
+				|| day > Month.of(month).length(IsoChronology.INSTANCE.isLeapYear(year))
+				|| hour > 23 || minute > 59 || second > 59) {
+			return null;
+		}
+		long epochSecond = epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+		return Instant.ofEpochSecond(epochSecond, micros * 1000L);
+	}
+
+
+	/**
+	 * Reads a run of decimal digits.
+	 *
+	 * @return the value, or -1 if any of the characters isn't a digit
+	 */
+	private static int digits(CharSequence value, int offset, int count) {
+		int result = 0;
+		for (int i = offset; i < offset + count; i++) {
+			int digit = value.charAt(i) - '0';
+			if (digit < 0 || digit > 9) return -1;
+			result = result * 10 + digit;
+		}
+		return result;
+	}
+
+
+	/**
+	 * Days since 1970-01-01 of a valid date in the proleptic Gregorian calendar.
+	 * <p/>
+	 * Counts from a year starting in March, so the leap day is the last day of the year.
+	 */
+	private static long epochDay(int year, int month, int day) {
+		int y = month <= 2 ? year - 1 : year;
+		int era = y / 400;
+		int yearOfEra = y - era * 400;
+		int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146_097L + dayOfEra - DAYS_0000_TO_1970;
+	}
+
+
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.jackson;
+
+import dk.clanie.bitstamp.dto.BitstampDecimal;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+/**
+ * Custom deserializer for BitstampDecimal.
+ * <p>
+ * Bitstamp sends prices and amounts as numeric strings (e.g. "47800.00"). These, and JSON numbers,
+ * are parsed from the parser's text buffer straight into the scaled long, so the exact decimal value is kept
+ * and no string is created.
+ * Empty strings are read as null.
+ */
+public class BitstampDecimalDeserializer extends ValueDeserializer<BitstampDecimal> {
+
+	@Override
+	public BitstampDecimal deserialize(JsonParser p, DeserializationContext ctxt) throws DatabindException {
+		JsonToken token = p.currentToken();
+		if (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+			return (BitstampDecimal) ctxt.handleUnexpectedToken(BitstampDecimal.class, p);
+		}
+		// Parse from the parser's buffer, trimmed like String.trim(), to avoid creating a string per value
+		char[] text = p.getStringCharacters();
+		int start = p.getStringOffset();
+		int end = start + p.getStringLength();
+		while (start < end && text[start] <= ' ') start++;
+		while (end > start && text[end - 1] <= ' ') end--;
+		if (start == end) return null;
+
+		try {
+			return BitstampDecimal.parse(text, start, end - start);
+		} catch (NumberFormatException e) {
+			throw DatabindException.from(p, "Invalid decimal value: " + new String(text, start, end - start), e);
+		}
+	}
+
+
+}
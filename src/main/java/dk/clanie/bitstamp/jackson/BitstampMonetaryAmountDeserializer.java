@@ -20,6 +20,7 @@ package dk.clanie.bitstamp.jackson;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 import dk.clanie.bitstamp.dto.BitstampCurrencyCode;
+import dk.clanie.bitstamp.dto.BitstampDecimal;
 import dk.clanie.bitstamp.dto.BitstampMonetaryAmount;
 import tools.jackson.core.JsonParser;
 import tools.jackson.databind.DatabindException;
@@ -45,15 +46,17 @@ public class BitstampMonetaryAmountDeserializer extends ValueDeserializer<Bitsta
 			throw DatabindException.from(p, "Invalid monetary amount format: " + value + ". Expected format: 'amount currency'");
 		}
 
+		BitstampDecimal amount;
 		try {
-			double amount = Double.parseDouble(parts[0]);
-			BitstampCurrencyCode currencyCode = BitstampCurrencyCode.fromString(parts[1]);
-			return new BitstampMonetaryAmount(amount, currencyCode);
+			amount = BitstampDecimal.parse(parts[0]);
 		} catch (NumberFormatException e) {
 			throw DatabindException.from(p, "Invalid amount value: " + parts[0], e);
-		} catch (IllegalArgumentException e) {
-			throw DatabindException.from(p, "Invalid currency code: " + parts[1], e);
 		}
+		BitstampCurrencyCode currencyCode = BitstampCurrencyCode.tryFromString(parts[1]);
+		if (currencyCode == null) {
+			throw DatabindException.from(p, "Invalid currency code: " + parts[1]);
+		}
+		return new BitstampMonetaryAmount(amount, currencyCode);
 	}
 
 }
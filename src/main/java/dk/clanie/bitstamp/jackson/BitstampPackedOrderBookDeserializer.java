@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.jackson;
+
+import java.util.Arrays;
+
+import dk.clanie.bitstamp.dto.BitstampDecimal;
+import dk.clanie.bitstamp.dto.BitstampPackedOrderBook;
+import dk.clanie.bitstamp.jfr.BitstampDeserializationEvent;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+/**
+ * Streaming deserializer for BitstampPackedOrderBook.
+ * <p>
+ * Reads the [price, amount] pairs directly from the token stream into primitive arrays,
+ * without creating intermediate lists, boxed values or order objects.
+ * Emits a {@link BitstampDeserializationEvent} counting the levels read.
+ */
+public class BitstampPackedOrderBookDeserializer extends ValueDeserializer<BitstampPackedOrderBook> {
+
+	private static final int INITIAL_CAPACITY = 128;
+
+
+	@Override
+	public BitstampPackedOrderBook deserialize(JsonParser p, DeserializationContext ctxt) throws DatabindException {
+		if (!p.isExpectedStartObjectToken()) {
+			throw DatabindException.from(p, "Expected order book object, got: " + p.currentToken());
+		}
+		BitstampDeserializationEvent event = BitstampDeserializationEvent.start(p);
+		long timestamp = 0;
+		long microtimestamp = 0;
+		Levels bids = new Levels();
+		Levels asks = new Levels();
+		while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+			String name = p.currentName();
+			p.nextToken();
+			switch (name) {
+			case "timestamp" -> timestamp = p.getValueAsLong();
+			case "microtimestamp" -> microtimestamp = p.getValueAsLong();
+			case "bids" -> bids.read(p);
+			case "asks" -> asks.read(p);
+			default -> p.skipChildren();
+			}
+		}
+		event.commit(p, BitstampPackedOrderBook.class, null, bids.count + asks.count);
+		return new BitstampPackedOrderBook(timestamp, microtimestamp,
+				bids.prices, bids.amounts, bids.count,
+				asks.prices, asks.amounts, asks.count);
+	}
+
+
+	/**
+	 * Growable price and amount arrays for one side of the book.
+	 */
+	private static class Levels {
+
+		double[] prices = new double[INITIAL_CAPACITY];
+		double[] amounts = new double[INITIAL_CAPACITY];
+		int count;
+
+
+		void read(JsonParser p) {
+			if (p.currentToken() != JsonToken.START_ARRAY) {
+				throw DatabindException.from(p, "Expected array of orders, got: " + p.currentToken());
+			}
+			while (p.nextToken() == JsonToken.START_ARRAY) {
+				double price = nextValue(p);
+				double amount = nextValue(p);
+				// Skip any further values and the end of the order array
+				while (p.nextToken() != JsonToken.END_ARRAY) {
+					p.skipChildren();
+				}
+				add(price, amount);
+			}
+		}
+
+
+		/**
+		 * Reads the next price or amount, which must be a JSON number or a numeric string.
+		 * <p>
+		 * Anything else fails, rather than being read as 0, which would mean a removed level.
+		 */
+		private static double nextValue(JsonParser p) {
+			JsonToken token = p.nextToken();
+			if (token == JsonToken.END_ARRAY) {
+				throw DatabindException.from(p, "Order must have at least 2 values: [price, amount]");
+			}
+			if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+				return p.getDoubleValue();
+			}
+			if (token == JsonToken.VALUE_STRING) {
+				try {
+					return BitstampDecimal.parse(p.getStringCharacters(), p.getStringOffset(), p.getStringLength()).doubleValue();
+				} catch (NumberFormatException e) {
+					throw DatabindException.from(p, "Invalid order value: \"" + p.getString() + "\"", e);
+				}
+			}
+			throw DatabindException.from(p, "Expected numeric order value, got: " + token);
+		}
+
+
+		private void add(double price, double amount) {
+			if (count == prices.length) {
+				prices = Arrays.copyOf(prices, count * 2);
+				amounts = Arrays.copyOf(amounts, count * 2);
+			}
+			prices[count] = price;
+			amounts[count] = amount;
+			count++;
+		}
+
+
+	}
+
+
+}
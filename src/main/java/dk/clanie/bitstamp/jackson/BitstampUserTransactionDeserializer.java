@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.jackson;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+import dk.clanie.bitstamp.dto.BitstampCurrencyCode;
+import dk.clanie.bitstamp.dto.BitstampCurrencyPair;
+import dk.clanie.bitstamp.dto.BitstampCurrencyPairRegistry;
+import dk.clanie.bitstamp.dto.BitstampExchangeRate;
+import dk.clanie.bitstamp.dto.BitstampUserTransaction;
+import dk.clanie.bitstamp.dto.BitstampUserTransactionType;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+/**
+ * Streaming deserializer for BitstampUserTransaction.
+ * <p>
+ * Bitstamp sends currency amounts and exchange rates as properties named after the currency ("btc")
+ * or currency pair ("btc_eur"). Property names are resolved through a lookup table built once, holding
+ * the fixed fields and all currency codes, and {@link BitstampCurrencyPairRegistry}, so no exceptions
+ * are thrown for names which are not currency codes. Amounts are read directly into compact arrays.
+ * <p>
+ * Properties which are neither fields, currencies nor currency pairs, and currency properties with
+ * non-numeric values, are kept as additional properties.
+ */
+public class BitstampUserTransactionDeserializer extends ValueDeserializer<BitstampUserTransaction> {
+
+	private static final int INITIAL_CAPACITY = 4;
+	private static final BitstampCurrencyCode[] NO_CURRENCIES = {};
+	private static final double[] NO_AMOUNTS = {};
+
+	private enum Field { ID, DATETIME, TYPE, FEE, ORDER_ID, MARKET }
+
+	/**
+	 * Fields and currency codes by property name.
+	 */
+	private static final Map<String, Object> PROPERTIES = properties();
+
+	/**
+	 * Transaction types by code.
+	 */
+	private static final BitstampUserTransactionType[] TYPES = types();
+
+	private static final BitstampDateTimeDeserializer DATETIME_DESERIALIZER = new BitstampDateTimeDeserializer();
+
+
+	@Override
+	public BitstampUserTransaction deserialize(JsonParser p, DeserializationContext ctxt) throws DatabindException {
+		if (!p.isExpectedStartObjectToken()) {
+			throw DatabindException.from(p, "Expected user transaction object, got: " + p.currentToken());
+		}
+		long id = 0;
+		Instant datetime = null;
+		BitstampUserTransactionType type = null;
+		Double fee = null;
+		Long orderId = null;
+		String market = null;
+		BitstampExchangeRate exchangeRate = null;
+		BitstampCurrencyCode[] currencies = NO_CURRENCIES;
+		double[] amounts = NO_AMOUNTS;
+		int currencyCount = 0;
+		Map<String, Object> additionalProperties = null;
+		while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+			String name = p.currentName();
+			if (p.nextToken() == JsonToken.VALUE_NULL) {
+				continue;
+			}
+			switch (resolve(name)) {
+			case Field field -> {
+				switch (field) {
+				case ID -> id = p.getValueAsLong();
+				case DATETIME -> datetime = DATETIME_DESERIALIZER.deserialize(p, ctxt);
+				case TYPE -> type = type(p);
+				case FEE -> {
+					double value = number(p);
+					fee = Double.isNaN(value) ? null : value;
+				}
+				case ORDER_ID -> orderId = p.getValueAsLong();
+				case MARKET -> market = p.getValueAsString();
+				}
+			}
+			case BitstampCurrencyCode currency -> {
+				double amount = number(p);
+				int index = indexOf(currencies, currencyCount, currency);
+				if (Double.isNaN(amount)) {
+					additionalProperties = put(additionalProperties, name, ctxt.readValue(p, Object.class));
+				} else if (index >= 0) {
+					amounts[index] = amount;
+				} else {
+					if (currencyCount == currencies.length) {
+						currencies = Arrays.copyOf(currencies, Math.max(INITIAL_CAPACITY, currencyCount * 2));
+						amounts = Arrays.copyOf(amounts, currencies.length);
+					}
+					currencies[currencyCount] = currency;
+					amounts[currencyCount] = amount;
+					currencyCount++;
+				}
+			}
+			case BitstampCurrencyPair pair -> {
+				double rate = number(p);
+				if (Double.isNaN(rate)) {
+					additionalProperties = put(additionalProperties, name, ctxt.readValue(p, Object.class));
+				} else {
+					exchangeRate = new BitstampExchangeRate(pair, rate);
+				}
+			}
+			case null, default -> additionalProperties = put(additionalProperties, name, ctxt.readValue(p, Object.class));
+			}
+		}
+		return new BitstampUserTransaction(id, datetime, type, currencies, amounts, currencyCount,
+				exchangeRate, fee, orderId, market, additionalProperties);
+	}
+
+
+	/**
+	 * Returns the field, currency code or currency pair a property name stands for, if any.
+	 */
+	private static @Nullable Object resolve(String name) {
+		Object property = PROPERTIES.get(name);
+		if (property != null) {
+			return property;
+		}
+		if (name.indexOf('_') < 0) {
+			return BitstampCurrencyCode.tryFromString(name);
+		}
+		return BitstampCurrencyPairRegistry.find(name);
+	}
+
+
+	/**
+	 * Reads a number, which Bitstamp sends either as JSON number or string.
+	 *
+	 * @return the number, or NaN if the value is not numeric
+	 */
+	private static double number(JsonParser p) {
+		JsonToken token = p.currentToken();
+		if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+			return p.getDoubleValue();
+		}
+		if (token == JsonToken.VALUE_STRING) {
+			return p.getValueAsDouble(Double.NaN);
+		}
+		return Double.NaN;
+	}
+
+
+	/**
+	 * Finds a currency among the first {@code count} currencies.
+	 *
+	 * @return the index of the currency, or -1 if it is not found
+	 */
+	private static int indexOf(BitstampCurrencyCode[] currencies, int count, BitstampCurrencyCode currency) {
+		for (int i = 0; i < count; i++) {
+			if (currencies[i] == currency) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+
+	private static BitstampUserTransactionType type(JsonParser p) {
+		int code = p.getValueAsInt(-1);
+		if (code < 0 || code >= TYPES.length || TYPES[code] == null) {
+			throw DatabindException.from(p, "Unknown user transaction type code: " + p.getString());
+		}
+		return TYPES[code];
+	}
+
+
+	private static Map<String, Object> put(@Nullable Map<String, Object> map, String key, @Nullable Object value) {
+		if (value == null) {
+			return map;
+		}
+		if (map == null) {
+			map = new HashMap<>();
+		}
+		map.put(key, value);
+		return map;
+	}
+
+
+	private static Map<String, Object> properties() {
+		Map<String, Object> properties = new HashMap<>();
+		for (BitstampCurrencyCode currency : BitstampCurrencyCode.values()) {
+			properties.put(currency.getCode().toLowerCase(Locale.ROOT), currency);
+		}
+		properties.put("id", Field.ID);
+		properties.put("datetime", Field.DATETIME);
+		properties.put("type", Field.TYPE);
+		properties.put("fee", Field.FEE);
+		properties.put("order_id", Field.ORDER_ID);
+		properties.put("market", Field.MARKET);
+		return Map.copyOf(properties);
+	}
+
+
+	private static BitstampUserTransactionType[] types() {
+		int maxCode = Arrays.stream(BitstampUserTransactionType.values()).mapToInt(BitstampUserTransactionType::getCode).max().orElse(0);
+		BitstampUserTransactionType[] types = new BitstampUserTransactionType[maxCode + 1];
+		for (BitstampUserTransactionType type : BitstampUserTransactionType.values()) {
+			types[type.getCode()] = type;
+		}
+		return types;
+	}
+
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.jackson;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import dk.clanie.bitstamp.dto.CandleSeries;
+import dk.clanie.bitstamp.jfr.BitstampDeserializationEvent;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+/**
+ * Streaming deserializer for CandleSeries.
+ * <p>
+ * Reads the candles of an OHLC response directly from the token stream into primitive arrays,
+ * without creating intermediate candle objects. Accepts the OHLC object itself as well as the
+ * object wrapped in a {@code "data"} property. Candles out of timestamp order are sorted, and
+ * repeated timestamps are dropped. Emits a {@link BitstampDeserializationEvent} counting the candles read.
+ */
+public class CandleSeriesDeserializer extends ValueDeserializer<CandleSeries> {
+
+	private static final int INITIAL_CAPACITY = 128;
+
+
+	@Override
+	public CandleSeries deserialize(JsonParser p, DeserializationContext ctxt) throws DatabindException {
+		if (!p.isExpectedStartObjectToken()) {
+			throw DatabindException.from(p, "Expected OHLC object, got: " + p.currentToken());
+		}
+		BitstampDeserializationEvent event = BitstampDeserializationEvent.start(p);
+		Columns columns = new Columns();
+		readObject(p, columns);
+		event.commit(p, CandleSeries.class, columns.pair, columns.count);
+		return columns.toSeries();
+	}
+
+
+	private void readObject(JsonParser p, Columns columns) {
+		while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+			String name = p.currentName();
+			p.nextToken();
+			switch (name) {
+			case "pair" -> columns.pair = p.getString();
+			case "ohlc" -> columns.read(p);
+			case "data" -> {
+				if (p.currentToken() == JsonToken.START_OBJECT) readObject(p, columns);
+				else p.skipChildren();
+			}
+			default -> p.skipChildren();
+			}
+		}
+	}
+
+
+	/**
+	 * Growable candle columns.
+	 */
+	private static class Columns {
+
+		String pair;
+		long[] timestamps = new long[INITIAL_CAPACITY];
+		double[] open = new double[INITIAL_CAPACITY];
+		double[] high = new double[INITIAL_CAPACITY];
+		double[] low = new double[INITIAL_CAPACITY];
+		double[] close = new double[INITIAL_CAPACITY];
+		double[] volume = new double[INITIAL_CAPACITY];
+		int count;
+		boolean ordered = true;
+
+
+		void read(JsonParser p) {
+			if (p.currentToken() != JsonToken.START_ARRAY) {
+				throw DatabindException.from(p, "Expected array of candles, got: " + p.currentToken());
+			}
+			while (p.nextToken() == JsonToken.START_OBJECT) {
+				grow();
+				while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+					String name = p.currentName();
+					p.nextToken();
+					switch (name) {
+					case "timestamp" -> timestamps[count] = p.getValueAsLong();
+					case "open" -> open[count] = p.getValueAsDouble();
+					case "high" -> high[count] = p.getValueAsDouble();
+					case "low" -> low[count] = p.getValueAsDouble();
+					case "close" -> close[count] = p.getValueAsDouble();
+					case "volume" -> volume[count] = p.getValueAsDouble();
+					default -> p.skipChildren();
+					}
+				}
+				if (count > 0 && timestamps[count] <= timestamps[count - 1]) {
+					ordered = false;
+				}
+				count++;
+			}
+		}
+
+
+		private void grow() {
+			if (count == timestamps.length) {
+				int capacity = count * 2;
+				timestamps = Arrays.copyOf(timestamps, capacity);
+				open = Arrays.copyOf(open, capacity);
+				high = Arrays.copyOf(high, capacity);
+				low = Arrays.copyOf(low, capacity);
+				close = Arrays.copyOf(close, capacity);
+				volume = Arrays.copyOf(volume, capacity);
+			}
+			timestamps[count] = 0;
+			open[count] = 0;
+			high[count] = 0;
+			low[count] = 0;
+			close[count] = 0;
+			volume[count] = 0;
+		}
+
+
+		CandleSeries toSeries() {
+			if (ordered) {
+				return new CandleSeries(pair, timestamps, open, high, low, close, volume, count);
+			}
+			// Rare: sort by timestamp, keeping the first of candles with the same timestamp
+			int[] order = IntStream.range(0, count).boxed()
+					.sorted(Comparator.comparingLong(i -> timestamps[i]))
+					.mapToInt(Integer::intValue)
+					.toArray();
+			CandleSeries series = new CandleSeries(pair, count);
+			for (int i : order) {
+				if (series.isEmpty() || timestamps[i] > series.getTimestamp(series.size() - 1)) {
+					series.append(timestamps[i], open[i], high[i], low[i], close[i], volume[i]);
+				}
+			}
+			return series;
+		}
+
+
+	}
+
+
+}
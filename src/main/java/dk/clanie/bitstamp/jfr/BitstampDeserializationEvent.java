@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.jfr;
+
+import org.jspecify.annotations.Nullable;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import tools.jackson.core.JsonParser;
+
+/**
+ * Flight Recorder event of deserializing a Bitstamp response with one of the streaming deserializers.
+ * <p>
+ * The parser position is only read when the event is enabled, so a disabled event costs no more than
+ * its allocation, which escape analysis usually removes.
+ */
+@Name("dk.clanie.bitstamp.Deserialization")
+@Label("Bitstamp Deserialization")
+@Category("Bitstamp")
+@Description("Deserialization of a Bitstamp response")
+@StackTrace(false)
+public final class BitstampDeserializationEvent extends Event {
+
+	@Label("Type")
+	@Description("The type deserialized")
+	public String type;
+
+	@Label("Pair")
+	@Description("Currency pair of the data, if known")
+	public String pair;
+
+	@Label("Element Count")
+	@Description("Number of elements read, e.g. order book levels or candles")
+	public int elementCount;
+
+	@Label("Bytes")
+	@Description("Number of bytes read, if the parser reads bytes")
+	@DataAmount
+	public long bytes;
+
+	private transient long startOffset;
+
+
+	/**
+	 * Starts timing the deserialization of a value.
+	 * 
+	 * @param p the parser, positioned at the start of the value
+	 * @return the event
+	 */
+	public static BitstampDeserializationEvent start(JsonParser p) {
+		BitstampDeserializationEvent event = new BitstampDeserializationEvent();
+		if (event.isEnabled()) {
+			event.startOffset = p.currentLocation().getByteOffset();
+			event.begin();
+		}
+		return event;
+	}
+
+
+	/**
+	 * Ends timing and commits the event, if enabled and above the threshold.
+	 * 
+	 * @param p the parser, positioned at the end of the value
+	 * @param type the type deserialized
+	 * @param pair the currency pair, if known
+	 * @param elementCount the number of elements read
+	 */
+	public void commit(JsonParser p, Class<?> type, @Nullable String pair, int elementCount) {
+		end();
+		if (shouldCommit()) {
+			long endOffset = p.currentLocation().getByteOffset();
+			this.type = type.getSimpleName();
+			this.pair = pair;
+			this.elementCount = elementCount;
+			this.bytes = startOffset >= 0 && endOffset >= 0 ? endOffset - startOffset : 0;
+			commit();
+		}
+	}
+
+}
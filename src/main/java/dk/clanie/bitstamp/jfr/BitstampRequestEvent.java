@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event of an HTTP request made by BitstampClient.
+ * <p>
+ * The duration of the event is the whole exchange, from sending the request until the response was
+ * closed after deserialization. It is broken down into the time until the response headers arrived,
+ * the time spent reading the body, and the time spent deserializing it.
+ */
+@Name("dk.clanie.bitstamp.Request")
+@Label("Bitstamp Request")
+@Category("Bitstamp")
+@Description("HTTP request to the Bitstamp REST API")
+@StackTrace(false)
+public final class BitstampRequestEvent extends Event {
+
+	@Label("Method")
+	public String method;
+
+	@Label("Endpoint")
+	@Description("The endpoint, e.g. \"order_book\"")
+	public String endpoint;
+
+	@Label("Pair")
+	@Description("Currency pair or currency the request is for, if any")
+	public String pair;
+
+	@Label("Status")
+	@Description("HTTP status code, or IO_ERROR if there was no response")
+	public String status;
+
+	@Label("Bytes")
+	@Description("Size of the response body")
+	@DataAmount
+	public long bytes;
+
+	@Label("First Byte")
+	@Description("Time until the response headers arrived, including connecting")
+	@Timespan
+	public long firstByte;
+
+	@Label("Body")
+	@Description("Time spent reading the response body")
+	@Timespan
+	public long body;
+
+	@Label("Deserialization")
+	@Description("Time spent deserializing the response body")
+	@Timespan
+	public long deserialization;
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of signing a private Bitstamp request.
+ */
+@Name("dk.clanie.bitstamp.Signing")
+@Label("Bitstamp Signing")
+@Category("Bitstamp")
+@Description("HMAC-SHA256 signing of a private Bitstamp request")
+@StackTrace(false)
+public final class BitstampSigningEvent extends Event {
+
+	@Label("Method")
+	public String method;
+
+	@Label("Path")
+	@Description("The API path, e.g. \"/api/v2/user_transactions/\"")
+	public String path;
+
+	@Label("Payload Length")
+	@Description("Number of characters in the signed payload")
+	public int payloadLength;
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientResponseException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import dk.clanie.bitstamp.dto.BitstampTicker;
+import dk.clanie.bitstamp.dto.BitstampUserTransaction;
+import dk.clanie.bitstamp.exception.UnknownCurrencyCodeException;
+
+class BitstampAsyncClientTest {
+
+	private HttpServer server;
+	private BitstampAsyncClient client;
+	private final Map<String, String> receivedHeaders = new ConcurrentHashMap<>();
+
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/api/v2/ticker/btcusd/", exchange -> respond(exchange, 200, """
+				{
+				  "high": "48500.00", "last": "47800.00", "timestamp": "1637597234",
+				  "bid": "47795.00", "vwap": "47900.00", "volume": "1234.56",
+				  "low": "47200.00", "ask": "47805.00", "open": "48000.00",
+				  "open_24": "47500.00", "percent_change_24": "0.63", "side": "0"
+				}
+				"""));
+		server.createContext("/api/v2/ticker/", exchange -> respond(exchange, 200, """
+				[{
+				  "high": "48500.00", "last": "47800.00", "timestamp": "1637597234",
+				  "bid": "47795.00", "vwap": "47900.00", "volume": "1234.56",
+				  "low": "47200.00", "ask": "47805.00", "open": "48000.00",
+				  "open_24": "47500.00", "percent_change_24": "0.63", "side": "0",
+				  "market_type": "SPOT", "pair": "BTC/USD", "market": "BTCUSD"
+				}, {
+				  "high": "1.10", "last": "1.00", "timestamp": "1637597234",
+				  "bid": "0.99", "vwap": "1.00", "volume": "100.00",
+				  "low": "0.90", "ask": "1.01", "open": "1.00",
+				  "open_24": "1.00", "percent_change_24": "0.00", "side": "1",
+				  "market_type": "SPOT", "pair": "NEWCOIN/USD", "market": "NEWCOINUSD"
+				}]
+				"""));
+		server.createContext("/api/v2/ticker/nosuchpair/", exchange -> respond(exchange, 404, "{\"error\": \"not found\"}"));
+		server.createContext("/api/v2/transactions/btcusd/", exchange -> {
+			receivedHeaders.put("query", exchange.getRequestURI().getRawQuery());
+			respond(exchange, 200, "[]");
+		});
+		server.createContext("/api/v2/user_transactions/", exchange -> {
+			receivedHeaders.put("X-Auth", exchange.getRequestHeaders().getFirst("X-Auth"));
+			receivedHeaders.put("X-Auth-Signature", exchange.getRequestHeaders().getFirst("X-Auth-Signature"));
+			receivedHeaders.put("body", new String(exchange.getRequestBody().readAllBytes(), UTF_8));
+			respond(exchange, 200, """
+					[{"id": 1, "datetime": "2025-01-15 13:29:19.362050", "type": 2, "usd": "-100.50", "btc": "0.0025"}]
+					""");
+		});
+		server.start();
+
+		client = new BitstampAsyncClient();
+		ReflectionTestUtils.setField(client, "baseUrl", "http://localhost:" + server.getAddress().getPort());
+		client.init();
+	}
+
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+	}
+
+
+	@Test
+	void testGetTicker() {
+		BitstampTicker ticker = client.getTicker("btcusd").join();
+
+		assertThat(ticker.getLast()).isEqualTo(47800.00);
+		assertThat(ticker.getBid()).isEqualTo(47795.00);
+		assertThat(ticker.getAsk()).isEqualTo(47805.00);
+	}
+
+
+	@Test
+	void testErrorStatusCompletesExceptionally() {
+		assertThatThrownBy(() -> client.getTicker("nosuchpair").join())
+				.isInstanceOf(CompletionException.class)
+				.hasCauseInstanceOf(RestClientResponseException.class);
+	}
+
+
+	@Test
+	void testListTickersWithUnknownCurrencyCompletesExceptionally() {
+		assertThatThrownBy(() -> client.listTickers().join())
+				.isInstanceOf(CompletionException.class)
+				.cause()
+				.isInstanceOfSatisfying(UnknownCurrencyCodeException.class,
+						e -> assertThat(e.getUnknownCurrencyCodes()).containsExactly("NEWCOIN"));
+	}
+
+
+	@Test
+	void testGetUserTransactionsIsSigned() {
+		BitstampCredentials credentials = new BitstampCredentials("test-key", "test-secret");
+
+		List<BitstampUserTransaction> transactions = client.getUserTransactions(credentials, null, null, 10, null, null, null, null).join();
+
+		assertThat(transactions).hasSize(1);
+		assertThat(transactions.get(0).getId()).isEqualTo(1L);
+		assertThat(receivedHeaders.get("X-Auth")).isEqualTo("BITSTAMP test-key");
+		assertThat(receivedHeaders.get("X-Auth-Signature")).matches("^[0-9a-f]{64}$");
+		assertThat(receivedHeaders.get("body")).isEqualTo("limit=10");
+	}
+
+
+	@Test
+	void testGetTransactionsEncodesQuery() {
+		assertThat(client.getTransactions("btcusd", "a b&c").join()).isEmpty();
+
+		assertThat(receivedHeaders.get("query")).isEqualTo("time=a%20b%26c");
+	}
+
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(bytes);
+		}
+	}
+
+
+}
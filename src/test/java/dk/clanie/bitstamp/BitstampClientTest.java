@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClient;
+
+import dk.clanie.bitstamp.BitstampClient.OhlcWindow;
+import dk.clanie.bitstamp.dto.BitstampCurrencyPair;
+import dk.clanie.bitstamp.dto.BitstampCurrencyPairRegistry;
+import dk.clanie.bitstamp.dto.BitstampOrderBook;
+import dk.clanie.bitstamp.dto.BitstampTicker;
+import dk.clanie.web.RestClientFactory;
+
+class BitstampClientTest {
+
+	private static final List<BitstampCurrencyPair> FAN_OUT_PAIRS = Stream.of(
+			"btcusd", "ethusd", "xrpusd", "ltcusd", "bchusd", "linkusd", "xlmusd", "aaveusd", "uniusd", "solusd", "adausd", "dogeusd")
+			.map(BitstampCurrencyPairRegistry::find)
+			.toList();
+
+	@Test
+	void testOhlcWindowsCoverRange() {
+		// A year of 1-minute candles
+		long from = 1_704_067_200L; // 2024-01-01T00:00:00Z
+		long to = from + 366L * 24 * 60 * 60 - 60;
+
+		List<OhlcWindow> windows = BitstampClient.ohlcWindows(60, from, to);
+
+		assertThat(windows).hasSize(528);
+		assertThat(windows.get(0)).isEqualTo(new OhlcWindow(from + 999 * 60, 1000));
+		assertThat(windows.get(windows.size() - 1).getEnd()).isEqualTo(to);
+		assertThat(windows.stream().mapToLong(OhlcWindow::getLimit).sum()).isEqualTo(366L * 24 * 60);
+		for (int i = 1; i < windows.size(); i++) {
+			OhlcWindow window = windows.get(i);
+			long start = window.getEnd() - (window.getLimit() - 1) * 60L;
+			assertThat(start).isEqualTo(windows.get(i - 1).getEnd() + 60);
+		}
+	}
+
+
+	@Test
+	void testOhlcWindowsAlignToStep() {
+		List<OhlcWindow> windows = BitstampClient.ohlcWindows(3600, 3500, 7300);
+
+		assertThat(windows).containsExactly(new OhlcWindow(7200, 2));
+	}
+
+
+	@Test
+	void testOhlcWindowsEmptyWhenNoCandleInRange() {
+		assertThat(BitstampClient.ohlcWindows(3600, 3601, 7199)).isEmpty();
+	}
+
+
+	@Test
+	void testOhlcWindowsRejectInvalidArguments() {
+		assertThatThrownBy(() -> BitstampClient.ohlcWindows(0, 0, 60)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> BitstampClient.ohlcWindows(60, 120, 60)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+
+	@Test
+	void testFetchOhlcRangeTrimsOverlappingWindows() throws Exception {
+		try (BitstampMockServer server = new BitstampMockServer()) {
+			server.setOhlcOverlap(10);
+			BitstampClient client = newClient(server.getUrl(), 4);
+			client.init();
+			long from = 1_704_067_200L;
+			long to = from + 4_500 * 60L - 60;
+
+			List<Long> timestamps = new ArrayList<>();
+			client.fetchOhlcRange("btcusd", 60, from, to, candle -> timestamps.add(candle.getTimestamp()));
+
+			assertThat(server.getRequestCount()).isEqualTo(5);
+			assertThat(timestamps).containsExactlyElementsOf(LongStream.iterate(from, t -> t <= to, t -> t + 60).boxed().toList());
+			assertThat(client.fetchOhlcSeries("btcusd", 60, from, to).timestamps()).containsExactlyElementsOf(timestamps);
+		}
+	}
+
+
+	@Test
+	void testFetchOhlcRangeDeliversWindowsInOrder() throws Exception {
+		try (BitstampMockServer server = new BitstampMockServer()) {
+			// Random latency, so the windows arrive out of order
+			server.setLatency(Duration.ZERO, Duration.ofMillis(50));
+			BitstampClient client = newClient(server.getUrl(), 8);
+			client.init();
+			long from = 1_704_067_200L;
+			long to = from + 12_000 * 60L - 60;
+			Thread caller = Thread.currentThread();
+
+			List<Long> timestamps = new ArrayList<>();
+			client.fetchOhlcRange("btcusd", 60, from, to, candle -> {
+				assertThat(Thread.currentThread()).isSameAs(caller);
+				timestamps.add(candle.getTimestamp());
+			});
+
+			assertThat(timestamps).containsExactlyElementsOf(LongStream.iterate(from, t -> t <= to, t -> t + 60).boxed().toList());
+		}
+	}
+
+
+	@Test
+	void testFetchOhlcRangeCancelsRemainingWindowsWhenOneFails() throws Exception {
+		try (BitstampMockServer server = new BitstampMockServer()) {
+			server.setLatency(Duration.ofMillis(50), Duration.ZERO);
+			BitstampClient client = newClient(server.getUrl(), 2);
+			client.init();
+			long from = 1_704_067_200L;
+			long to = from + 10_000 * 60L - 60;
+			List<OhlcWindow> windows = BitstampClient.ohlcWindows(60, from, to);
+			server.failRequests(uri -> uri.getQuery().contains("end=" + windows.get(3).getEnd()), 500);
+
+			List<Long> timestamps = new ArrayList<>();
+			assertThatThrownBy(() -> client.fetchOhlcRange("btcusd", 60, from, to, candle -> timestamps.add(candle.getTimestamp())))
+					.isInstanceOf(HttpServerErrorException.class);
+			long requests = server.getRequestCount();
+			Thread.sleep(200);
+
+			assertThat(timestamps).containsExactlyElementsOf(LongStream.iterate(from, t -> t <= windows.get(2).getEnd(), t -> t + 60).boxed().toList());
+			assertThat(requests).isLessThanOrEqualTo(5);
+			assertThat(server.getRequestCount()).isEqualTo(requests);
+		}
+	}
+
+
+	@Test
+	void testCoalescesOnlyCallsAtTheSamePriority() throws Exception {
+		try (BitstampMockServer server = new BitstampMockServer()) {
+			server.setLatency(Duration.ofMillis(200), Duration.ZERO);
+			BitstampClient client = newClient(server.getUrl(), 32);
+			client.setPublicRequestCoalescing(true, Duration.ZERO);
+			client.init();
+
+			try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+				for (int i = 0; i < 3; i++) {
+					executor.submit(() -> client.getTicker("btcusd"));
+					executor.submit(() -> BitstampPriority.BACKGROUND.call(() -> client.getTicker("btcusd")));
+				}
+			}
+
+			assertThat(server.getRequestCount()).isEqualTo(2);
+		}
+	}
+
+
+	@Test
+	void testDoesNotCoalesceByDefault() throws Exception {
+		try (BitstampMockServer server = new BitstampMockServer()) {
+			BitstampClient client = newClient(server.getUrl(), 32);
+			client.init();
+
+			List<?> transactions = client.getTransactions("btcusd");
+
+			assertThat(transactions).isInstanceOf(ArrayList.class);
+		}
+	}
+
+
+	@Test
+	void testFanOutRespectsConcurrencyLimit() throws Exception {
+		try (BitstampMockServer server = new BitstampMockServer()) {
+			server.setLatency(Duration.ofMillis(50), Duration.ZERO);
+			BitstampClient client = newClient(server.getUrl(), 3);
+			client.init();
+
+			Map<BitstampCurrencyPair, BitstampPairResult<BitstampTicker>> tickers = client.getTickers(FAN_OUT_PAIRS);
+
+			assertThat(tickers.values()).allMatch(BitstampPairResult::isSuccess);
+			assertThat(server.getRequestCount()).isEqualTo(FAN_OUT_PAIRS.size());
+			assertThat(server.getMaxConcurrentRequests()).isEqualTo(3);
+		}
+	}
+
+
+	@Test
+	void testFanOutIsolatesFailingPair() throws Exception {
+		try (BitstampMockServer server = new BitstampMockServer()) {
+			server.failPair("ethusd", 500);
+			BitstampClient client = newClient(server.getUrl(), 4);
+			client.init();
+
+			Map<BitstampCurrencyPair, BitstampPairResult<BitstampOrderBook>> orderBooks = client.getOrderBooks(FAN_OUT_PAIRS);
+
+			BitstampCurrencyPair failing = BitstampCurrencyPairRegistry.find("ethusd");
+			assertThat(orderBooks.get(failing).isSuccess()).isFalse();
+			assertThat(orderBooks.get(failing).getError()).isInstanceOf(HttpServerErrorException.class);
+			assertThatThrownBy(() -> orderBooks.get(failing).getOrThrow()).isInstanceOf(HttpServerErrorException.class);
+			orderBooks.forEach((pair, result) -> {
+				if (pair != failing) {
+					assertThat(result.isSuccess()).as(pair.toString()).isTrue();
+					assertThat(result.getOrThrow().getBids()).isNotEmpty();
+				}
+			});
+		}
+	}
+
+
+	@Test
+	void testFanOutReturnsResultsInInputOrder() throws Exception {
+		try (BitstampMockServer server = new BitstampMockServer()) {
+			// Random latency, so the requests complete out of order
+			server.setLatency(Duration.ZERO, Duration.ofMillis(40));
+			BitstampClient client = newClient(server.getUrl(), 8);
+			client.init();
+			List<BitstampCurrencyPair> pairs = new ArrayList<>(FAN_OUT_PAIRS);
+			Collections.reverse(pairs);
+			pairs.add(pairs.get(0));
+
+			Map<BitstampCurrencyPair, BitstampPairResult<BitstampTicker>> tickers = client.getTickers(pairs);
+
+			assertThat(tickers.keySet()).containsExactlyElementsOf(pairs.subList(0, pairs.size() - 1));
+			assertThat(server.getRequestCount()).isEqualTo(FAN_OUT_PAIRS.size());
+		}
+	}
+
+
+	@Test
+	void testUserTransactionsStreamStartsAtTimestampWithinWindow() {
+		Instant now = Instant.parse("2025-06-30T12:00:00Z");
+
+		assertThat(BitstampClient.userTransactionsSinceTimestamp(null, now)).isNull();
+		assertThat(BitstampClient.userTransactionsSinceTimestamp(now.minus(Duration.ofDays(31)), now)).isNull();
+		assertThat(BitstampClient.userTransactionsSinceTimestamp(now.minus(Duration.ofDays(30)), now)).isNull();
+		assertThat(BitstampClient.userTransactionsSinceTimestamp(now.minus(Duration.ofDays(29)), now))
+				.isEqualTo(now.minus(Duration.ofDays(29)).getEpochSecond());
+	}
+
+
+	@Test
+	void testUserTransactionsPayloadTakesTimestampsInSeconds() {
+		long since = Instant.now().minus(Duration.ofDays(29)).getEpochSecond();
+
+		assertThat(BitstampClient.userTransactionsPayload(null, 1000, null, null, since, null))
+				.isEqualTo("limit=1000&since_timestamp=" + since);
+		assertThatThrownBy(() -> BitstampClient.userTransactionsPayload(null, null, null, null, since - 2 * 24 * 60 * 60, null))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+
+	/**
+	 * Creates a client of the given base URL, set up as it would be by Spring.
+	 */
+	static BitstampClient newClient(String baseUrl, int fanOutMaxConcurrency) {
+		RestClientFactory restClientFactory = mock(RestClientFactory.class);
+		when(restClientFactory.newRestClient(anyString(), anyBoolean()))
+				.thenAnswer(invocation -> RestClient.create(invocation.getArgument(0, String.class)));
+		BitstampClient client = new BitstampClient(restClientFactory);
+		ReflectionTestUtils.setField(client, "baseUrl", baseUrl);
+		ReflectionTestUtils.setField(client, "fanOutMaxConcurrency", fanOutMaxConcurrency);
+		return client;
+	}
+
+
+}
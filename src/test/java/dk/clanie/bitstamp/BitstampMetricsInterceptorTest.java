@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class BitstampMetricsInterceptorTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final BitstampMetricsInterceptor interceptor = new BitstampMetricsInterceptor(new MicrometerBitstampClientMetrics(registry));
+
+
+	@Test
+	void testEndpointAndPairs() {
+		assertThat(BitstampMetricsInterceptor.endpoint("/api/v2/order_book/btcusd/")).isEqualTo("order_book");
+		assertThat(BitstampMetricsInterceptor.pairs("/api/v2/order_book/btcusd/")).isEqualTo("single");
+		assertThat(BitstampMetricsInterceptor.endpoint("/api/v2/ticker/")).isEqualTo("ticker");
+		assertThat(BitstampMetricsInterceptor.pairs("/api/v2/ticker/")).isEqualTo("all");
+		assertThat(BitstampMetricsInterceptor.endpoint("/api/v2/trading-pairs-info")).isEqualTo("trading-pairs-info");
+		assertThat(BitstampMetricsInterceptor.pairs("/api/v2/trading-pairs-info")).isEqualTo("all");
+		assertThat(BitstampMetricsInterceptor.endpoint("/health")).isEqualTo("other");
+		assertThat(BitstampMetricsInterceptor.pair("/api/v2/order_book/btcusd/")).isEqualTo("btcusd");
+		assertThat(BitstampMetricsInterceptor.pair("/api/v2/ticker/")).isNull();
+	}
+
+
+	@Test
+	void testRecordsExchangeWhenResponseIsClosed() throws IOException {
+		byte[] body = "{\"bids\": [], \"asks\": []}".getBytes(StandardCharsets.UTF_8);
+		MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://www.bitstamp.net/api/v2/order_book/btcusd/"));
+
+		ClientHttpResponse response = interceptor.intercept(request, new byte[0],
+				(req, reqBody) -> new MockClientHttpResponse(body, HttpStatus.OK));
+		try (InputStream in = response.getBody()) {
+			assertThat(in.readAllBytes()).isEqualTo(body);
+		}
+		assertThat(registry.find(MicrometerBitstampClientMetrics.REQUESTS).meters()).isEmpty();
+		response.close();
+		response.close();
+
+		assertThat(registry.get(MicrometerBitstampClientMetrics.REQUESTS)
+				.tag("endpoint", "order_book").tag("pairs", "single").tag("status", "200")
+				.timer().count()).isEqualTo(1);
+		assertThat(registry.get(MicrometerBitstampClientMetrics.FIRST_BYTE).timer().count()).isEqualTo(1);
+		assertThat(registry.get(MicrometerBitstampClientMetrics.BODY).timer().count()).isEqualTo(1);
+		assertThat(registry.get(MicrometerBitstampClientMetrics.DESERIALIZATION).timer().count()).isEqualTo(1);
+		assertThat(registry.get(MicrometerBitstampClientMetrics.RESPONSE_SIZE).summary().totalAmount()).isEqualTo(body.length);
+		assertThat(registry.find(MicrometerBitstampClientMetrics.ERRORS).counter()).isNull();
+	}
+
+
+	@Test
+	void testCountsErrorStatus() throws IOException {
+		MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://www.bitstamp.net/api/v2/ticker/"));
+
+		interceptor.intercept(request, new byte[0],
+				(req, reqBody) -> new MockClientHttpResponse(new byte[0], HttpStatus.TOO_MANY_REQUESTS)).close();
+
+		assertThat(registry.get(MicrometerBitstampClientMetrics.ERRORS)
+				.tag("endpoint", "ticker").tag("pairs", "all").tag("status", "429")
+				.counter().count()).isEqualTo(1);
+	}
+
+
+	@Test
+	void testCountsIoError() {
+		MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.POST, URI.create("https://www.bitstamp.net/api/v2/user_transactions/"));
+
+		assertThatThrownBy(() -> interceptor.intercept(request, new byte[0], (req, reqBody) -> {
+			throw new IOException("Connection refused");
+		})).isInstanceOf(IOException.class);
+
+		assertThat(registry.get(MicrometerBitstampClientMetrics.ERRORS)
+				.tag("endpoint", "user_transactions").tag("status", "IO_ERROR")
+				.counter().count()).isEqualTo(1);
+	}
+
+
+	@Test
+	void testEmitsFlightRecorderEvent() throws IOException {
+		BitstampMetricsInterceptor jfrOnly = new BitstampMetricsInterceptor(BitstampClientMetrics.NONE);
+		MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://www.bitstamp.net/api/v2/ticker/btcusd/"));
+		List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			recording.enable("dk.clanie.bitstamp.Request").withThreshold(Duration.ZERO);
+			recording.start();
+			ClientHttpResponse response = jfrOnly.intercept(request, new byte[0],
+					(req, reqBody) -> new MockClientHttpResponse(new byte[42], HttpStatus.OK));
+			response.getBody().readAllBytes();
+			response.close();
+			recording.stop();
+			Path file = Files.createTempFile("bitstamp", ".jfr");
+			try {
+				recording.dump(file);
+				events = RecordingFile.readAllEvents(file);
+			} finally {
+				Files.delete(file);
+			}
+		}
+
+		assertThat(events).hasSize(1);
+		RecordedEvent event = events.get(0);
+		assertThat(event.getString("method")).isEqualTo("GET");
+		assertThat(event.getString("endpoint")).isEqualTo("ticker");
+		assertThat(event.getString("pair")).isEqualTo("btcusd");
+		assertThat(event.getString("status")).isEqualTo("200");
+		assertThat(event.getLong("bytes")).isEqualTo(42);
+		assertThat(registry.getMeters()).isEmpty();
+	}
+
+
+	@Test
+	void testRecordsSigningPerEndpoint() {
+		MicrometerBitstampClientMetrics metrics = new MicrometerBitstampClientMetrics(registry);
+
+		metrics.recordSigning("account_balances", 1000);
+		metrics.recordSigning("account_balances", 3000);
+
+		assertThat(registry.get(MicrometerBitstampClientMetrics.SIGNING).tag("endpoint", "account_balances").timer().count()).isEqualTo(2);
+	}
+
+
+}
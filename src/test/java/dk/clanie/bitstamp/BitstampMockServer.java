@@ -0,0 +1,675 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import dk.clanie.bitstamp.dto.BitstampCurrencyCode;
+import dk.clanie.bitstamp.dto.BitstampCurrencyPair;
+import dk.clanie.bitstamp.dto.BitstampCurrencyPairRegistry;
+import dk.clanie.bitstamp.dto.BitstampCurrencyType;
+
+/**
+ * Local stand-in for the Bitstamp REST API, for tests and for load and latency measurements of code
+ * built on the clients, without network access.
+ * <p/>
+ * Serves generated, deterministic responses of the shape of the real ones for
+ * <ul>
+ * <li>{@code GET /api/v2/ticker/} and {@code /api/v2/ticker/{pair}/}</li>
+ * <li>{@code GET /api/v2/order_book/{pair}/}</li>
+ * <li>{@code GET /api/v2/ohlc/{pair}/}, honouring {@code step}, {@code limit}, {@code start} and {@code end}</li>
+ * <li>{@code GET /api/v2/transactions/{pair}/}</li>
+ * <li>{@code POST /api/v2/user_transactions/} and {@code /api/v2/user_transactions/{pair}/}, honouring
+ * {@code offset}, {@code limit}, {@code sort} and {@code since_id}</li>
+ * <li>{@code POST /api/v2/account_balances/} and {@code /api/v2/account_balances/{currency}/}</li>
+ * </ul>
+ * Private requests must be signed with credentials added with {@link #addCredentials(String, String)}.
+ * The signature is verified independently of {@link BitstampSigner}, and the timestamp and nonce are
+ * checked like Bitstamp does.
+ * <p/>
+ * Latency with jitter, a rate limit answered with 429, and errors can be configured at any time. Requests
+ * are handled on virtual threads, so the server itself never limits concurrency.
+ */
+public class BitstampMockServer implements AutoCloseable {
+
+	private static final String API_PREFIX = "/api/v2/";
+	private static final long START_SECONDS = 1_735_689_600L; // 2025-01-01T00:00:00Z
+	private static final long MAX_TIMESTAMP_AGE_MILLIS = 150_000;
+	private static final int USER_TRANSACTIONS = 5_000;
+	private static final int MAX_LIMIT = 1000;
+	private static final DateTimeFormatter DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS").withZone(ZoneOffset.UTC);
+	private static final BitstampCurrencyCode[] QUOTES = { BitstampCurrencyCode.USD, BitstampCurrencyCode.EUR };
+
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final Map<String, String> secrets = new ConcurrentHashMap<>();
+	private final Map<String, Long> nonces = new ConcurrentHashMap<>();
+	private final Map<BitstampCurrencyPair, Integer> failingPairs = new ConcurrentHashMap<>();
+	private final Map<Predicate<URI>, Integer> failingRequests = new ConcurrentHashMap<>();
+	private final byte[] tickerList = tickerList();
+	private final AtomicInteger injectedErrors = new AtomicInteger();
+	private final AtomicLong requestCount = new AtomicLong();
+	private final AtomicLong rateLimitedCount = new AtomicLong();
+	private final AtomicInteger activeRequests = new AtomicInteger();
+	private final AtomicInteger maxActiveRequests = new AtomicInteger();
+
+	private volatile Duration latency = Duration.ZERO;
+	private volatile Duration jitter = Duration.ZERO;
+	private volatile int requestsPerSecond;
+	private volatile double errorRate;
+	private volatile int injectedErrorStatus = 500;
+	private volatile int orderBookDepth = 100;
+	private volatile int ohlcOverlap;
+
+	private long rateLimitWindow;
+	private int rateLimitCount;
+
+
+	/**
+	 * Starts a server on a free port on localhost.
+	 * 
+	 * @throws IOException if the server can't be started
+	 */
+	public BitstampMockServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+		server.setExecutor(executor);
+		server.createContext(API_PREFIX, this::handle);
+		server.start();
+	}
+
+
+	/**
+	 * Gets the base URL of the server, to be used as {@code bitstamp.url}.
+	 */
+	public String getUrl() {
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+
+
+	/**
+	 * Adds credentials accepted for private requests.
+	 * 
+	 * @param apiKey the API key
+	 * @param apiSecret the API secret
+	 */
+	public void addCredentials(String apiKey, String apiSecret) {
+		secrets.put(apiKey, apiSecret);
+	}
+
+
+	/**
+	 * Sets the time taken to answer each request.
+	 * 
+	 * @param latency the minimum time
+	 * @param jitter a random time between zero and this is added to each request
+	 */
+	public void setLatency(Duration latency, Duration jitter) {
+		this.latency = latency;
+		this.jitter = jitter;
+	}
+
+
+	/**
+	 * Limits the number of requests answered per second; further requests in the same second are
+	 * answered with 429 Too Many Requests.
+	 * 
+	 * @param requestsPerSecond the limit; zero for no limit
+	 */
+	public void setRateLimit(int requestsPerSecond) {
+		this.requestsPerSecond = requestsPerSecond;
+	}
+
+
+	/**
+	 * Answers a random fraction of the requests with 500 Internal Server Error.
+	 * 
+	 * @param errorRate fraction of requests to fail, between 0 and 1
+	 */
+	public void setErrorRate(double errorRate) {
+		this.errorRate = errorRate;
+	}
+
+
+	/**
+	 * Answers the next requests with an error status.
+	 * 
+	 * @param count the number of requests to fail
+	 * @param status the HTTP status to answer with
+	 */
+	public void failNext(int count, int status) {
+		injectedErrorStatus = status;
+		injectedErrors.set(count);
+	}
+
+
+	/**
+	 * Answers all market data requests for a currency pair with an error status.
+	 * 
+	 * @param currencyPair the currency pair (e.g., "btcusd")
+	 * @param status the HTTP status to answer with
+	 */
+	public void failPair(String currencyPair, int status) {
+		failingPairs.put(BitstampCurrencyPairRegistry.find(currencyPair), status);
+	}
+
+
+	/**
+	 * Answers all requests matching a predicate with an error status.
+	 * 
+	 * @param requests matches the URIs of the requests to fail
+	 * @param status the HTTP status to answer with
+	 */
+	public void failRequests(Predicate<URI> requests, int status) {
+		failingRequests.put(requests, status);
+	}
+
+
+	/**
+	 * Sets the number of extra candles served before those requested from the OHLC endpoint,
+	 * so consecutive windows overlap.
+	 * 
+	 * @param ohlcOverlap the number of extra candles (default 0)
+	 */
+	public void setOhlcOverlap(int ohlcOverlap) {
+		this.ohlcOverlap = ohlcOverlap;
+	}
+
+
+	/**
+	 * Sets the number of levels on each side of the order books served.
+	 * 
+	 * @param orderBookDepth the number of levels (default 100)
+	 */
+	public void setOrderBookDepth(int orderBookDepth) {
+		this.orderBookDepth = orderBookDepth;
+	}
+
+
+	/**
+	 * Gets the number of requests received.
+	 */
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+
+	/**
+	 * Gets the number of requests answered with 429 because of the rate limit.
+	 */
+	public long getRateLimitedCount() {
+		return rateLimitedCount.get();
+	}
+
+
+	/**
+	 * Gets the highest number of requests handled at the same time so far.
+	 */
+	public int getMaxConcurrentRequests() {
+		return maxActiveRequests.get();
+	}
+
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.close();
+	}
+
+
+	private void handle(HttpExchange exchange) throws IOException {
+		requestCount.incrementAndGet();
+		maxActiveRequests.accumulateAndGet(activeRequests.incrementAndGet(), Math::max);
+		try (exchange) {
+			delay();
+			if (!withinRateLimit()) {
+				rateLimitedCount.incrementAndGet();
+				respond(exchange, 429, error("Rate limit exceeded"));
+				return;
+			}
+			if (injectedErrors.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+				respond(exchange, injectedErrorStatus, error("Injected error"));
+				return;
+			}
+			if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+				respond(exchange, 500, error("Internal error"));
+				return;
+			}
+			for (Map.Entry<Predicate<URI>, Integer> failing : failingRequests.entrySet()) {
+				if (failing.getKey().test(exchange.getRequestURI())) {
+					respond(exchange, failing.getValue(), error("Injected error"));
+					return;
+				}
+			}
+			route(exchange);
+		} finally {
+			activeRequests.decrementAndGet();
+		}
+	}
+
+
+	private void route(HttpExchange exchange) throws IOException {
+		String[] segments = exchange.getRequestURI().getPath().substring(API_PREFIX.length()).split("/");
+		String endpoint = segments[0];
+		String argument = segments.length > 1 ? segments[1] : null;
+		Map<String, String> query = parameters(exchange.getRequestURI().getRawQuery());
+		boolean post = "POST".equals(exchange.getRequestMethod());
+		switch (endpoint) {
+		case "ticker", "order_book", "ohlc", "transactions" -> {
+			if (post) {
+				respond(exchange, 405, error("Method not allowed"));
+				return;
+			}
+			if (argument == null) {
+				if (endpoint.equals("ticker")) respond(exchange, 200, tickerList);
+				else respond(exchange, 404, error("Not found"));
+				return;
+			}
+			BitstampCurrencyPair pair = BitstampCurrencyPairRegistry.find(argument);
+			if (pair == null) {
+				respond(exchange, 404, error("Unknown currency pair: " + argument));
+				return;
+			}
+			Integer failure = failingPairs.get(pair);
+			if (failure != null) {
+				respond(exchange, failure, error("Injected error"));
+				return;
+			}
+			respond(exchange, 200, switch (endpoint) {
+			case "ticker" -> ticker(pair);
+			case "order_book" -> orderBook(pair, orderBookDepth);
+			case "ohlc" -> ohlc(pair, query, ohlcOverlap);
+			default -> transactions(pair);
+			});
+		}
+		case "user_transactions", "account_balances" -> {
+			if (!post) {
+				respond(exchange, 405, error("Method not allowed"));
+				return;
+			}
+			String payload = new String(exchange.getRequestBody().readAllBytes(), UTF_8);
+			String authError = authenticate(exchange, payload);
+			if (authError != null) {
+				respond(exchange, 403, error(authError));
+				return;
+			}
+			if (endpoint.equals("user_transactions")) {
+				respond(exchange, 200, userTransactions(parameters(payload)));
+			} else if (argument == null) {
+				respond(exchange, 200, accountBalances());
+			} else {
+				BitstampCurrencyCode currency = BitstampCurrencyCode.tryFromString(argument);
+				if (currency == null) respond(exchange, 404, error("Unknown currency: " + argument));
+				else respond(exchange, 200, accountBalance(currency));
+			}
+		}
+		default -> respond(exchange, 404, error("Not found"));
+		}
+	}
+
+
+	/**
+	 * Verifies the authentication headers of a private request.
+	 * 
+	 * @return the reason the request is rejected, or null if it is accepted
+	 */
+	private String authenticate(HttpExchange exchange, String payload) {
+		var headers = exchange.getRequestHeaders();
+		String xAuth = headers.getFirst("X-Auth");
+		String signature = headers.getFirst("X-Auth-Signature");
+		String nonce = headers.getFirst("X-Auth-Nonce");
+		String timestamp = headers.getFirst("X-Auth-Timestamp");
+		String version = headers.getFirst("X-Auth-Version");
+		if (xAuth == null || !xAuth.startsWith("BITSTAMP ") || signature == null || nonce == null || timestamp == null) {
+			return "Missing authentication headers";
+		}
+		if (!"v2".equals(version)) {
+			return "Unsupported authentication version: " + version;
+		}
+		String secret = secrets.get(xAuth.substring("BITSTAMP ".length()));
+		if (secret == null) {
+			return "API key not found";
+		}
+		long now = System.currentTimeMillis();
+		long time;
+		try {
+			time = Long.parseLong(timestamp);
+		} catch (NumberFormatException e) {
+			return "Invalid timestamp";
+		}
+		if (Math.abs(now - time) > MAX_TIMESTAMP_AGE_MILLIS) {
+			return "Timestamp too old";
+		}
+		String contentType = payload.isEmpty() ? "" : mediaType(headers.getFirst("Content-Type"));
+		String query = exchange.getRequestURI().getRawQuery();
+		String message = xAuth + exchange.getRequestMethod() + headers.getFirst("Host") + exchange.getRequestURI().getRawPath()
+				+ (query == null ? "" : query) + contentType + nonce + timestamp + version + payload;
+		if (!MessageDigest.isEqual(hmacSha256(secret, message).getBytes(UTF_8), signature.getBytes(UTF_8))) {
+			return "Invalid signature";
+		}
+		if (nonces.putIfAbsent(nonce, time) != null) {
+			return "Invalid nonce";
+		}
+		if (nonces.size() > 100_000) {
+			nonces.values().removeIf(t -> now - t > MAX_TIMESTAMP_AGE_MILLIS);
+		}
+		return null;
+	}
+
+
+	private void delay() {
+		long nanos = latency.toNanos();
+		long jitterNanos = jitter.toNanos();
+		if (jitterNanos > 0) {
+			nanos += ThreadLocalRandom.current().nextLong(jitterNanos);
+		}
+		if (nanos > 0) {
+			try {
+				Thread.sleep(Duration.ofNanos(nanos));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+
+	private synchronized boolean withinRateLimit() {
+		if (requestsPerSecond <= 0) {
+			return true;
+		}
+		long window = System.nanoTime() / 1_000_000_000L;
+		if (window != rateLimitWindow) {
+			rateLimitWindow = window;
+			rateLimitCount = 0;
+		}
+		return ++rateLimitCount <= requestsPerSecond;
+	}
+
+
+	private static byte[] tickerList() {
+		StringBuilder json = new StringBuilder("[");
+		for (BitstampCurrencyCode base : BitstampCurrencyCode.values()) {
+			if (base.getCurrencyType() != BitstampCurrencyType.CRYPTO || base == BitstampCurrencyCode.USD_PERP) continue;
+			for (BitstampCurrencyCode quote : QUOTES) {
+				if (json.length() > 1) json.append(',');
+				BitstampCurrencyPair pair = BitstampCurrencyPair.of(base, quote);
+				json.append('{');
+				appendTickerFields(json, pair);
+				json.append(",\"market_type\":\"SPOT\"")
+						.append(",\"pair\":\"").append(pair.toString()).append('"')
+						.append(",\"market\":\"").append(base.getCode()).append(quote.getCode()).append("\"}");
+			}
+		}
+		return json.append(']').toString().getBytes(UTF_8);
+	}
+
+
+	private static byte[] ticker(BitstampCurrencyPair pair) {
+		StringBuilder json = new StringBuilder("{");
+		appendTickerFields(json, pair);
+		return json.append('}').toString().getBytes(UTF_8);
+	}
+
+
+	private static void appendTickerFields(StringBuilder json, BitstampCurrencyPair pair) {
+		double last = price(pair);
+		json.append("\"timestamp\":\"").append(Instant.now().getEpochSecond()).append('"')
+				.append(",\"open\":\"").append(decimal(last * 0.99, 2)).append('"')
+				.append(",\"high\":\"").append(decimal(last * 1.02, 2)).append('"')
+				.append(",\"low\":\"").append(decimal(last * 0.97, 2)).append('"')
+				.append(",\"last\":\"").append(decimal(last, 2)).append('"')
+				.append(",\"volume\":\"").append(decimal(last % 997 * 3.7, 8)).append('"')
+				.append(",\"vwap\":\"").append(decimal(last * 1.001, 2)).append('"')
+				.append(",\"bid\":\"").append(decimal(last * 0.9995, 2)).append('"')
+				.append(",\"ask\":\"").append(decimal(last * 1.0005, 2)).append('"')
+				.append(",\"side\":\"0\"")
+				.append(",\"open_24\":\"").append(decimal(last * 0.98, 2)).append('"')
+				.append(",\"percent_change_24\":\"2.04\"");
+	}
+
+
+	private static byte[] orderBook(BitstampCurrencyPair pair, int depth) {
+		Random random = new Random(pair.hashCode());
+		double mid = price(pair);
+		double tick = Math.max(0.01, mid / 100_000);
+		long now = System.currentTimeMillis();
+		StringBuilder json = new StringBuilder()
+				.append("{\"timestamp\":\"").append(now / 1000).append('"')
+				.append(",\"microtimestamp\":\"").append(now * 1000).append('"')
+				.append(",\"bids\":[");
+		for (int i = 0; i < depth; i++) {
+			if (i > 0) json.append(',');
+			json.append("[\"").append(decimal(mid - tick * (i + 1), 2)).append("\",\"").append(decimal(random.nextDouble() * 3, 8)).append("\"]");
+		}
+		json.append("],\"asks\":[");
+		for (int i = 0; i < depth; i++) {
+			if (i > 0) json.append(',');
+			json.append("[\"").append(decimal(mid + tick * (i + 1), 2)).append("\",\"").append(decimal(random.nextDouble() * 3, 8)).append("\"]");
+		}
+		return json.append("]}").toString().getBytes(UTF_8);
+	}
+
+
+	private static byte[] ohlc(BitstampCurrencyPair pair, Map<String, String> query, int overlap) {
+		int step = Integer.parseInt(query.getOrDefault("step", "60"));
+		int limit = Math.min(MAX_LIMIT, Integer.parseInt(query.getOrDefault("limit", String.valueOf(MAX_LIMIT))));
+		long last;
+		if (query.containsKey("end")) {
+			last = Math.floorDiv(Long.parseLong(query.get("end")), step) * step;
+		} else if (query.containsKey("start")) {
+			last = Math.ceilDiv(Long.parseLong(query.get("start")), step) * step + (long) (limit - 1) * step;
+		} else {
+			last = Math.floorDiv(Instant.now().getEpochSecond(), step) * step;
+		}
+		limit += overlap;
+		StringBuilder json = new StringBuilder("{\"pair\":\"").append(pair.toString()).append("\",\"ohlc\":[");
+		double base = price(pair);
+		for (int i = 0; i < limit; i++) {
+			long timestamp = last - (long) (limit - 1 - i) * step;
+			// Prices depend only on the timestamp, so overlapping requests agree
+			Random random = new Random(timestamp * 31 + pair.hashCode());
+			double open = base * (1 + random.nextGaussian() * 0.001);
+			double close = base * (1 + random.nextGaussian() * 0.001);
+			if (i > 0) json.append(',');
+			json.append("{\"timestamp\":\"").append(timestamp).append('"')
+					.append(",\"open\":\"").append(decimal(open, 2)).append('"')
+					.append(",\"high\":\"").append(decimal(Math.max(open, close) * 1.0005, 2)).append('"')
+					.append(",\"low\":\"").append(decimal(Math.min(open, close) * 0.9995, 2)).append('"')
+					.append(",\"close\":\"").append(decimal(close, 2)).append('"')
+					.append(",\"volume\":\"").append(decimal(random.nextDouble() * 25, 8)).append('"')
+					.append('}');
+		}
+		return json.append("]}").toString().getBytes(UTF_8);
+	}
+
+
+	private static byte[] transactions(BitstampCurrencyPair pair) {
+		Random random = new Random(pair.hashCode());
+		double price = price(pair);
+		long now = Instant.now().getEpochSecond();
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < 100; i++) {
+			if (i > 0) json.append(',');
+			json.append("{\"date\":\"").append(now - i * 7L).append('"')
+					.append(",\"tid\":\"").append(400_000_000L - i).append('"')
+					.append(",\"price\":\"").append(decimal(price * (1 + random.nextGaussian() * 0.0005), 2)).append('"')
+					.append(",\"amount\":\"").append(decimal(random.nextDouble(), 8)).append('"')
+					.append(",\"type\":\"").append(random.nextInt(2)).append('"')
+					.append('}');
+		}
+		return json.append(']').toString().getBytes(UTF_8);
+	}
+
+
+	/**
+	 * Selects from a history of {@value #USER_TRANSACTIONS} BTC/USD trades with IDs 1 and up.
+	 */
+	private static byte[] userTransactions(Map<String, String> parameters) {
+		int offset = Integer.parseInt(parameters.getOrDefault("offset", "0"));
+		int limit = Math.min(MAX_LIMIT, Integer.parseInt(parameters.getOrDefault("limit", "100")));
+		boolean ascending = "asc".equals(parameters.get("sort"));
+		long sinceId = Long.parseLong(parameters.getOrDefault("since_id", "0"));
+		if (sinceId == 0 && parameters.containsKey("since_timestamp")) {
+			long sinceTimestamp = Long.parseLong(parameters.get("since_timestamp"));
+			sinceId = Math.max(0, Math.ceilDiv(sinceTimestamp - START_SECONDS, 37) - 1);
+		}
+		List<Long> ids = new ArrayList<>(limit);
+		if (ascending) {
+			for (long id = sinceId + 1 + offset; id <= USER_TRANSACTIONS && ids.size() < limit; id++) ids.add(id);
+		} else {
+			for (long id = USER_TRANSACTIONS - offset; id > sinceId && ids.size() < limit; id--) ids.add(id);
+		}
+		StringBuilder json = new StringBuilder("[");
+		for (long id : ids) {
+			Random random = new Random(id);
+			double btc = random.nextDouble() * (random.nextBoolean() ? 1 : -1);
+			double rate = 94_201 + random.nextGaussian() * 500;
+			if (json.length() > 1) json.append(',');
+			json.append("{\"id\":").append(id)
+					.append(",\"datetime\":\"").append(DATETIME.format(Instant.ofEpochSecond(START_SECONDS + id * 37, id % 1_000_000 * 1000))).append('"')
+					.append(",\"type\":\"2\"")
+					.append(",\"usd\":\"").append(decimal(-btc * rate, 2)).append('"')
+					.append(",\"btc\":\"").append(decimal(btc, 8)).append('"')
+					.append(",\"btc_usd\":").append(decimal(rate, 2))
+					.append(",\"fee\":\"").append(decimal(Math.abs(btc * rate) * 0.003, 2)).append('"')
+					.append(",\"order_id\":").append(1_800_000_000_000_000L + id)
+					.append('}');
+		}
+		return json.append(']').toString().getBytes(UTF_8);
+	}
+
+
+	private static byte[] accountBalances() {
+		StringBuilder json = new StringBuilder("[");
+		for (BitstampCurrencyCode currency : new BitstampCurrencyCode[] { BitstampCurrencyCode.USD, BitstampCurrencyCode.EUR, BitstampCurrencyCode.BTC, BitstampCurrencyCode.ETH }) {
+			if (json.length() > 1) json.append(',');
+			appendBalance(json, currency);
+		}
+		return json.append(']').toString().getBytes(UTF_8);
+	}
+
+
+	private static byte[] accountBalance(BitstampCurrencyCode currency) {
+		StringBuilder json = new StringBuilder();
+		appendBalance(json, currency);
+		return json.toString().getBytes(UTF_8);
+	}
+
+
+	private static void appendBalance(StringBuilder json, BitstampCurrencyCode currency) {
+		double total = currency.getCurrencyType() == BitstampCurrencyType.CRYPTO ? 1.5 : 10_000;
+		json.append("{\"currency\":\"").append(currency.getCode().toLowerCase(Locale.ROOT)).append('"')
+				.append(",\"total\":\"").append(decimal(total, 8)).append('"')
+				.append(",\"available\":\"").append(decimal(total * 0.9, 8)).append('"')
+				.append(",\"reserved\":\"").append(decimal(total * 0.1, 8)).append('"')
+				.append('}');
+	}
+
+
+	/**
+	 * Gets a made-up price for a pair, stable across requests.
+	 */
+	private static double price(BitstampCurrencyPair pair) {
+		return 1 + Math.floorMod(pair.toUrlParameter().hashCode(), 100_000);
+	}
+
+
+	private static String decimal(double value, int decimals) {
+		return String.format(Locale.ROOT, "%." + decimals + "f", value);
+	}
+
+
+	private static byte[] error(String reason) {
+		return ("{\"status\": \"error\", \"reason\": \"" + reason + "\"}").getBytes(UTF_8);
+	}
+
+
+	private static String mediaType(String contentType) {
+		if (contentType == null) return "";
+		int semicolon = contentType.indexOf(';');
+		return (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).trim();
+	}
+
+
+	private static Map<String, String> parameters(String form) {
+		Map<String, String> parameters = new HashMap<>();
+		if (form == null || form.isEmpty()) {
+			return parameters;
+		}
+		for (String parameter : form.split("&")) {
+			int equals = parameter.indexOf('=');
+			if (equals > 0) {
+				parameters.put(URLDecoder.decode(parameter.substring(0, equals), UTF_8), URLDecoder.decode(parameter.substring(equals + 1), UTF_8));
+			}
+		}
+		return parameters;
+	}
+
+
+	private static String hmacSha256(String secret, String message) {
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(secret.getBytes(UTF_8), "HmacSHA256"));
+			return HexFormat.of().formatHex(mac.doFinal(message.getBytes(UTF_8)));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+
+	private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(body);
+		}
+	}
+
+
+}
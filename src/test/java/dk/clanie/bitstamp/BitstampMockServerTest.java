@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientResponseException;
+
+import dk.clanie.bitstamp.dto.BitstampAccountBalance;
+import dk.clanie.bitstamp.dto.BitstampCurrencyCode;
+import dk.clanie.bitstamp.dto.BitstampOrderBook;
+import dk.clanie.bitstamp.dto.BitstampTicker;
+import dk.clanie.bitstamp.dto.BitstampTickerListEntry;
+import dk.clanie.bitstamp.dto.BitstampUserTransaction;
+import dk.clanie.bitstamp.dto.CandleSeries;
+import dk.clanie.core.util.SortDirection;
+
+class BitstampMockServerTest {
+
+	private final BitstampCredentials credentials = new BitstampCredentials("test-key", "test-secret");
+
+	private BitstampMockServer server;
+	private BitstampAsyncClient client;
+
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = new BitstampMockServer();
+		server.addCredentials("test-key", "test-secret");
+		client = new BitstampAsyncClient();
+		ReflectionTestUtils.setField(client, "baseUrl", server.getUrl());
+		client.init();
+	}
+
+
+	@AfterEach
+	void tearDown() {
+		server.close();
+	}
+
+
+	@Test
+	void testPublicEndpoints() {
+		List<BitstampTickerListEntry> tickers = client.listTickers().join();
+		BitstampTicker ticker = client.getTicker("btcusd").join();
+		BitstampOrderBook orderBook = client.getOrderBook("btcusd").join();
+		CandleSeries candles = client.getOhlcSeries("btcusd", 60, 100, null, 1_735_689_600L).join();
+
+		assertThat(tickers).hasSizeGreaterThan(100);
+		assertThat(ticker.getBid()).isLessThan(ticker.getAsk());
+		assertThat(orderBook.getBids()).hasSize(100);
+		assertThat(orderBook.getBids().get(0).getPrice()).isLessThan(orderBook.getAsks().get(0).getPrice());
+		assertThat(candles.size()).isEqualTo(100);
+		assertThat(candles.getTimestamp(99)).isEqualTo(1_735_689_600L);
+		assertThat(client.getTransactions("ethusd").join()).hasSize(100);
+	}
+
+
+	@Test
+	void testUnknownPair() {
+		assertThatThrownBy(() -> client.getTicker("nosuchpair").join())
+				.isInstanceOf(CompletionException.class)
+				.cause()
+				.isInstanceOfSatisfying(RestClientResponseException.class, e -> assertThat(e.getStatusCode().value()).isEqualTo(404));
+	}
+
+
+	@Test
+	void testPrivateEndpointsVerifySignature() {
+		SortDirection ascending = BitstampClient.ASCENDING;
+
+		List<BitstampUserTransaction> transactions = client.getUserTransactions(credentials, null, null, 1000, ascending, 4500L, null, null).join();
+		List<BitstampAccountBalance> balances = client.getAccountBalances(credentials).join();
+		BitstampAccountBalance btc = client.getAccountBalance(credentials, BitstampCurrencyCode.BTC).join();
+
+		assertThat(transactions).hasSize(500);
+		assertThat(transactions.get(0).getId()).isEqualTo(4501L);
+		assertThat(balances).isNotEmpty();
+		assertThat(btc.getTotal()).isEqualTo(1.5);
+	}
+
+
+	@Test
+	void testBitstampClientPrivateEndpoints() throws Exception {
+		BitstampClient syncClient = BitstampClientTest.newClient(server.getUrl(), 4);
+		syncClient.init();
+
+		List<BitstampUserTransaction> latest = syncClient.getUserTransactions(credentials, "btcusd");
+		List<BitstampUserTransaction> page = syncClient.getUserTransactions(credentials, null, 10, 50, BitstampClient.ASCENDING, null, null, null);
+		List<BitstampAccountBalance> balances = syncClient.getAccountBalances(credentials);
+		BitstampAccountBalance eur = syncClient.getAccountBalance(credentials, BitstampCurrencyCode.EUR);
+		List<Long> streamed;
+		try (Stream<BitstampUserTransaction> transactions = syncClient.streamUserTransactions(credentials, null, null, null)) {
+			streamed = transactions.map(BitstampUserTransaction::getId).toList();
+		}
+
+		assertThat(latest).hasSize(100);
+		assertThat(latest.get(0).getId()).isEqualTo(5000L);
+		assertThat(latest.get(0).getAmount(BitstampCurrencyCode.BTC)).isNotNull();
+		assertThat(latest.get(0).getExchangeRate().getRate()).isGreaterThan(0);
+		assertThat(page).extracting(BitstampUserTransaction::getId).containsExactlyElementsOf(LongStream.rangeClosed(11, 60).boxed().toList());
+		assertThat(balances).extracting(BitstampAccountBalance::getCurrency)
+				.containsExactly(BitstampCurrencyCode.USD, BitstampCurrencyCode.EUR, BitstampCurrencyCode.BTC, BitstampCurrencyCode.ETH);
+		assertThat(eur.getTotal()).isEqualTo(10_000);
+		assertThat(eur.getAvailable()).isEqualTo(9_000);
+		assertThat(streamed).containsExactlyElementsOf(LongStream.rangeClosed(1, 5000).boxed().toList());
+		assertThatThrownBy(() -> syncClient.getAccountBalances(new BitstampCredentials("test-key", "wrong-secret")))
+				.isInstanceOfSatisfying(RestClientResponseException.class, e -> assertThat(e.getStatusCode().value()).isEqualTo(403));
+	}
+
+
+	@Test
+	void testRejectsWrongSecret() {
+		BitstampCredentials wrong = new BitstampCredentials("test-key", "wrong-secret");
+
+		assertThatThrownBy(() -> client.getAccountBalances(wrong).join())
+				.isInstanceOf(CompletionException.class)
+				.cause()
+				.isInstanceOfSatisfying(RestClientResponseException.class, e -> {
+					assertThat(e.getStatusCode().value()).isEqualTo(403);
+					assertThat(e.getResponseBodyAsString()).contains("Invalid signature");
+				});
+	}
+
+
+	@Test
+	void testRateLimit() {
+		server.setRateLimit(5);
+
+		List<CompletableFuture<BitstampTicker>> futures = IntStream.range(0, 20)
+				.mapToObj(i -> client.getTicker("btcusd"))
+				.toList();
+		long failed = futures.stream().filter(future -> future.handle((ticker, e) -> e != null).join()).count();
+
+		assertThat(server.getRateLimitedCount()).isEqualTo(failed).isGreaterThanOrEqualTo(10);
+	}
+
+
+	@Test
+	void testInjectedErrors() {
+		server.failNext(1, 503);
+
+		assertThatThrownBy(() -> client.getTicker("btcusd").join())
+				.cause()
+				.isInstanceOfSatisfying(RestClientResponseException.class, e -> assertThat(e.getStatusCode().value()).isEqualTo(503));
+		assertThat(client.getTicker("btcusd").join()).isNotNull();
+	}
+
+
+	@Test
+	void testLatency() {
+		server.setLatency(Duration.ofMillis(50), Duration.ofMillis(10));
+
+		long start = System.nanoTime();
+		client.getTicker("btcusd").join();
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+	}
+
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+class BitstampPairResultTest {
+
+	@Test
+	void testSuccess() {
+		BitstampPairResult<String> result = BitstampPairResult.success("value");
+
+		assertThat(result.isSuccess()).isTrue();
+		assertThat(result.getValue()).isEqualTo("value");
+		assertThat(result.getError()).isNull();
+		assertThat(result.getOrThrow()).isEqualTo("value");
+	}
+
+
+	@Test
+	void testFailure() {
+		IllegalStateException error = new IllegalStateException("boom");
+		BitstampPairResult<String> result = BitstampPairResult.failure(error);
+
+		assertThat(result.isSuccess()).isFalse();
+		assertThat(result.getValue()).isNull();
+		assertThatThrownBy(result::getOrThrow).isSameAs(error);
+	}
+
+
+	@Test
+	void testFailureWithCheckedException() {
+		BitstampPairResult<String> result = BitstampPairResult.failure(new IOException("boom"));
+
+		assertThatThrownBy(result::getOrThrow)
+				.isInstanceOf(RuntimeException.class)
+				.hasCauseInstanceOf(IOException.class);
+	}
+
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import dk.clanie.bitstamp.BitstampRecording.Entry;
+
+class BitstampRecorderTest {
+
+	private static final String TICKER = "{\"last\": \"83350.00\"}";
+	private static final String BALANCES = "[{\"currency\": \"btc\", \"total\": \"1.50000000\"}]";
+
+	@TempDir
+	Path directory;
+
+
+	@Test
+	void testRecordsResponses() throws IOException {
+		Path file = directory.resolve("bitstamp.rec");
+		try (BitstampRecorder recorder = new BitstampRecorder(file)) {
+			assertThat(exchange(recorder, HttpMethod.GET, "https://www.bitstamp.net/api/v2/ticker/btcusd/", "", TICKER, HttpStatus.OK))
+					.isEqualTo(TICKER);
+		}
+		try (BitstampRecorder recorder = new BitstampRecorder(file)) {
+			assertThat(exchange(recorder, HttpMethod.POST, "https://www.bitstamp.net/api/v2/account_balances/", "offset=0", BALANCES, HttpStatus.OK))
+					.isEqualTo(BALANCES);
+			exchange(recorder, HttpMethod.GET, "https://www.bitstamp.net/api/v2/ohlc/btcusd/?step=60&limit=2", "", "", HttpStatus.TOO_MANY_REQUESTS);
+		}
+
+		List<Entry> entries = BitstampRecording.read(file);
+
+		assertThat(entries).extracting(Entry::getMethod, Entry::getPath, Entry::getStatus).containsExactly(
+				tuple("GET", "/api/v2/ticker/btcusd/", 200),
+				tuple("POST", "/api/v2/account_balances/", 200),
+				tuple("GET", "/api/v2/ohlc/btcusd/?step=60&limit=2", 429));
+		Entry balances = entries.get(1);
+		assertThat(new String(balances.getRequestBody(), UTF_8)).isEqualTo("offset=0");
+		assertThat(new String(balances.getBody(), UTF_8)).isEqualTo(BALANCES);
+		assertThat(balances.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+		assertThat(balances.getTimestamp()).isAfterOrEqualTo(entries.get(0).getTimestamp());
+	}
+
+
+	@Test
+	void testIgnoresIncompleteLastEntry() throws IOException {
+		Path file = directory.resolve("bitstamp.rec");
+		try (BitstampRecorder recorder = new BitstampRecorder(file)) {
+			exchange(recorder, HttpMethod.GET, "https://www.bitstamp.net/api/v2/ticker/btcusd/", "", TICKER, HttpStatus.OK);
+			exchange(recorder, HttpMethod.GET, "https://www.bitstamp.net/api/v2/ticker/ethusd/", "", TICKER, HttpStatus.OK);
+		}
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+
+		assertThat(BitstampRecording.read(file)).extracting(Entry::getPath).containsExactly("/api/v2/ticker/btcusd/");
+	}
+
+
+	@Test
+	void testRejectsOtherFiles() throws IOException {
+		Path file = Files.writeString(directory.resolve("other.txt"), "not a recording");
+
+		assertThatThrownBy(() -> BitstampRecording.read(file))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("is not a Bitstamp recording");
+	}
+
+
+	@Test
+	void testReplaysResponsesInRecordedOrder() throws IOException {
+		BitstampReplayRequestFactory replay = new BitstampReplayRequestFactory(List.of(
+				entry("GET", "/api/v2/ticker/btcusd/", "", 0, "{\"last\": \"1\"}"),
+				entry("GET", "/api/v2/ticker/btcusd/", "", 0, "{\"last\": \"2\"}"),
+				entry("POST", "/api/v2/user_transactions/", "offset=0", 0, "[1]"),
+				entry("POST", "/api/v2/user_transactions/", "offset=1000", 0, "[2]")),
+				Double.POSITIVE_INFINITY);
+
+		assertThat(replay(replay, HttpMethod.GET, "http://localhost/api/v2/ticker/btcusd/", "")).isEqualTo("{\"last\": \"1\"}");
+		assertThat(replay(replay, HttpMethod.GET, "http://localhost/api/v2/ticker/btcusd/", "")).isEqualTo("{\"last\": \"2\"}");
+		assertThat(replay(replay, HttpMethod.GET, "http://localhost/api/v2/ticker/btcusd/", "")).isEqualTo("{\"last\": \"1\"}");
+		assertThat(replay(replay, HttpMethod.POST, "http://localhost/api/v2/user_transactions/", "offset=1000")).isEqualTo("[2]");
+		assertThatThrownBy(() -> replay(replay, HttpMethod.GET, "http://localhost/api/v2/ticker/ethusd/", ""))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("No recorded response to GET /api/v2/ticker/ethusd/");
+	}
+
+
+	@Test
+	void testReplaysAtScaledSpeed() throws IOException {
+		long elapsedNanos = 200_000_000;
+		BitstampReplayRequestFactory replay = new BitstampReplayRequestFactory(
+				List.of(entry("GET", "/api/v2/ticker/", "", elapsedNanos, "[]")), 4);
+
+		long start = System.nanoTime();
+		replay(replay, HttpMethod.GET, "http://localhost/api/v2/ticker/", "");
+		long nanos = System.nanoTime() - start;
+
+		assertThat(nanos).isGreaterThanOrEqualTo(elapsedNanos / 4).isLessThan(elapsedNanos);
+		assertThatThrownBy(() -> new BitstampReplayRequestFactory(List.of(), 0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+
+	@Test
+	void testDriverIssuesRequestsAtScaledRecordedTimes() throws Exception {
+		Instant recorded = Instant.parse("2025-06-30T12:00:00Z");
+		List<Entry> entries = List.of(
+				entry(recorded.plusMillis(600), "/api/v2/ticker/ethusd/"),
+				entry(recorded, "/api/v2/ticker/btcusd/"),
+				entry(recorded.plusMillis(200), "/api/v2/order_book/btcusd/"));
+		Map<String, Long> issued = new ConcurrentHashMap<>();
+
+		long start = System.nanoTime();
+		int failures = new BitstampReplayDriver(entries, 2).run(entry -> {
+			issued.put(entry.getPath(), System.nanoTime() - start);
+			if (entry.getPath().contains("ethusd")) throw new IllegalStateException("Boom");
+		});
+
+		assertThat(failures).isEqualTo(1);
+		assertThat(issued.get("/api/v2/ticker/btcusd/")).isLessThan(issued.get("/api/v2/order_book/btcusd/"));
+		assertThat(issued.get("/api/v2/order_book/btcusd/")).isGreaterThanOrEqualTo(100_000_000L);
+		assertThat(issued.get("/api/v2/ticker/ethusd/")).isBetween(300_000_000L, 600_000_000L);
+	}
+
+
+	@Test
+	void testDriverWithoutDelays() throws Exception {
+		Instant recorded = Instant.parse("2025-06-30T12:00:00Z");
+		List<Entry> entries = List.of(entry(recorded, "/api/v2/ticker/btcusd/"), entry(recorded.plusSeconds(60), "/api/v2/ticker/btcusd/"));
+		AtomicInteger issued = new AtomicInteger();
+
+		long start = System.nanoTime();
+		new BitstampReplayDriver(entries, Double.POSITIVE_INFINITY).run(entry -> issued.incrementAndGet());
+
+		assertThat(issued.get()).isEqualTo(2);
+		assertThat(System.nanoTime() - start).isLessThan(1_000_000_000L);
+		assertThatThrownBy(() -> new BitstampReplayDriver(entries, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+
+	private static String exchange(BitstampRecorder recorder, HttpMethod method, String uri, String requestBody,
+			String responseBody, HttpStatus status) throws IOException {
+		MockClientHttpRequest request = new MockClientHttpRequest(method, URI.create(uri));
+		MockClientHttpResponse mockResponse = new MockClientHttpResponse(responseBody.getBytes(UTF_8), status);
+		mockResponse.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		try (ClientHttpResponse response = recorder.intercept(request, requestBody.getBytes(UTF_8), (req, body) -> mockResponse);
+				InputStream in = response.getBody()) {
+			return new String(in.readAllBytes(), UTF_8);
+		}
+	}
+
+
+	private static String replay(BitstampReplayRequestFactory replay, HttpMethod method, String uri, String body) throws IOException {
+		ClientHttpRequest request = replay.createRequest(URI.create(uri), method);
+		request.getBody().write(body.getBytes(UTF_8));
+		try (ClientHttpResponse response = request.execute()) {
+			assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+			assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+			return new String(response.getBody().readAllBytes(), UTF_8);
+		}
+	}
+
+
+	private static Entry entry(Instant timestamp, String path) {
+		return new Entry(timestamp, 0, "GET", path, new byte[0], 200, MediaType.APPLICATION_JSON_VALUE, new byte[0]);
+	}
+
+
+	private static Entry entry(String method, String path, String requestBody, long elapsedNanos, String body) {
+		return new Entry(Instant.now(), elapsedNanos, method, path, requestBody.getBytes(UTF_8), 200,
+				MediaType.APPLICATION_JSON_VALUE, body.getBytes(UTF_8));
+	}
+
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+import dk.clanie.bitstamp.BitstampAuthHelper.AuthHeaders;
+
+class BitstampSignerTest {
+
+	private static final String API_KEY = "test-api-key";
+	private static final String API_SECRET = "test-api-secret";
+	private static final String HOST = "www.bitstamp.net";
+	private static final String PATH = "/api/v2/user_transactions/";
+	private static final String CONTENT_TYPE = "application/x-www-form-urlencoded";
+	private static final String NONCE = "0f8e4c1a-2b3d-4e5f-8a9b-0c1d2e3f4a5b";
+	private static final String TIMESTAMP = "1735689600000";
+
+	private final BitstampSigner signer = new BitstampCredentials(API_KEY, API_SECRET).getSigner();
+
+
+	@Test
+	void testSignatureMatchesReference() throws Exception {
+		String payload = "offset=0&limit=1000&sort=asc";
+
+		String signature = signer.signature("POST", HOST, PATH, "", CONTENT_TYPE, NONCE, TIMESTAMP, payload);
+
+		assertThat(signature).isEqualTo(reference("POST", HOST, PATH, "", CONTENT_TYPE, NONCE, TIMESTAMP, payload));
+	}
+
+
+	@Test
+	void testSignatureOfLongAndNonAsciiPayloads() throws Exception {
+		String longPayload = "x".repeat(5000);
+		String nonAscii = "note=æøå€😀";
+
+		assertThat(signer.signature("POST", HOST, PATH, "", CONTENT_TYPE, NONCE, TIMESTAMP, longPayload))
+				.isEqualTo(reference("POST", HOST, PATH, "", CONTENT_TYPE, NONCE, TIMESTAMP, longPayload));
+		assertThat(signer.signature("POST", HOST, PATH, "", CONTENT_TYPE, NONCE, TIMESTAMP, nonAscii))
+				.isEqualTo(reference("POST", HOST, PATH, "", CONTENT_TYPE, NONCE, TIMESTAMP, nonAscii));
+	}
+
+
+	@Test
+	void testSignerIsReusable() throws Exception {
+		String first = signer.signature("POST", HOST, PATH, "", "", NONCE, TIMESTAMP, "");
+		signer.signature("POST", HOST, "/api/v2/account_balances/", "", "", NONCE, TIMESTAMP, "");
+		String again = signer.signature("POST", HOST, PATH, "", "", NONCE, TIMESTAMP, "");
+
+		assertThat(again).isEqualTo(first).isEqualTo(reference("POST", HOST, PATH, "", "", NONCE, TIMESTAMP, ""));
+	}
+
+
+	@Test
+	void testConcurrentSigning() throws Exception {
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<Boolean>> results = IntStream.range(0, 200)
+					.mapToObj(i -> executor.submit(() -> {
+						String payload = "limit=" + i;
+						return signer.signature("POST", HOST, PATH, "", CONTENT_TYPE, NONCE, TIMESTAMP, payload)
+								.equals(reference("POST", HOST, PATH, "", CONTENT_TYPE, NONCE, TIMESTAMP, payload));
+					}))
+					.toList();
+			for (Future<Boolean> result : results) {
+				assertThat(result.get()).isTrue();
+			}
+		}
+	}
+
+
+	@Test
+	void testSign() {
+		AuthHeaders headers = signer.sign("POST", HOST, PATH, "", "", "");
+
+		assertThat(headers.getXAuth()).isEqualTo("BITSTAMP " + API_KEY);
+		assertThat(headers.getXAuthSignature()).matches("^[0-9a-f]{64}$");
+		assertThat(headers.getXAuthNonce()).matches("^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$");
+		assertThat(headers.getXAuthTimestamp()).matches("^\\d+$");
+		assertThat(headers.getXAuthVersion()).isEqualTo("v2");
+	}
+
+
+	@Test
+	void testCredentialsReuseSigner() {
+		BitstampCredentials credentials = new BitstampCredentials(API_KEY, API_SECRET);
+
+		assertThat(credentials.getSigner()).isSameAs(credentials.getSigner());
+		assertThat(credentials).isEqualTo(new BitstampCredentials(API_KEY, API_SECRET));
+	}
+
+
+	private static String reference(String httpMethod, String host, String path, String queryParams,
+			String contentType, String nonce, String timestamp, String payload) throws Exception {
+		String message = "BITSTAMP " + API_KEY + httpMethod + host + path + queryParams + contentType + nonce + timestamp + "v2" + payload;
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(API_SECRET.getBytes(UTF_8), "HmacSHA256"));
+		return HexFormat.of().formatHex(mac.doFinal(message.getBytes(UTF_8)));
+	}
+
+
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import dk.clanie.bitstamp.dto.BitstampLiveTrade;
+import dk.clanie.bitstamp.dto.BitstampOrderBook;
+import dk.clanie.bitstamp.dto.BitstampTransactionType;
+
+class BitstampStreamingClientTest {
+
+	private BitstampStreamingClient client;
+	private final List<String> pairs = new CopyOnWriteArrayList<>();
+	private final List<BitstampLiveTrade> trades = new CopyOnWriteArrayList<>();
+	private final List<BitstampOrderBook> orderBooks = new CopyOnWriteArrayList<>();
+	private final List<BitstampOrderBook> diffs = new CopyOnWriteArrayList<>();
+	private final List<Throwable> errors = new CopyOnWriteArrayList<>();
+	private final AtomicInteger connects = new AtomicInteger();
+
+
+	@BeforeEach
+	void setUp() {
+		client = new BitstampStreamingClient();
+		client.addListener(new BitstampStreamListener() {
+			@Override
+			public void onTrade(String currencyPair, BitstampLiveTrade trade) {
+				pairs.add(currencyPair);
+				trades.add(trade);
+			}
+			@Override
+			public void onOrderBook(String currencyPair, BitstampOrderBook orderBook) {
+				pairs.add(currencyPair);
+				orderBooks.add(orderBook);
+			}
+			@Override
+			public void onOrderBookDiff(String currencyPair, BitstampOrderBook diff) {
+				pairs.add(currencyPair);
+				diffs.add(diff);
+			}
+			@Override
+			public void onConnected() {
+				connects.incrementAndGet();
+			}
+			@Override
+			public void onError(Throwable error) {
+				errors.add(error);
+			}
+		});
+	}
+
+
+	@Test
+	void testDispatchTrade() {
+		client.dispatch("""
+				{
+				  "data": {
+				    "id": 212345678, "timestamp": "1637597234", "amount": 0.0125, "amount_str": "0.01250000",
+				    "price": 47800, "price_str": "47800.00", "type": 1, "microtimestamp": "1637597234123456",
+				    "buy_order_id": 1441111111111111, "sell_order_id": 1442222222222222
+				  },
+				  "channel": "live_trades_btcusd",
+				  "event": "trade"
+				}
+				""");
+
+		assertThat(pairs).containsExactly("btcusd");
+		BitstampLiveTrade trade = trades.get(0);
+		assertThat(trade.getId()).isEqualTo(212345678L);
+		assertThat(trade.getMicrotimestamp()).isEqualTo(1637597234123456L);
+		assertThat(trade.getPrice()).isEqualTo(47800.00);
+		assertThat(trade.getAmount()).isEqualTo(0.0125);
+		assertThat(trade.getType()).isEqualTo(BitstampTransactionType.SELL);
+		assertThat(trade.getSellOrderId()).isEqualTo(1442222222222222L);
+	}
+
+
+	@Test
+	void testDispatchOrderBookAndDiff() {
+		client.dispatch("""
+				{"data": {"timestamp": "1637597234", "microtimestamp": "1637597234123456",
+				  "bids": [["47795.00", "1.5"]], "asks": [["47805.00", "2.5"]]},
+				 "channel": "order_book_ethusd", "event": "data"}
+				""");
+		client.dispatch("""
+				{"data": {"timestamp": "1637597235", "microtimestamp": "1637597235000001",
+				  "bids": [["47795.00", "0"]], "asks": []},
+				 "channel": "diff_order_book_ethusd", "event": "data"}
+				""");
+
+		assertThat(pairs).containsExactly("ethusd", "ethusd");
+		assertThat(orderBooks).hasSize(1);
+		assertThat(orderBooks.get(0).getBids().get(0).getAmount()).isEqualTo(1.5);
+		assertThat(diffs).hasSize(1);
+		assertThat(diffs.get(0).getMicrotimestamp()).isEqualTo(1637597235000001L);
+		assertThat(diffs.get(0).getBids().get(0).getAmount()).isZero();
+	}
+
+
+	@Test
+	void testDispatchIgnoresControlEvents() {
+		client.dispatch("{\"event\": \"bts:subscription_succeeded\", \"channel\": \"live_trades_btcusd\", \"data\": {}}");
+
+		assertThat(pairs).isEmpty();
+		assertThat(errors).isEmpty();
+	}
+
+
+	@Test
+	void testDispatchError() {
+		client.dispatch("{\"event\": \"bts:error\", \"channel\": \"\", \"data\": {\"code\": null, \"message\": \"Bad subscription\"}}");
+
+		assertThat(errors).hasSize(1);
+	}
+
+
+	@Test
+	void testSubscribesAndReceivesOverWebSocket() throws Exception {
+		try (WebSocketStandIn server = new WebSocketStandIn()) {
+			ReflectionTestUtils.setField(client, "streamUrl", server.getUrl());
+			client.init();
+			List<String> currencyPairs = IntStream.range(0, 500).mapToObj(i -> "pair" + i).toList();
+			currencyPairs.forEach(client::subscribeLiveTrades);
+
+			client.connect().get(5, TimeUnit.SECONDS);
+			try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+				currencyPairs.forEach(pair -> executor.execute(() -> client.subscribeOrderBook(pair)));
+			}
+			await(() -> server.received.size() == 1000);
+			server.send("""
+					{"data": {"id": 1, "timestamp": "1637597234", "amount": 0.5, "amount_str": "0.50000000",
+					  "price": 47800, "price_str": "47800.00", "type": 0, "microtimestamp": "1637597234000000",
+					  "buy_order_id": 1, "sell_order_id": 2},
+					 "channel": "live_trades_pair3", "event": "trade"}
+					""");
+			await(() -> trades.size() == 1);
+
+			server.send("{\"event\": \"bts:request_reconnect\", \"channel\": \"\", \"data\": \"\"}");
+			await(() -> server.received.size() == 2000);
+			client.close();
+
+			assertThat(pairs).containsExactly("pair3");
+			assertThat(connects).hasValue(2);
+			assertThat(server.connections).hasValue(2);
+			assertThat(server.received.subList(1000, 2000)).containsExactlyInAnyOrderElementsOf(server.received.subList(0, 1000));
+			assertThat(server.received).allMatch(message -> message.startsWith("{\"event\":\"bts:subscribe\""));
+			assertThat(errors).isEmpty();
+		}
+	}
+
+
+	@Test
+	void testCloseDuringReconnectDelayStaysClosed() throws Exception {
+		try (WebSocketStandIn server = new WebSocketStandIn()) {
+			ReflectionTestUtils.setField(client, "streamUrl", server.getUrl());
+			client.init();
+			client.connect().get(5, TimeUnit.SECONDS);
+			await(() -> server.connections.get() == 1);
+
+			server.send("{\"event\": \"bts:request_reconnect\", \"channel\": \"\", \"data\": \"\"}");
+			await(() -> ReflectionTestUtils.getField(client, "webSocket") == null);
+			client.close();
+			Thread.sleep(BitstampStreamingClient.RECONNECT_DELAY.toMillis() + 500);
+
+			assertThat(server.connections).hasValue(1);
+			assertThat(connects).hasValue(1);
+			assertThat(ReflectionTestUtils.getField(client, "webSocket")).isNull();
+		}
+	}
+
+
+	@Test
+	void testCloseWhileConnectingAbortsConnection() throws Exception {
+		try (WebSocketStandIn server = new WebSocketStandIn()) {
+			server.handshakeDelay = 300;
+			ReflectionTestUtils.setField(client, "streamUrl", server.getUrl());
+			client.init();
+
+			CompletableFuture<Void> connected = client.connect();
+			client.close();
+			connected.get(5, TimeUnit.SECONDS);
+
+			assertThat(connects).hasValue(0);
+			assertThat(ReflectionTestUtils.getField(client, "webSocket")).isNull();
+			await(() -> server.disconnections.get() == 1);
+		}
+	}
+
+
+	@Test
+	void testSubscribeMessage() {
+		assertThat(BitstampStreamingClient.message("bts:subscribe", "live_trades_btcusd"))
+				.isEqualTo("{\"event\":\"bts:subscribe\",\"data\":{\"channel\":\"live_trades_btcusd\"}}");
+	}
+
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition met within 10 seconds").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+
+	/**
+	 * Minimal WebSocket server standing in for Bitstamp: it records the text messages received and
+	 * sends text messages to the latest connection. It reads slowly at first, with a small receive
+	 * buffer, so the client's sends are still pending when the next ones are made.
+	 */
+	private static class WebSocketStandIn implements AutoCloseable {
+
+		private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+		private final ServerSocket serverSocket = new ServerSocket();
+		private final List<String> received = new CopyOnWriteArrayList<>();
+		private final AtomicInteger connections = new AtomicInteger();
+		private final AtomicInteger disconnections = new AtomicInteger();
+		private volatile long handshakeDelay;
+		private volatile Socket socket;
+
+
+		WebSocketStandIn() throws IOException {
+			serverSocket.setReceiveBufferSize(1024);
+			serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+			Thread.ofVirtual().start(this::accept);
+		}
+
+
+		String getUrl() {
+			return "ws://localhost:" + serverSocket.getLocalPort();
+		}
+
+
+		private void accept() {
+			while (!serverSocket.isClosed()) {
+				try {
+					Socket connection = serverSocket.accept();
+					Thread.ofVirtual().start(() -> serve(connection));
+				} catch (IOException e) {
+					return;
+				}
+			}
+		}
+
+
+		private void serve(Socket connection) {
+			try (connection) {
+				InputStream in = connection.getInputStream();
+				String key = null;
+				String line;
+				while (!(line = readLine(in)).isEmpty()) {
+					if (line.regionMatches(true, 0, "Sec-WebSocket-Key:", 0, 18)) {
+						key = line.substring(18).trim();
+					}
+				}
+				Thread.sleep(handshakeDelay);
+				String accept = Base64.getEncoder().encodeToString(
+						MessageDigest.getInstance("SHA-1").digest((key + ACCEPT_GUID).getBytes(UTF_8)));
+				connection.getOutputStream().write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\n"
+						+ "Connection: Upgrade\r\nSec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(UTF_8));
+				socket = connection;
+				connections.incrementAndGet();
+				// Let the client's sends back up, as they do on a slow connection
+				Thread.sleep(200);
+				ByteArrayOutputStream message = new ByteArrayOutputStream();
+				while (true) {
+					int first = in.read();
+					if (first < 0) return;
+					int second = in.read();
+					long length = second & 0x7f;
+					if (length == 126) {
+						length = new DataInputStream(in).readUnsignedShort();
+					} else if (length == 127) {
+						length = new DataInputStream(in).readLong();
+					}
+					byte[] mask = in.readNBytes(4);
+					byte[] payload = in.readNBytes((int) length);
+					for (int i = 0; i < payload.length; i++) {
+						payload[i] ^= mask[i % 4];
+					}
+					int opcode = first & 0x0f;
+					if (opcode == 8) return;
+					if (opcode == 0 || opcode == 1) {
+						message.write(payload);
+						if ((first & 0x80) != 0) {
+							received.add(message.toString(UTF_8));
+							message.reset();
+						}
+					}
+				}
+			} catch (IOException | NoSuchAlgorithmException | InterruptedException e) {
+				// Connection closed or aborted by the client
+			} finally {
+				disconnections.incrementAndGet();
+			}
+		}
+
+
+		private static String readLine(InputStream in) throws IOException {
+			StringBuilder line = new StringBuilder();
+			int c;
+			while ((c = in.read()) >= 0 && c != '\n') {
+				if (c != '\r') line.append((char) c);
+			}
+			return line.toString();
+		}
+
+
+		/**
+		 * Sends a text message to the latest connection.
+		 */
+		synchronized void send(String text) throws IOException {
+			byte[] payload = text.getBytes(UTF_8);
+			DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+			out.write(0x81);
+			if (payload.length < 126) {
+				out.write(payload.length);
+			} else {
+				out.write(126);
+				out.writeShort(payload.length);
+			}
+			out.write(payload);
+			out.flush();
+		}
+
+
+		@Override
+		public void close() throws IOException {
+			serverSocket.close();
+			Socket connection = socket;
+			if (connection != null) connection.close();
+		}
+
+	}
+
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import dk.clanie.bitstamp.dto.CandleSeries;
+
+class CandleStoreTest {
+
+	private static final long NOW = 1_000_030;
+	private static final long LISTED = 990_000;
+
+	@TempDir
+	Path directory;
+
+	private final List<long[]> fetches = new ArrayList<>();
+	private final List<CandleStore> stores = new ArrayList<>();
+
+
+	@AfterEach
+	void tearDown() {
+		stores.forEach(CandleStore::close);
+	}
+
+
+	@Test
+	void testStoredCandlesAreNotFetchedAgain() throws IOException {
+		CandleStore store = store();
+
+		CandleSeries first = store.getCandles("btcusd", 60, 994_000, 996_000);
+		CandleSeries second = store.getCandles("btcusd", 60, 994_000, 996_000);
+
+		assertThat(fetches).containsExactly(new long[] { 994_020, 996_000 });
+		assertThat(first.timestamps().toArray()).containsExactly(second.timestamps().toArray());
+		assertThat(first.size()).isEqualTo(34);
+		assertThat(first.getTimestamp(0)).isEqualTo(994_020);
+		assertThat(first.getClose(0)).isEqualTo(994_020.5);
+		assertThat(Files.size(directory.resolve("btcusd-60.candles"))).isEqualTo(CandleStore.HEADER_SIZE + 34 * CandleStore.RECORD_SIZE);
+	}
+
+
+	@Test
+	void testOnlyMissingRangesAreFetched() {
+		CandleStore store = store();
+		store.getCandles("btcusd", 60, 994_020, 996_000);
+		fetches.clear();
+
+		CandleSeries series = store.getCandles("btcusd", 60, 993_000, 997_020);
+
+		assertThat(fetches).containsExactly(new long[] { 993_000, 993_960 }, new long[] { 996_060, 997_020 });
+		assertThat(series.timestamps().toArray()).containsExactly(expected(993_000, 997_020));
+		assertThat(store.read("btcusd", 60, 0, Long.MAX_VALUE - 1).timestamps().toArray()).containsExactly(expected(993_000, 997_020));
+	}
+
+
+	@Test
+	void testEmptyPeriodsAreCovered() {
+		CandleStore store = store();
+
+		CandleSeries first = store.getCandles("btcusd", 60, 980_000, 990_060);
+		CandleSeries second = store.getCandles("btcusd", 60, 980_000, 990_060);
+
+		assertThat(fetches).hasSize(1);
+		assertThat(first.timestamps()).containsExactly(990_000L, 990_060L);
+		assertThat(second.timestamps()).containsExactly(990_000L, 990_060L);
+	}
+
+
+	@Test
+	void testUnfinishedCandleIsFetchedButNotStored() {
+		CandleStore store = store();
+
+		CandleSeries first = store.getCandles("btcusd", 60, 999_900, NOW);
+		CandleSeries second = store.getCandles("btcusd", 60, 999_900, NOW);
+
+		assertThat(first.timestamps()).containsExactly(999_900L, 999_960L, 1_000_020L);
+		assertThat(second.timestamps()).containsExactly(999_900L, 999_960L, 1_000_020L);
+		assertThat(fetches).containsExactly(
+				new long[] { 999_900, 999_960 },
+				new long[] { 1_000_020, 1_000_020 },
+				new long[] { 1_000_020, 1_000_020 });
+		assertThat(store.read("btcusd", 60, 999_900, NOW).timestamps()).containsExactly(999_900L, 999_960L);
+	}
+
+
+	@Test
+	void testCandlesSurviveReopening() {
+		store().getCandles("btcusd", 60, 994_020, 996_000);
+		fetches.clear();
+
+		CandleSeries series = store().getCandles("BTCUSD", 60, 995_000, 995_200);
+
+		assertThat(fetches).isEmpty();
+		assertThat(series.timestamps()).containsExactly(995_040L, 995_100L, 995_160L);
+		assertThat(series.getVolume(2)).isEqualTo(1.0);
+	}
+
+
+	@Test
+	void testFilesArePerPairAndStep() {
+		CandleStore store = store();
+
+		store.getCandles("btcusd", 60, 994_020, 994_200);
+		store.getCandles("btcusd", 3600, 990_000, 993_600);
+		store.getCandles("ethusd", 60, 994_020, 994_200);
+
+		assertThat(fetches).hasSize(3);
+		assertThat(directory.resolve("btcusd-3600.candles")).exists();
+		assertThat(directory.resolve("ethusd-60.candles")).exists();
+	}
+
+
+	@Test
+	void testInvalidCurrencyPair() {
+		CandleStore store = store();
+
+		assertThatThrownBy(() -> store.getCandles("../btcusd", 60, 994_020, 994_200))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+
+	@Test
+	void testInvalidFile() throws IOException {
+		Files.write(directory.resolve("btcusd-60.candles"), new byte[CandleStore.HEADER_SIZE]);
+		CandleStore store = store();
+
+		for (int i = 0; i < 2; i++) {
+			assertThatThrownBy(() -> store.getCandles("btcusd", 60, 994_020, 994_200))
+					.isInstanceOf(UncheckedIOException.class)
+					.hasMessageContaining("is not a candle file");
+		}
+		assertThat(fetches).isEmpty();
+	}
+
+
+	private CandleStore store() {
+		CandleStore store = new CandleStore(this::fetch, directory, Clock.fixed(Instant.ofEpochSecond(NOW), ZoneOffset.UTC));
+		stores.add(store);
+		return store;
+	}
+
+
+	/**
+	 * Returns a candle for every step within the range, from the time the pair was listed.
+	 */
+	private CandleSeries fetch(String currencyPair, int step, long from, long to) {
+		fetches.add(new long[] { from, to });
+		CandleSeries series = new CandleSeries("BTC/USD");
+		for (long timestamp = Math.ceilDiv(Math.max(from, LISTED), step) * step; timestamp <= to; timestamp += step) {
+			series.append(timestamp, timestamp, timestamp + 1, timestamp - 1, timestamp + 0.5, 1);
+		}
+		return series;
+	}
+
+
+	private static long[] expected(long from, long to) {
+		List<Long> timestamps = new ArrayList<>();
+		for (long timestamp = from; timestamp <= to; timestamp += 60) {
+			timestamps.add(timestamp);
+		}
+		return timestamps.stream().mapToLong(Long::longValue).toArray();
+	}
+
+
+}
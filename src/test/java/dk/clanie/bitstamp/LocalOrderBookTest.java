@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dk.clanie.bitstamp.dto.BitstampOrderBook;
+import dk.clanie.bitstamp.dto.BitstampOrderBook.Order;
+
+class LocalOrderBookTest {
+
+	private final Deque<BitstampOrderBook> snapshots = new ArrayDeque<>();
+	private int snapshotsLoaded;
+	private LocalOrderBook orderBook;
+
+
+	@BeforeEach
+	void setUp() {
+		orderBook = new LocalOrderBook("btcusd", () -> {
+			snapshotsLoaded++;
+			return snapshots.poll();
+		}, Runnable::run);
+	}
+
+
+	@Test
+	void testSnapshot() {
+		snapshots.add(book(100, List.of(order(99, 1), order(98, 2)), List.of(order(101, 3), order(102, 4))));
+
+		orderBook.resync();
+
+		assertThat(orderBook.isSynchronized()).isTrue();
+		assertThat(orderBook.getBestBidPrice()).isEqualTo(99);
+		assertThat(orderBook.getBestBidAmount()).isEqualTo(1);
+		assertThat(orderBook.getBestAskPrice()).isEqualTo(101);
+		assertThat(orderBook.getBestAskAmount()).isEqualTo(3);
+		assertThat(orderBook.getBidDepth()).isEqualTo(2);
+		assertThat(orderBook.getAskDepth()).isEqualTo(2);
+	}
+
+
+	@Test
+	void testApplyDiffs() {
+		snapshots.add(book(100, List.of(order(99, 1), order(98, 2)), List.of(order(101, 3), order(102, 4))));
+		orderBook.resync();
+
+		// Update, insert and remove levels
+		orderBook.onOrderBookDiff("btcusd", book(101, List.of(order(99.5, 5), order(98, 0)), List.of(order(101, 0), order(103, 1))));
+
+		List<Double> bidPrices = new ArrayList<>();
+		orderBook.forEachBid(10, (price, amount) -> bidPrices.add(price));
+		List<Double> askPrices = new ArrayList<>();
+		orderBook.forEachAsk(10, (price, amount) -> askPrices.add(price));
+		assertThat(bidPrices).containsExactly(99.5, 99.0);
+		assertThat(askPrices).containsExactly(102.0, 103.0);
+		assertThat(orderBook.getMicrotimestamp()).isEqualTo(101);
+	}
+
+
+	@Test
+	void testIgnoresOtherPairs() {
+		snapshots.add(book(100, List.of(order(99, 1)), List.of(order(101, 3))));
+		orderBook.resync();
+
+		orderBook.onOrderBookDiff("ethusd", book(101, List.of(order(99, 0)), List.of()));
+
+		assertThat(orderBook.getBestBidPrice()).isEqualTo(99);
+	}
+
+
+	@Test
+	void testDiffsOlderThanSnapshotAreSkipped() {
+		snapshots.add(book(100, List.of(order(99, 1)), List.of(order(101, 3))));
+		orderBook.resync();
+
+		orderBook.onOrderBookDiff("btcusd", book(90, List.of(order(99, 0)), List.of()));
+
+		assertThat(orderBook.getBestBidPrice()).isEqualTo(99);
+		assertThat(snapshotsLoaded).isEqualTo(1);
+	}
+
+
+	@Test
+	void testOutOfSequenceDiffTriggersResync() {
+		snapshots.add(book(100, List.of(order(99, 1)), List.of(order(101, 3))));
+		snapshots.add(book(200, List.of(order(97, 1)), List.of(order(104, 3))));
+		orderBook.resync();
+
+		orderBook.onOrderBookDiff("btcusd", book(150, List.of(order(98, 1)), List.of()));
+		orderBook.onOrderBookDiff("btcusd", book(120, List.of(order(96, 1)), List.of()));
+
+		assertThat(snapshotsLoaded).isEqualTo(2);
+		assertThat(orderBook.getBestBidPrice()).isEqualTo(97);
+		assertThat(orderBook.getBestAskPrice()).isEqualTo(104);
+	}
+
+
+	@Test
+	void testCrossedBookTriggersResync() {
+		snapshots.add(book(100, List.of(order(99, 1)), List.of(order(101, 3))));
+		snapshots.add(book(200, List.of(order(100, 1)), List.of(order(101, 3))));
+		orderBook.resync();
+
+		orderBook.onOrderBookDiff("btcusd", book(150, List.of(order(102, 1)), List.of()));
+
+		assertThat(snapshotsLoaded).isEqualTo(2);
+		assertThat(orderBook.getBestBidPrice()).isEqualTo(100);
+	}
+
+
+	@Test
+	void testEmptyBook() {
+		assertThat(orderBook.isSynchronized()).isFalse();
+		assertThat(orderBook.getBestBidPrice()).isNaN();
+		assertThat(orderBook.getBestAskPrice()).isNaN();
+	}
+
+
+	@Test
+	void testFailedSnapshotIsRetriedWithBackOff() {
+		List<Duration> delays = new ArrayList<>();
+		int[] failures = { 3 };
+		orderBook = new LocalOrderBook("btcusd", () -> {
+			if (failures[0]-- > 0) throw new IllegalStateException("Snapshot unavailable");
+			return book(100, List.of(order(99, 1)), List.of(order(101, 3)));
+		}, Runnable::run, (delay, retry) -> {
+			delays.add(delay);
+			retry.run();
+		});
+
+		orderBook.resync();
+
+		assertThat(delays).containsExactly(Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(4));
+		assertThat(orderBook.isSynchronized()).isTrue();
+		assertThat(LocalOrderBook.retryDelay(20)).isEqualTo(LocalOrderBook.MAX_RETRY_DELAY);
+	}
+
+
+	@Test
+	void testStopEndsRetries() {
+		List<Runnable> retries = new ArrayList<>();
+		orderBook = new LocalOrderBook("btcusd", () -> {
+			snapshotsLoaded++;
+			throw new IllegalStateException("Snapshot unavailable");
+		}, Runnable::run, (delay, retry) -> retries.add(retry));
+		orderBook.resync();
+		assertThat(retries).hasSize(1);
+
+		orderBook.stop();
+		retries.get(0).run();
+		orderBook.resync();
+
+		assertThat(snapshotsLoaded).isEqualTo(1);
+		assertThat(retries).hasSize(1);
+		assertThat(orderBook.isSynchronized()).isFalse();
+	}
+
+
+	@Test
+	void testPendingDiffsOverflowTriggersResync() {
+		Deque<Runnable> loads = new ArrayDeque<>();
+		snapshots.add(book(100, List.of(order(99, 1)), List.of(order(101, 3))));
+		snapshots.add(book(200_000, List.of(order(98, 1)), List.of(order(102, 3))));
+		orderBook = new LocalOrderBook("btcusd", () -> {
+			snapshotsLoaded++;
+			return snapshots.poll();
+		}, loads::add);
+		orderBook.resync();
+
+		for (int i = 1; i <= LocalOrderBook.MAX_PENDING_DIFFS + 1; i++) {
+			orderBook.onOrderBookDiff("btcusd", book(100 + i, List.of(order(99, i)), List.of()));
+		}
+		loads.poll().run();
+
+		assertThat(orderBook.isSynchronized()).isFalse();
+		assertThat(loads).hasSize(1);
+		loads.poll().run();
+		assertThat(snapshotsLoaded).isEqualTo(2);
+		assertThat(orderBook.isSynchronized()).isTrue();
+		assertThat(orderBook.getBestBidPrice()).isEqualTo(98);
+	}
+
+
+	private static BitstampOrderBook book(long microtimestamp, List<Order> bids, List<Order> asks) {
+		return new BitstampOrderBook(microtimestamp / 1_000_000, microtimestamp, bids, asks);
+	}
+
+
+	private static Order order(double price, double amount) {
+		return new Order(List.of(price, amount));
+	}
+
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class RefreshingCacheTest {
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+
+	@Test
+	void testFreshValueIsReused() {
+		RefreshingCache<String, Integer> cache = new RefreshingCache<>(Duration.ofMinutes(1), Duration.ZERO, Runnable::run);
+
+		assertThat(cache.get("key", loads::incrementAndGet)).isEqualTo(1);
+		assertThat(cache.get("key", loads::incrementAndGet)).isEqualTo(1);
+		assertThat(cache.get("other", loads::incrementAndGet)).isEqualTo(2);
+	}
+
+
+	@Test
+	void testExpiredValueIsReloaded() throws InterruptedException {
+		RefreshingCache<String, Integer> cache = new RefreshingCache<>(Duration.ofMillis(10), Duration.ZERO, Runnable::run);
+
+		assertThat(cache.get("key", loads::incrementAndGet)).isEqualTo(1);
+		Thread.sleep(20);
+		assertThat(cache.get("key", loads::incrementAndGet)).isEqualTo(2);
+	}
+
+
+	@Test
+	void testStaleValueIsServedWhileRevalidating() throws InterruptedException {
+		RefreshingCache<String, Integer> cache = new RefreshingCache<>(Duration.ofMillis(10), Duration.ofMinutes(1), Runnable::run);
+
+		assertThat(cache.get("key", loads::incrementAndGet)).isEqualTo(1);
+		Thread.sleep(20);
+		assertThat(cache.get("key", loads::incrementAndGet)).isEqualTo(1); // stale, refreshed in the "background"
+		assertThat(cache.get("key", loads::incrementAndGet)).isEqualTo(2);
+	}
+
+
+	@Test
+	void testFailedRefreshKeepsStaleValue() throws InterruptedException {
+		RefreshingCache<String, Integer> cache = new RefreshingCache<>(Duration.ofMillis(10), Duration.ofMinutes(1), Runnable::run);
+		cache.get("key", loads::incrementAndGet);
+		Thread.sleep(20);
+
+		assertThat(cache.get("key", () -> { throw new IllegalStateException("Bitstamp is down"); })).isEqualTo(1);
+		assertThat(cache.get("key", loads::incrementAndGet)).isEqualTo(1);
+	}
+
+
+	@Test
+	void testFailedLoadIsThrown() {
+		RefreshingCache<String, Integer> cache = new RefreshingCache<>(Duration.ofMinutes(1), Duration.ZERO, Runnable::run);
+
+		assertThatThrownBy(() -> cache.get("key", () -> { throw new IllegalStateException("Bitstamp is down"); }))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("Bitstamp is down");
+		assertThat(cache.get("key", loads::incrementAndGet)).isEqualTo(1);
+	}
+
+
+	@Test
+	void testZeroTtlDoesNotKeepValues() {
+		RefreshingCache<String, Integer> cache = new RefreshingCache<>(Duration.ZERO, Duration.ZERO, Runnable::run);
+
+		assertThat(cache.get("key", loads::incrementAndGet)).isEqualTo(1);
+		assertThat(cache.get("key", loads::incrementAndGet)).isEqualTo(2);
+	}
+
+
+	@Test
+	void testConcurrentMissesShareOneLoad() throws Exception {
+		assertConcurrentMissesShareOneLoad(Duration.ofMinutes(1));
+	}
+
+
+	@Test
+	void testConcurrentMissesShareOneLoadWithZeroTtl() throws Exception {
+		assertConcurrentMissesShareOneLoad(Duration.ZERO);
+	}
+
+
+	private void assertConcurrentMissesShareOneLoad(Duration ttl) throws Exception {
+		RefreshingCache<String, Integer> cache = new RefreshingCache<>(ttl, Duration.ZERO, Runnable::run);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Future<Integer>> results = new ArrayList<>();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 20; i++) {
+				results.add(executor.submit(() -> cache.get("key", () -> {
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return loads.incrementAndGet();
+				})));
+			}
+			Thread.sleep(100);
+			release.countDown();
+		}
+
+		for (Future<Integer> result : results) {
+			assertThat(result.get()).isEqualTo(1);
+		}
+		assertThat(loads).hasValue(1);
+	}
+
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static dk.clanie.bitstamp.BitstampPriority.BACKGROUND;
+import static dk.clanie.bitstamp.BitstampPriority.INTERACTIVE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+
+	@Test
+	void testBurstWithinCapacityDoesNotWait() throws InterruptedException {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, 10, 1);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 10; i++) {
+			limiter.acquire(null, INTERACTIVE);
+		}
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+		assertThat(limiter.getAcquisitions(INTERACTIVE)).isEqualTo(10);
+	}
+
+
+	@Test
+	void testWaitsForRefill() throws InterruptedException {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 10, 1, 10);
+
+		limiter.acquire(null, INTERACTIVE);
+		long start = System.nanoTime();
+		limiter.acquire(null, INTERACTIVE);
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(80));
+		assertThat(limiter.getTotalWaitTime(INTERACTIVE)).isGreaterThanOrEqualTo(Duration.ofMillis(80));
+	}
+
+
+	@Test
+	void testSeparateBuckets() throws InterruptedException {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 0.1, 1, 0.1);
+
+		long start = System.nanoTime();
+		limiter.acquire(null, INTERACTIVE);
+		limiter.acquire("key1", INTERACTIVE);
+		limiter.acquire("key2", INTERACTIVE);
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+	}
+
+
+	@Test
+	void testInteractiveGoesBeforeBackground() throws InterruptedException {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 4, 1, 4);
+		List<String> order = new CopyOnWriteArrayList<>();
+		limiter.acquire(null, INTERACTIVE); // empty the bucket
+
+		Thread background1 = Thread.ofVirtual().start(() -> acquire(limiter, BACKGROUND, "background1", order));
+		awaitQueueDepth(limiter, BACKGROUND, 1);
+		Thread background2 = Thread.ofVirtual().start(() -> acquire(limiter, BACKGROUND, "background2", order));
+		awaitQueueDepth(limiter, BACKGROUND, 2);
+		Thread interactive = Thread.ofVirtual().start(() -> acquire(limiter, INTERACTIVE, "interactive", order));
+		awaitQueueDepth(limiter, INTERACTIVE, 1);
+		assertThat(limiter.getQueueDepth()).isEqualTo(3);
+
+		background1.join();
+		background2.join();
+		interactive.join();
+
+		assertThat(order).containsExactly("interactive", "background1", "background2");
+		assertThat(limiter.getQueueDepth()).isZero();
+	}
+
+
+	@Test
+	void testInterruptedWhileWaiting() throws InterruptedException {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 0.1, 1, 0.1);
+		limiter.acquire("key", BACKGROUND);
+		List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+		Thread waiter = Thread.ofVirtual().start(() -> {
+			try {
+				limiter.acquire("key", BACKGROUND);
+			} catch (InterruptedException e) {
+				errors.add(e);
+			}
+		});
+		awaitQueueDepth(limiter, BACKGROUND, 1);
+		waiter.interrupt();
+		waiter.join();
+
+		assertThat(errors).singleElement().isInstanceOf(InterruptedException.class);
+		assertThat(limiter.getQueueDepth()).isZero();
+	}
+
+
+	@Test
+	void testInvalidConfiguration() {
+		assertThatThrownBy(() -> new TokenBucketRateLimiter(0, 1, 1, 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new TokenBucketRateLimiter(1, 1, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+
+	@Test
+	void testPriorityIsScoped() {
+		assertThat(BitstampPriority.current()).isEqualTo(INTERACTIVE);
+		assertThat(BACKGROUND.call(BitstampPriority::current)).isEqualTo(BACKGROUND);
+		assertThat(BitstampPriority.current()).isEqualTo(INTERACTIVE);
+	}
+
+
+	private static void acquire(TokenBucketRateLimiter limiter, BitstampPriority priority, String name, List<String> order) {
+		try {
+			limiter.acquire(null, priority);
+			order.add(name);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	private static void awaitQueueDepth(TokenBucketRateLimiter limiter, BitstampPriority priority, int depth) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (limiter.getQueueDepth(priority) < depth) {
+			if (System.nanoTime() > deadline) throw new AssertionError("Timed out waiting for queue depth " + depth);
+			Thread.sleep(1);
+		}
+	}
+
+
+}
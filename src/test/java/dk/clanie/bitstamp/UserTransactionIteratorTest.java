@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+import dk.clanie.bitstamp.dto.BitstampUserTransaction;
+
+class UserTransactionIteratorTest {
+
+	private static final int PAGE_SIZE = 3;
+
+	private final List<BitstampUserTransaction> account = LongStream.rangeClosed(1, 10)
+			.mapToObj(id -> new BitstampUserTransaction(id, Instant.ofEpochSecond(id * 100), null, null, null, null))
+			.toList();
+	private final Queue<Long> requests = new ConcurrentLinkedQueue<>();
+
+
+	@Test
+	void testIteratesAllPages() {
+		UserTransactionIterator iterator = new UserTransactionIterator(this::fetch, PAGE_SIZE, null, null);
+
+		assertThat(requests).isEmpty();
+		assertThat(ids(iterator)).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+		assertThat(requests).containsExactly(0L, 3L, 5L, 7L, 9L);
+	}
+
+
+	@Test
+	void testFetchesNextPageWhileCurrentIsConsumed() throws InterruptedException {
+		CountDownLatch secondRequest = new CountDownLatch(1);
+		UserTransactionIterator iterator = new UserTransactionIterator(sinceId -> {
+			if (sinceId > 0) secondRequest.countDown();
+			return fetch(sinceId);
+		}, PAGE_SIZE, null, null);
+
+		assertThat(iterator.next().getId()).isEqualTo(1L);
+
+		assertThat(secondRequest.await(5, SECONDS)).isTrue();
+	}
+
+
+	@Test
+	void testTimeRange() {
+		UserTransactionIterator iterator = new UserTransactionIterator(this::fetch, PAGE_SIZE,
+				Instant.ofEpochSecond(350), Instant.ofEpochSecond(700));
+
+		assertThat(ids(iterator)).containsExactly(4L, 5L, 6L, 7L);
+		assertThat(iterator.hasNext()).isFalse();
+	}
+
+
+	@Test
+	void testCloseCancelsReadAhead() throws InterruptedException {
+		CountDownLatch readingAhead = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		UserTransactionIterator iterator = new UserTransactionIterator(sinceId -> {
+			if (sinceId > 0) {
+				readingAhead.countDown();
+				try {
+					new CountDownLatch(1).await();
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+				return List.of();
+			}
+			return fetch(sinceId);
+		}, PAGE_SIZE, null, null);
+		iterator.next();
+		assertThat(readingAhead.await(5, SECONDS)).isTrue();
+
+		iterator.close();
+
+		assertThat(interrupted.await(5, SECONDS)).isTrue();
+		assertThat(iterator.hasNext()).isFalse();
+	}
+
+
+	@Test
+	void testErrorIsRethrown() {
+		UserTransactionIterator iterator = new UserTransactionIterator(sinceId -> {
+			if (sinceId > 0) throw new IllegalStateException("Boom");
+			return fetch(sinceId);
+		}, PAGE_SIZE, null, null);
+		iterator.next();
+		iterator.next();
+		iterator.next();
+
+		assertThatThrownBy(iterator::hasNext).isInstanceOf(IllegalStateException.class).hasMessage("Boom");
+		assertThat(iterator.hasNext()).isFalse();
+	}
+
+
+	/**
+	 * Returns a page of transactions from the given ID (inclusive), like Bitstamp's since_id.
+	 */
+	private List<BitstampUserTransaction> fetch(long sinceId) {
+		requests.add(sinceId);
+		return account.stream()
+				.filter(transaction -> transaction.getId() >= sinceId)
+				.limit(PAGE_SIZE)
+				.toList();
+	}
+
+
+	private static List<Long> ids(UserTransactionIterator iterator) {
+		List<Long> ids = new ArrayList<>();
+		iterator.forEachRemaining(transaction -> ids.add(transaction.getId()));
+		return ids;
+	}
+
+
+}
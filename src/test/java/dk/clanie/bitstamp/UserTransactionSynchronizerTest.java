@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import dk.clanie.bitstamp.dto.BitstampUserTransaction;
+
+class UserTransactionSynchronizerTest {
+
+	@TempDir
+	Path directory;
+
+	private final List<BitstampUserTransaction> account = new ArrayList<>();
+	private final List<Long> requests = new ArrayList<>();
+	private final List<BitstampUserTransaction> ledger = new ArrayList<>();
+
+
+	@Test
+	void testPagesForwardUntilCaughtUp() {
+		addTransactions(1, 2500);
+		UserTransactionSynchronizer synchronizer = synchronizer();
+
+		int count = synchronizer.synchronize(ledger::addAll);
+
+		assertThat(count).isEqualTo(2500);
+		assertThat(ledger).extracting(BitstampUserTransaction::getId).containsExactlyElementsOf(ids(1, 2500));
+		assertThat(requests).containsExactly(0L, 1000L, 1999L);
+		assertThat(synchronizer.getLastId()).hasValue(2500);
+	}
+
+
+	@Test
+	void testOnlyNewTransactionsAreHandedToSink() {
+		addTransactions(1, 10);
+		UserTransactionSynchronizer synchronizer = synchronizer();
+		synchronizer.synchronize(ledger::addAll);
+		addTransactions(11, 15);
+
+		int count = synchronizer.synchronize(ledger::addAll);
+
+		assertThat(count).isEqualTo(5);
+		assertThat(ledger).extracting(BitstampUserTransaction::getId).containsExactlyElementsOf(ids(1, 15));
+		assertThat(synchronizer.synchronize(ledger::addAll)).isZero();
+	}
+
+
+	@Test
+	void testResumesFromCheckpoint() {
+		addTransactions(1, 1200);
+		synchronizer().synchronize(ledger::addAll);
+		addTransactions(1201, 1300);
+		requests.clear();
+		ledger.clear();
+
+		UserTransactionSynchronizer synchronizer = synchronizer();
+		int count = synchronizer.synchronize(ledger::addAll);
+
+		assertThat(count).isEqualTo(100);
+		assertThat(requests).containsExactly(1200L);
+		assertThat(ledger).extracting(BitstampUserTransaction::getId).containsExactlyElementsOf(ids(1201, 1300));
+	}
+
+
+	@Test
+	void testNoCheckpointBeforeFirstTransaction() {
+		UserTransactionSynchronizer synchronizer = synchronizer();
+
+		assertThat(synchronizer.synchronize(ledger::addAll)).isZero();
+		assertThat(synchronizer.getLastId()).isEmpty();
+		assertThat(new FileUserTransactionCheckpointStore(directory).load("key")).isEmpty();
+	}
+
+
+	@Test
+	void testFileCheckpointStore() {
+		FileUserTransactionCheckpointStore store = new FileUserTransactionCheckpointStore(directory);
+
+		store.save("a/b", 42);
+		store.save("a/b", 43);
+		store.save("c", 7);
+
+		assertThat(store.load("a/b")).hasValue(43);
+		assertThat(store.load("c")).hasValue(7);
+		assertThat(store.load("d")).isEmpty();
+		assertThat(directory.resolve("a_b.checkpoint")).exists();
+	}
+
+
+	private UserTransactionSynchronizer synchronizer() {
+		return new UserTransactionSynchronizer("key", this::fetch, new FileUserTransactionCheckpointStore(directory));
+	}
+
+
+	/**
+	 * Returns a page of transactions from the given ID (inclusive), like Bitstamp's since_id.
+	 */
+	private List<BitstampUserTransaction> fetch(long sinceId) {
+		requests.add(sinceId);
+		return account.stream()
+				.filter(transaction -> transaction.getId() >= sinceId)
+				.limit(UserTransactionSynchronizer.PAGE_SIZE)
+				.toList();
+	}
+
+
+	private void addTransactions(long fromId, long toId) {
+		LongStream.rangeClosed(fromId, toId)
+				.mapToObj(id -> new BitstampUserTransaction(id, null, null, null, null, null))
+				.forEach(account::add);
+	}
+
+
+	private static List<Long> ids(long fromId, long toId) {
+		return LongStream.rangeClosed(fromId, toId).boxed().toList();
+	}
+
+
+}
@@ -94,6 +94,34 @@ class BitstampCurrencyCodeTest {
 				.hasMessageContaining("Unknown currency code: INVALID");
 	}
 
+	@Test
+	void testFromStringIsCaseInsensitive() {
+		assertThat(BitstampCurrencyCode.fromString("btc")).isEqualTo(BTC);
+		assertThat(BitstampCurrencyCode.fromString("Btc")).isEqualTo(BTC);
+		assertThat(BitstampCurrencyCode.fromString("1inch")).isEqualTo(_1INCH);
+		assertThat(BitstampCurrencyCode.fromString("usd-perp")).isEqualTo(USD_PERP);
+		assertThat(BitstampCurrencyCode.fromString("USD_PERP")).isEqualTo(USD_PERP);
+	}
+
+	@Test
+	void testTryFromString() {
+		assertThat(BitstampCurrencyCode.tryFromString("BTC")).isEqualTo(BTC);
+		assertThat(BitstampCurrencyCode.tryFromString("eur")).isEqualTo(EUR);
+		assertThat(BitstampCurrencyCode.tryFromString("1INCH")).isEqualTo(_1INCH);
+		assertThat(BitstampCurrencyCode.tryFromString("usd-perp")).isEqualTo(USD_PERP);
+		assertThat(BitstampCurrencyCode.tryFromString("INVALID")).isNull();
+		assertThat(BitstampCurrencyCode.tryFromString("")).isNull();
+		assertThat(BitstampCurrencyCode.tryFromString(null)).isNull();
+	}
+
+	@Test
+	void testTryFromStringFindsEveryCode() {
+		for (BitstampCurrencyCode currencyCode : BitstampCurrencyCode.values()) {
+			assertThat(BitstampCurrencyCode.tryFromString(currencyCode.getCode())).isEqualTo(currencyCode);
+			assertThat(BitstampCurrencyCode.tryFromString(currencyCode.getCode().toLowerCase())).isEqualTo(currencyCode);
+		}
+	}
+
 	@Test
 	void testDescriptions() {
 		assertThat(BTC.getName()).isEqualTo("Bitcoin");
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.dto;
+
+import static dk.clanie.bitstamp.dto.BitstampCurrencyCode.BTC;
+import static dk.clanie.bitstamp.dto.BitstampCurrencyCode.EUR;
+import static dk.clanie.bitstamp.dto.BitstampCurrencyCode.EURC;
+import static dk.clanie.bitstamp.dto.BitstampCurrencyCode.EURCV;
+import static dk.clanie.bitstamp.dto.BitstampCurrencyCode.USD;
+import static dk.clanie.bitstamp.dto.BitstampCurrencyCode.USD_PERP;
+import static dk.clanie.bitstamp.dto.BitstampCurrencyCode.VEUR;
+import static dk.clanie.bitstamp.dto.BitstampCurrencyCode._1INCH;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+class BitstampCurrencyPairRegistryTest {
+
+	@Test
+	void testGetReturnsCanonicalInstance() {
+		BitstampCurrencyPair pair = BitstampCurrencyPairRegistry.get(BTC, USD);
+
+		assertThat(BitstampCurrencyPairRegistry.get(BTC, USD)).isSameAs(pair);
+		assertThat(BitstampCurrencyPair.of(BTC, USD)).isSameAs(pair);
+		assertThat(BitstampCurrencyPairRegistry.get(USD, BTC)).isNotSameAs(pair);
+		assertThat(pair).isEqualTo(new BitstampCurrencyPair(BTC, USD));
+	}
+
+	@Test
+	void testGetNullCurrency() {
+		assertThatThrownBy(() -> BitstampCurrencyPairRegistry.get(null, USD))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Base currency cannot be null");
+		assertThatThrownBy(() -> BitstampCurrencyPairRegistry.get(BTC, null))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Quote currency cannot be null");
+	}
+
+	@Test
+	void testPrecomputedForms() {
+		BitstampCurrencyPair pair = BitstampCurrencyPair.of(_1INCH, USD_PERP);
+
+		assertThat(pair.toStringWithSlash()).isEqualTo("1INCH/USD-PERP");
+		assertThat(pair.toUnderscoreFormat()).isEqualTo("1inch_usd-perp");
+		assertThat(pair.toUrlParameter()).isEqualTo("1inchusd-perp");
+		assertThat(pair.toUrlParameter()).isSameAs(pair.toUrlParameter());
+	}
+
+	@Test
+	void testFind() {
+		BitstampCurrencyPair pair = BitstampCurrencyPair.of(BTC, EUR);
+
+		assertThat(BitstampCurrencyPairRegistry.find("BTC/EUR")).isSameAs(pair);
+		assertThat(BitstampCurrencyPairRegistry.find("btc/eur")).isSameAs(pair);
+		assertThat(BitstampCurrencyPairRegistry.find("btc_eur")).isSameAs(pair);
+		assertThat(BitstampCurrencyPairRegistry.find("btceur")).isSameAs(pair);
+		assertThat(BitstampCurrencyPairRegistry.find("BTCEUR")).isSameAs(pair);
+	}
+
+	@Test
+	void testFindUnknown() {
+		assertThat(BitstampCurrencyPairRegistry.find("BTC/XYZ")).isNull();
+		assertThat(BitstampCurrencyPairRegistry.find("xyz_usd")).isNull();
+		assertThat(BitstampCurrencyPairRegistry.find("btcxyz")).isNull();
+		assertThat(BitstampCurrencyPairRegistry.find("")).isNull();
+		assertThat(BitstampCurrencyPairRegistry.find(null)).isNull();
+	}
+
+	@Test
+	void testFindAmbiguousUrlForm() {
+		// "eurcveur" is both EURCV/EUR and EURC/VEUR; the upper case form is never registered
+		assertThat(BitstampCurrencyPairRegistry.find("EURCVEUR")).isNull();
+	}
+
+	@Test
+	void testRegister() {
+		BitstampTradingPair tradingPair = new BitstampTradingPair("EURCV/EUR", "eurcveur", 2, 5, 5, null, null, null, "Euro Coin V / Euro");
+		BitstampTradingPair unknown = new BitstampTradingPair("XYZ/EUR", "xyzeur", 2, 5, 5, null, null, null, "XYZ / Euro");
+
+		assertThat(BitstampCurrencyPairRegistry.register(List.of(tradingPair, unknown))).isEqualTo(1);
+
+		assertThat(BitstampCurrencyPairRegistry.find("eurcveur")).isSameAs(BitstampCurrencyPair.of(EURCV, EUR));
+		assertThat(BitstampCurrencyPair.of(EURC, VEUR).toUrlParameter()).isEqualTo("eurcveur");
+		assertThat(BitstampCurrencyPairRegistry.find("eurcveur")).isSameAs(BitstampCurrencyPair.of(EURCV, EUR));
+	}
+
+	@Test
+	void testParsedPairsAreCanonical() {
+		ObjectMapper objectMapper = new ObjectMapper();
+
+		List<BitstampCurrencyPair> pairs = objectMapper.readValue("[\"BTC/USD\", \"btc/usd\"]", new TypeReference<List<BitstampCurrencyPair>>() {});
+
+		assertThat(pairs.get(0)).isSameAs(BitstampCurrencyPair.of(BTC, USD));
+		assertThat(pairs.get(1)).isSameAs(BitstampCurrencyPair.of(BTC, USD));
+		assertThat(BitstampCurrencyPair.fromString("BTC/USD")).isSameAs(BitstampCurrencyPair.of(BTC, USD));
+		assertThat(BitstampCurrencyPair.fromUnderscoreFormat("btc_usd")).isSameAs(BitstampCurrencyPair.of(BTC, USD));
+	}
+
+}
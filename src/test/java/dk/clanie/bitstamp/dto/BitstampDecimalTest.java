@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.junit.jupiter.api.Test;
+
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.ObjectMapper;
+
+class BitstampDecimalTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+
+	@Test
+	void testParse() {
+		BitstampDecimal value = BitstampDecimal.parse("47800.00");
+
+		assertEquals(4780000, value.getUnscaledValue());
+		assertEquals(2, value.getScale());
+		assertEquals("47800.00", value.toString());
+		assertEquals("-0.00012345", BitstampDecimal.parse("-0.00012345").toString());
+		assertEquals("0.5", BitstampDecimal.parse(".5").toString());
+		assertEquals("123", BitstampDecimal.parse("1.23E+2").toString());
+	}
+
+
+	@Test
+	void testParseCharacters() {
+		char[] chars = "[47800.00,-0.00012345,1.23E+2]".toCharArray();
+
+		assertEquals(BitstampDecimal.parse("47800.00"), BitstampDecimal.parse(chars, 1, 8));
+		assertEquals("-0.00012345", BitstampDecimal.parse(chars, 10, 11).toString());
+		assertEquals("123", BitstampDecimal.parse(chars, 22, 7).toString());
+		assertThrows(NumberFormatException.class, () -> BitstampDecimal.parse(chars, 0, 9));
+		assertThrows(NumberFormatException.class, () -> BitstampDecimal.parse(chars, 9, 0));
+	}
+
+
+	@Test
+	void testParseInvalid() {
+		assertThrows(NumberFormatException.class, () -> BitstampDecimal.parse(""));
+		assertThrows(NumberFormatException.class, () -> BitstampDecimal.parse("-"));
+		assertThrows(NumberFormatException.class, () -> BitstampDecimal.parse("1.2.3"));
+		assertThrows(NumberFormatException.class, () -> BitstampDecimal.parse("abc"));
+		assertThrows(NumberFormatException.class, () -> BitstampDecimal.parse("0.0000000000000000001"));
+	}
+
+
+	@Test
+	void testDoubleValueMatchesParseDouble() {
+		for (String s : new String[] { "0.1", "47800.01", "1.23456789", "0.00012345", "-2.34567890", "92233720368.54775807" }) {
+			assertEquals(Double.parseDouble(s), BitstampDecimal.parse(s).doubleValue(), s);
+		}
+	}
+
+
+	@Test
+	void testArithmetic() {
+		BitstampDecimal price = BitstampDecimal.parse("47800.5");
+		BitstampDecimal amount = BitstampDecimal.parse("0.0125");
+
+		assertEquals("47800.5125", price.add(amount).toString());
+		assertEquals("-47800.4875", amount.subtract(price).toString());
+		assertEquals("597.50625", price.multiply(amount).toString());
+		assertEquals("597.51", price.multiply(amount, 2, RoundingMode.HALF_UP).toString());
+		assertThrows(ArithmeticException.class,
+				() -> BitstampDecimal.of(Long.MAX_VALUE, 0).add(BitstampDecimal.of(1, 0)));
+	}
+
+
+	@Test
+	void testSetScaleMatchesBigDecimal() {
+		for (String s : new String[] { "2.345", "-2.345", "2.355", "-2.355", "0.001", "-0.009" }) {
+			for (RoundingMode mode : RoundingMode.values()) {
+				if (mode == RoundingMode.UNNECESSARY) {
+					continue;
+				}
+				BigDecimal expected = new BigDecimal(s).setScale(2, mode);
+				assertEquals(expected, BitstampDecimal.parse(s).setScale(2, mode).toBigDecimal(), s + " " + mode);
+			}
+		}
+		assertThrows(ArithmeticException.class, () -> BitstampDecimal.parse("2.345").setScale(2, RoundingMode.UNNECESSARY));
+	}
+
+
+	@Test
+	void testNumericEquality() {
+		BitstampDecimal a = BitstampDecimal.parse("1.50");
+		BitstampDecimal b = BitstampDecimal.parse("1.5");
+
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertEquals(0, a.compareTo(b));
+		assertNotEquals(a, BitstampDecimal.parse("1.51"));
+	}
+
+
+	@Test
+	void testDeserialize() throws Exception {
+		assertEquals(BitstampDecimal.parse("47800.01"), objectMapper.readValue("\"47800.01\"", BitstampDecimal.class));
+		assertEquals(BitstampDecimal.parse("0.1"), objectMapper.readValue("0.1", BitstampDecimal.class));
+		assertNull(objectMapper.readValue("\"\"", BitstampDecimal.class));
+		assertThrows(DatabindException.class, () -> objectMapper.readValue("\"abc\"", BitstampDecimal.class));
+	}
+
+
+	@Test
+	void testTradingPairScaling() {
+		BitstampTradingPair pair = new BitstampTradingPair("BTC/USD", "btcusd", 8, 2, 2,
+				new BitstampMonetaryAmount("10", "USD"), null, null, "Bitcoin / U.S. dollar");
+
+		assertEquals("47800.13", pair.scalePrice(BitstampDecimal.parse("47800.125"), RoundingMode.HALF_UP).toString());
+		assertEquals("0.01234567", pair.scaleAmount(BitstampDecimal.parse("0.012345678"), RoundingMode.DOWN).toString());
+	}
+
+}
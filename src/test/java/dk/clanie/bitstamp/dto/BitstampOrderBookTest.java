@@ -18,9 +18,15 @@
 package dk.clanie.bitstamp.dto;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import dk.clanie.bitstamp.dto.BitstampOrderBook.Order;
+
 import tools.jackson.core.JacksonException;
 import tools.jackson.databind.DatabindException;
 import tools.jackson.databind.ObjectMapper;
@@ -55,4 +61,45 @@ class BitstampOrderBookTest {
 		assertThat(orderBook.getAsks().get(0).getAmount()).isEqualTo(2.34567890);
 	}
 
+
+	@Test
+	void testDecimalsAreTrimmed() throws DatabindException, JacksonException {
+		ObjectMapper objectMapper = new ObjectMapper();
+		BitstampOrderBook orderBook = objectMapper.readValue("""
+				{"timestamp": "1", "microtimestamp": "1", "bids": [[" 47795.10 ", 1.5]], "asks": []}
+				""", BitstampOrderBook.class);
+
+		assertThat(orderBook.getBids().get(0).getPriceDecimal()).isEqualTo(BitstampDecimal.parse("47795.10"));
+		assertThat(orderBook.getBids().get(0).getAmountDecimal()).isEqualTo(BitstampDecimal.parse("1.5"));
+	}
+
+
+	@Test
+	void testEmptyPriceOrAmountIsRejected() {
+		ObjectMapper objectMapper = new ObjectMapper();
+
+		assertThatThrownBy(() -> objectMapper.readValue("""
+				{"timestamp": "1", "microtimestamp": "1", "bids": [], "asks": [["", "2"]]}
+				""", BitstampOrderBook.class))
+				.isInstanceOf(DatabindException.class)
+				.hasRootCauseInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> objectMapper.readValue("""
+				{"timestamp": "1", "microtimestamp": "1", "bids": [["47795.10", " "]], "asks": []}
+				""", BitstampOrderBook.class))
+				.isInstanceOf(DatabindException.class)
+				.hasRootCauseInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new Order(Arrays.asList(47795.0, null)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+
+	@Test
+	void testOrderFromDoubles() {
+		Order order = new Order(List.of(47795.0, 1.23456789));
+
+		assertThat(order.getPrice()).isEqualTo(47795.0);
+		assertThat(order.getAmount()).isEqualTo(1.23456789);
+		assertThat(order).isEqualTo(new Order(47795.0, 1.23456789));
+	}
+
 }
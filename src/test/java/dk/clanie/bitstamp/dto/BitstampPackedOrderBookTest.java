@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.ObjectMapper;
+
+class BitstampPackedOrderBookTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+
+	@Test
+	void testJsonDeserialization() {
+		BitstampPackedOrderBook orderBook = objectMapper.readValue("""
+				{
+				  "timestamp": "1637597234",
+				  "microtimestamp": "1637597234123456",
+				  "bids": [
+				    ["47795.00", "1.23456789"],
+				    ["47790.00", "0.50000000"]
+				  ],
+				  "asks": [
+				    ["47805.00", "2.34567890", "123456"],
+				    ["47810.00", "1.00000000"],
+				    ["47815.00", "3.00000000"]
+				  ]
+				}
+				""", BitstampPackedOrderBook.class);
+
+		assertThat(orderBook.getTimestamp()).isEqualTo(1637597234L);
+		assertThat(orderBook.getMicrotimestamp()).isEqualTo(1637597234123456L);
+		assertThat(orderBook.getBidCount()).isEqualTo(2);
+		assertThat(orderBook.getBidPrice(0)).isEqualTo(47795.00);
+		assertThat(orderBook.getBidAmount(0)).isEqualTo(1.23456789);
+		assertThat(orderBook.getBidPrice(1)).isEqualTo(47790.00);
+		assertThat(orderBook.getAskCount()).isEqualTo(3);
+		assertThat(orderBook.getAskPrice(0)).isEqualTo(47805.00);
+		assertThat(orderBook.getAskAmount(0)).isEqualTo(2.34567890);
+		assertThat(orderBook.getAskPrice(2)).isEqualTo(47815.00);
+		assertThatThrownBy(() -> orderBook.getBidPrice(2)).isInstanceOf(IndexOutOfBoundsException.class);
+	}
+
+
+	@Test
+	void testGrowsBeyondInitialCapacity() {
+		StringBuilder bids = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			if (i > 0) bids.append(',');
+			bids.append("[\"").append(50000 - i).append(".00\", \"0.1\"]");
+		}
+		BitstampPackedOrderBook orderBook = objectMapper.readValue(
+				"{\"timestamp\": \"1\", \"microtimestamp\": \"1000000\", \"bids\": [" + bids + "], \"asks\": []}",
+				BitstampPackedOrderBook.class);
+
+		assertThat(orderBook.getBidCount()).isEqualTo(1000);
+		assertThat(orderBook.getBidPrice(999)).isEqualTo(49001.00);
+		assertThat(orderBook.getAskCount()).isZero();
+	}
+
+
+	@Test
+	void testToOrderBook() {
+		BitstampPackedOrderBook packed = objectMapper.readValue("""
+				{"timestamp": "1637597234", "microtimestamp": "1637597234123456",
+				 "bids": [["47795.00", "1.5"]], "asks": [["47805.00", "2.5"], ["47810.00", "1.0"]]}
+				""", BitstampPackedOrderBook.class);
+
+		BitstampOrderBook orderBook = packed.toOrderBook();
+
+		assertThat(orderBook.getMicrotimestamp()).isEqualTo(1637597234123456L);
+		assertThat(orderBook.getBids()).hasSize(1);
+		assertThat(orderBook.getBids().get(0).getPrice()).isEqualTo(47795.00);
+		assertThat(orderBook.getAsks()).hasSize(2);
+		assertThat(orderBook.getAsks().get(1).getAmount()).isEqualTo(1.0);
+	}
+
+
+	@Test
+	void testInvalidOrder() {
+		assertThatThrownBy(() -> objectMapper.readValue(
+				"{\"bids\": [[\"47795.00\"]], \"asks\": []}", BitstampPackedOrderBook.class))
+				.isInstanceOf(DatabindException.class)
+				.hasMessageContaining("at least 2 values");
+	}
+
+
+	@Test
+	void testMalformedLevel() {
+		for (String amount : List.of("\"\"", "null", "\"abc\"", "\" 1.5\"", "true", "[1]", "{\"a\": 1}")) {
+			assertThatThrownBy(() -> objectMapper.readValue(
+					"{\"bids\": [[\"47795.00\", \"1.0\"], [\"47790.00\", " + amount + "]], \"asks\": []}", BitstampPackedOrderBook.class))
+					.as(amount)
+					.isInstanceOf(DatabindException.class);
+		}
+	}
+
+
+}
@@ -19,11 +19,17 @@ package dk.clanie.bitstamp.dto;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.DatabindException;
 import tools.jackson.databind.ObjectMapper;
 
 class BitstampUserTransactionTest {
@@ -304,4 +310,135 @@ class BitstampUserTransactionTest {
 		assertEquals(94201.0, transaction.getExchangeRate().getRate());
 	}
 
+
+	@Test
+	void testDeserializeAdditionalProperties() throws Exception {
+		String json = """
+			{
+				"id": 1,
+				"datetime": "2025-01-15 13:29:19.362050",
+				"type": 2,
+				"btc": "not a number",
+				"eth": null,
+				"xyz": 1.5,
+				"foo_bar": 2.5,
+				"details": {"note": "test"},
+				"usd": 10
+			}
+		""";
+
+		BitstampUserTransaction transaction = objectMapper.readValue(json, BitstampUserTransaction.class);
+
+		assertEquals(Map.of(BitstampCurrencyCode.USD, 10.0), transaction.getCurrencyAmounts());
+		assertEquals(null, transaction.getAmount(BitstampCurrencyCode.BTC));
+		assertEquals(null, transaction.getExchangeRate());
+		assertEquals("not a number", transaction.getAdditionalProperties().get("btc"));
+		assertEquals(1.5, transaction.getAdditionalProperties().get("xyz"));
+		assertEquals(2.5, transaction.getAdditionalProperties().get("foo_bar"));
+		assertEquals(Map.of("note", "test"), transaction.getAdditionalProperties().get("details"));
+		assertEquals(4, transaction.getAdditionalProperties().size());
+	}
+
+
+	@Test
+	void testDeserializeSpecialCurrencyCodes() throws Exception {
+		String json = """
+			{
+				"id": 1,
+				"datetime": "2025-01-15 13:29:19",
+				"type": 2,
+				"1inch": "12.5",
+				"usd-perp": -3.0,
+				"1inch_usd": "0.25"
+			}
+		""";
+
+		BitstampUserTransaction transaction = objectMapper.readValue(json, BitstampUserTransaction.class);
+
+		assertEquals(12.5, transaction.getAmount(BitstampCurrencyCode._1INCH));
+		assertEquals(-3.0, transaction.getAmount(BitstampCurrencyCode.USD_PERP));
+		assertEquals(new BitstampCurrencyPair(BitstampCurrencyCode._1INCH, BitstampCurrencyCode.USD), transaction.getExchangeRate().getCurrencyPair());
+		assertEquals(0.25, transaction.getExchangeRate().getRate());
+		assertTrue(transaction.getAdditionalProperties().isEmpty());
+	}
+
+
+	@Test
+	void testDeserializeList() throws Exception {
+		String json = """
+			[
+				{"id": 1, "datetime": "2025-01-15 13:29:19", "type": 0, "btc": "1.0", "fee": "0.0"},
+				{"id": 2, "datetime": "2025-01-15 13:29:20", "type": 2, "btc_eur": 90000.0, "fee": null},
+				{"id": 3, "datetime": "2025-01-15 13:29:21", "type": 1, "order_id": "42", "market": "BTC/EUR"}
+			]
+		""";
+
+		List<BitstampUserTransaction> transactions = objectMapper.readValue(json, new TypeReference<List<BitstampUserTransaction>>() {});
+
+		assertEquals(3, transactions.size());
+		assertEquals(1.0, transactions.get(0).getAmount(BitstampCurrencyCode.BTC));
+		assertEquals(0.0, transactions.get(0).getFee());
+		assertEquals(90000.0, transactions.get(1).getExchangeRate().getRate());
+		assertEquals(null, transactions.get(1).getFee());
+		assertTrue(transactions.get(1).getCurrencyAmounts().isEmpty());
+		assertEquals(42L, transactions.get(2).getOrderId());
+		assertEquals("BTC/EUR", transactions.get(2).getMarket());
+		assertEquals(BitstampUserTransactionType.WITHDRAWAL, transactions.get(2).getType());
+	}
+
+
+	@Test
+	void testDeserializeDuplicateCurrency() throws Exception {
+		String json = """
+			{"id": 1, "datetime": "2025-01-15 13:29:19", "type": 2, "btc": "1.0", "usd": -5, "btc": "2.0"}
+		""";
+
+		BitstampUserTransaction transaction = objectMapper.readValue(json, BitstampUserTransaction.class);
+
+		assertEquals(Map.of(BitstampCurrencyCode.BTC, 2.0, BitstampCurrencyCode.USD, -5.0), transaction.getCurrencyAmounts());
+	}
+
+
+	@Test
+	void testMapsAreNotLive() throws Exception {
+		String json = """
+			{"id": 1, "datetime": "2025-01-15 13:29:19", "type": 2, "btc": "1.0", "xyz": 1.5}
+		""";
+
+		BitstampUserTransaction transaction = objectMapper.readValue(json, BitstampUserTransaction.class);
+		transaction.getCurrencyAmounts().put(BitstampCurrencyCode.BTC, 2.0);
+
+		assertEquals(1.0, transaction.getAmount(BitstampCurrencyCode.BTC));
+		assertThrows(UnsupportedOperationException.class, () -> transaction.getAdditionalProperties().put("abc", 1));
+		assertThrows(UnsupportedOperationException.class, () -> transaction.getAdditionalProperties().remove("xyz"));
+	}
+
+
+	@Test
+	void testDeserializeUnknownType() {
+		String json = """
+			{"id": 1, "datetime": "2025-01-15 13:29:19", "type": 99}
+		""";
+
+		assertThrows(DatabindException.class, () -> objectMapper.readValue(json, BitstampUserTransaction.class));
+	}
+
+
+	@Test
+	void testSetCurrencyAmount() {
+		BitstampUserTransaction transaction = new BitstampUserTransaction(1, null, null, null, null, null);
+
+		transaction.setCurrencyAmount("usd", "-10.5");
+		transaction.setCurrencyAmount("btc", 0.001);
+		transaction.setCurrencyAmount("usd", "-11.5");
+		transaction.setCurrencyAmount("btc_usd", "11500");
+		transaction.setCurrencyAmount("nonsense", "x");
+
+		assertEquals(-11.5, transaction.getAmount(BitstampCurrencyCode.USD));
+		assertEquals(0.001, transaction.getAmount(BitstampCurrencyCode.BTC));
+		assertEquals(2, transaction.getCurrencyAmounts().size());
+		assertEquals(11500.0, transaction.getExchangeRate().getRate());
+		assertEquals(Map.of("nonsense", "x"), transaction.getAdditionalProperties());
+	}
+
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import tools.jackson.databind.ObjectMapper;
+
+class CandleSeriesTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+
+	@Test
+	void testJsonDeserialization() {
+		CandleSeries series = objectMapper.readValue("""
+				{
+				  "pair": "BTC/USD",
+				  "ohlc": [
+				    {
+				      "timestamp": "1637596800",
+				      "open": "48500.00",
+				      "high": "48850.00",
+				      "low": "47200.00",
+				      "close": "47800.00",
+				      "volume": "1234.56789012"
+				    },
+				    {
+				      "timestamp": "1637600400",
+				      "open": "47800.00",
+				      "high": "48200.00",
+				      "low": "47500.00",
+				      "close": "48000.00",
+				      "volume": "987.65432109"
+				    }
+				  ]
+				}
+				""", CandleSeries.class);
+
+		assertThat(series.getPair()).isEqualTo("BTC/USD");
+		assertThat(series.size()).isEqualTo(2);
+		assertThat(series.getTimestamp(0)).isEqualTo(1637596800L);
+		assertThat(series.getOpen(0)).isEqualTo(48500.00);
+		assertThat(series.getHigh(0)).isEqualTo(48850.00);
+		assertThat(series.getLow(0)).isEqualTo(47200.00);
+		assertThat(series.getClose(0)).isEqualTo(47800.00);
+		assertThat(series.getVolume(0)).isEqualTo(1234.56789012);
+		assertThat(series.getCandle(1)).isEqualTo(new BitstampOhlcData.Candle(1637600400L, 47800.00, 48200.00, 47500.00, 48000.00, 987.65432109));
+	}
+
+
+	@Test
+	void testJsonDeserializationOfWrappedUnorderedResponse() {
+		CandleSeries series = objectMapper.readValue("""
+				{"data": {"pair": "BTC/USD", "ohlc": [
+				  {"timestamp": "180", "open": "3", "high": "3", "low": "3", "close": "3", "volume": "3"},
+				  {"timestamp": "60", "open": "1", "high": "1", "low": "1", "close": "1", "volume": "1"},
+				  {"timestamp": "120", "open": "2", "high": "2", "low": "2", "close": "2", "volume": "2"},
+				  {"timestamp": "120", "open": "9", "high": "9", "low": "9", "close": "9", "volume": "9"}
+				]}}
+				""", CandleSeries.class);
+
+		assertThat(series.getPair()).isEqualTo("BTC/USD");
+		assertThat(series.timestamps()).containsExactly(60L, 120L, 180L);
+		assertThat(series.closes()).containsExactly(1.0, 2.0, 3.0);
+	}
+
+
+	@Test
+	void testAppendRequiresIncreasingTimestamps() {
+		CandleSeries series = new CandleSeries("BTC/USD", 1);
+		series.append(60, 1, 2, 0.5, 1.5, 10);
+		series.append(120, 1.5, 2, 1, 1.8, 20);
+
+		assertThat(series.size()).isEqualTo(2);
+		assertThatThrownBy(() -> series.append(120, 1, 1, 1, 1, 1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+
+	@Test
+	void testSliceIsViewFoundByTimestamp() {
+		CandleSeries series = series(60, 120, 180, 240, 300);
+
+		CandleSeries slice = series.slice(100, 240);
+
+		assertThat(slice.timestamps()).containsExactly(120L, 180L, 240L);
+		assertThat(slice.getClose(0)).isEqualTo(120.0);
+		assertThat(slice.indexOf(180)).isEqualTo(1);
+		assertThat(slice.indexOf(60)).isEqualTo(-1);
+		assertThat(slice.indexOf(200)).isEqualTo(-3);
+		assertThat(slice.slice(181, 1000).timestamps()).containsExactly(240L);
+		assertThat(series.slice(301, 400).isEmpty()).isTrue();
+		assertThat(series.slice(200, 100).isEmpty()).isTrue();
+	}
+
+
+	@Test
+	void testViewsAreReadOnly() {
+		CandleSeries series = series(60, 120, 180);
+		CandleSeries view = series.subSeries(0, 2);
+
+		assertThatThrownBy(() -> view.append(600, 1, 1, 1, 1, 1)).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> view.getTimestamp(2)).isInstanceOf(IndexOutOfBoundsException.class);
+
+		series.append(240, 1, 1, 1, 1, 1);
+		assertThat(view.size()).isEqualTo(2);
+		assertThat(view.copy().timestamps()).containsExactly(60L, 120L);
+	}
+
+
+	@Test
+	void testAppendAll() {
+		CandleSeries series = series(60, 120);
+
+		series.appendAll(series(60, 120, 180, 240).slice(180, 240));
+
+		assertThat(series.timestamps()).containsExactly(60L, 120L, 180L, 240L);
+		assertThat(series.asList()).hasSize(4);
+		assertThat(series.asList().get(3).getClose()).isEqualTo(240.0);
+		assertThatThrownBy(() -> series.appendAll(series(240))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+
+	@Test
+	void testOf() {
+		BitstampOhlcData data = new BitstampOhlcData("BTC/USD", List.of(
+				new BitstampOhlcData.Candle(60, 1, 2, 0.5, 1.5, 10),
+				new BitstampOhlcData.Candle(120, 1.5, 2, 1, 1.8, 20)));
+
+		CandleSeries series = CandleSeries.of(data);
+
+		assertThat(series.asList()).isEqualTo(data.getOhlc());
+		assertThat(series.volumes().sum()).isEqualTo(30.0);
+	}
+
+
+	private static CandleSeries series(long... timestamps) {
+		CandleSeries series = new CandleSeries("BTC/USD");
+		for (long timestamp : timestamps) {
+			series.append(timestamp, timestamp, timestamp, timestamp, timestamp, timestamp);
+		}
+		return series;
+	}
+
+
+}
@@ -19,25 +19,30 @@ package dk.clanie.bitstamp.jackson;
 
 import static dk.clanie.bitstamp.dto.BitstampCurrencyCode.BTC;
 import static dk.clanie.bitstamp.dto.BitstampCurrencyCode.USD;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import dk.clanie.bitstamp.dto.BitstampCurrencyPair;
+import dk.clanie.bitstamp.exception.UnknownCurrencyCodeException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.DatabindException;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
 
 class BitstampCurrencyPairDeserializerTest {
 
 	private final ObjectMapper objectMapper = new ObjectMapper();
-
-
-	@AfterEach
-	void cleanup() {
-		BitstampCurrencyPairDeserializer.clearUnknownCurrencyCodes();
-	}
+	private final ObjectReader listReader = objectMapper.readerFor(new TypeReference<List<BitstampCurrencyPair>>() {});
 
 
 	@Test
@@ -46,52 +51,106 @@ class BitstampCurrencyPairDeserializerTest {
 		
 		assertThat(pair.getBaseCurrency()).isEqualTo(BTC);
 		assertThat(pair.getQuoteCurrency()).isEqualTo(USD);
-		assertThat(BitstampCurrencyPairDeserializer.getUnknownCurrencyCodes()).isEmpty();
 	}
 
 
 	@Test
-	void testDeserializeWithUnknownBaseCurrency() throws Exception {
-		BitstampCurrencyPair pair = objectMapper.readValue("\"UNKNOWN1/USD\"", BitstampCurrencyPair.class);
-		
-		// Deserializer should continue with dummy values
-		assertThat(pair).isNotNull();
-		
-		// But unknown code should be collected
-		Set<String> unknownCodes = BitstampCurrencyPairDeserializer.getUnknownCurrencyCodes();
-		assertThat(unknownCodes).containsExactly("UNKNOWN1");
+	void testDeserializeUnknownCurrencyFailsWithoutCollecting() throws Exception {
+		assertThatThrownBy(() -> objectMapper.readValue("\"UNKNOWN1/USD\"", BitstampCurrencyPair.class))
+				.isInstanceOf(DatabindException.class)
+				.hasMessageContaining("Unknown currency code in pair: UNKNOWN1/USD");
 	}
 
 
 	@Test
-	void testDeserializeWithUnknownQuoteCurrency() throws Exception {
-		BitstampCurrencyPair pair = objectMapper.readValue("\"BTC/UNKNOWN2\"", BitstampCurrencyPair.class);
-		
-		assertThat(pair).isNotNull();
-		
-		Set<String> unknownCodes = BitstampCurrencyPairDeserializer.getUnknownCurrencyCodes();
-		assertThat(unknownCodes).containsExactly("UNKNOWN2");
+	void testReadValueWithKnownCurrencies() throws Exception {
+		List<BitstampCurrencyPair> pairs = BitstampCurrencyPairDeserializer.readValue(listReader, json("BTC/USD", "eth/eur"));
+
+		assertThat(pairs).extracting(BitstampCurrencyPair::toStringWithSlash).containsExactly("BTC/USD", "ETH/EUR");
 	}
 
 
 	@Test
-	void testDeserializeWithBothUnknown() throws Exception {
-		BitstampCurrencyPair pair = objectMapper.readValue("\"UNKNOWN1/UNKNOWN2\"", BitstampCurrencyPair.class);
-		
-		assertThat(pair).isNotNull();
-		
-		Set<String> unknownCodes = BitstampCurrencyPairDeserializer.getUnknownCurrencyCodes();
-		assertThat(unknownCodes).containsExactlyInAnyOrder("UNKNOWN1", "UNKNOWN2");
+	void testReadValueWithUnknownBaseCurrency() throws Exception {
+		assertThatThrownBy(() -> BitstampCurrencyPairDeserializer.readValue(listReader, json("UNKNOWN1/USD", "BTC/USD")))
+				.isInstanceOfSatisfying(UnknownCurrencyCodeException.class,
+						e -> assertThat(e.getUnknownCurrencyCodes()).containsExactly("UNKNOWN1"));
 	}
 
 
 	@Test
-	void testClearUnknownCurrencyCodes() throws Exception {
-		objectMapper.readValue("\"UNKNOWN1/USD\"", BitstampCurrencyPair.class);
-		assertThat(BitstampCurrencyPairDeserializer.getUnknownCurrencyCodes()).isNotEmpty();
-		
-		BitstampCurrencyPairDeserializer.clearUnknownCurrencyCodes();
+	void testReadValueWithUnknownQuoteCurrency() throws Exception {
+		assertThatThrownBy(() -> BitstampCurrencyPairDeserializer.readValue(listReader, json("BTC/UNKNOWN2")))
+				.isInstanceOfSatisfying(UnknownCurrencyCodeException.class,
+						e -> assertThat(e.getUnknownCurrencyCodes()).containsExactly("UNKNOWN2"));
+	}
+
+
+	@Test
+	void testReadValueCollectsAllUnknownCodesSorted() throws Exception {
+		assertThatThrownBy(() -> BitstampCurrencyPairDeserializer.readValue(listReader, json("UNKNOWN2/UNKNOWN1", "BTC/USD", "unknown3/UNKNOWN1")))
+				.isInstanceOfSatisfying(UnknownCurrencyCodeException.class,
+						e -> assertThat(e.getUnknownCurrencyCodes()).containsExactly("UNKNOWN1", "UNKNOWN2", "UNKNOWN3"));
+	}
+
+
+	@Test
+	void testReadValueDoesNotLeakBetweenCalls() throws Exception {
+		assertThatThrownBy(() -> BitstampCurrencyPairDeserializer.readValue(listReader, json("UNKNOWN1/USD")))
+				.isInstanceOf(UnknownCurrencyCodeException.class);
+
+		List<BitstampCurrencyPair> pairs = BitstampCurrencyPairDeserializer.readValue(listReader, json("BTC/USD"));
+
+		assertThat(pairs).containsExactly(BitstampCurrencyPair.of(BTC, USD));
+	}
+
+
+	@Test
+	@SuppressWarnings("deprecation")
+	void testDeprecatedUnknownCurrencyCodesAreNotCollected() throws Exception {
+		assertThatThrownBy(() -> BitstampCurrencyPairDeserializer.readValue(listReader, json("UNKNOWN1/USD")))
+				.isInstanceOf(UnknownCurrencyCodeException.class);
+
 		assertThat(BitstampCurrencyPairDeserializer.getUnknownCurrencyCodes()).isEmpty();
+		BitstampCurrencyPairDeserializer.clearUnknownCurrencyCodes();
+	}
+
+
+	@Test
+	void testReadValueConcurrentlyOnVirtualThreads() throws Exception {
+		List<Callable<List<String>>> calls = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			String pair = i % 2 == 0 ? "UNKNOWN" + i + "/USD" : "BTC/USD";
+			calls.add(() -> {
+				try {
+					BitstampCurrencyPairDeserializer.readValue(listReader, json(pair, "ETH/EUR"));
+					return List.of();
+				} catch (UnknownCurrencyCodeException e) {
+					return e.getUnknownCurrencyCodes();
+				}
+			});
+		}
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<List<String>>> results = executor.invokeAll(calls);
+			for (int i = 0; i < results.size(); i++) {
+				if (i % 2 == 0) {
+					assertThat(results.get(i).get()).containsExactly("UNKNOWN" + i);
+				} else {
+					assertThat(results.get(i).get()).isEmpty();
+				}
+			}
+		}
+	}
+
+
+	private static byte[] json(String... pairs) {
+		StringBuilder json = new StringBuilder("[");
+		for (String pair : pairs) {
+			if (json.length() > 1) json.append(',');
+			json.append('"').append(pair).append('"');
+		}
+		return json.append(']').toString().getBytes(UTF_8);
 	}
 
 
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.jackson;
+
+import static java.time.ZoneOffset.UTC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleModule;
+
+class BitstampDateTimeDeserializerTest {
+
+	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss[.SSSSSS]");
+
+	private final JsonMapper jsonMapper = JsonMapper.builder()
+			.addModule(new SimpleModule().addDeserializer(Instant.class, new BitstampDateTimeDeserializer()))
+			.build();
+
+
+	@Test
+	void testParse() {
+		assertThat(BitstampDateTimeDeserializer.parse("2025-01-15 13:29:19.362050")).isEqualTo(Instant.parse("2025-01-15T13:29:19.362050Z"));
+		assertThat(BitstampDateTimeDeserializer.parse("2025-01-15 13:29:19")).isEqualTo(Instant.parse("2025-01-15T13:29:19Z"));
+		assertThat(BitstampDateTimeDeserializer.parse("2024-02-29 23:59:59.999999")).isEqualTo(Instant.parse("2024-02-29T23:59:59.999999Z"));
+		assertThat(BitstampDateTimeDeserializer.parse("1969-12-31 23:59:59.000001")).isEqualTo(Instant.parse("1969-12-31T23:59:59.000001Z"));
+	}
+
+
+	@Test
+	void testParseFixedLayoutMatchesFormatter() {
+		Random random = new Random(1);
+		for (int i = 0; i < 100_000; i++) {
+			String value = String.format("%04d-%02d-%02d %02d:%02d:%02d.%06d",
+					1900 + random.nextInt(300), 1 + random.nextInt(12), 1 + random.nextInt(31),
+					random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1_000_000));
+			Instant expected = LocalDateTime.parse(value, FORMATTER).toInstant(UTC);
+			Instant fast = BitstampDateTimeDeserializer.parseFixedLayout(value);
+			if (fast != null) {
+				assertThat(fast).as(value).isEqualTo(expected);
+			}
+			assertThat(BitstampDateTimeDeserializer.parse(value)).as(value).isEqualTo(expected);
+		}
+	}
+
+
+	@Test
+	void testParseFallsBackToFormatter() {
+		assertThat(BitstampDateTimeDeserializer.parseFixedLayout(" 2025-01-15 13:29:19 ")).isNull();
+		assertThat(BitstampDateTimeDeserializer.parse(" 2025-01-15 13:29:19 ")).isEqualTo(Instant.parse("2025-01-15T13:29:19Z"));
+
+		// The formatter resolves a day past the end of the month to the last day of the month
+		assertThat(BitstampDateTimeDeserializer.parseFixedLayout("2025-02-30 00:00:00")).isNull();
+		assertThat(BitstampDateTimeDeserializer.parse("2025-02-30 00:00:00")).isEqualTo(Instant.parse("2025-02-28T00:00:00Z"));
+	}
+
+
+	@Test
+	void testParseInvalid() {
+		for (String value : List.of("2025-01-15", "2025-01-15T13:29:19", "2025-13-15 13:29:19", "2025-01-15 25:00:00",
+				"2025-01-15 13:29:19.12", "2025-01-15 13:29:1x", "2025/01/15 13:29:19.362050")) {
+			assertThat(BitstampDateTimeDeserializer.parseFixedLayout(value)).as(value).isNull();
+			assertThatThrownBy(() -> BitstampDateTimeDeserializer.parse(value)).as(value).isInstanceOf(DateTimeParseException.class);
+		}
+	}
+
+
+	@Test
+	void testDeserialize() {
+		List<Instant> instants = jsonMapper.readValue("[\"2025-01-15 13:29:19.362050\", \"2025-01-15 13:29:19\", \"\"]",
+				new TypeReference<List<Instant>>() {});
+
+		assertThat(instants).containsExactly(Instant.parse("2025-01-15T13:29:19.362050Z"), Instant.parse("2025-01-15T13:29:19Z"), null);
+	}
+
+
+	@Test
+	void testDeserializeInvalid() {
+		assertThatThrownBy(() -> jsonMapper.readValue("\"2025-01-15T13:29:19\"", Instant.class))
+				.isInstanceOf(DatabindException.class)
+				.hasMessageContaining("Invalid datetime format: 2025-01-15T13:29:19");
+	}
+
+
+}
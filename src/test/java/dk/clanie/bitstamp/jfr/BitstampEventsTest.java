@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2025, Claus Nielsen, clausn999@gmail.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package dk.clanie.bitstamp.jfr;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import dk.clanie.bitstamp.BitstampCredentials;
+import dk.clanie.bitstamp.dto.BitstampPackedOrderBook;
+import dk.clanie.bitstamp.dto.CandleSeries;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import tools.jackson.databind.ObjectMapper;
+
+class BitstampEventsTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+
+	@Test
+	void testSigningEvent() throws IOException {
+		List<RecordedEvent> events = record("dk.clanie.bitstamp.Signing", () ->
+				new BitstampCredentials("key", "secret").getSigner()
+						.sign("POST", "www.bitstamp.net", "/api/v2/account_balances/", "", "", ""));
+
+		assertThat(events).hasSize(1);
+		assertThat(events.get(0).getString("method")).isEqualTo("POST");
+		assertThat(events.get(0).getString("path")).isEqualTo("/api/v2/account_balances/");
+	}
+
+
+	@Test
+	void testDeserializationEvents() throws IOException {
+		byte[] orderBook = """
+				{"timestamp": "1", "microtimestamp": "1000000",
+				 "bids": [["47795.00", "1.5"], ["47790.00", "2.0"]],
+				 "asks": [["47805.00", "0.5"]]}
+				""".getBytes(UTF_8);
+		byte[] ohlc = """
+				{"data": {"pair": "BTC/USD", "ohlc": [
+				  {"timestamp": "1637596800", "open": "1", "high": "2", "low": "0.5", "close": "1.5", "volume": "10"}]}}
+				""".getBytes(UTF_8);
+
+		List<RecordedEvent> events = record("dk.clanie.bitstamp.Deserialization", () -> {
+			objectMapper.readValue(orderBook, BitstampPackedOrderBook.class);
+			objectMapper.readValue(ohlc, CandleSeries.class);
+		});
+
+		assertThat(events).hasSize(2);
+		assertThat(events.get(0).getString("type")).isEqualTo("BitstampPackedOrderBook");
+		assertThat(events.get(0).getInt("elementCount")).isEqualTo(3);
+		assertThat(events.get(0).getLong("bytes")).isPositive();
+		assertThat(events.get(1).getString("type")).isEqualTo("CandleSeries");
+		assertThat(events.get(1).getString("pair")).isEqualTo("BTC/USD");
+		assertThat(events.get(1).getInt("elementCount")).isEqualTo(1);
+	}
+
+
+	@Test
+	void testSettingsEnableAllEvents() throws IOException, ParseException {
+		try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("bitstamp.jfc"), UTF_8)) {
+			Configuration configuration = Configuration.create(reader);
+
+			assertThat(configuration.getSettings())
+					.containsEntry("dk.clanie.bitstamp.Request#enabled", "true")
+					.containsEntry("dk.clanie.bitstamp.Signing#enabled", "true")
+					.containsEntry("dk.clanie.bitstamp.Deserialization#enabled", "true");
+		}
+	}
+
+
+	/**
+	 * Runs an action in a recording of one event type, and returns the events recorded.
+	 */
+	static List<RecordedEvent> record(String eventName, Runnable action) throws IOException {
+		try (Recording recording = new Recording()) {
+			recording.enable(eventName).withThreshold(Duration.ZERO);
+			recording.start();
+			action.run();
+			recording.stop();
+			Path file = Files.createTempFile("bitstamp", ".jfr");
+			try {
+				recording.dump(file);
+				return RecordingFile.readAllEvents(file).stream()
+						.sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+						.toList();
+			} finally {
+				Files.delete(file);
+			}
+		}
+	}
+
+
+}